@@ -0,0 +1,74 @@
+package com.b3.benchmark;
+
+import com.b3.TestConstants;
+import com.b3.search.Node;
+import com.b3.search.Point;
+import com.b3.search.WorldGraph;
+import com.b3.search.WorldGraphBasic;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.b3.util.Config;
+import com.badlogic.gdx.maps.tiled.TmxMapLoaderBasic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The maps that are benchmarked, loaded headlessly with {@link TmxMapLoaderBasic} and {@link WorldGraphBasic}.
+ * Paths are relative to the core project, which is the working directory of the {@code jmh} task.
+ *
+ * @author dxw405
+ */
+public class BenchmarkMaps {
+
+	public static final String WORLD_COMPARE = "assets/world/world-compare.tmx";
+	public static final String WORLD_SMALLER = "assets/world/world_smaller_test.tmx";
+	public static final String WORLD_SMALLER_TIYM = "assets/world/world_smaller_test_tiym.tmx";
+	public static final String A_STAR_1 = "tests/resources/test-worlds/aStar1.tmx";
+
+	private static final long SEED = 4105;
+
+	static {
+		// world graphs read their colours from the config
+		Config.loadConfig(TestConstants.REFERENCE_CONFIG);
+	}
+
+	private BenchmarkMaps() {
+	}
+
+	/**
+	 * @param path The map to load
+	 * @return The loaded map, without any textures
+	 */
+	public static TiledMap loadMap(String path) {
+		return new TmxMapLoaderBasic().load(path);
+	}
+
+	/**
+	 * @param path The map to load
+	 * @return A world graph with the map's tiles processed into it
+	 */
+	public static WorldGraph loadGraph(String path) throws Exception {
+		return WorldGraphBasic.getRealWorldFromFile(path);
+	}
+
+	/**
+	 * Picks the same random pairs of nodes on every run, so results can be compared between runs
+	 *
+	 * @param graph The graph to pick nodes from
+	 * @param count The number of pairs
+	 * @return {start, goal} pairs of points
+	 */
+	public static List<Point[]> pickEndpoints(WorldGraph graph, int count) {
+		Random random = new Random(SEED);
+		List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+		List<Point[]> endpoints = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Point start = nodes.get(random.nextInt(nodes.size())).getPoint();
+			Point goal = nodes.get(random.nextInt(nodes.size())).getPoint();
+			endpoints.add(new Point[]{start, goal});
+		}
+		return endpoints;
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.b3.benchmark;
+
+import com.b3.search.Graph;
+import com.b3.search.Node;
+import com.b3.search.util.IntPriorityQueue;
+import com.b3.search.util.takeable.IndexedPriorityQueueT;
+import com.b3.search.util.takeable.LinkedListT;
+import com.b3.search.util.takeable.StackT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding every node of a graph to each kind of frontier, with a decrease-key for a quarter of them, then taking them all
+ *
+ * @author dxw405
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrontierBenchmark {
+
+	@Param({"1024", "16384"})
+	public int count;
+
+	private Node[] nodes;
+	private float[] priorities;
+	private IndexedPriorityQueueT<Node> indexedQueue;
+	private IndexedPriorityQueueT<Node> hashedQueue;
+	private IntPriorityQueue intQueue;
+	private LinkedListT<Node> queue;
+	private StackT<Node> stack;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		int side = (int) Math.ceil(Math.sqrt(count));
+		Graph graph = new Graph(side, side);
+
+		List<Node> all = new ArrayList<>(graph.getNodes().values()).subList(0, count);
+		Collections.shuffle(all, new Random(4105));
+		nodes = all.toArray(new Node[count]);
+
+		Random random = new Random(4105);
+		priorities = new float[graph.getIndexCapacity()];
+		for (Node node : nodes)
+			priorities[node.getIndex()] = random.nextFloat() * count;
+
+		indexedQueue = new IndexedPriorityQueueT<>(n -> priorities[n.getIndex()], Node::getIndex);
+		hashedQueue = new IndexedPriorityQueueT<>(n -> priorities[n.getIndex()]);
+		intQueue = new IntPriorityQueue(graph.getIndexCapacity());
+		queue = new LinkedListT<>();
+		stack = new StackT<>();
+	}
+
+	@Benchmark
+	public int indexedPriorityQueue() {
+		return drain(indexedQueue);
+	}
+
+	@Benchmark
+	public int hashedPriorityQueue() {
+		return drain(hashedQueue);
+	}
+
+	@Benchmark
+	public int intPriorityQueue() {
+		for (Node node : nodes)
+			intQueue.add(node.getIndex(), priorities[node.getIndex()]);
+		for (int i = 0; i < nodes.length; i += 4) {
+			int node = nodes[i].getIndex();
+			intQueue.add(node, priorities[node] / 2);
+		}
+
+		int sum = 0;
+		while (!intQueue.isEmpty())
+			sum += intQueue.take();
+		return sum;
+	}
+
+	@Benchmark
+	public int linkedListQueue() {
+		Collections.addAll(queue, nodes);
+		int sum = 0;
+		while (!queue.isEmpty())
+			sum += queue.take().getIndex();
+		return sum;
+	}
+
+	@Benchmark
+	public int stack() {
+		Collections.addAll(stack, nodes);
+		int sum = 0;
+		while (!stack.isEmpty())
+			sum += stack.take().getIndex();
+		return sum;
+	}
+
+	private int drain(IndexedPriorityQueueT<Node> frontier) {
+		Collections.addAll(frontier, nodes);
+
+		// decrease-key, restoring the priorities afterwards so every invocation does the same work
+		for (int i = 0; i < nodes.length; i += 4) {
+			priorities[nodes[i].getIndex()] /= 2;
+			frontier.update(nodes[i]);
+			priorities[nodes[i].getIndex()] *= 2;
+		}
+
+		int sum = 0;
+		while (!frontier.isEmpty())
+			sum += frontier.take().getIndex();
+		return sum;
+	}
+
+}
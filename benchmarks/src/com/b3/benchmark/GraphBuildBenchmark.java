@@ -0,0 +1,42 @@
+package com.b3.benchmark;
+
+import com.b3.search.CompactGraph;
+import com.b3.search.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building empty grid {@link Graph Graphs}, and {@link CompactGraph} snapshots of them
+ *
+ * @author dxw405
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GraphBuildBenchmark {
+
+	@Param({"64", "256", "1024", "2048"})
+	public int size;
+
+	private Graph graph;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		graph = new Graph(size, size);
+	}
+
+	@Benchmark
+	public Graph build() {
+		return new Graph(size, size);
+	}
+
+	@Benchmark
+	public CompactGraph compact() {
+		return graph.compact();
+	}
+
+}
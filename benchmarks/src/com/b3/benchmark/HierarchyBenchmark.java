@@ -0,0 +1,63 @@
+package com.b3.benchmark;
+
+import com.b3.search.HierarchicalGraph;
+import com.b3.search.PathFinder;
+import com.b3.search.Point;
+import com.b3.search.WorldGraph;
+import com.b3.search.util.SearchAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries through the {@link HierarchicalGraph} of each map, against A* over the same start and goal pairs,
+ * to compare how their latency grows with the size of the map.
+ *
+ * @author dxw405
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HierarchyBenchmark {
+
+	private static final int QUERIES = 32;
+
+	@Param({BenchmarkMaps.WORLD_COMPARE, BenchmarkMaps.WORLD_SMALLER, BenchmarkMaps.WORLD_SMALLER_TIYM, BenchmarkMaps.A_STAR_1})
+	public String map;
+
+	private WorldGraph graph;
+	private HierarchicalGraph hierarchy;
+	private List<Point[]> queries;
+	private PathFinder finder;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		graph = BenchmarkMaps.loadGraph(map);
+		hierarchy = graph.getHierarchy();
+		finder = new PathFinder(graph.getIndexCapacity());
+		queries = BenchmarkMaps.pickEndpoints(graph, QUERIES);
+
+		// build the abstract graph outside of the measurement
+		hierarchy.getAbstractNodeCount();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void hierarchical(Blackhole blackhole) {
+		for (Point[] query : queries)
+			blackhole.consume(hierarchy.findPath(query[0], query[1]));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void aStar(Blackhole blackhole) {
+		for (Point[] query : queries)
+			blackhole.consume(finder.findPath(graph, graph.indexOf(query[0]), graph.indexOf(query[1]), SearchAlgorithm.A_STAR));
+	}
+
+}
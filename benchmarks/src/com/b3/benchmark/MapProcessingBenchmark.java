@@ -0,0 +1,64 @@
+package com.b3.benchmark;
+
+import com.b3.search.WorldGraph;
+import com.b3.search.WorldGraphBasic;
+import com.b3.world.CompiledWorld;
+import com.b3.world.TileCostRaster;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing the tiles of each map into a new graph, as {@link com.b3.world.World#processMapTileTypes} does.
+ * The map files are only parsed once, so this measures graph construction and tile processing.
+ *
+ * @author dxw405
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapProcessingBenchmark {
+
+	@Param({BenchmarkMaps.WORLD_COMPARE, BenchmarkMaps.WORLD_SMALLER, BenchmarkMaps.WORLD_SMALLER_TIYM, BenchmarkMaps.A_STAR_1})
+	public String map;
+
+	private TiledMap tiledMap;
+	private File compiledFile;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		tiledMap = BenchmarkMaps.loadMap(map);
+
+		compiledFile = File.createTempFile("world", CompiledWorld.EXTENSION);
+		compiledFile.deleteOnExit();
+		CompiledWorld.compile(tiledMap, CompiledWorld.checksum(Files.readAllBytes(new File(map).toPath())))
+				.write(compiledFile);
+	}
+
+	@Benchmark
+	public WorldGraph processMapTileTypes() throws Exception {
+		return WorldGraphBasic.getRealWorld(tiledMap);
+	}
+
+	@Benchmark
+	public TileCostRaster compileTileCosts() {
+		return TileCostRaster.compile(tiledMap);
+	}
+
+	@Benchmark
+	public TiledMap loadMap() {
+		return BenchmarkMaps.loadMap(map);
+	}
+
+	@Benchmark
+	public CompiledWorld readCompiledWorld() throws Exception {
+		return CompiledWorld.read(compiledFile);
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.b3.benchmark;
+
+import com.b3.search.CompactGraph;
+import com.b3.search.PathFinder;
+import com.b3.search.Point;
+import com.b3.search.WorldGraph;
+import com.b3.search.util.SearchAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Complete searches with every {@link SearchAlgorithm} over a fixed set of start and goal pairs on each map.
+ * Searches are made with a {@link PathFinder}, which expands nodes in the same order as a
+ * {@link com.b3.search.SearchTicker} but without needing the config, sounds or GUI.
+ *
+ * @author dxw405
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+	private static final int QUERIES = 32;
+
+	@Param({BenchmarkMaps.WORLD_COMPARE, BenchmarkMaps.WORLD_SMALLER, BenchmarkMaps.WORLD_SMALLER_TIYM, BenchmarkMaps.A_STAR_1})
+	public String map;
+
+	@Param({"DEPTH_FIRST", "BREADTH_FIRST", "DIJKSTRA", "A_STAR", "JUMP_POINT", "BIDIRECTIONAL_DIJKSTRA", "BIDIRECTIONAL_A_STAR",
+		"WEIGHTED_A_STAR", "GREEDY_BEST_FIRST", "ANYTIME_A_STAR"})
+	public SearchAlgorithm algorithm;
+
+	private WorldGraph graph;
+	private CompactGraph compact;
+	private int[][] queries;
+	private PathFinder finder;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		graph = BenchmarkMaps.loadGraph(map);
+		compact = graph.compact();
+		finder = new PathFinder(graph.getIndexCapacity());
+
+		List<Point[]> endpoints = BenchmarkMaps.pickEndpoints(graph, QUERIES);
+		queries = new int[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			Point[] pair = endpoints.get(i);
+			queries[i] = new int[]{graph.indexOf(pair[0]), graph.indexOf(pair[1])};
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void searchGraph(Blackhole blackhole) {
+		for (int[] query : queries)
+			blackhole.consume(finder.findPath(graph, query[0], query[1], algorithm));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(QUERIES)
+	public void searchCompactGraph(Blackhole blackhole) {
+		for (int[] query : queries)
+			blackhole.consume(finder.findPath(compact, query[0], query[1], algorithm));
+	}
+
+}
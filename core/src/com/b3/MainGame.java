@@ -4,6 +4,8 @@ import com.b3.input.InputHandler;
 import com.b3.input.SoundController;
 import com.b3.mode.*;
 import com.b3.util.Config;
+import com.b3.world.World;
+import com.b3.world.WorldLoader;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
@@ -75,34 +77,50 @@ public class MainGame extends Game {
 	}
 
 	/**
-	 * Switches to the given mode
+	 * Switches to the given mode, showing a {@link LoadingScreen} while its world is loaded in the background
 	 *
 	 * @param modeType The mode type to switch to
 	 */
 	public void goToMode(ModeType modeType) {
+		if (modeType == ModeType.MENU) {
+			goToMainMenu();
+			return;
+		}
+		if (modeType.getWorldPath() == null)
+			throw new IllegalArgumentException("Cannot switch to unknown mode '" + modeType + "'");
+
 		Config.clearConfig();
-		ModeType modeBackup = currentMode;
 		currentMode = modeType;
 
+		// the loading screen reads the config before the loader starts reading it on its own thread
+		LoadingScreen loadingScreen = new LoadingScreen(this, modeType, new WorldLoader(modeType.getWorldPath()));
+		super.setScreen(loadingScreen);
+		loadingScreen.startLoading();
+	}
+
+	/**
+	 * Switches to the given mode, once its world has been loaded
+	 *
+	 * @param modeType The mode type to switch to
+	 * @param world    The mode's loaded world
+	 * @see LoadingScreen
+	 */
+	public void goToMode(ModeType modeType, World world) {
 		Mode m;
 		switch (modeType) {
-			case MENU:
-				goToMainMenu();
-				return;
 			case LEARNING:
-				m = new LearningMode(this);
+				m = new LearningMode(this, world);
 				break;
 			case PRACTICE:
-				m = new PracticeMode(this);
+				m = new PracticeMode(this, world);
 				break;
 			case COMPARE:
-				m = new CompareMode(this);
+				m = new CompareMode(this, world);
 				break;
 			case TUTORIAL:
-				m = new TutorialMode(this);
+				m = new TutorialMode(this, world);
 				break;
 			default:
-				currentMode = modeBackup;
 				throw new IllegalArgumentException("Cannot switch to unknown mode '" + modeType + "'");
 		}
 
@@ -3,6 +3,7 @@ package com.b3.entity;
 import com.b3.entity.ai.Behaviour;
 import com.b3.entity.ai.BehaviourNop;
 import com.b3.entity.ai.BehaviourType;
+import com.b3.entity.ai.BehaviourWithPathFind;
 import com.b3.entity.component.AIComponent;
 import com.b3.entity.component.PhysicsComponent;
 import com.b3.entity.component.RenderComponent;
@@ -80,7 +81,14 @@ public class Agent extends Entity {
 	 * @param behaviour the behaviour that this agent should follow
 	 */
 	public void setBehaviour(Behaviour behaviour) {
+		if (ai.behaviour != behaviour)
+			ai.behaviour.dispose();
 		ai.behaviour = behaviour;
+
+		// a behaviour that does not search, such as following a flow field, has no search ticker to show
+		if (!(behaviour instanceof BehaviourWithPathFind))
+			world.getWorldGraph().clearSearch(this);
+
 		Float radius = Config.getFloat(ConfigKey.ENTITY_DIAMETER) / 2f;
 		if (behaviour.getType() == BehaviourType.FOLLOW_PATH) {
 			render.dotColour = SEARCHING_COLOUR;
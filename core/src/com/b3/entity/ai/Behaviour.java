@@ -36,4 +36,10 @@ public abstract class Behaviour {
 		steering.tick(steeringOutput);
 	}
 
+	/**
+	 * Called when the {@link Agent} stops following this behaviour, to release anything it holds
+	 */
+	public void dispose() {
+	}
+
 }
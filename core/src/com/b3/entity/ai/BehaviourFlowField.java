@@ -0,0 +1,45 @@
+package com.b3.entity.ai;
+
+import com.b3.entity.Agent;
+import com.b3.search.Point;
+import com.b3.search.WorldGraph;
+
+/**
+ * A behaviour that makes an agent follow the shared flow field to a goal tile, rather than searching for its own path.
+ * Any number of agents heading to the same goal cost a single search between them.
+ *
+ * @author dxw405
+ */
+public class BehaviourFlowField extends Behaviour {
+
+	/**
+	 * @param agent      The agent who owns this behaviour
+	 * @param worldGraph The graph to move over, whose flow fields are shared
+	 * @param goal       The goal tile
+	 */
+	public BehaviourFlowField(Agent agent, WorldGraph worldGraph, Point goal) {
+		super(agent, new SteeringFlowField(agent.getPhysicsComponent(), worldGraph.getFlowFields(), goal));
+	}
+
+	/**
+	 * @return True if the agent has reached the goal, otherwise false
+	 */
+	public boolean hasArrived() {
+		return ((SteeringFlowField) steering).hasArrived();
+	}
+
+	/**
+	 * @return The goal tile
+	 */
+	public Point getGoal() {
+		return ((SteeringFlowField) steering).getGoal();
+	}
+
+	/**
+	 * @return the {@link BehaviourType} of this behaviour
+	 */
+	@Override
+	public BehaviourType getType() {
+		return BehaviourType.FOLLOW_PATH;
+	}
+}
@@ -31,7 +31,17 @@ public class BehaviourMultiContinuousPathFind extends Behaviour implements Behav
 		super(agent, null);
 		graph = worldGraph;
 		algorithm = searchAlgorithm;
-		pathFind = new BehaviourPathFind(agent, agent.getPhysicsComponent().getPosition(), Utils.pointToVector2(graph.getRandomNode().getPoint()), searchAlgorithm, world);
+		Vector2 position = agent.getPhysicsComponent().getPosition();
+		pathFind = new BehaviourPathFind(agent, position, pickGoal(position), searchAlgorithm, world);
+	}
+
+	/**
+	 * @param position The tile to go from
+	 * @return A random tile that can be reached from the given one, or the given tile if none can
+	 */
+	private Vector2 pickGoal(Vector2 position) {
+		Node goal = graph.getRandomReachableNode(graph.getNode((int) position.x, (int) position.y));
+		return goal != null ? Utils.pointToVector2(goal.getPoint()) : new Vector2((int) position.x, (int) position.y);
 	}
 
 	/**
@@ -41,16 +51,17 @@ public class BehaviourMultiContinuousPathFind extends Behaviour implements Behav
 	@Override
 	public void tick(Vector2 steeringOutput) {
 		pathFind.tick(steeringOutput);
-		if (pathFind.hasArrivedForTheFirstTime()) {
+		if (pathFind.hasArrivedForTheFirstTime() || pathFind.isRejected()) {
 			if (graph.getLearningModeNext() != null)
 				algorithm = graph.getLearningModeNext();
-			Node currentPos = pathFind.getNodeFromTile(graph, agent.getPhysicsComponent().getPosition());
+			Vector2 position = agent.getPhysicsComponent().getPosition();
 			Vector2 nextDestination = graph.getNextDestination();
 
-			Vector2 nextGoal = nextDestination == null ?
-					Utils.pointToVector2(graph.getRandomNode(currentPos).getPoint()) : nextDestination;
+			// a rejected destination will never be arrived at, so a reachable one is picked instead
+			Vector2 nextGoal = nextDestination == null || pathFind.isRejected() ?
+					pickGoal(position) : nextDestination;
 
-			pathFind.reset(agent.getPhysicsComponent().getPosition(), nextGoal, algorithm, graph);
+			pathFind.reset(position, nextGoal, algorithm, graph);
 			graph.clearNextDestination();
 		}
 	}
@@ -78,6 +89,11 @@ public class BehaviourMultiContinuousPathFind extends Behaviour implements Behav
 		return pathFind.hasArrivedForTheFirstTime();
 	}
 
+	@Override
+	public void dispose() {
+		pathFind.dispose();
+	}
+
 	/**
 	 * @return the {@link SearchTicker} that this behaviour is using
 	 */
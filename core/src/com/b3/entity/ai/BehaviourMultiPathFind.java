@@ -107,6 +107,11 @@ public class BehaviourMultiPathFind extends Behaviour implements BehaviourWithPa
 		}
 	}
 
+	@Override
+	public void dispose() {
+		pathFind.dispose();
+	}
+
 	/**
 	 * @return the {@link SearchTicker} that this behaviour is using
 	 */
@@ -25,7 +25,10 @@ public class BehaviourPathFind extends Behaviour implements BehaviourWithPathFin
 	private Node endNode;
 	private SearchAlgorithm algorithm;
 	private SearchTicker ticker;
+	private DStarLite replanner;
+	private long pathVersion;
 	private boolean wasArrivedLastFrame, hasArrivedThisFrame;
+	private boolean rejected;
 
 	/**
 	 * Construct a new behaviour
@@ -105,6 +108,7 @@ public class BehaviourPathFind extends Behaviour implements BehaviourWithPathFin
 				updatePathFromTicker();
 			}
 			if (steering != null) {
+				replanIfEdited();
 				steering.tick(steeringOutput);
 			} else {
 				List<Vector2> path = getPath();
@@ -121,8 +125,18 @@ public class BehaviourPathFind extends Behaviour implements BehaviourWithPathFin
 						ticker.reset(algorithm, startNode, endNode);
 				}
 			}
-		} else
+		} else if (!isReachable()) {
+			// no search could find a path, so do not expand the whole component to find that out.
+			// the search starts once the goal can be reached again, unless a new goal is picked first
+			if (!rejected) {
+				world.getWorldGUI().getPopupManager().showBehaviourError();
+				shouldPlayFail = -1;
+				rejected = true;
+			}
+		} else {
+			rejected = false;
 			ticker.tick();
+		}
 
 		if (shouldPlayFail == 1) {
 			SoundController.playSounds(1);
@@ -135,6 +149,20 @@ public class BehaviourPathFind extends Behaviour implements BehaviourWithPathFin
 		hasArrivedThisFrame = hasArrived();
 	}
 
+	/**
+	 * @return True if the goal cannot be reached from the start, so no search has been started
+	 */
+	public boolean isRejected() {
+		return rejected;
+	}
+
+	/**
+	 * @return True if there is a path from the start to the goal, which is known without searching
+	 */
+	private boolean isReachable() {
+		return world.getWorldGraph().getComponents().isConnected(startNode, endNode);
+	}
+
 	/**
 	 * @return The {@link List} of tiles that form <code>ticker</code>'s path,
 	 * if it has been found yet
@@ -155,10 +183,70 @@ public class BehaviourPathFind extends Behaviour implements BehaviourWithPathFin
 
 		if (path.size() > 0)
 			if (path.get(path.size() - 1).x == endNode.getPoint().x && path.get(path.size() - 1).y == endNode.getPoint().y) {
-				steering = new SteeringPathFollow(agent.getPhysicsComponent(), path);
+				List<Point> tiles = ticker.getPath()
+						.stream()
+						.map(Node::getPoint)
+						.collect(Collectors.toList());
+				steering = new SteeringPathFollow(agent.getPhysicsComponent(), toWaypoints(tiles));
+				stopReplanning();
+				pathVersion = world.getWorldGraph().getVersion();
 			}
 	}
 
+	/**
+	 * @param tiles the tiles of a path, from start to goal
+	 * @return the turning points of the path, so that it is followed in straight lines, see {@link PathSmoother}
+	 */
+	private List<Vector2> toWaypoints(List<Point> tiles) {
+		return PathSmoother.smooth(world.getWorldGraph(), tiles)
+				.stream()
+				.map(p -> new Vector2(p.x, p.y))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Stops listening for edits to the graph
+	 */
+	private void stopReplanning() {
+		if (replanner != null) {
+			replanner.dispose();
+			replanner = null;
+		}
+	}
+
+	/**
+	 * Replaces the path being followed with a repaired one from the agent's current tile,
+	 * if the graph has been edited since it was found.
+	 * The incremental search that repairs it is only started on the first edit, such as adding or removing a
+	 * building, and is then kept so that later edits are repaired cheaply
+	 */
+	private void replanIfEdited() {
+		if (((SteeringPathFollow) steering).hasArrived()) {
+			stopReplanning();
+			return;
+		}
+
+		WorldGraph worldGraph = world.getWorldGraph();
+		Vector2 position = agent.getPhysicsComponent().getPosition();
+		Point tile = new Point((int) position.x, (int) position.y);
+
+		if (replanner == null) {
+			if (worldGraph.getVersion() == pathVersion)
+				return;
+			replanner = new DStarLite(worldGraph, tile, endNode.getPoint(), algorithm);
+		} else {
+			if (!replanner.isStale())
+				return;
+			replanner.moveStart(tile);
+		}
+
+		PathResult result = replanner.plan();
+
+		// otherwise keep to the old path, as there is no better one
+		if (result.isFound())
+			steering = new SteeringPathFollow(agent.getPhysicsComponent(), toWaypoints(result.getPath()));
+	}
+
 	/**
 	 * @return True if the {@link Agent} has arrived since the last tick
 	 */
@@ -193,5 +281,12 @@ public class BehaviourPathFind extends Behaviour implements BehaviourWithPathFin
 
 		ticker.reset(algorithm, startNode, endNode);
 		steering = null;
+		rejected = false;
+		stopReplanning();
+	}
+
+	@Override
+	public void dispose() {
+		stopReplanning();
 	}
 }
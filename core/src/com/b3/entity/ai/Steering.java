@@ -50,6 +50,38 @@ abstract class Steering {
 	public void setEntity(PhysicsComponent entity) {
 		this.entity = entity;
 	}
+
+	/**
+	 * A steering target that is a static tile in the world.
+	 * This is nested so that the steering behaviours in other files can use it
+	 *
+	 * @author dxw405
+	 */
+	static class TileSteeringTarget implements SteeringTarget {
+		private Vector2 position;
+
+		/**
+		 * @param position The target tile
+		 */
+		TileSteeringTarget(Vector2 position) {
+			this.position = position;
+		}
+
+		/**
+		 * @return A copy of the target's position
+		 */
+		@Override
+		public Vector2 getPosition() {
+			return new Vector2(position);
+		}
+
+		/**
+		 * @param position The new target position
+		 */
+		public void setPosition(Vector2 position) {
+			this.position = position;
+		}
+	}
 }
 
 /**
@@ -111,34 +143,3 @@ class EntitySteeringTarget implements SteeringTarget {
 		return new Vector2(targetEntity.getPosition());
 	}
 }
-
-/**
- * A steering target that is a static tile in the world
- *
- * @author dxw405
- */
-class TileSteeringTarget implements SteeringTarget {
-	private Vector2 position;
-
-	/**
-	 * @param position The target tile
-	 */
-	TileSteeringTarget(Vector2 position) {
-		this.position = position;
-	}
-
-	/**
-	 * @return A copy of the target's position
-	 */
-	@Override
-	public Vector2 getPosition() {
-		return new Vector2(position);
-	}
-
-	/**
-	 * @param position The new target position
-	 */
-	public void setPosition(Vector2 position) {
-		this.position = position;
-	}
-}
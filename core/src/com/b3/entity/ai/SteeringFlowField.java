@@ -0,0 +1,85 @@
+package com.b3.entity.ai;
+
+import com.b3.entity.component.PhysicsComponent;
+import com.b3.search.FlowField;
+import com.b3.search.FlowFieldCache;
+import com.b3.search.Point;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A steering behaviour that follows the {@link FlowField} to a goal tile from whichever tile the entity is on,
+ * and arrives at the goal.
+ * The field is looked up from the cache every tick, so it is shared with every other entity heading to the same goal,
+ * and the entity follows the new field as soon as the graph is edited.
+ *
+ * @author dxw405
+ */
+public class SteeringFlowField extends Steering {
+
+	private final FlowFieldCache fields;
+	private final Point goal;
+	private boolean arrived;
+
+	private final TileSteeringTarget steeringTarget;
+	private final SteeringSeek seekSteering;
+	private final SteeringArrive arriveSteering;
+
+	/**
+	 * @param entity The entity who owns this {@link Steering}
+	 * @param fields The flow fields of the graph to move over
+	 * @param goal   The goal tile
+	 */
+	public SteeringFlowField(PhysicsComponent entity, FlowFieldCache fields, Point goal) {
+		super(entity);
+
+		this.fields = fields;
+		this.goal = goal;
+		this.arrived = false;
+		this.steeringTarget = new TileSteeringTarget(tileCentre(goal));
+		this.seekSteering = new SteeringSeek(entity, steeringTarget);
+		this.arriveSteering = new SteeringArrive(entity, steeringTarget);
+	}
+
+	/**
+	 * Called once per game update
+	 *
+	 * @param steeringOut The desired agent steering to apply
+	 */
+	@Override
+	public void tick(Vector2 steeringOut) {
+		Vector2 position = entity.getPosition();
+		Point tile = new Point((int) position.x, (int) position.y);
+
+		if (arrived || tile.equals(goal)) {
+			arrived = true;
+			steeringTarget.setPosition(tileCentre(goal));
+			arriveSteering.tick(steeringOut);
+			return;
+		}
+
+		// off the field, such as when pushed onto a building, so carry on towards the last tile
+		Point next = fields.getField(goal).getNext(tile);
+		if (next != null)
+			steeringTarget.setPosition(tileCentre(next));
+
+		seekSteering.tick(steeringOut);
+	}
+
+	/**
+	 * @return True if the goal tile has been reached
+	 */
+	public boolean hasArrived() {
+		return arrived;
+	}
+
+	/**
+	 * @return The goal tile
+	 */
+	public Point getGoal() {
+		return goal;
+	}
+
+	private static Vector2 tileCentre(Point tile) {
+		return new Vector2(tile.x + 0.5f, tile.y + 0.5f);
+	}
+}
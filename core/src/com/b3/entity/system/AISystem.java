@@ -64,7 +64,7 @@ public class AISystem extends IteratingSystem {
 
 		if (worldGraph.hasSearchInProgress() &&
 				worldGraph.isAgentSearching(entity) &&
-				ai.behaviour.getType() == BehaviourType.FOLLOW_PATH) {
+				ai.behaviour instanceof BehaviourWithPathFind) {
 			BehaviourWithPathFind behaviour = (BehaviourWithPathFind) ai.behaviour;
 			if (behaviour.hasArrivedForTheFirstTime())
 				worldGraph.clearSearch((Agent) entity);
@@ -206,9 +206,9 @@ public class PopupDescription {
 			popupShowing = true;
 		} else if (currentSearch.getEnd().getPoint().equals(new Point(currentNodeClickX, currentNodeClickY))) {
 			// DONE MULTI_PAGES if end node
-			if (pageNo >= 3 && currentSearch.getAlgorithm() == SearchAlgorithm.A_STAR)
+			if (pageNo >= 3 && usesHeuristic(currentSearch.getAlgorithm()))
 				pageNo = 0; // reset to first page if necessary
-			if (pageNo >= 2 && currentSearch.getAlgorithm() != SearchAlgorithm.A_STAR)
+			if (pageNo >= 2 && !usesHeuristic(currentSearch.getAlgorithm()))
 				pageNo = 0; // reset to first page if necessary
 
 			if (pageNo == 2) {
@@ -255,7 +255,7 @@ public class PopupDescription {
 				spriteBatch.begin();
 				spriteBatch.setProjectionMatrix(worldCamera.combined);
 			} else {
-				if (currentSearch.getAlgorithm() == SearchAlgorithm.A_STAR) {
+				if (usesHeuristic(currentSearch.getAlgorithm())) {
 					spriteBatch.draw(endNodeSprite[pageNo], (float) ((currentNodeClickX - scalingZoom / 2) + 0.5),
 							(float) (currentNodeClickY + 0.5), scalingZoom, scalingZoom);
 				} else {
@@ -279,26 +279,15 @@ public class PopupDescription {
 				float gxFunction = currentSearch.getG(mostRecentExpand);
 
 				int convertedPageNo = pageNo;
-				if (convertedPageNo == 2) {
-					switch (currentSearch.getAlgorithm()) {
-						case A_STAR:
-							convertedPageNo = 4;
-							break;
-						case BREADTH_FIRST:
-							convertedPageNo = 3;
-							break;
-						case DEPTH_FIRST:
-							convertedPageNo = 2;
-							break;
-					}
-				}
+				if (convertedPageNo == 2)
+					convertedPageNo = getAlgorithmPage(currentSearch.getAlgorithm(), 2);
 
 				// show normal pop-ups (first 2 pages)
 				if (pageNo != 3)
 					spriteBatch.draw(currentNodeSprite[convertedPageNo], (float) ((currentNodeClickX - scalingZoom / 2) + 0.5), (float) (currentNodeClickY + 0.5), scalingZoom, scalingZoom);
 
 				// draw current g(x) function onto the screen (3rd page)
-				if (pageNo == 2 && currentSearch.getAlgorithm() == SearchAlgorithm.A_STAR) {
+				if (pageNo == 2 && explainsCosts(currentSearch.getAlgorithm())) {
 					drawNumberOnScreen((int) gxFunction, currentNodeClickX, currentNodeClickY + (scalingZoom / 11), scalingZoom);
 				}
 
@@ -332,28 +321,17 @@ public class PopupDescription {
 					if (pageNo >= 2) pageNo = 0; // reset to first page if necessary
 
 					int convertedPageNo = pageNo;
-					if (convertedPageNo == 1) {
-						switch (currentSearch.getAlgorithm()) {
-							case A_STAR:
-								convertedPageNo = 3;
-								break;
-							case BREADTH_FIRST:
-								convertedPageNo = 2;
-								break;
-							case DEPTH_FIRST:
-								convertedPageNo = 1;
-								break;
-						}
-					}
+					if (convertedPageNo == 1)
+						convertedPageNo = getAlgorithmPage(currentSearch.getAlgorithm(), 1);
 
 					spriteBatch.draw(lastFrontierSprite[convertedPageNo], (float) ((currentNodeClickX - scalingZoom / 2) + 0.5),
 							(float) (currentNodeClickY + 0.5), scalingZoom, scalingZoom);
 
 					float gxFunction = currentSearch.getG(mostRecentExpand);
-					float cost = mostRecentExpand.getEdgeCost(new Node(new Point(currentNodeClickX, currentNodeClickY)));
+					float cost = currentSearch.getStepCost(mostRecentExpand, new Node(new Point(currentNodeClickX, currentNodeClickY)));
 					float total = cost + gxFunction;
 
-					if (pageNo == 1 && currentSearch.getAlgorithm() == SearchAlgorithm.A_STAR)
+					if (pageNo == 1 && explainsCosts(currentSearch.getAlgorithm()))
 						drawEquationOnScreen((int) total, (int) gxFunction, (int) cost, currentNodeClickX, currentNodeClickY + (scalingZoom / 50), scalingZoom);
 
 					popupShowing = true;
@@ -363,17 +341,7 @@ public class PopupDescription {
 
 					int convertedPageNo = pageNo;
 					if (convertedPageNo == 1)
-						switch (currentSearch.getAlgorithm()) {
-							case A_STAR:
-								convertedPageNo = 3;
-								break;
-							case BREADTH_FIRST:
-								convertedPageNo = 2;
-								break;
-							case DEPTH_FIRST:
-								convertedPageNo = 1;
-								break;
-						}
+						convertedPageNo = getAlgorithmPage(currentSearch.getAlgorithm(), 1);
 
 					spriteBatch.draw(olderFrontierSprite[convertedPageNo], (float) ((currentNodeClickX - scalingZoom / 2) + 0.5),
 							(float) (currentNodeClickY + 0.5), scalingZoom, scalingZoom);
@@ -386,7 +354,7 @@ public class PopupDescription {
 						}
 					}
 
-					if (pageNo == 1 && currentSearch.getAlgorithm() == SearchAlgorithm.A_STAR)
+					if (pageNo == 1 && explainsCosts(currentSearch.getAlgorithm()))
 						drawNumberOnScreen((int) gxFunction, currentNodeClickX, (float) currentNodeClickY + (scalingZoom / 11), scalingZoom);
 
 					popupShowing = true;
@@ -503,6 +471,42 @@ public class PopupDescription {
 		drawNumberOnScreen(secondNo, currentNodeClickX + 3 * (scalingZoom / 10), currentNodeClickY, scalingZoom);
 	}
 
+	/**
+	 * Finds the page that explains the given algorithm, out of the DFS, BFS and A* pages that follow each other.
+	 * There are only pages for those three, so every other algorithm is explained by the page closest to it
+	 *
+	 * @param algorithm the algorithm being searched with
+	 * @param dfsPage   the index of the DFS page
+	 * @return the index of the page to show
+	 */
+	private static int getAlgorithmPage(SearchAlgorithm algorithm, int dfsPage) {
+		switch (algorithm) {
+			case DEPTH_FIRST:
+				return dfsPage;
+			case BREADTH_FIRST:
+				return dfsPage + 1;
+			default:
+				return dfsPage + 2;
+		}
+	}
+
+	/**
+	 * @param algorithm the algorithm being searched with
+	 * @return true if the algorithm orders its frontier by cost, so the A* pages and the costs on them apply to it
+	 */
+	private static boolean explainsCosts(SearchAlgorithm algorithm) {
+		return algorithm != SearchAlgorithm.DEPTH_FIRST && algorithm != SearchAlgorithm.BREADTH_FIRST;
+	}
+
+	/**
+	 * @param algorithm the algorithm being searched with
+	 * @return true if the algorithm is guided by a heuristic, so the A* pages about the end node apply to it
+	 */
+	private static boolean usesHeuristic(SearchAlgorithm algorithm) {
+		return explainsCosts(algorithm) && algorithm != SearchAlgorithm.DIJKSTRA
+				&& algorithm != SearchAlgorithm.BIDIRECTIONAL_DIJKSTRA;
+	}
+
 	/**
 	 * Draws an cost in the following format:
 	 * cost
@@ -7,7 +7,7 @@ import com.b3.search.Point;
 import com.b3.search.SearchPauser;
 import com.b3.search.SearchTicker;
 import com.b3.search.util.SearchAlgorithm;
-import com.b3.search.util.takeable.PriorityQueueT;
+import com.b3.search.util.takeable.PriorityTakeable;
 import com.b3.search.util.takeable.StackT;
 import com.b3.util.Config;
 import com.b3.util.ConfigKey;
@@ -287,7 +287,13 @@ public class VisNodes extends Table {
 			// A* asks the pq to give a sorted list of its elements
 			case DIJKSTRA:
 			case A_STAR:
-				list = ((PriorityQueueT<Node>) front).sortedOrder();
+			case JUMP_POINT:
+			case BIDIRECTIONAL_DIJKSTRA:
+			case BIDIRECTIONAL_A_STAR:
+			case WEIGHTED_A_STAR:
+			case GREEDY_BEST_FIRST:
+			case ANYTIME_A_STAR:
+				list = new ArrayList<>(((PriorityTakeable<Node>) front).sortedOrder());
 				break;
 		}
 		return list;
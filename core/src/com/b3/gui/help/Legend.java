@@ -63,6 +63,10 @@ public class Legend extends Table {
 		// Frontier
 		addLegend("Frontier Nodes", Config.getColor(ConfigKey.FRONTIER_COLOUR));
 
+		// Bidirectional search, back from the goal
+		addLegend("Visited set (from goal)", Config.getColor(ConfigKey.BACKWARD_VISITED_COLOUR));
+		addLegend("Frontier Nodes (from goal)", Config.getColor(ConfigKey.BACKWARD_FRONTIER_COLOUR));
+
 		pm.dispose();
 	}
 
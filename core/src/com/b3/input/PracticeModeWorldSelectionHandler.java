@@ -130,7 +130,7 @@ public class PracticeModeWorldSelectionHandler extends WorldSelectionHandler {
 						}
 						worldGraph.getRenderer().highlightNodeRed(node.getPoint().getX(), node.getPoint().getY(), 50);
 					} else {
-						frontier.take();
+						currentSearch.takeFromFrontier();
 						currentSearch.setMostRecentlyExpanded(node);
 						currentStage = Stage.ADD_TO_FRONTIER_SELECTION;
 
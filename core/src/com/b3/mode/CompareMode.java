@@ -11,6 +11,7 @@ import com.b3.search.Point;
 import com.b3.search.SearchTicker;
 import com.b3.search.WorldGraph;
 import com.b3.search.util.SearchAlgorithm;
+import com.b3.world.World;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -42,10 +43,11 @@ public class CompareMode extends Mode {
 	/**
 	 * Constructs the world, sets up the camera, loads to worldmap and launches the world with the search already running.
 	 *
-	 * @param game used to set up the world, contains directories to config files
+	 * @param game  used to set up the world, contains directories to config files
+	 * @param world the world, loaded from {@link ModeType#getWorldPath()}
 	 */
-	public CompareMode(MainGame game) {
-		super(game, "world/world-compare.tmx", 67, 25.f, null, 10f);
+	public CompareMode(MainGame game, World world) {
+		super(game, world, 67, 25.f, null, 10f);
 		agents = new Agent[SEARCH_COUNT];
 		labelBatch = new SpriteBatch(SEARCH_COUNT);
 
@@ -101,8 +103,13 @@ public class CompareMode extends Mode {
 		if (!allArrived)
 			return;
 
+		// every agent is in a copy of the same map, so a goal reachable by one is reachable by all
+		Point firstEnd = ((BehaviourPathFind) agents[0].getBehaviour()).getSearchTicker().getEnd().getPoint();
+		Node nextTarget = graph.getRandomReachableNode(graph.getNode(firstEnd));
+		if (nextTarget == null)
+			return;
+
 		graph.clearAllSearches();
-		Node nextTarget = world.getWorldGraph().getRandomNode();
 
 		for (int i = 0; i < agents.length; i++) {
 			Agent agent = agents[i];
@@ -13,6 +13,7 @@ import com.b3.search.WorldGraph;
 import com.b3.search.util.SearchAlgorithm;
 import com.b3.util.Config;
 import com.b3.util.ConfigKey;
+import com.b3.world.World;
 
 /**
  * A small scale world with step by step views and pop-ups to allow for users with limited knowledge
@@ -27,11 +28,12 @@ public class LearningMode extends Mode {
 	/**
 	 * Constructs the world, sets up the camera, loads to worldmap and launches the world paused.
 	 *
-	 * @param game used to set up the world, contains directories to config files
+	 * @param game  used to set up the world, contains directories to config files
+	 * @param world the world, loaded from {@link ModeType#getWorldPath()}
 	 */
-	public LearningMode(MainGame game) {
+	public LearningMode(MainGame game, World world) {
 		super(game,
-				"world/world_smaller_test.tmx", 45f, 30f, null, null);
+				world, 45f, 30f, null, null);
 
 		SearchTicker currentSearch = world.getWorldGraph().getCurrentSearch();
 		currentSearch.pause(SearchPauser.PLAY_PAUSE_BUTTON);
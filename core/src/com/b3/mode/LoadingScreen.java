@@ -0,0 +1,125 @@
+package com.b3.mode;
+
+import com.b3.MainGame;
+import com.b3.util.Config;
+import com.b3.util.ConfigKey;
+import com.b3.util.Utils;
+import com.b3.world.WorldLoader;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+/**
+ * Shows the progress of a {@link WorldLoader} loading a mode's world in the background, then creates the mode on the
+ * rendering thread once it has finished. If the world fails to load, the main menu is returned to instead.
+ * <p>
+ * The background loading fills most of the bar. The rest is filled just before the frame in which the world's
+ * textures and models are created, and the mode is switched to, as that frame cannot show any progress itself.
+ *
+ * @author dxw405
+ */
+public class LoadingScreen extends ScreenAdapter {
+
+	private static final float BACKGROUND_SHARE = 0.8f;
+	private static final float BAR_WIDTH = 400f;
+	private static final float BAR_HEIGHT = 20f;
+
+	private final MainGame game;
+	private final ModeType modeType;
+	private final WorldLoader loader;
+
+	private final SpriteBatch spriteBatch;
+	private final ShapeRenderer shapeRenderer;
+	private final BitmapFont font;
+	private final GlyphLayout layout;
+
+	private boolean creating;
+
+	/**
+	 * @param game     The game instance
+	 * @param modeType The mode to switch to
+	 * @param loader   The loader of the mode's world, which is started by {@link #startLoading()}
+	 */
+	public LoadingScreen(MainGame game, ModeType modeType, WorldLoader loader) {
+		this.game = game;
+		this.modeType = modeType;
+		this.loader = loader;
+
+		this.spriteBatch = new SpriteBatch();
+		this.shapeRenderer = new ShapeRenderer();
+		this.font = Utils.getFont(Config.getString(ConfigKey.FONT_FILE), 20);
+		this.layout = new GlyphLayout();
+	}
+
+	/**
+	 * Starts loading the world in the background
+	 */
+	public void startLoading() {
+		loader.start();
+	}
+
+	/**
+	 * Renders the progress bar, and creates the mode once the world has been loaded
+	 *
+	 * @param delta not used
+	 */
+	@Override
+	public void render(float delta) {
+		Throwable error = loader.getError();
+		if (error != null) {
+			Gdx.app.error("LoadingScreen", "Failed to load " + modeType + " world", error);
+			dispose();
+			game.goToMainMenu();
+			return;
+		}
+
+		// one more frame is drawn with a full bar before blocking on the rest
+		if (creating) {
+			dispose();
+			game.goToMode(modeType, loader.createWorld());
+			return;
+		}
+
+		float progress = loader.getProgress() * BACKGROUND_SHARE;
+		if (loader.isLoaded()) {
+			progress = 1f;
+			creating = true;
+		}
+
+		Gdx.gl.glClearColor(0.925490196f, 0.941176471f, 0.941176471f, 1f);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+		float x = (Gdx.graphics.getWidth() - BAR_WIDTH) / 2f;
+		float y = (Gdx.graphics.getHeight() - BAR_HEIGHT) / 2f;
+
+		shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+		shapeRenderer.setColor(Color.LIGHT_GRAY);
+		shapeRenderer.rect(x, y, BAR_WIDTH, BAR_HEIGHT);
+		shapeRenderer.setColor(Color.DARK_GRAY);
+		shapeRenderer.rect(x, y, BAR_WIDTH * progress, BAR_HEIGHT);
+		shapeRenderer.end();
+
+		layout.setText(font, String.format("Loading world... %d%%", Math.round(progress * 100)));
+		spriteBatch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		spriteBatch.begin();
+		font.setColor(Color.DARK_GRAY);
+		font.draw(spriteBatch, layout, (Gdx.graphics.getWidth() - layout.width) / 2f, y + BAR_HEIGHT * 2 + layout.height);
+		spriteBatch.end();
+	}
+
+	/**
+	 * Disposes of the batches; the font is shared through {@link Utils#getFont(String, int)}, so is kept
+	 */
+	@Override
+	public void dispose() {
+		spriteBatch.dispose();
+		shapeRenderer.dispose();
+	}
+
+}
@@ -53,21 +53,20 @@ public abstract class Mode extends ScreenAdapter {
 
 	/**
 	 * @param mainGame     The game instance
-	 * @param worldPath    The path of the world to load
+	 * @param world        The loaded world
 	 * @param startingFOV  The FOV to start at
 	 * @param startingZoom The zoom level to start at
 	 * @param startingX    The X coordinate to start at. <code>Null</code> for world centre
 	 * @param startingY    The Y coordinate to start at. <code>Null</code> for world centre
 	 */
-	Mode(MainGame mainGame, String worldPath, float startingFOV, float startingZoom, Float startingX, Float startingY) {
+	Mode(MainGame mainGame, World world, float startingFOV, float startingZoom, Float startingX, Float startingY) {
 
 		game = mainGame;
 		InputHandler inputHandler = game.getInputHandler();
 
 		SearchTicker.setInspectSearch(false);
 
-		// load world
-		world = new World(worldPath);
+		this.world = world;
 
 		// position camera
 		Vector2 centre = world.getTileSize().scl(0.5f);
@@ -6,9 +6,22 @@ package com.b3.mode;
  * @author oxe410
  */
 public enum ModeType {
-	LEARNING,
-	PRACTICE,
-	COMPARE,
-	TUTORIAL,
-	MENU
+	LEARNING("world/world_smaller_test.tmx"),
+	PRACTICE("world/world_smaller_test_tiym.tmx"),
+	COMPARE("world/world-compare.tmx"),
+	TUTORIAL("world/world_smaller_test_tiym.tmx"),
+	MENU(null);
+
+	private final String worldPath;
+
+	ModeType(String worldPath) {
+		this.worldPath = worldPath;
+	}
+
+	/**
+	 * @return The path of the world this mode is played in, or null if it has none
+	 */
+	public String getWorldPath() {
+		return worldPath;
+	}
 }
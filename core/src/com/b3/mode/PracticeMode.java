@@ -12,6 +12,7 @@ import com.b3.search.SearchTicker;
 import com.b3.search.WorldGraph;
 import com.b3.search.util.SearchAlgorithm;
 import com.b3.util.Utils;
+import com.b3.world.World;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
@@ -29,11 +30,12 @@ public class PracticeMode extends Mode {
 	/**
 	 * Constructs the world, sets up the camera, loads to worldmap and launches the world paused.
 	 *
-	 * @param game used to set up the world, contains directories to config files
+	 * @param game  used to set up the world, contains directories to config files
+	 * @param world the world, loaded from {@link ModeType#getWorldPath()}
 	 */
-	public PracticeMode(MainGame game) {
+	public PracticeMode(MainGame game, World world) {
 		// create world
-		super(game, "world/world_smaller_test_tiym.tmx", 45f, 20f, null, null);
+		super(game, world, 45f, 20f, null, null);
 
 		WorldGraph worldGraph = world.getWorldGraph();
 		worldGraph.setLearningModeNext(SearchAlgorithm.DEPTH_FIRST);
@@ -12,6 +12,7 @@ import com.b3.search.Point;
 import com.b3.search.SearchPauser;
 import com.b3.search.WorldGraph;
 import com.b3.search.util.SearchAlgorithm;
+import com.b3.world.World;
 import com.badlogic.gdx.math.Vector2;
 
 /**
@@ -27,11 +28,12 @@ public class TutorialMode extends Mode {
 	/**
 	 * Constructs the world, sets up the camera, loads to worldmap and launches the world paused.
 	 *
-	 * @param game used to set up the world, contains directories to config files
+	 * @param game  used to set up the world, contains directories to config files
+	 * @param world the world, loaded from {@link ModeType#getWorldPath()}
 	 */
-	public TutorialMode(MainGame game) {
+	public TutorialMode(MainGame game, World world) {
 		// create world
-		super(game, "world/world_smaller_test_tiym.tmx", 45f, 25f, null, null);
+		super(game, world, 45f, 25f, null, null);
 
 		world.getWorldGraph().setLearningModeNext(SearchAlgorithm.A_STAR);
 		world.getWorldGraph().getCurrentSearch().pause(SearchPauser.PLAY_PAUSE_BUTTON);
@@ -0,0 +1,137 @@
+package com.b3.search;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Solves many {@link PathQuery PathQueries} at once, in parallel across a {@link ForkJoinPool}.
+ * <p>
+ * Queries are solved against an immutable {@link CompactGraph} snapshot, so the live graph can carry on
+ * being edited meanwhile, and each worker thread reuses its own {@link PathFinder} state between queries.
+ *
+ * @author dxw405
+ */
+public class BatchPathExecutor {
+
+	/**
+	 * The number of queries below which a batch is solved on one thread rather than split further
+	 */
+	private static final int SEQUENTIAL_THRESHOLD = 4;
+
+	private final ForkJoinPool pool;
+	private final PathService service;
+
+	/**
+	 * Creates an executor using the common fork/join pool
+	 */
+	public BatchPathExecutor() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param pool The pool to solve queries on
+	 */
+	public BatchPathExecutor(ForkJoinPool pool) {
+		this.pool = pool;
+		this.service = new PathService();
+	}
+
+	/**
+	 * Solves the given queries against a snapshot of the given graph, blocking until all are solved
+	 *
+	 * @param graph   The graph to take a snapshot of
+	 * @param queries The queries to solve
+	 * @return The results, in the same order as the queries
+	 */
+	public PathResult[] solve(Graph graph, List<PathQuery> queries) {
+		return solve(graph.compact(), queries);
+	}
+
+	/**
+	 * Solves the given queries, blocking until all are solved
+	 *
+	 * @param snapshot The graph snapshot to search
+	 * @param queries  The queries to solve
+	 * @return The results, in the same order as the queries
+	 */
+	public PathResult[] solve(CompactGraph snapshot, List<PathQuery> queries) {
+		return pool.invoke(new SolveAll(snapshot, queries));
+	}
+
+	/**
+	 * Starts solving the given queries in the background
+	 *
+	 * @param snapshot The graph snapshot to search
+	 * @param queries  The queries to solve
+	 * @return A future for the results, which will be in the same order as the queries
+	 */
+	public ForkJoinTask<PathResult[]> submit(CompactGraph snapshot, List<PathQuery> queries) {
+		return pool.submit(new SolveAll(snapshot, queries));
+	}
+
+	/**
+	 * Solves every query, collecting the results in the same order
+	 */
+	private class SolveAll extends RecursiveTask<PathResult[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final CompactGraph snapshot;
+		private final List<PathQuery> queries;
+
+		SolveAll(CompactGraph snapshot, List<PathQuery> queries) {
+			this.snapshot = snapshot;
+			this.queries = queries;
+		}
+
+		@Override
+		protected PathResult[] compute() {
+			PathResult[] results = new PathResult[queries.size()];
+			new SolveRange(snapshot, queries, results, 0, results.length).invoke();
+			return results;
+		}
+	}
+
+	/**
+	 * Solves a range of queries, splitting it in half until it is small enough to solve directly
+	 */
+	private class SolveRange extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final CompactGraph snapshot;
+		private final List<PathQuery> queries;
+		private final PathResult[] results;
+		private final int from;
+		private final int to;
+
+		SolveRange(CompactGraph snapshot, List<PathQuery> queries, PathResult[] results, int from, int to) {
+			this.snapshot = snapshot;
+			this.queries = queries;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SEQUENTIAL_THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					PathQuery query = queries.get(i);
+					results[i] = service.findPath(snapshot, query.getStart(), query.getGoal(), query.getAlgorithm());
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(
+					new SolveRange(snapshot, queries, results, from, middle),
+					new SolveRange(snapshot, queries, results, middle, to)
+			);
+		}
+	}
+
+}
@@ -0,0 +1,260 @@
+package com.b3.search;
+
+import java.util.BitSet;
+
+/**
+ * An immutable snapshot of a {@link Graph} in compressed sparse row form.
+ * <p>
+ * Nodes are identified by the same dense index that their {@link Graph} gives them
+ * (see {@link Node#getIndex()}), so state kept for one can be used for the other.
+ * The edges of node {@code i} are the range {@code [getEdgeStart(i), getEdgeEnd(i))},
+ * and each edge has a target node index and a cost, stored in flat primitive arrays.
+ * Edges are kept in the same order that {@link Node#getNeighbours()} gives them, so that searches
+ * over a snapshot break ties in the same way as searches over the graph itself.
+ *
+ * @author dxw405
+ */
+public class CompactGraph implements SearchGraph {
+
+	private final int width;
+	private final int height;
+	private final int nodeCount;
+
+	private final BitSet present;
+	private final int[] overflowX;
+	private final int[] overflowY;
+
+	private final int[] offsets;
+	private final int[] targets;
+	private final float[] costs;
+	private final int maxIntegralCost;
+
+	/**
+	 * Takes a snapshot of the given graph. Later changes to the graph are not reflected in the snapshot
+	 *
+	 * @param graph The graph to copy
+	 */
+	public CompactGraph(Graph graph) {
+		this.width = graph.getWidth();
+		this.height = graph.getHeight();
+		this.nodeCount = graph.getIndexCapacity();
+		this.present = new BitSet(nodeCount);
+		this.offsets = new int[nodeCount + 1];
+
+		int gridSize = width * height;
+		this.overflowX = new int[nodeCount - gridSize];
+		this.overflowY = new int[nodeCount - gridSize];
+
+		// count edges
+		for (int i = 0; i < nodeCount; i++) {
+			Node node = graph.getNodeByIndex(i);
+			if (node != null) {
+				present.set(i);
+				offsets[i + 1] = node.getNeighbourCount();
+
+				if (i >= gridSize) {
+					overflowX[i - gridSize] = node.getPoint().getX();
+					overflowY[i - gridSize] = node.getPoint().getY();
+				}
+			}
+		}
+
+		for (int i = 0; i < nodeCount; i++)
+			offsets[i + 1] += offsets[i];
+
+		// fill edges
+		this.targets = new int[offsets[nodeCount]];
+		this.costs = new float[offsets[nodeCount]];
+
+		for (int i = 0; i < nodeCount; i++) {
+			Node node = graph.getNodeByIndex(i);
+			if (node == null)
+				continue;
+
+			int e = offsets[i];
+			for (int n = 0, degree = node.getNeighbourCount(); n < degree; n++, e++) {
+				targets[e] = node.getNeighbour(n).getIndex();
+				costs[e] = node.getNeighbourCost(n);
+			}
+		}
+
+		int max = 0;
+		for (float cost : costs) {
+			if (cost < 0 || cost != (int) cost) {
+				max = -1;
+				break;
+			}
+			max = Math.max(max, (int) cost);
+		}
+		this.maxIntegralCost = max;
+	}
+
+	@Override
+	public int getMaxIntegralCost() {
+		return maxIntegralCost;
+	}
+
+	@Override
+	public int getIndexCapacity() {
+		return nodeCount;
+	}
+
+	/**
+	 * @return The total number of directed edges
+	 */
+	public int getEdgeCount() {
+		return targets.length;
+	}
+
+	@Override
+	public boolean hasNode(int node) {
+		return node >= 0 && node < nodeCount && present.get(node);
+	}
+
+	/**
+	 * @param node The node index
+	 * @return The index of the first edge of the given node
+	 */
+	public int getEdgeStart(int node) {
+		return offsets[node];
+	}
+
+	/**
+	 * @param node The node index
+	 * @return One past the index of the last edge of the given node
+	 */
+	public int getEdgeEnd(int node) {
+		return offsets[node + 1];
+	}
+
+	@Override
+	public int getNeighbourCount(int node) {
+		return offsets[node + 1] - offsets[node];
+	}
+
+	@Override
+	public int getNeighbour(int node, int i) {
+		return targets[offsets[node] + i];
+	}
+
+	@Override
+	public float getNeighbourCost(int node, int i) {
+		return costs[offsets[node] + i];
+	}
+
+	/**
+	 * @param edge The edge index
+	 * @return The index of the node the edge leads to
+	 */
+	public int getTarget(int edge) {
+		return targets[edge];
+	}
+
+	/**
+	 * @param edge The edge index
+	 * @return The cost of the edge
+	 */
+	public float getCost(int edge) {
+		return costs[edge];
+	}
+
+	/**
+	 * @param from The source node index
+	 * @param to   The target node index
+	 * @return The index of the edge from {@code from} to {@code to}, or -1 if there is none
+	 */
+	public int findEdge(int from, int to) {
+		if (!hasNode(from))
+			return -1;
+
+		for (int e = offsets[from], end = offsets[from + 1]; e < end; e++)
+			if (targets[e] == to)
+				return e;
+		return -1;
+	}
+
+	/**
+	 * @param from The source node index
+	 * @param to   The target node index
+	 * @return The cost of the edge between the two nodes
+	 * @throws IllegalArgumentException If there is no such edge
+	 */
+	public float getEdgeCost(int from, int to) {
+		int edge = findEdge(from, to);
+		if (edge < 0)
+			throw new IllegalArgumentException(String.format("Tried to get non-existent edge cost from %d to %d", from, to));
+		return costs[edge];
+	}
+
+	/**
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The index of the node at (x, y), or -1 if there is no such node
+	 */
+	@Override
+	public int indexOf(int x, int y) {
+		if (x >= 0 && x < width && y >= 0 && y < height) {
+			int index = y * width + x;
+			return present.get(index) ? index : -1;
+		}
+
+		for (int i = 0; i < overflowX.length; i++)
+			if (overflowX[i] == x && overflowY[i] == y && present.get(width * height + i))
+				return width * height + i;
+		return -1;
+	}
+
+	@Override
+	public int getX(int node) {
+		int gridSize = width * height;
+		return node < gridSize ? node % width : overflowX[node - gridSize];
+	}
+
+	@Override
+	public int getY(int node) {
+		int gridSize = width * height;
+		return node < gridSize ? node / width : overflowY[node - gridSize];
+	}
+
+	/**
+	 * @param node The node index
+	 * @return A new {@link Point} with the node's coordinates
+	 */
+	public Point getPoint(int node) {
+		return new Point(getX(node), getY(node));
+	}
+
+	/**
+	 * @param a The first node index
+	 * @param b The second node index
+	 * @return The Euclidean distance between the two nodes
+	 */
+	public float euclidean(int a, int b) {
+		int x = getX(a) - getX(b);
+		int y = getY(a) - getY(b);
+		return (float) Math.sqrt(x * x + y * y);
+	}
+
+	/**
+	 * @return The width of the graph the snapshot was taken of
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return The height of the graph the snapshot was taken of
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public String toString() {
+		return "CompactGraph{" +
+				"nodes=" + present.cardinality() +
+				", edges=" + targets.length +
+				'}';
+	}
+
+}
@@ -0,0 +1,463 @@
+package com.b3.search;
+
+import com.b3.search.util.StampSet;
+import com.b3.util.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Labels every node of a {@link Graph} with the connected component it is in, so whether a path exists between two
+ * nodes is known in O(1) without searching.
+ * <p>
+ * The labels are found on the first query, then kept up to date as the graph is edited. A new edge between two
+ * components relabels the smaller one into the larger, like union by size. A removed edge or node may split a
+ * component, which is checked before the next query: a search is run from each end of each removed edge in turn,
+ * which stops as soon as the two meet, or relabels the side that runs out of nodes first as a new component.
+ * Removing a tile in the open therefore costs a few steps around it, and only a split pays for the smaller piece.
+ * <p>
+ * If the graph is found at a version that was not seen, such as after {@link Graph#clear()}, everything is labelled
+ * again. Like {@link Landmarks}, this is not thread safe, and must be used on the same thread that edits the graph.
+ *
+ * @author dxw405
+ */
+public class ConnectedComponents implements GraphListener {
+
+	private static final int RANDOM_NODE_ATTEMPTS = 64;
+
+	private final Graph graph;
+
+	// component of each node, by node index, or -1 if it is not labelled
+	private int[] labels;
+	// node count of each component, by label, and the labels not in use
+	private int[] sizes;
+	private int[] freeLabels;
+	private int freeLabelCount;
+	private int nextLabel;
+	private int componentCount;
+
+	// ends of removed edges, that may no longer be connected to each other
+	private int[] pending;
+	private int pendingCount;
+	private final StampSet pendingSet;
+
+	private int[] queue;
+	private int[] otherQueue;
+	private final StampSet visited;
+	private final StampSet otherVisited;
+	private int[] references;
+
+	private boolean built;
+	private long syncedVersion;
+	private int visitedCount;
+
+	/**
+	 * Creates the labels of the given graph, which are found on the first query
+	 *
+	 * @param graph The graph to label, which is listened to until {@link #dispose()} is called
+	 */
+	public ConnectedComponents(Graph graph) {
+		this.graph = graph;
+		this.labels = new int[0];
+		this.sizes = new int[16];
+		this.freeLabels = new int[16];
+		this.pending = new int[16];
+		this.pendingSet = new StampSet(0);
+		this.queue = new int[0];
+		this.otherQueue = new int[0];
+		this.visited = new StampSet(0);
+		this.otherVisited = new StampSet(0);
+		this.references = new int[16];
+		this.built = false;
+
+		graph.addListener(this);
+	}
+
+	/**
+	 * @param a The index of a node
+	 * @param b The index of another node
+	 * @return True if there is a path between the two nodes, which both exist
+	 */
+	public boolean isConnected(int a, int b) {
+		sync();
+		int label = labelOf(a);
+		return label >= 0 && label == labelOf(b);
+	}
+
+	/**
+	 * @param a A node, which may be a copy not belonging to the graph
+	 * @param b Another node
+	 * @return True if there is a path between the two nodes, which both exist
+	 */
+	public boolean isConnected(Node a, Node b) {
+		return isConnected(indexOf(a), indexOf(b));
+	}
+
+	/**
+	 * @param a A tile
+	 * @param b Another tile
+	 * @return True if there is a path between nodes at the two tiles
+	 */
+	public boolean isConnected(Point a, Point b) {
+		return isConnected(graph.indexOf(a), graph.indexOf(b));
+	}
+
+	/**
+	 * @param node The index of a node
+	 * @return The label of the component the node is in, which is the same for every node in it
+	 * until the graph is edited, or -1 if there is no such node
+	 */
+	public int getComponent(int node) {
+		sync();
+		return labelOf(node);
+	}
+
+	/**
+	 * @param node The index of a node
+	 * @return The number of nodes that can be reached from the node, including itself, or 0 if there is no such node
+	 */
+	public int getComponentSize(int node) {
+		sync();
+		int label = labelOf(node);
+		return label < 0 ? 0 : sizes[label];
+	}
+
+	/**
+	 * @return The number of components in the graph
+	 */
+	public int getComponentCount() {
+		sync();
+
+		// nodes added without any edges are not labelled until they are asked about
+		for (int node = 0, capacity = graph.getIndexCapacity(); node < capacity; node++)
+			labelOf(node);
+		return componentCount;
+	}
+
+	/**
+	 * Picks a random node, that can be reached from the given node
+	 *
+	 * @param from The node to reach the other from
+	 * @return A random node other than the given one in its component, or null if it is alone
+	 */
+	public Node getRandomNode(Node from) {
+		int start = indexOf(from);
+		if (getComponentSize(start) < 2)
+			return null;
+
+		// most nodes are usually in the same component, otherwise pick from all that are
+		int label = labelOf(start);
+		for (int attempt = 0; attempt < RANDOM_NODE_ATTEMPTS; attempt++) {
+			Node node = graph.getRandomNode(from);
+			if (labelOf(node.getIndex()) == label)
+				return node;
+		}
+
+		int index = Utils.RANDOM.nextInt(sizes[label] - 1);
+		for (int node = 0, capacity = graph.getIndexCapacity(); node < capacity; node++)
+			if (node != start && labelOf(node) == label && index-- == 0)
+				return graph.getNodeByIndex(node);
+
+		return null;
+	}
+
+	/**
+	 * @return The number of nodes visited so far, while labelling and checking for splits
+	 */
+	public int getVisitedCount() {
+		return visitedCount;
+	}
+
+	/**
+	 * Stops listening to the graph, after which the labels are only safe to use if the graph is not edited
+	 */
+	public void dispose() {
+		graph.removeListener(this);
+	}
+
+	@Override
+	public void nodeRemoved(Node node) {
+		if (built) {
+			// its edges have already been marked
+			int index = node.getIndex();
+			if (index < labels.length && labels[index] >= 0) {
+				release(labels[index], 1);
+				labels[index] = -1;
+			}
+			syncedVersion = graph.getVersion();
+		}
+	}
+
+	@Override
+	public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+		if (!built)
+			return;
+
+		if (newCost == Float.POSITIVE_INFINITY) {
+			// removed nodes cannot be looked up by index
+			addPending(graph.indexOf(node1.getPoint()));
+			addPending(graph.indexOf(node2.getPoint()));
+		} else if (oldCost == Float.POSITIVE_INFINITY) {
+			// any splits must be known first, for the labels to be joined
+			flush();
+			join(node1.getIndex(), node2.getIndex());
+		}
+
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void graphEdited() {
+		built = false;
+	}
+
+	/**
+	 * Brings the labels up to date with the graph
+	 */
+	private void sync() {
+		if (!built || graph.getVersion() != syncedVersion)
+			rebuild();
+		else
+			flush();
+	}
+
+	/**
+	 * Labels every node again
+	 */
+	private void rebuild() {
+		int capacity = graph.getIndexCapacity();
+		ensureCapacity(capacity);
+		Arrays.fill(labels, -1);
+		nextLabel = 0;
+		freeLabelCount = 0;
+		componentCount = 0;
+		pendingCount = 0;
+		pendingSet.clear();
+
+		for (int node = 0; node < capacity; node++)
+			if (graph.hasNode(node) && labels[node] < 0)
+				flood(node, -1, allocate());
+
+		built = true;
+		syncedVersion = graph.getVersion();
+	}
+
+	/**
+	 * Checks whether the ends of the edges removed since the last check are still connected, splitting off each
+	 * piece of a component that is not connected to the rest
+	 */
+	private void flush() {
+		if (pendingCount == 0)
+			return;
+
+		// the node each component's other pending nodes are checked against
+		if (references.length < sizes.length)
+			references = new int[sizes.length];
+		for (int i = 0; i < pendingCount; i++) {
+			int label = labelOf(pending[i]);
+			if (label >= references.length)
+				references = Arrays.copyOf(references, sizes.length);
+			if (label >= 0)
+				references[label] = -1;
+		}
+
+		for (int i = 0; i < pendingCount; i++) {
+			int node = pending[i];
+			int label = labelOf(node);
+			if (label < 0)
+				continue;
+
+			int reference = references[label];
+			if (reference < 0 || reference == node) {
+				references[label] = node;
+			} else if (separate(reference, node, label)) {
+				// the reference was split off, so the rest of the component is checked against this node
+				references[label] = node;
+			}
+		}
+
+		pendingCount = 0;
+		pendingSet.clear();
+	}
+
+	/**
+	 * Searches from two nodes of the same component in turn, until the searches meet or one runs out of nodes,
+	 * in which case the nodes it reached are given a new label
+	 *
+	 * @return True if the first node was split off, false if the second was or they are still connected
+	 */
+	private boolean separate(int a, int b, int label) {
+		visited.clear();
+		otherVisited.clear();
+		visited.add(a);
+		otherVisited.add(b);
+		queue[0] = a;
+		otherQueue[0] = b;
+
+		int headA = 0, tailA = 1;
+		int headB = 0, tailB = 1;
+
+		while (true) {
+			if (headA == tailA) {
+				split(queue, tailA, label);
+				return true;
+			}
+			if (headB == tailB) {
+				split(otherQueue, tailB, label);
+				return false;
+			}
+
+			tailA = step(queue, headA++, tailA, visited, otherVisited, label);
+			if (tailA < 0)
+				return false;
+
+			tailB = step(otherQueue, headB++, tailB, otherVisited, visited, label);
+			if (tailB < 0)
+				return false;
+		}
+	}
+
+	/**
+	 * Expands one node of a search
+	 *
+	 * @return The new tail of its queue, or -1 if it reached a node the other search has
+	 */
+	private int step(int[] queue, int head, int tail, StampSet visited, StampSet other, int label) {
+		int node = queue[head];
+		visitedCount++;
+
+		for (int i = 0, degree = graph.getNeighbourCount(node); i < degree; i++) {
+			int neighbour = graph.getNeighbour(node, i);
+			if (other.contains(neighbour))
+				return -1;
+			if (labelOf(neighbour) == label && visited.add(neighbour))
+				queue[tail++] = neighbour;
+		}
+
+		return tail;
+	}
+
+	private void split(int[] nodes, int count, int label) {
+		int newLabel = allocate();
+		for (int i = 0; i < count; i++)
+			labels[nodes[i]] = newLabel;
+		sizes[newLabel] = count;
+		release(label, count);
+
+		// the label may have been used before, so the new component has no reference yet
+		if (references.length < sizes.length)
+			references = Arrays.copyOf(references, sizes.length);
+		references[newLabel] = -1;
+	}
+
+	/**
+	 * Relabels the smaller of the components of the two nodes into the larger
+	 */
+	private void join(int a, int b) {
+		int labelA = labelOf(a);
+		int labelB = labelOf(b);
+		if (labelA < 0 || labelB < 0 || labelA == labelB)
+			return;
+
+		if (sizes[labelA] < sizes[labelB]) {
+			release(labelA, flood(a, labelA, labelB));
+		} else {
+			release(labelB, flood(b, labelB, labelA));
+		}
+	}
+
+	/**
+	 * Gives a label to every node connected to the given node with the old label
+	 *
+	 * @return The number of nodes labelled
+	 */
+	private int flood(int start, int oldLabel, int newLabel) {
+		labels[start] = newLabel;
+		queue[0] = start;
+		int head = 0, tail = 1;
+
+		while (head < tail) {
+			int node = queue[head++];
+			visitedCount++;
+
+			for (int i = 0, degree = graph.getNeighbourCount(node); i < degree; i++) {
+				int neighbour = graph.getNeighbour(node, i);
+				if (labels[neighbour] == oldLabel) {
+					labels[neighbour] = newLabel;
+					queue[tail++] = neighbour;
+				}
+			}
+		}
+
+		sizes[newLabel] += tail;
+		return tail;
+	}
+
+	/**
+	 * @return The label of the node, which is given a label of its own if it has been added without any edges,
+	 * or -1 if there is no such node
+	 */
+	private int labelOf(int node) {
+		if (!graph.hasNode(node))
+			return -1;
+
+		if (node >= labels.length)
+			ensureCapacity(graph.getIndexCapacity());
+
+		if (labels[node] < 0) {
+			int label = allocate();
+			labels[node] = label;
+			sizes[label] = 1;
+		}
+		return labels[node];
+	}
+
+	private int allocate() {
+		componentCount++;
+		int label = freeLabelCount > 0 ? freeLabels[--freeLabelCount] : nextLabel++;
+		if (label >= sizes.length)
+			sizes = Arrays.copyOf(sizes, sizes.length * 2);
+		sizes[label] = 0;
+		return label;
+	}
+
+	/**
+	 * Takes nodes out of a component, freeing its label if none are left
+	 */
+	private void release(int label, int count) {
+		sizes[label] -= count;
+		if (sizes[label] == 0) {
+			componentCount--;
+			if (freeLabelCount == freeLabels.length)
+				freeLabels = Arrays.copyOf(freeLabels, freeLabels.length * 2);
+			freeLabels[freeLabelCount++] = label;
+		}
+	}
+
+	private void addPending(int node) {
+		if (node < 0 || !pendingSet.add(node))
+			return;
+
+		if (pendingCount == pending.length)
+			pending = Arrays.copyOf(pending, pending.length * 2);
+		pending[pendingCount++] = node;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= labels.length)
+			return;
+
+		int old = labels.length;
+		labels = Arrays.copyOf(labels, capacity);
+		Arrays.fill(labels, old, capacity, -1);
+		queue = new int[capacity];
+		otherQueue = new int[capacity];
+		visited.ensureCapacity(capacity);
+		otherVisited.ensureCapacity(capacity);
+	}
+
+	private int indexOf(Node node) {
+		int index = node.getIndex();
+		return index != Node.NO_INDEX ? index : graph.indexOf(node.getPoint());
+	}
+
+}
@@ -0,0 +1,498 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.StampSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Incremental path planning with D* Lite, for an agent that follows a path while the graph is edited.
+ * <p>
+ * The search runs backwards from the goal, and is kept between plans. This listens to the graph, and when
+ * an edge changes, only the nodes whose cost to the goal could have changed are searched again; so after
+ * a building is added or removed, replanning usually expands a small fraction of the nodes that a new
+ * search would. The start can also be moved along the path as the agent walks it, without starting again.
+ * <p>
+ * Like {@link PathCache}, this is not thread safe, and must be used on the same thread that edits the graph.
+ *
+ * @author dxw405
+ */
+public class DStarLite implements GraphListener {
+
+	private final Graph graph;
+	private final SearchAlgorithm algorithm;
+	private int start;
+	private int goal;
+	private int lastStart;
+	private float km;
+
+	// the cost to the goal, and the one step lookahead of it, of every node in known; others are infinite
+	private float[] g;
+	private float[] rhs;
+	private final StampSet known;
+	private final KeyQueue queue;
+
+	// nodes with an edge that has changed since the last plan
+	private final StampSet changed;
+	private int[] changedNodes;
+	private int changedCount;
+
+	private long syncedVersion;
+	private boolean initialised;
+	private int expanded;
+
+	/**
+	 * Creates a planner, which starts listening to the graph until {@link #dispose()} is called.
+	 * Nothing is searched until the first call to {@link #plan()}
+	 *
+	 * @param graph     The graph to search
+	 * @param start     The point to find a path from
+	 * @param goal      The point to find a path to
+	 * @param algorithm The algorithm that found the path being repaired, which the paths planned are labelled with
+	 */
+	public DStarLite(Graph graph, Point start, Point goal, SearchAlgorithm algorithm) {
+		this.graph = graph;
+		this.algorithm = algorithm;
+		this.start = this.lastStart = graph.indexOf(start);
+		this.goal = graph.indexOf(goal);
+
+		int capacity = Math.max(graph.getIndexCapacity(), 1);
+		this.g = new float[capacity];
+		this.rhs = new float[capacity];
+		this.known = new StampSet(capacity);
+		this.queue = new KeyQueue(capacity);
+		this.changed = new StampSet(capacity);
+		this.changedNodes = new int[16];
+
+		graph.addListener(this);
+	}
+
+	/**
+	 * Moves the start of the path, such as when the agent following it has reached the next tile.
+	 * The search is kept, and is only updated on the next call to {@link #plan()}
+	 *
+	 * @param point The new start point
+	 */
+	public void moveStart(Point point) {
+		int moved = graph.indexOf(point);
+		if (moved == start)
+			return;
+
+		start = moved;
+		if (graph.hasNode(start) && graph.hasNode(lastStart)) {
+			// the keys already in the queue are now too large by at most this much
+			km += heuristic(lastStart, start);
+			lastStart = start;
+		} else {
+			initialised = false;
+		}
+	}
+
+	/**
+	 * @return True if the graph has been edited since the last plan, so the path may no longer be the shortest
+	 */
+	public boolean isStale() {
+		return !initialised || changedCount > 0 || graph.getVersion() != syncedVersion;
+	}
+
+	/**
+	 * Finds the shortest path from the current start to the goal, repairing the previous search
+	 * for any edits made to the graph since
+	 *
+	 * @return The path found, which is empty if there is none. Its expanded count is only the nodes expanded
+	 * by this plan, which is small if little has changed
+	 */
+	public PathResult plan() {
+		long startTime = System.nanoTime();
+		expanded = 0;
+
+		int[] path = new int[0];
+		float cost = Float.POSITIVE_INFINITY;
+		if (!graph.hasNode(start) || !graph.hasNode(goal)) {
+			// start again once they are both back
+			initialised = false;
+		} else {
+			if (!initialised || graph.getVersion() != syncedVersion)
+				initialise();
+			else
+				applyChanges();
+
+			computeShortestPath();
+			path = tracePath();
+			if (path.length > 0)
+				cost = g[start];
+		}
+
+		List<Point> points = new ArrayList<>(path.length);
+		for (int node : path)
+			points.add(new Point(graph.getX(node), graph.getY(node)));
+
+		// the search covers the whole graph, so this is not cached by area
+		int[] bounds = {0, 0, graph.getWidth() - 1, graph.getHeight() - 1};
+		return new PathResult(algorithm, path, points, cost, expanded, queue.size(),
+				System.nanoTime() - startTime, bounds);
+	}
+
+	/**
+	 * Throws away the search and starts again from the goal, which must exist
+	 */
+	private void initialise() {
+		ensureCapacity(graph.getIndexCapacity());
+		known.clear();
+		queue.clear();
+		changed.clear();
+		changedCount = 0;
+		km = 0f;
+		lastStart = start;
+
+		setCosts(goal, Float.POSITIVE_INFINITY, 0f);
+		queue.add(goal, heuristic(start, goal), 0f);
+
+		initialised = true;
+		syncedVersion = graph.getVersion();
+	}
+
+	/**
+	 * Updates every node with a changed edge, which puts the ones that are now inconsistent into the queue
+	 */
+	private void applyChanges() {
+		ensureCapacity(graph.getIndexCapacity());
+
+		for (int i = 0; i < changedCount; i++) {
+			int node = changedNodes[i];
+			if (graph.hasNode(node)) {
+				updateNode(node);
+			} else {
+				// removed
+				setCosts(node, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+				queue.remove(node);
+			}
+		}
+
+		changed.clear();
+		changedCount = 0;
+	}
+
+	private void computeShortestPath() {
+		while (!queue.isEmpty() && (compareTop(start) < 0 || getRhs(start) != getG(start))) {
+			int node = queue.peek();
+			float oldKey1 = queue.peekKey1();
+			float oldKey2 = queue.peekKey2();
+			float key2 = Math.min(getG(node), getRhs(node));
+			float key1 = key2 + heuristic(start, node) + km;
+
+			if (oldKey1 < key1 || (oldKey1 == key1 && oldKey2 < key2)) {
+				// the start has moved since it was queued
+				queue.add(node, key1, key2);
+				continue;
+			}
+
+			queue.take();
+			expanded++;
+
+			if (getG(node) > getRhs(node)) {
+				setCosts(node, getRhs(node), getRhs(node));
+				updateNeighbours(node);
+			} else {
+				setCosts(node, Float.POSITIVE_INFINITY, getRhs(node));
+				updateNode(node);
+				updateNeighbours(node);
+			}
+		}
+	}
+
+	/**
+	 * @return Less than 0 if the top of the queue has a lower key than the given node
+	 */
+	private int compareTop(int node) {
+		float key2 = Math.min(getG(node), getRhs(node));
+		float key1 = key2 + km;
+		int c = Float.compare(queue.peekKey1(), key1);
+		return c != 0 ? c : Float.compare(queue.peekKey2(), key2);
+	}
+
+	private void updateNeighbours(int node) {
+		for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++)
+			updateNode(graph.getNeighbour(node, i));
+	}
+
+	/**
+	 * Recalculates the lookahead cost of the given node from its neighbours, and queues it if it is inconsistent
+	 */
+	private void updateNode(int node) {
+		if (node != goal) {
+			float best = Float.POSITIVE_INFINITY;
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+				float cost = graph.getNeighbourCost(node, i) + getG(graph.getNeighbour(node, i));
+				if (cost < best)
+					best = cost;
+			}
+			setCosts(node, getG(node), best);
+		}
+
+		queue.remove(node);
+		if (getG(node) != getRhs(node)) {
+			float key2 = Math.min(getG(node), getRhs(node));
+			queue.add(node, key2 + heuristic(start, node) + km, key2);
+		}
+	}
+
+	/**
+	 * Follows the cheapest neighbours from the start to the goal
+	 *
+	 * @return The path, or an empty array if the goal cannot be reached
+	 */
+	private int[] tracePath() {
+		if (getG(start) == Float.POSITIVE_INFINITY)
+			return new int[0];
+
+		int[] path = new int[16];
+		int length = 0;
+		int node = start;
+		path[length++] = node;
+
+		while (node != goal) {
+			int next = -1;
+			float best = Float.POSITIVE_INFINITY;
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+				int neighbour = graph.getNeighbour(node, i);
+				float cost = graph.getNeighbourCost(node, i) + getG(neighbour);
+				if (cost < best) {
+					best = cost;
+					next = neighbour;
+				}
+			}
+
+			// a path cannot be longer than the number of nodes
+			if (next < 0 || length > known.size())
+				return new int[0];
+
+			if (length == path.length)
+				path = Arrays.copyOf(path, length * 2);
+			path[length++] = next;
+			node = next;
+		}
+
+		return Arrays.copyOf(path, length);
+	}
+
+	private float heuristic(int from, int to) {
+		int x = graph.getX(from) - graph.getX(to);
+		int y = graph.getY(from) - graph.getY(to);
+		return (float) Math.sqrt(x * x + y * y);
+	}
+
+	private float getG(int node) {
+		return known.contains(node) ? g[node] : Float.POSITIVE_INFINITY;
+	}
+
+	private float getRhs(int node) {
+		return known.contains(node) ? rhs[node] : Float.POSITIVE_INFINITY;
+	}
+
+	private void setCosts(int node, float newG, float newRhs) {
+		known.add(node);
+		g[node] = newG;
+		rhs[node] = newRhs;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= g.length)
+			return;
+
+		g = Arrays.copyOf(g, capacity);
+		rhs = Arrays.copyOf(rhs, capacity);
+		known.ensureCapacity(capacity);
+		changed.ensureCapacity(capacity);
+	}
+
+	private void markChanged(Node node) {
+		int index = node.getIndex();
+		if (index < 0)
+			return;
+
+		changed.ensureCapacity(index + 1);
+		if (changed.add(index)) {
+			if (changedCount == changedNodes.length)
+				changedNodes = Arrays.copyOf(changedNodes, changedCount * 2);
+			changedNodes[changedCount++] = index;
+		}
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void nodeRemoved(Node node) {
+		markChanged(node);
+	}
+
+	@Override
+	public void graphEdited() {
+		// searched again from scratch
+		initialised = false;
+	}
+
+	@Override
+	public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+		markChanged(node1);
+		markChanged(node2);
+	}
+
+	/**
+	 * Stops listening to the graph, after which the next plan starts again from scratch
+	 */
+	public void dispose() {
+		graph.removeListener(this);
+		initialised = false;
+	}
+
+	/**
+	 * @return The point the path is planned from
+	 */
+	public Point getStart() {
+		return graph.getNodeByIndex(start) == null ? null : graph.getNodeByIndex(start).getPoint();
+	}
+
+	/**
+	 * A min-heap of node indices keyed by pairs of floats, compared in order, with removal by index
+	 */
+	private static class KeyQueue {
+		private int[] heap;
+		private float[] keys1;
+		private float[] keys2;
+		private int[] positions;
+		private int size;
+
+		KeyQueue(int capacity) {
+			this.heap = new int[capacity];
+			this.keys1 = new float[capacity];
+			this.keys2 = new float[capacity];
+			this.positions = new int[capacity];
+		}
+
+		void add(int e, float key1, float key2) {
+			remove(e);
+
+			if (e >= positions.length)
+				positions = Arrays.copyOf(positions, Math.max(e + 1, positions.length * 2));
+			if (size == heap.length) {
+				int capacity = Math.max(heap.length * 2, 1);
+				heap = Arrays.copyOf(heap, capacity);
+				keys1 = Arrays.copyOf(keys1, capacity);
+				keys2 = Arrays.copyOf(keys2, capacity);
+			}
+
+			heap[size] = e;
+			keys1[size] = key1;
+			keys2[size] = key2;
+			positions[e] = size;
+			siftUp(size++);
+		}
+
+		void remove(int e) {
+			int position = positionOf(e);
+			if (position < 0)
+				return;
+
+			int last = --size;
+			if (position != last) {
+				move(last, position);
+				siftDown(position);
+				siftUp(position);
+			}
+		}
+
+		int take() {
+			int top = peek();
+			remove(top);
+			return top;
+		}
+
+		int peek() {
+			if (size == 0)
+				throw new NoSuchElementException();
+			return heap[0];
+		}
+
+		float peekKey1() {
+			return size == 0 ? Float.POSITIVE_INFINITY : keys1[0];
+		}
+
+		float peekKey2() {
+			return size == 0 ? Float.POSITIVE_INFINITY : keys2[0];
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		int size() {
+			return size;
+		}
+
+		void clear() {
+			size = 0;
+		}
+
+		private int positionOf(int e) {
+			if (e < 0 || e >= positions.length)
+				return -1;
+			int position = positions[e];
+			return position < size && heap[position] == e ? position : -1;
+		}
+
+		private void siftUp(int position) {
+			while (position > 0) {
+				int parent = (position - 1) >>> 1;
+				if (compare(position, parent) >= 0)
+					break;
+				swap(position, parent);
+				position = parent;
+			}
+		}
+
+		private void siftDown(int position) {
+			while (true) {
+				int left = 2 * position + 1;
+				if (left >= size)
+					break;
+
+				int right = left + 1;
+				int smallest = right < size && compare(right, left) < 0 ? right : left;
+				if (compare(smallest, position) >= 0)
+					break;
+
+				swap(position, smallest);
+				position = smallest;
+			}
+		}
+
+		private int compare(int a, int b) {
+			int c = Float.compare(keys1[a], keys1[b]);
+			return c != 0 ? c : Float.compare(keys2[a], keys2[b]);
+		}
+
+		private void swap(int a, int b) {
+			int e = heap[a];
+			float k1 = keys1[a];
+			float k2 = keys2[a];
+
+			move(b, a);
+
+			heap[b] = e;
+			keys1[b] = k1;
+			keys2[b] = k2;
+			positions[e] = b;
+		}
+
+		private void move(int from, int to) {
+			heap[to] = heap[from];
+			keys1[to] = keys1[from];
+			keys2[to] = keys2[from];
+			positions[heap[to]] = to;
+		}
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.b3.search;
+
+import com.b3.search.util.IntBucketQueue;
+import com.b3.search.util.IntPriorityQueue;
+import com.b3.search.util.IntTakeable;
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.SearchParameters;
+
+import java.util.Arrays;
+
+/**
+ * The cost of the shortest path from every node in a {@link SearchGraph} to one goal, and the neighbour to step to
+ * along it, found by a single Dijkstra search out from the goal.
+ * <p>
+ * Edges cost the same in both directions, so this is the reverse search that every agent heading for the goal
+ * would otherwise do for itself, and any number of agents can follow it from wherever they are.
+ * The field is not updated as the graph is edited; see {@link FlowFieldCache}.
+ *
+ * @author dxw405
+ */
+public class FlowField {
+
+	private final SearchGraph graph;
+	private final int goal;
+
+	// by node index; infinity and -1 for nodes that cannot reach the goal
+	private final float[] distances;
+	private final int[] next;
+	private int reachedCount;
+
+	/**
+	 * Searches the whole graph out from the goal
+	 *
+	 * @param graph The graph to search
+	 * @param goal  The index of the goal node
+	 */
+	public FlowField(SearchGraph graph, int goal) {
+		this.graph = graph;
+		this.goal = goal;
+
+		int capacity = graph.getIndexCapacity();
+		this.distances = new float[capacity];
+		this.next = new int[capacity];
+		Arrays.fill(distances, Float.POSITIVE_INFINITY);
+		Arrays.fill(next, -1);
+
+		if (graph.hasNode(goal))
+			search();
+	}
+
+	private void search() {
+		IntTakeable queue = SearchParameters.isBucketed(SearchAlgorithm.DIJKSTRA, graph) ?
+				new IntBucketQueue(graph.getMaxIntegralCost(), distances.length) :
+				new IntPriorityQueue(distances.length);
+
+		distances[goal] = 0f;
+		queue.add(goal, 0f);
+
+		while (!queue.isEmpty()) {
+			int node = queue.take();
+			float distance = distances[node];
+			reachedCount++;
+
+			for (int i = 0, degree = graph.getNeighbourCount(node); i < degree; i++) {
+				int neighbour = graph.getNeighbour(node, i);
+				float through = distance + graph.getNeighbourCost(node, i);
+				if (through < distances[neighbour]) {
+					distances[neighbour] = through;
+					next[neighbour] = node;
+					queue.add(neighbour, through);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The index of the goal node
+	 */
+	public int getGoal() {
+		return goal;
+	}
+
+	/**
+	 * @param node The index of a node
+	 * @return The cost of the shortest path from the node to the goal, or infinity if it cannot reach it
+	 */
+	public float getDistance(int node) {
+		return node >= 0 && node < distances.length ? distances[node] : Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @param node The index of a node
+	 * @return The index of the neighbour to step to from the node, or -1 if it is the goal or cannot reach it
+	 */
+	public int getNext(int node) {
+		return node >= 0 && node < next.length ? next[node] : -1;
+	}
+
+	/**
+	 * @param tile The tile an agent is on
+	 * @return The tile to step to from there, or null if it is the goal or cannot reach it
+	 */
+	public Point getNext(Point tile) {
+		int node = getNext(graph.indexOf(tile.x, tile.y));
+		return node < 0 ? null : new Point(graph.getX(node), graph.getY(node));
+	}
+
+	/**
+	 * @param tile A tile
+	 * @return True if there is a path from the tile to the goal
+	 */
+	public boolean canReach(Point tile) {
+		return getDistance(graph.indexOf(tile.x, tile.y)) != Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return The number of nodes that can reach the goal, including the goal
+	 */
+	public int getReachedCount() {
+		return reachedCount;
+	}
+
+}
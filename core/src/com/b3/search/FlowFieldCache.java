@@ -0,0 +1,102 @@
+package com.b3.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least-recently-used cache of {@link FlowField FlowFields}, keyed by goal, so that however many agents are
+ * heading to the same tile, the graph is only searched once.
+ * <p>
+ * A flow field covers the whole graph, so any edit may change it; the fields are all dropped as soon as the graph's
+ * version changes, and are searched again when next asked for.
+ * <p>
+ * This is not thread safe, and must be used on the same thread that edits the graph.
+ *
+ * @author dxw405
+ */
+public class FlowFieldCache {
+
+	private final Graph graph;
+	private final int capacity;
+
+	private final LinkedHashMap<Integer, FlowField> fields;
+	private long syncedVersion;
+
+	private int hits;
+	private int misses;
+
+	/**
+	 * Creates an empty cache
+	 *
+	 * @param graph    The graph to search
+	 * @param capacity The maximum number of fields to keep
+	 */
+	public FlowFieldCache(Graph graph, int capacity) {
+		this.graph = graph;
+		this.capacity = capacity;
+		this.fields = new LinkedHashMap<Integer, FlowField>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, FlowField> eldest) {
+				return size() > FlowFieldCache.this.capacity;
+			}
+		};
+		this.syncedVersion = graph.getVersion();
+	}
+
+	/**
+	 * Gets the field leading to the given goal from the cache, or searches for it if it is not cached or the graph
+	 * has been edited since
+	 *
+	 * @param goal The goal tile
+	 * @return The field leading to the goal, which leads nowhere if there is no node at the goal
+	 */
+	public FlowField getField(Point goal) {
+		if (graph.getVersion() != syncedVersion) {
+			fields.clear();
+			syncedVersion = graph.getVersion();
+		}
+
+		int index = graph.indexOf(goal.x, goal.y);
+		FlowField field = fields.get(index);
+		if (field != null) {
+			hits++;
+			return field;
+		}
+
+		misses++;
+		field = new FlowField(graph, index);
+		fields.put(index, field);
+		return field;
+	}
+
+	/**
+	 * Removes all fields from the cache
+	 */
+	public void clear() {
+		fields.clear();
+	}
+
+	/**
+	 * @return The number of fields cached, some of which may be out of date until the next lookup
+	 */
+	public int size() {
+		return fields.size();
+	}
+
+	/**
+	 * @return The number of lookups that were answered from the cache
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return The number of lookups that needed a search
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+}
@@ -2,22 +2,32 @@ package com.b3.search;
 
 import com.b3.util.Utils;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
  * A graph with nodes and edges with costs
  *
  * @author dxw405 bxd428
  */
-public class Graph {
+public class Graph implements SearchGraph {
 
-	private final Map<Point, Node> nodes;
 	private final int width;
 	private final int height;
 
+	// every node is kept by its index, which is found from its point without hashing if it is within the bounds
+	private Node[] nodesByIndex;
+	private int nodeCount;
+	private final Map<Point, Integer> overflowIndices;
+	private final Map<Point, Node> nodesView;
+
+	private final List<GraphListener> listeners;
+	private long version;
+	private int bulkEditDepth;
+
+	// kept up to date by every edit, and only found again by checking every edge once it may have been lowered
+	private int maxIntegralCost;
+	private boolean maxIntegralCostStale;
+
 	/**
 	 * Constructs a new graph with the given x and y dimensions.
 	 * The new graph has all successors, no missing edges nor non-default edge costs
@@ -26,9 +36,16 @@ public class Graph {
 	 * @param height The height of the graph
 	 */
 	public Graph(int width, int height) {
-		this.nodes = new LinkedHashMap<>();
 		this.width = width;
 		this.height = height;
+		this.nodesByIndex = new Node[Math.max(width * height, 1)];
+		this.nodeCount = 0;
+		this.overflowIndices = new HashMap<>();
+		this.nodesView = new NodesView();
+		this.listeners = new ArrayList<>();
+		this.version = 0;
+		this.maxIntegralCost = 0;
+		this.maxIntegralCostStale = false;
 
 		generateEmptyGraph(width, height);
 	}
@@ -41,13 +58,13 @@ public class Graph {
 	 * @return The new node. If it exists then simply return it.
 	 */
 	public Node addNode(Point p) {
-		Node node;
+		Node node = getNode(p);
 
-		if (!nodes.containsKey(p)) {
-			node = new Node(p);
-			nodes.put(p, node);
-		} else
-			node = nodes.get(p);
+		if (node == null) {
+			node = new Node(p, assignIndex(p), this);
+			nodesByIndex[node.getIndex()] = node;
+			nodeCount++;
+		}
 
 		return node;
 	}
@@ -65,12 +82,7 @@ public class Graph {
 		Node node2 = addNode(p2);
 
 		// create edge
-		node1.addNeighbour(node2, cost);
-		node2.addNeighbour(node1, cost);
-
-		// Update adjacency list
-		nodes.put(p1, node1);
-		nodes.put(p2, node2);
+		link(node1, node2, cost);
 	}
 
 	/**
@@ -78,29 +90,51 @@ public class Graph {
 	 * specified in parameters.
 	 * <p>
 	 * Adds every possible successor to the edges.
+	 * Runs in time linear in the number of tiles, as each tile is only linked to its right and top neighbours,
+	 * in a single bulk edit. Tiles are visited column by column, so that every new node's neighbours are added in
+	 * their sorted order, and are only ever appended.
 	 *
 	 * @param xMax max x value (coordinate's x value will go up to xMax-1) IE if you pass 5, it will go from 0 to 4
 	 * @param yMax max y value (coordinate's y value will go up to yMax-1) IE if you pass 5, it will go from 0 to 4
+	 * @see #beginBulkEdit()
 	 */
 	public void generateEmptyGraph(int xMax, int yMax) {
-		ArrayList<Point> points = new ArrayList<>();
-		for (int x = 0; x < xMax; x++) {
-			for (int y = 0; y < yMax; y++) {
-				points.add(new Point(x, y));
-			}
-		}
-		for (Point p1 : points) {
-			for (Point p2 : points) {
-				int xDiff = Math.abs(p1.getX() - p2.getX());
-				int yDiff = Math.abs(p1.getY() - p2.getY());
-				// Check only one of the coords is off by one.
-				if ((xDiff == 1 && yDiff == 0) || (xDiff == 0 && yDiff == 1)) {
-					addEdge(p1, p2, 1);
+		beginBulkEdit();
+		try {
+			for (int x = 0; x < xMax; x++)
+				for (int y = 0; y < yMax; y++)
+					addNode(new Point(x, y));
+
+			for (int x = 0; x < xMax; x++) {
+				for (int y = 0; y < yMax; y++) {
+					Node node = getNode(x, y);
+					if (y + 1 < yMax)
+						link(node, getNode(x, y + 1), 1);
+					if (x + 1 < xMax)
+						link(node, getNode(x + 1, y), 1);
 				}
 			}
+		} finally {
+			endBulkEdit();
 		}
 	}
 
+	/**
+	 * Creates an edge in both directions between two existing nodes
+	 *
+	 * @param node1 The first node
+	 * @param node2 The second node
+	 * @param cost  The edge cost
+	 */
+	private void link(Node node1, Node node2, float cost) {
+		float oldCost = node1.hasNeighbour(node2) ? node1.getEdgeCost(node2) : Float.POSITIVE_INFINITY;
+		node1.addNeighbour(node2, cost);
+		node2.addNeighbour(node1, cost);
+
+		if (oldCost != cost)
+			fireEdgeCostChanged(node1, node2, oldCost, cost);
+	}
+
 	/**
 	 * Tells whether the graph has a specific edge
 	 *
@@ -109,8 +143,8 @@ public class Graph {
 	 * @return True if the graph has a p1 -- p2 edge, false otherwise
 	 */
 	protected boolean hasEdge(Point p1, Point p2) {
-		Node n1 = nodes.get(p1);
-		Node n2 = nodes.get(p2);
+		Node n1 = getNode(p1);
+		Node n2 = getNode(p2);
 
 		return !(n1 == null || n2 == null) && n1.hasNeighbour(n2);
 	}
@@ -122,7 +156,7 @@ public class Graph {
 	 * @return True is the node exists, false otherwise
 	 */
 	public boolean hasNode(Point p) {
-		return nodes.containsKey(p);
+		return getNode(p) != null;
 	}
 
 	/**
@@ -133,15 +167,17 @@ public class Graph {
 	 * @return True if the edge existed and has been removed, false otherwise
 	 */
 	protected boolean removeEdge(Point p1, Point p2) {
-		if (!hasNode(p1) || !hasNode(p2))
+		Node node1 = getNode(p1);
+		Node node2 = getNode(p2);
+		if (node1 == null || node2 == null)
 			return false;
 
-		Node node1 = nodes.get(p1);
-		Node node2 = nodes.get(p2);
-
+		float oldCost = node1.hasNeighbour(node2) ? node1.getEdgeCost(node2) : Float.POSITIVE_INFINITY;
 		boolean removed1 = node1.removeNeighbours(node2);
 		boolean removed2 = node2.removeNeighbours(node1);
 
+		if (removed1 || removed2)
+			fireEdgeCostChanged(node1, node2, oldCost, Float.POSITIVE_INFINITY);
 		return removed1 || removed2;
 	}
 
@@ -151,8 +187,147 @@ public class Graph {
 	 * @param node The node to remove
 	 */
 	public void removeNode(Node node) {
+		// listeners are told about every snipped edge, so they know which nodes were next to it
+		int degree = listeners.isEmpty() || isBulkEditing() ? 0 : node.getNeighbourCount();
+		Node[] neighbours = new Node[degree];
+		float[] costs = new float[degree];
+		for (int i = 0; i < degree; i++) {
+			neighbours[i] = node.getNeighbour(i);
+			costs[i] = node.getNeighbourCost(i);
+		}
+
+		// the edges that listeners are not told about still count towards the maximum cost
+		if (degree == 0)
+			for (int i = 0, n = node.getNeighbourCount(); i < n; i++)
+				trackEdgeCost(node.getNeighbourCost(i), Float.POSITIVE_INFINITY);
+
 		node.clearNeighbours();
-		nodes.remove(node.getPoint());
+
+		// the node may be an equal copy of the graph's own
+		int index = indexOf(node.getPoint());
+		if (index >= 0 && nodesByIndex[index] != null) {
+			nodesByIndex[index] = null;
+			nodeCount--;
+		}
+
+		for (int i = 0; i < degree; i++)
+			fireEdgeCostChanged(node, neighbours[i], costs[i], Float.POSITIVE_INFINITY);
+
+		version++;
+		if (!isBulkEditing())
+			for (GraphListener listener : listeners)
+				listener.nodeRemoved(node);
+	}
+
+	/**
+	 * Removes all nodes and edges from the graph.
+	 * Listeners are not told about each removal, only that the graph has been edited
+	 *
+	 * @see GraphListener#graphEdited()
+	 */
+	public void clear() {
+		Arrays.fill(nodesByIndex, null);
+		nodeCount = 0;
+		maxIntegralCost = 0;
+		maxIntegralCostStale = false;
+		version++;
+		fireGraphEdited();
+	}
+
+	/**
+	 * Starts a bulk edit, during which listeners are not told about each edit.
+	 * This is much quicker when a large part of the graph is edited at once, such as when processing a whole map,
+	 * as every listener would otherwise update itself for every edge.
+	 * Bulk edits can be nested, and listeners are told when the outermost one ends
+	 *
+	 * @see #endBulkEdit()
+	 */
+	public void beginBulkEdit() {
+		bulkEditDepth++;
+	}
+
+	/**
+	 * Ends a bulk edit, telling all listeners once that the graph has been edited if it is the outermost one
+	 *
+	 * @see GraphListener#graphEdited()
+	 */
+	public void endBulkEdit() {
+		if (bulkEditDepth == 0)
+			throw new IllegalStateException("No bulk edit to end");
+
+		version++;
+		if (--bulkEditDepth == 0)
+			fireGraphEdited();
+	}
+
+	private boolean isBulkEditing() {
+		return bulkEditDepth > 0;
+	}
+
+	/**
+	 * Bumps the version and tells all listeners about an edge cost change, unless in a bulk edit
+	 *
+	 * @see GraphListener#edgeCostChanged(Node, Node, float, float)
+	 */
+	void fireEdgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+		trackEdgeCost(oldCost, newCost);
+		version++;
+		if (!isBulkEditing())
+			for (GraphListener listener : listeners)
+				listener.edgeCostChanged(node1, node2, oldCost, newCost);
+	}
+
+	/**
+	 * Keeps the maximum integral edge cost up to date with an edge changing cost
+	 *
+	 * @param oldCost The edge's cost before, or infinity if it was added
+	 * @param newCost The edge's cost now, or infinity if it was removed
+	 */
+	private void trackEdgeCost(float oldCost, float newCost) {
+		if (maxIntegralCostStale)
+			return;
+
+		if (newCost != Float.POSITIVE_INFINITY) {
+			if (!isIntegral(newCost))
+				maxIntegralCost = -1;
+			else if (maxIntegralCost >= 0)
+				maxIntegralCost = Math.max(maxIntegralCost, (int) newCost);
+		}
+
+		// the edge may have been the only one at the maximum, or the only one that is not integral
+		if (oldCost != Float.POSITIVE_INFINITY &&
+				(isIntegral(oldCost) ? maxIntegralCost >= 0 && oldCost >= maxIntegralCost : maxIntegralCost < 0))
+			maxIntegralCostStale = true;
+	}
+
+	private static boolean isIntegral(float cost) {
+		return cost >= 0 && cost == (int) cost;
+	}
+
+	private void fireGraphEdited() {
+		for (GraphListener listener : listeners)
+			listener.graphEdited();
+	}
+
+	/**
+	 * @return The version of this graph, which increases every time a node or edge is changed
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @param listener The listener to tell about every later edit to this graph
+	 */
+	public void addListener(GraphListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener The listener to stop telling about edits
+	 */
+	public void removeListener(GraphListener listener) {
+		listeners.remove(listener);
 	}
 
 	/**
@@ -172,10 +347,19 @@ public class Graph {
 	}
 
 	/**
-	 * @return all the nodes on the graph as a linkedHashSet / Map<Point, Node>
+	 * @return An immutable compressed sparse row snapshot of this graph's current nodes and edges
+	 * @see CompactGraph
+	 */
+	public CompactGraph compact() {
+		return new CompactGraph(this);
+	}
+
+	/**
+	 * @return A read-only view of all the nodes on the graph by their points, in index order
+	 * @see #indexOf(Point)
 	 */
 	public Map<Point, Node> getNodes() {
-		return nodes;
+		return nodesView;
 	}
 
 	/**
@@ -183,7 +367,147 @@ public class Graph {
 	 * @return The node associated with the given key
 	 */
 	public Node getNode(Point point) {
-		return nodes.get(point);
+		int index = indexOf(point);
+		return index < 0 ? null : nodesByIndex[index];
+	}
+
+	/**
+	 * Looks up a node by its coordinates, without allocating a {@link Point} if it is within the graph's bounds
+	 *
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The node at (x, y), or null if there is none
+	 */
+	public Node getNode(int x, int y) {
+		if (x >= 0 && x < width && y >= 0 && y < height)
+			return nodesByIndex[y * width + x];
+
+		return getNode(new Point(x, y));
+	}
+
+	/**
+	 * Gets the dense index of the node at the given point, whether or not the node currently exists.
+	 * Points within the graph's bounds are indexed row by row, so the index of a tile never changes
+	 * even if its node is removed and added again.
+	 * Points outside the bounds are given an index past the end of the grid when first added.
+	 *
+	 * @param point The point to look up
+	 * @return The index, or -1 if the point is outside the bounds and has never been added
+	 * @see Node#getIndex()
+	 */
+	public int indexOf(Point point) {
+		if (point.x >= 0 && point.x < width && point.y >= 0 && point.y < height)
+			return point.y * width + point.x;
+
+		Integer index = overflowIndices.get(point);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The index of the node at (x, y)
+	 * @see #indexOf(Point)
+	 */
+	@Override
+	public int indexOf(int x, int y) {
+		if (x >= 0 && x < width && y >= 0 && y < height)
+			return y * width + x;
+
+		return indexOf(new Point(x, y));
+	}
+
+	/**
+	 * Gets the index for the given point, allocating one if it is outside the graph's bounds
+	 *
+	 * @param point The point to index
+	 * @return The index of the point
+	 */
+	private int assignIndex(Point point) {
+		int index = indexOf(point);
+		if (index >= 0)
+			return index;
+
+		index = width * height + overflowIndices.size();
+		overflowIndices.put(point, index);
+		if (index >= nodesByIndex.length)
+			nodesByIndex = Arrays.copyOf(nodesByIndex, Math.max(index + 1, nodesByIndex.length * 2));
+		return index;
+	}
+
+	/**
+	 * @param index A node index
+	 * @return The node with the given index, or null if there is no such node
+	 * @see #indexOf(Point)
+	 */
+	public Node getNodeByIndex(int index) {
+		return index >= 0 && index < nodesByIndex.length ? nodesByIndex[index] : null;
+	}
+
+	/**
+	 * Only checks every edge if an edit may have lowered the maximum since it was last found
+	 */
+	@Override
+	public int getMaxIntegralCost() {
+		if (maxIntegralCostStale) {
+			maxIntegralCost = 0;
+			for (Node node : nodesByIndex) {
+				if (node == null)
+					continue;
+				for (int i = 0, degree = node.getNeighbourCount(); i < degree; i++) {
+					float cost = node.getNeighbourCost(i);
+					if (!isIntegral(cost)) {
+						maxIntegralCost = -1;
+						break;
+					}
+					maxIntegralCost = Math.max(maxIntegralCost, (int) cost);
+				}
+				if (maxIntegralCost < 0)
+					break;
+			}
+			maxIntegralCostStale = false;
+		}
+
+		return maxIntegralCost;
+	}
+
+	/**
+	 * @return One more than the highest node index that has been given out,
+	 * i.e. the length needed for an array keyed by node index
+	 */
+	@Override
+	public int getIndexCapacity() {
+		return width * height + overflowIndices.size();
+	}
+
+	@Override
+	public boolean hasNode(int node) {
+		return getNodeByIndex(node) != null;
+	}
+
+	@Override
+	public int getX(int node) {
+		return nodesByIndex[node].getPoint().x;
+	}
+
+	@Override
+	public int getY(int node) {
+		return nodesByIndex[node].getPoint().y;
+	}
+
+	@Override
+	public int getNeighbourCount(int node) {
+		return nodesByIndex[node].getNeighbourCount();
+	}
+
+	@Override
+	public int getNeighbour(int node, int i) {
+		return nodesByIndex[node].getNeighbour(i).getIndex();
+	}
+
+	@Override
+	public float getNeighbourCost(int node, int i) {
+		return nodesByIndex[node].getNeighbourCost(i);
 	}
 
 	/**
@@ -211,19 +535,38 @@ public class Graph {
 	public void snipEdges(int baseX, int upToX, int baseY, int upToY) {
 		for (int x = baseX; x < baseX + upToX; x++) {
 			for (int y = baseY; y < baseY + upToY; y++) {
-				Node node = nodes.get(new Point(x, y));
+				Node node = getNode(x, y);
 				if (node != null)
 					removeNode(node);
 			}
 		}
 	}
 
+	/**
+	 * Snips all the edges in the given range in a single bulk edit, so listeners are only told once that the graph
+	 * has been edited, rather than about every snipped edge
+	 *
+	 * @param baseX lower X bound
+	 * @param upToX upper X bound
+	 * @param baseY lower Y bound
+	 * @param upToY upper Y bound
+	 * @see #beginBulkEdit()
+	 */
+	public void snipEdgesInBulk(int baseX, int upToX, int baseY, int upToY) {
+		beginBulkEdit();
+		try {
+			snipEdges(baseX, upToX, baseY, upToY);
+		} finally {
+			endBulkEdit();
+		}
+	}
+
 
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 
-		for (Map.Entry<Point, Node> entry : nodes.entrySet()) {
+		for (Map.Entry<Point, Node> entry : nodesView.entrySet()) {
 			sb.append(entry.getKey())
 					.append(" -- ")
 					.append(entry.getValue().getEdges().keySet())
@@ -241,28 +584,54 @@ public class Graph {
 	 * @param size The width and height of the area to fill with nodes
 	 */
 	public void addNodesInSquare(int x, int y, int size) {
+		addNodesInRectangle(x, y, size, size);
+	}
+
+	/**
+	 * Adds nodes in all spaces in the given range, linking them to each other and
+	 * to any existing nodes bordering the range
+	 *
+	 * @param x      The start X coordinate
+	 * @param y      The start Y coordinate
+	 * @param width  The width of the area to fill with nodes
+	 * @param height The height of the area to fill with nodes
+	 */
+	public void addNodesInRectangle(int x, int y, int width, int height) {
 
 		// add nodes
-		for (int i = x; i < x + size; i++)
-			for (int j = y; j < y + size; j++)
+		for (int i = x; i < x + width; i++)
+			for (int j = y; j < y + height; j++)
 				addNode(new Point(i, j));
 
 		// add edges
-		for (int i = x; i < x + size; i++) {
-			for (int j = y; j < y + size; j++) {
-				Point currentPoint = new Point(i, j);
-				if (hasNode(new Point(i + 1, j)))
-					addEdge(currentPoint, new Point(i + 1, j), 1);
-				if (hasNode(new Point(i - 1, j)))
-					addEdge(currentPoint, new Point(i - 1, j), 1);
-				if (hasNode(new Point(i, j + 1)))
-					addEdge(currentPoint, new Point(i, j + 1), 1);
-				if (hasNode(new Point(i, j - 1)))
-					addEdge(currentPoint, new Point(i, j - 1), 1);
+		for (int i = x; i < x + width; i++) {
+			for (int j = y; j < y + height; j++) {
+				Node node = getNode(i, j);
+
+				// right and top neighbours, and left and bottom neighbours only on the border
+				linkIfPresent(node, i + 1, j);
+				linkIfPresent(node, i, j + 1);
+				if (i == x)
+					linkIfPresent(node, i - 1, j);
+				if (j == y)
+					linkIfPresent(node, i, j - 1);
 			}
 		}
 	}
 
+	/**
+	 * Creates an edge of cost 1 in both directions between the given node and the node at (x, y), if it exists
+	 *
+	 * @param node The node
+	 * @param x    The x coordinate of the other node
+	 * @param y    The y coordinate of the other node
+	 */
+	private void linkIfPresent(Node node, int x, int y) {
+		Node other = getNode(x, y);
+		if (other != null)
+			link(node, other, 1);
+	}
+
 	/**
 	 * @return A random {@link Node} from the graph
 	 */
@@ -289,4 +658,65 @@ public class Graph {
 		return node;
 	}
 
+	/**
+	 * A read-only view of the nodes as a {@link Map}, in index order
+	 */
+	private class NodesView extends AbstractMap<Point, Node> {
+
+		private final Set<Entry<Point, Node>> entries = new AbstractSet<Entry<Point, Node>>() {
+			@Override
+			public Iterator<Entry<Point, Node>> iterator() {
+				return new Iterator<Entry<Point, Node>>() {
+					private int cursor = advance(0);
+
+					private int advance(int from) {
+						while (from < nodesByIndex.length && nodesByIndex[from] == null)
+							from++;
+						return from;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return cursor < nodesByIndex.length;
+					}
+
+					@Override
+					public Entry<Point, Node> next() {
+						if (!hasNext())
+							throw new NoSuchElementException();
+
+						Node node = nodesByIndex[cursor];
+						cursor = advance(cursor + 1);
+						return new SimpleImmutableEntry<>(node.getPoint(), node);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return nodeCount;
+			}
+		};
+
+		@Override
+		public Set<Entry<Point, Node>> entrySet() {
+			return entries;
+		}
+
+		@Override
+		public Node get(Object key) {
+			return key instanceof Point ? getNode((Point) key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return nodeCount;
+		}
+	}
+
 }
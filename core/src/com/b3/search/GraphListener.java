@@ -0,0 +1,38 @@
+package com.b3.search;
+
+/**
+ * Is told about every edit made to a {@link Graph}, after it is made
+ *
+ * @author dxw405
+ * @see Graph#addListener(GraphListener)
+ */
+public interface GraphListener {
+
+	/**
+	 * Called when a node and all its edges are removed from the graph,
+	 * after {@link #edgeCostChanged(Node, Node, float, float)} has been called for each of its edges
+	 *
+	 * @param node The removed node, which no longer has any neighbours
+	 */
+	void nodeRemoved(Node node);
+
+	/**
+	 * Called when the cost of an edge changes, including when it is added or removed.
+	 * Edges are undirected, so this is called once for both directions
+	 *
+	 * @param node1   One end of the edge
+	 * @param node2   The other end of the edge
+	 * @param oldCost The old cost, or infinity if the edge has been added
+	 * @param newCost The new cost, or infinity if the edge has been removed
+	 */
+	void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost);
+
+	/**
+	 * Called instead of the other methods when many edits have been made at once, such as by {@link Graph#clear()}
+	 * or a bulk edit, so anything known about the graph must be found again
+	 *
+	 * @see Graph#beginBulkEdit()
+	 */
+	void graphEdited();
+
+}
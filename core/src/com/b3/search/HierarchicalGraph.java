@@ -0,0 +1,634 @@
+package com.b3.search;
+
+import com.b3.search.util.IntPriorityQueue;
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.StampSet;
+
+import java.util.*;
+
+/**
+ * A hierarchical view of a grid {@link Graph}, for long paths with HPA*.
+ * <p>
+ * The graph is split into square clusters. Where a path can cross the border between two clusters,
+ * transitions are chosen, and the tiles either side of them become entrance nodes of an abstract graph.
+ * Entrances are joined to the entrances across their border, and to the entrances of their own cluster by
+ * the shortest path between them within the cluster, which is kept. A query joins the start and goal to the
+ * entrances of their clusters, searches the much smaller abstract graph, and then refines it into a complete path
+ * from the paths kept, so the cost of a query depends on the number of clusters crossed, not on their size.
+ * <p>
+ * Paths found are not always optimal, but are usually within a few percent. This listens to the graph,
+ * and only the clusters around an edit, such as an added or removed building, are rebuilt before the next query.
+ * Like {@link PathCache}, this is not thread safe, and must be used on the same thread that edits the graph.
+ *
+ * @author dxw405
+ */
+public class HierarchicalGraph implements GraphListener {
+
+	/**
+	 * A run of border crossings longer than this has a transition at each end, rather than one in the middle
+	 */
+	private static final int MAX_SINGLE_TRANSITION = 6;
+
+	private final Graph graph;
+	private final int clusterSize;
+	private final int clustersX;
+	private final int clustersY;
+	private final Cluster[] clusters;
+
+	// {tile in this cluster, tile in neighbour} pairs, flattened, for the border to the east and north of each cluster
+	private final int[][] eastTransitions;
+	private final int[][] northTransitions;
+
+	// by tile index, null if the tile is not an entrance
+	private AbstractNode[] abstractNodes;
+	private int abstractNodeCount;
+	// clusters whose abstract edges are out of date, and borders whose transitions are, by east then north
+	private final BitSet dirtyClusters;
+	private final BitSet dirtyBorders;
+	private long syncedVersion;
+	private int clusterRebuilds;
+
+	private final SearchState local;
+	private final SearchState fromGoal;
+	private final SearchState abstracted;
+	private int expanded;
+	private int maxFrontierSize;
+	private final int[] exploredBounds = new int[4];
+
+	/**
+	 * Creates a hierarchy over the given graph, which is built on the first query
+	 *
+	 * @param graph       The graph to search, which listens to it until {@link #dispose()} is called
+	 * @param clusterSize The width and height of each cluster, in tiles
+	 */
+	public HierarchicalGraph(Graph graph, int clusterSize) {
+		if (clusterSize < 2)
+			throw new IllegalArgumentException("Clusters must be at least 2 tiles wide: " + clusterSize);
+
+		this.graph = graph;
+		this.clusterSize = clusterSize;
+		this.clustersX = Math.max(1, (graph.getWidth() + clusterSize - 1) / clusterSize);
+		this.clustersY = Math.max(1, (graph.getHeight() + clusterSize - 1) / clusterSize);
+
+		this.clusters = new Cluster[clustersX * clustersY];
+		for (int cy = 0; cy < clustersY; cy++) {
+			for (int cx = 0; cx < clustersX; cx++) {
+				int x = cx * clusterSize;
+				int y = cy * clusterSize;
+				clusters[cy * clustersX + cx] = new Cluster(x, y,
+						Math.min(clusterSize, graph.getWidth() - x), Math.min(clusterSize, graph.getHeight() - y));
+			}
+		}
+
+		this.eastTransitions = new int[clusters.length][0];
+		this.northTransitions = new int[clusters.length][0];
+		this.abstractNodes = new AbstractNode[graph.getIndexCapacity()];
+		this.dirtyClusters = new BitSet(clusters.length);
+		this.dirtyBorders = new BitSet(clusters.length * 2);
+		markAllDirty();
+		this.syncedVersion = graph.getVersion();
+
+		this.local = new SearchState(graph.getIndexCapacity());
+		this.fromGoal = new SearchState(graph.getIndexCapacity());
+		this.abstracted = new SearchState(graph.getIndexCapacity());
+
+		graph.addListener(this);
+	}
+
+	/**
+	 * Searches for a path between the two given points, through the abstract graph
+	 *
+	 * @param start The start point
+	 * @param goal  The goal point
+	 * @return The path found, which is empty if the points are not connected or there are no nodes at them.
+	 * The expanded count includes both the abstract search and the refinement
+	 */
+	public PathResult findPath(Point start, Point goal) {
+		long startTime = System.nanoTime();
+		update();
+
+		expanded = 0;
+		maxFrontierSize = 0;
+		exploredBounds[0] = exploredBounds[1] = Integer.MAX_VALUE;
+		exploredBounds[2] = exploredBounds[3] = Integer.MIN_VALUE;
+
+		int s = graph.indexOf(start.x, start.y);
+		int g = graph.indexOf(goal.x, goal.y);
+		int[] path = new int[0];
+		float cost = Float.POSITIVE_INFINITY;
+
+		if (graph.hasNode(s) && graph.hasNode(g) && clusterOf(s) >= 0 && clusterOf(g) >= 0) {
+			int startCluster = clusterOf(s);
+			int goalCluster = clusterOf(g);
+
+			// a path within one cluster needs no abstract search
+			if (startCluster == goalCluster && searchCluster(local, s, g, clusters[startCluster])) {
+				path = local.tracePath(s, g);
+				cost = local.cost[g];
+			} else {
+				int[] abstractPath = searchAbstract(s, g, startCluster, goalCluster);
+				if (abstractPath != null) {
+					path = refine(abstractPath, s, g);
+					cost = abstracted.cost[g];
+				}
+			}
+		}
+
+		List<Point> points = new ArrayList<>(path.length);
+		for (int node : path)
+			points.add(new Point(graph.getX(node), graph.getY(node)));
+
+		return new PathResult(SearchAlgorithm.A_STAR, path, points, cost, expanded, maxFrontierSize,
+				System.nanoTime() - startTime, exploredBounds.clone());
+	}
+
+	/**
+	 * Searches the abstract graph, with the start and goal joined to the entrances of their clusters.
+	 * This leaves the searches from the start and goal within their clusters in {@link #local} and
+	 * {@link #fromGoal}, for the refinement of the first and last abstract edges
+	 *
+	 * @return The abstract path from start to goal, or null if there is none
+	 */
+	private int[] searchAbstract(int start, int goal, int startCluster, int goalCluster) {
+		searchCluster(fromGoal, goal, -1, clusters[goalCluster]);
+		searchCluster(local, start, -1, clusters[startCluster]);
+		int[] startEntrances = clusters[startCluster].entrances;
+
+		int goalX = graph.getX(goal);
+		int goalY = graph.getY(goal);
+		SearchState state = abstracted;
+		state.reset(graph.getIndexCapacity());
+		state.reach(start, -1, 0f, heuristic(start, goalX, goalY));
+
+		while (!state.queue.isEmpty()) {
+			int node = state.queue.take();
+			state.visited.add(node);
+			explore(node);
+
+			if (node == goal)
+				return state.tracePath(start, goal);
+
+			float g = state.cost[node];
+			if (node == start) {
+				for (int entrance : startEntrances)
+					if (entrance != start && local.reached.contains(entrance))
+						relaxAbstract(entrance, node, g + local.cost[entrance], goalX, goalY);
+			}
+
+			AbstractNode abstractNode = abstractNodes[node];
+			if (abstractNode != null) {
+				for (int i = 0; i < abstractNode.count; i++)
+					relaxAbstract(abstractNode.targets[i], node, g + abstractNode.costs[i], goalX, goalY);
+
+				// the goal is joined to the entrances of its cluster by the paths from it
+				if (clusterOf(node) == goalCluster && fromGoal.reached.contains(node))
+					relaxAbstract(goal, node, g + fromGoal.cost[node], goalX, goalY);
+			}
+
+			maxFrontierSize = Math.max(maxFrontierSize, state.queue.size());
+		}
+
+		return null;
+	}
+
+	private void relaxAbstract(int node, int parent, float g, int goalX, int goalY) {
+		if (!abstracted.visited.contains(node) && g < abstracted.getCost(node))
+			abstracted.reach(node, parent, g, g + heuristic(node, goalX, goalY));
+	}
+
+	/**
+	 * Replaces every abstract edge with the tiles of the path along it, which were found either when the
+	 * clusters were built, or when the start and goal were joined to the abstract graph
+	 *
+	 * @param abstractPath The abstract path, from start to goal
+	 * @return The complete path, from start to goal
+	 */
+	private int[] refine(int[] abstractPath, int start, int goal) {
+		int[] path = new int[abstractPath.length];
+		int length = 0;
+		path[length++] = abstractPath[0];
+
+		for (int i = 1; i < abstractPath.length; i++) {
+			int from = abstractPath[i - 1];
+			int to = abstractPath[i];
+
+			int[] segment;
+			if (clusterOf(from) != clusterOf(to))
+				// an edge across a border
+				segment = new int[]{from, to};
+			else if (from == start)
+				segment = local.tracePath(start, to);
+			else if (to == goal)
+				segment = reverse(fromGoal.tracePath(goal, from));
+			else
+				segment = abstractNodes[from].getPath(to);
+
+			if (length + segment.length - 1 > path.length)
+				path = Arrays.copyOf(path, Math.max(path.length * 2, length + segment.length));
+			System.arraycopy(segment, 1, path, length, segment.length - 1);
+			length += segment.length - 1;
+		}
+
+		return Arrays.copyOf(path, length);
+	}
+
+	private static int[] reverse(int[] path) {
+		for (int i = 0, j = path.length - 1; i < j; i++, j--) {
+			int swap = path[i];
+			path[i] = path[j];
+			path[j] = swap;
+		}
+		return path;
+	}
+
+	/**
+	 * A* within a single cluster, or Dijkstra to every tile in it if there is no target
+	 *
+	 * @param state   The state to search with
+	 * @param source  The tile to search from
+	 * @param target  The tile to search for, or -1 to reach every tile
+	 * @param cluster The cluster to stay within
+	 * @return True if the target was found, or if there is no target
+	 */
+	private boolean searchCluster(SearchState state, int source, int target, Cluster cluster) {
+		state.reset(graph.getIndexCapacity());
+
+		int targetX = target < 0 ? 0 : graph.getX(target);
+		int targetY = target < 0 ? 0 : graph.getY(target);
+		state.reach(source, -1, 0f, target < 0 ? 0f : heuristic(source, targetX, targetY));
+
+		while (!state.queue.isEmpty()) {
+			int node = state.queue.take();
+			state.visited.add(node);
+			explore(node);
+
+			if (node == target)
+				return true;
+
+			float g = state.cost[node];
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+				int neighbour = graph.getNeighbour(node, i);
+				if (state.visited.contains(neighbour) || !cluster.contains(graph.getX(neighbour), graph.getY(neighbour)))
+					continue;
+
+				float tentative = g + graph.getNeighbourCost(node, i);
+				if (tentative < state.getCost(neighbour))
+					state.reach(neighbour, node, tentative,
+							target < 0 ? tentative : tentative + heuristic(neighbour, targetX, targetY));
+			}
+
+			maxFrontierSize = Math.max(maxFrontierSize, state.queue.size());
+		}
+
+		return target < 0;
+	}
+
+	private float heuristic(int node, int goalX, int goalY) {
+		int x = graph.getX(node) - goalX;
+		int y = graph.getY(node) - goalY;
+		return (float) Math.sqrt(x * x + y * y);
+	}
+
+	private void explore(int node) {
+		expanded++;
+		int x = graph.getX(node);
+		int y = graph.getY(node);
+		exploredBounds[0] = Math.min(exploredBounds[0], x);
+		exploredBounds[1] = Math.min(exploredBounds[1], y);
+		exploredBounds[2] = Math.max(exploredBounds[2], x);
+		exploredBounds[3] = Math.max(exploredBounds[3], y);
+	}
+
+	/**
+	 * Rebuilds the borders and abstract edges of every cluster that has been edited since the last query
+	 */
+	private void update() {
+		if (graph.getVersion() != syncedVersion) {
+			// edited without telling us, such as by clear()
+			markAllDirty();
+			syncedVersion = graph.getVersion();
+		}
+
+		// a border's transitions are the entrances of the clusters on both sides
+		for (int b = dirtyBorders.nextSetBit(0); b >= 0; b = dirtyBorders.nextSetBit(b + 1)) {
+			boolean east = b < clusters.length;
+			int c = east ? b : b - clusters.length;
+			Cluster cluster = clusters[c];
+
+			if (east) {
+				eastTransitions[c] = c % clustersX + 1 < clustersX ?
+						findTransitions(cluster.x + cluster.width - 1, cluster.y, 1, 0, cluster.height) : new int[0];
+				dirtyClusters.set(c);
+				if (c % clustersX + 1 < clustersX)
+					dirtyClusters.set(c + 1);
+			} else {
+				northTransitions[c] = c / clustersX + 1 < clustersY ?
+						findTransitions(cluster.x, cluster.y + cluster.height - 1, 0, 1, cluster.width) : new int[0];
+				dirtyClusters.set(c);
+				if (c / clustersX + 1 < clustersY)
+					dirtyClusters.set(c + clustersX);
+			}
+		}
+
+		for (int c = dirtyClusters.nextSetBit(0); c >= 0; c = dirtyClusters.nextSetBit(c + 1))
+			rebuildCluster(c);
+
+		dirtyBorders.clear();
+		dirtyClusters.clear();
+	}
+
+	private void markAllDirty() {
+		dirtyClusters.set(0, clusters.length);
+		dirtyBorders.set(0, clusters.length * 2);
+	}
+
+	/**
+	 * Finds the transitions along one border, where each run of crossings gets a transition in the middle,
+	 * or one at each end if it is long
+	 *
+	 * @param x      The x of the first tile on this side of the border
+	 * @param y      The y of the first tile on this side of the border
+	 * @param dx     1 if the border is crossed horizontally
+	 * @param dy     1 if the border is crossed vertically
+	 * @param length The length of the border
+	 * @return {this side, other side} pairs of tile indices
+	 */
+	private int[] findTransitions(int x, int y, int dx, int dy, int length) {
+		int[] transitions = new int[0];
+		int runStart = -1;
+
+		for (int i = 0; i <= length; i++) {
+			boolean open = i < length && canCross(x + dy * i, y + dx * i, dx, dy);
+			if (open && runStart < 0) {
+				runStart = i;
+			} else if (!open && runStart >= 0) {
+				int runEnd = i - 1;
+				if (runEnd - runStart + 1 > MAX_SINGLE_TRANSITION) {
+					transitions = addTransition(transitions, x + dy * runStart, y + dx * runStart, dx, dy);
+					transitions = addTransition(transitions, x + dy * runEnd, y + dx * runEnd, dx, dy);
+				} else {
+					int middle = (runStart + runEnd) / 2;
+					transitions = addTransition(transitions, x + dy * middle, y + dx * middle, dx, dy);
+				}
+				runStart = -1;
+			}
+		}
+
+		return transitions;
+	}
+
+	private boolean canCross(int x, int y, int dx, int dy) {
+		Node node = graph.getNode(x, y);
+		Node other = graph.getNode(x + dx, y + dy);
+		return node != null && other != null && node.hasNeighbour(other);
+	}
+
+	private int[] addTransition(int[] transitions, int x, int y, int dx, int dy) {
+		int[] added = Arrays.copyOf(transitions, transitions.length + 2);
+		added[transitions.length] = graph.indexOf(x, y);
+		added[transitions.length + 1] = graph.indexOf(x + dx, y + dy);
+		return added;
+	}
+
+	/**
+	 * Recreates the entrances of the given cluster, with their edges across its borders and within it
+	 */
+	private void rebuildCluster(int c) {
+		Cluster cluster = clusters[c];
+		for (int entrance : cluster.entrances) {
+			abstractNodes[entrance] = null;
+			abstractNodeCount--;
+		}
+
+		int cx = c % clustersX;
+		int cy = c / clustersX;
+		Map<Integer, AbstractNode> entrances = new LinkedHashMap<>();
+		addCrossings(entrances, eastTransitions[c], 0, 1);
+		addCrossings(entrances, northTransitions[c], 0, 1);
+		if (cx > 0)
+			addCrossings(entrances, eastTransitions[c - 1], 1, 0);
+		if (cy > 0)
+			addCrossings(entrances, northTransitions[c - clustersX], 1, 0);
+
+		cluster.entrances = new int[entrances.size()];
+		int i = 0;
+		for (int entrance : entrances.keySet())
+			cluster.entrances[i++] = entrance;
+
+		if (graph.getIndexCapacity() > abstractNodes.length)
+			abstractNodes = Arrays.copyOf(abstractNodes, graph.getIndexCapacity());
+
+		for (AbstractNode node : entrances.values()) {
+			searchCluster(local, node.tile, -1, cluster);
+			for (int other : cluster.entrances)
+				if (other != node.tile && local.reached.contains(other))
+					node.add(other, local.cost[other], local.tracePath(node.tile, other));
+
+			abstractNodes[node.tile] = node;
+			abstractNodeCount++;
+		}
+		clusterRebuilds++;
+	}
+
+	/**
+	 * Adds an entrance for each transition, with an edge to the tile across the border
+	 *
+	 * @param ours   The offset in each pair of the tile in this cluster
+	 * @param theirs The offset in each pair of the tile in the neighbouring cluster
+	 */
+	private void addCrossings(Map<Integer, AbstractNode> entrances, int[] transitions, int ours, int theirs) {
+		for (int i = 0; i < transitions.length; i += 2) {
+			int tile = transitions[i + ours];
+			int other = transitions[i + theirs];
+			AbstractNode node = entrances.computeIfAbsent(tile, AbstractNode::new);
+			node.add(other, graph.getNodeByIndex(tile).getEdgeCost(graph.getNodeByIndex(other)), null);
+		}
+	}
+
+	/**
+	 * @return The index of the cluster holding the given tile, or -1 if it is outside the graph
+	 */
+	private int clusterOf(int node) {
+		return clusterAt(graph.getX(node), graph.getY(node));
+	}
+
+	/**
+	 * @return The index of the cluster holding the given tile, or -1 if it is outside the graph
+	 */
+	private int clusterAt(int x, int y) {
+		if (x < 0 || y < 0 || x >= graph.getWidth() || y >= graph.getHeight())
+			return -1;
+		return (y / clusterSize) * clustersX + x / clusterSize;
+	}
+
+	@Override
+	public void nodeRemoved(Node node) {
+		// its edges have already been marked
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void graphEdited() {
+		markAllDirty();
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+		// the nodes may already be removed, so cannot be looked up by index
+		Point p1 = node1.getPoint();
+		Point p2 = node2.getPoint();
+		int c1 = clusterAt(p1.x, p1.y);
+		int c2 = clusterAt(p2.x, p2.y);
+		syncedVersion = graph.getVersion();
+
+		if (c1 < 0 || c2 < 0)
+			return;
+
+		dirtyClusters.set(c1);
+		dirtyClusters.set(c2);
+
+		// an edge across a border can change its transitions
+		if (c1 != c2 && Math.abs(p1.x - p2.x) + Math.abs(p1.y - p2.y) == 1) {
+			int lower = Math.min(c1, c2);
+			dirtyBorders.set(p1.y == p2.y ? lower : clusters.length + lower);
+		}
+	}
+
+	/**
+	 * Stops listening to the graph, after which the hierarchy is only safe to use if the graph is not edited
+	 */
+	public void dispose() {
+		graph.removeListener(this);
+	}
+
+	/**
+	 * @return The number of entrance nodes in the abstract graph, which is built if it is out of date
+	 */
+	public int getAbstractNodeCount() {
+		update();
+		return abstractNodeCount;
+	}
+
+	/**
+	 * @return The number of times a cluster's entrances and abstract edges have been rebuilt
+	 */
+	public int getClusterRebuilds() {
+		return clusterRebuilds;
+	}
+
+	/**
+	 * @return The width and height of each cluster, in tiles
+	 */
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	/**
+	 * A rectangle of tiles
+	 */
+	private static class Cluster {
+		private final int x, y, width, height;
+		private int[] entrances = new int[0];
+
+		Cluster(int x, int y, int width, int height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		boolean contains(int tx, int ty) {
+			return tx >= x && ty >= y && tx < x + width && ty < y + height;
+		}
+	}
+
+	/**
+	 * A node in the abstract graph, which is an entrance to a cluster
+	 */
+	private static class AbstractNode {
+		private final int tile;
+		private int[] targets = new int[4];
+		private float[] costs = new float[4];
+		// the tiles along each edge within the cluster, or null for an edge across a border
+		private int[][] paths = new int[4][];
+		private int count;
+
+		AbstractNode(int tile) {
+			this.tile = tile;
+		}
+
+		void add(int target, float cost, int[] path) {
+			if (count == targets.length) {
+				targets = Arrays.copyOf(targets, count * 2);
+				costs = Arrays.copyOf(costs, count * 2);
+				paths = Arrays.copyOf(paths, count * 2);
+			}
+			targets[count] = target;
+			costs[count] = cost;
+			paths[count] = path;
+			count++;
+		}
+
+		int[] getPath(int target) {
+			for (int i = 0; i < count; i++)
+				if (targets[i] == target && paths[i] != null)
+					return paths[i];
+			throw new IllegalStateException("No path from " + tile + " to " + target + " within the cluster");
+		}
+	}
+
+	/**
+	 * The state of one search, keyed by node index and reused between searches
+	 */
+	private static class SearchState {
+		private final StampSet reached;
+		private final StampSet visited;
+		private final IntPriorityQueue queue;
+		private int[] parent;
+		private float[] cost;
+
+		SearchState(int capacity) {
+			this.reached = new StampSet(capacity);
+			this.visited = new StampSet(capacity);
+			this.queue = new IntPriorityQueue(capacity);
+			this.parent = new int[Math.max(capacity, 1)];
+			this.cost = new float[Math.max(capacity, 1)];
+		}
+
+		void reset(int capacity) {
+			if (capacity > parent.length) {
+				parent = Arrays.copyOf(parent, capacity);
+				cost = Arrays.copyOf(cost, capacity);
+				reached.ensureCapacity(capacity);
+				visited.ensureCapacity(capacity);
+			}
+			reached.clear();
+			visited.clear();
+			queue.clear();
+		}
+
+		void reach(int node, int from, float g, float priority) {
+			reached.add(node);
+			parent[node] = from;
+			cost[node] = g;
+			queue.add(node, priority);
+		}
+
+		float getCost(int node) {
+			return reached.contains(node) ? cost[node] : Float.POSITIVE_INFINITY;
+		}
+
+		int[] tracePath(int start, int goal) {
+			int length = 1;
+			for (int node = goal; node != start; node = parent[node])
+				length++;
+
+			int[] path = new int[length];
+			for (int node = goal, i = length - 1; i >= 0; node = parent[node], i--)
+				path[i] = node;
+			return path;
+		}
+	}
+
+}
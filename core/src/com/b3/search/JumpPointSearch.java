@@ -0,0 +1,265 @@
+package com.b3.search;
+
+import java.util.Arrays;
+
+/**
+ * Finds the successors of nodes for Jump Point Search on a 4-connected grid.
+ * <p>
+ * Instead of adding every neighbour to the frontier, a node jumps in straight lines over the tiles
+ * that only lie on one of many equally short paths, and only adds the jump points where a path
+ * may need to turn. Paths are made canonical by moving vertically first: a vertical jump scans
+ * horizontally from every tile it passes, and a horizontal jump only turns where a wall forces it to.
+ * <p>
+ * Jumping is only valid over edges of {@link #UNIT_COST}. A node with any other edge, such as
+ * a road or grass tile, or an edge to a tile that is not next to it, is always a jump point, and
+ * all of its neighbours are searched as in A*; so the paths found are optimal on any graph.
+ * Successors are returned in the same order for the same graph, so searches are repeatable.
+ *
+ * @author dxw405
+ */
+public class JumpPointSearch {
+
+	/**
+	 * The edge cost of the uniform tiles that can be jumped over
+	 */
+	public static final float UNIT_COST = 1f;
+
+	private SearchGraph graph;
+	private int goal;
+
+	private int[] successors = new int[8];
+	private float[] successorCosts = new float[8];
+	private int successorCount;
+
+	private final int[] scannedBounds = new int[4];
+
+	/**
+	 * Prepares for a new search
+	 *
+	 * @param graph The graph to search
+	 * @param goal  The index of the goal node, which is always a jump point
+	 */
+	public void reset(SearchGraph graph, int goal) {
+		this.graph = graph;
+		this.goal = goal;
+		this.successorCount = 0;
+		scannedBounds[0] = scannedBounds[1] = Integer.MAX_VALUE;
+		scannedBounds[2] = scannedBounds[3] = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Finds the jump points that follow the given node, which can then be read with
+	 * {@link #getSuccessor(int)} and {@link #getSuccessorCost(int)}
+	 *
+	 * @param node   The node being expanded
+	 * @param parent The node it was reached from, or -1 if it is the start node
+	 * @return The number of successors found
+	 */
+	public int findSuccessors(int node, int parent) {
+		successorCount = 0;
+		scan(node);
+
+		if (parent < 0 || !isUniform(node)) {
+			// every direction
+			int x = graph.getX(node);
+			int y = graph.getY(node);
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+				int neighbour = graph.getNeighbour(node, i);
+				float cost = graph.getNeighbourCost(node, i);
+				int dx = graph.getX(neighbour) - x;
+				int dy = graph.getY(neighbour) - y;
+
+				if (cost == UNIT_COST && Math.abs(dx) + Math.abs(dy) == 1)
+					jump(node, dx, dy);
+				else
+					addSuccessor(neighbour, cost);
+			}
+			return successorCount;
+		}
+
+		// jumps are straight, so the parent is directly behind
+		int dx = Integer.signum(graph.getX(node) - graph.getX(parent));
+		int dy = Integer.signum(graph.getY(node) - graph.getY(parent));
+
+		if (dx != 0) {
+			jump(node, dx, 0);
+			if (isForced(node, dx, 1))
+				jump(node, 0, 1);
+			if (isForced(node, dx, -1))
+				jump(node, 0, -1);
+		} else {
+			jump(node, 0, dy);
+			jump(node, 1, 0);
+			jump(node, -1, 0);
+		}
+
+		return successorCount;
+	}
+
+	/**
+	 * @param i The successor, from 0 to the count returned by {@link #findSuccessors(int, int)}
+	 * @return The index of the successor node
+	 */
+	public int getSuccessor(int i) {
+		return successors[i];
+	}
+
+	/**
+	 * @param i The successor, from 0 to the count returned by {@link #findSuccessors(int, int)}
+	 * @return The cost of the path from the expanded node to the successor
+	 */
+	public float getSuccessorCost(int i) {
+		return successorCosts[i];
+	}
+
+	/**
+	 * @param from The node to step from
+	 * @param to   A jump point reached from it, in a straight line
+	 * @return The next node along the path from {@code from} to {@code to}, which is {@code to} itself if
+	 * they are joined by an edge
+	 */
+	public int stepTowards(int from, int to) {
+		for (int i = 0, n = graph.getNeighbourCount(from); i < n; i++)
+			if (graph.getNeighbour(from, i) == to)
+				return to;
+
+		int dx = Integer.signum(graph.getX(to) - graph.getX(from));
+		int dy = Integer.signum(graph.getY(to) - graph.getY(from));
+		return step(from, dx, dy);
+	}
+
+	/**
+	 * @return The bounding box of every tile looked at since the last reset, including the tiles that were
+	 * jumped over and the walls beside them, as {minX, minY, maxX, maxY}
+	 */
+	public int[] getScannedBounds() {
+		return scannedBounds;
+	}
+
+	/**
+	 * Jumps from the given node in one direction, adding the jump point found, if any
+	 */
+	private void jump(int node, int dx, int dy) {
+		int next = step(node, dx, dy);
+		if (next < 0)
+			return;
+
+		int found = dx != 0 ? jumpHorizontally(next, dx) : jumpVertically(next, dy);
+		if (found >= 0) {
+			int distance = Math.abs(graph.getX(found) - graph.getX(node)) + Math.abs(graph.getY(found) - graph.getY(node));
+			addSuccessor(found, distance * UNIT_COST);
+		}
+	}
+
+	/**
+	 * @return The first jump point found moving horizontally from the given node, or -1 if a wall is reached first
+	 */
+	private int jumpHorizontally(int node, int dx) {
+		while (true) {
+			scan(node);
+			if (node == goal || !isUniform(node) || isForced(node, dx, 1) || isForced(node, dx, -1))
+				return node;
+
+			node = step(node, dx, 0);
+			if (node < 0)
+				return -1;
+		}
+	}
+
+	/**
+	 * @return The first jump point found moving vertically from the given node, or -1 if a wall is reached first
+	 */
+	private int jumpVertically(int node, int dy) {
+		while (true) {
+			scan(node);
+			if (node == goal || !isUniform(node))
+				return node;
+
+			// a path may turn here to reach a jump point to either side
+			for (int dx = -1; dx <= 1; dx += 2) {
+				int side = step(node, dx, 0);
+				if (side >= 0 && jumpHorizontally(side, dx) >= 0)
+					return node;
+			}
+
+			node = step(node, 0, dy);
+			if (node < 0)
+				return -1;
+		}
+	}
+
+	/**
+	 * A path moving horizontally is forced to turn vertically if it could not have turned one tile earlier
+	 *
+	 * @param node The node reached moving horizontally
+	 * @param dx   The horizontal direction
+	 * @param dy   The vertical direction to turn in
+	 * @return True if a path must turn at this node
+	 */
+	private boolean isForced(int node, int dx, int dy) {
+		int side = step(node, 0, dy);
+		if (side < 0)
+			return false;
+
+		int behind = step(node, -dx, 0);
+		int behindSide = behind < 0 ? -1 : step(behind, 0, dy);
+		return behindSide < 0 || step(behindSide, dx, 0) != side;
+	}
+
+	/**
+	 * @return The neighbour in the given direction, or -1 if there is no edge of {@link #UNIT_COST} to it
+	 */
+	private int step(int node, int dx, int dy) {
+		int x = graph.getX(node) + dx;
+		int y = graph.getY(node) + dy;
+		for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+			int neighbour = graph.getNeighbour(node, i);
+			if (graph.getX(neighbour) == x && graph.getY(neighbour) == y)
+				return graph.getNeighbourCost(node, i) == UNIT_COST ? neighbour : -1;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return True if every edge of the node is of {@link #UNIT_COST}, to a tile next to it
+	 */
+	private boolean isUniform(int node) {
+		int x = graph.getX(node);
+		int y = graph.getY(node);
+		for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+			int neighbour = graph.getNeighbour(node, i);
+			if (graph.getNeighbourCost(node, i) != UNIT_COST ||
+					Math.abs(graph.getX(neighbour) - x) + Math.abs(graph.getY(neighbour) - y) != 1)
+				return false;
+		}
+		return true;
+	}
+
+	private void addSuccessor(int node, float cost) {
+		if (successorCount == successors.length) {
+			successors = Arrays.copyOf(successors, successorCount * 2);
+			successorCosts = Arrays.copyOf(successorCosts, successorCount * 2);
+		}
+
+		successors[successorCount] = node;
+		successorCosts[successorCount] = cost;
+		successorCount++;
+	}
+
+	/**
+	 * Records that the given node, and the edges around it, have been looked at
+	 */
+	private void scan(int node) {
+		int x = graph.getX(node);
+		int y = graph.getY(node);
+		if (x - 1 < scannedBounds[0])
+			scannedBounds[0] = x - 1;
+		if (y - 1 < scannedBounds[1])
+			scannedBounds[1] = y - 1;
+		if (x + 1 > scannedBounds[2])
+			scannedBounds[2] = x + 1;
+		if (y + 1 > scannedBounds[3])
+			scannedBounds[3] = y + 1;
+	}
+
+}
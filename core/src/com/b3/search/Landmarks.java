@@ -0,0 +1,421 @@
+package com.b3.search;
+
+import com.b3.search.util.IntPriorityQueue;
+import com.b3.search.util.StampSet;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Precomputed distances from a few landmark nodes to every node in a {@link Graph}, for the ALT
+ * (A*, landmarks and triangle inequality) heuristic.
+ * <p>
+ * By the triangle inequality, the distance between two nodes is at least the difference of their distances from any
+ * landmark, so the largest such difference never overestimates. Unlike the Euclidean distance, this sees the
+ * detours forced by walls and expensive ground, as long as a landmark lies somewhere behind them. Landmarks are chosen
+ * by farthest point selection, each as far as possible from those before it, so they end up around the edges.
+ * <p>
+ * This listens to the graph, and after an edit only the nodes whose distances may have changed are searched again,
+ * before the next estimate. Like {@link HierarchicalGraph}, this is not thread safe, and must be used on the same
+ * thread that edits the graph.
+ *
+ * @author dxw405
+ */
+public class Landmarks implements GraphListener {
+
+	private final Graph graph;
+	private final int count;
+
+	// node index of each landmark, or -1 if there were too few nodes to place it
+	private final int[] landmarks;
+	// distance from each landmark to each node, by node then landmark, infinity if unreachable
+	private float[] distances;
+	// shortest path tree of each landmark, by landmark then node, -1 at the landmark and unreached nodes
+	private int[][] parents;
+	private int capacity;
+
+	// ends of the edges that have become more expensive or cheaper since the distances were last updated
+	private final BitSet raised;
+	private final BitSet lowered;
+	private boolean dirty;
+	private long syncedVersion;
+
+	private final IntPriorityQueue queue;
+	private final StampSet affected;
+	private int[] affectedNodes;
+	private int settled;
+
+	/**
+	 * Creates landmarks for the given graph, which are placed and measured on the first estimate
+	 *
+	 * @param graph The graph to measure, which listens to it until {@link #dispose()} is called
+	 * @param count The number of landmarks
+	 */
+	public Landmarks(Graph graph, int count) {
+		if (count < 1)
+			throw new IllegalArgumentException("There must be at least 1 landmark: " + count);
+
+		this.graph = graph;
+		this.count = count;
+		this.landmarks = new int[count];
+		this.raised = new BitSet();
+		this.lowered = new BitSet();
+		this.queue = new IntPriorityQueue(0);
+		this.affected = new StampSet(0);
+		this.affectedNodes = new int[0];
+		this.dirty = true;
+		this.syncedVersion = -1;
+
+		graph.addListener(this);
+	}
+
+	/**
+	 * Estimates the cost of the shortest path between two nodes, without overestimating it
+	 *
+	 * @param node The index of a node
+	 * @param goal The index of another node
+	 * @return The largest difference between their distances from any landmark that reaches both
+	 */
+	public float estimate(int node, int goal) {
+		if (dirty || graph.getVersion() != syncedVersion)
+			update();
+		if (node < 0 || goal < 0 || node >= capacity || goal >= capacity)
+			return 0f;
+
+		float best = 0f;
+		for (int l = 0, a = node * count, b = goal * count; l < count; l++) {
+			float fromNode = distances[a + l];
+			float fromGoal = distances[b + l];
+			if (fromNode != Float.POSITIVE_INFINITY && fromGoal != Float.POSITIVE_INFINITY)
+				best = Math.max(best, Math.abs(fromNode - fromGoal));
+		}
+		return best;
+	}
+
+	/**
+	 * @param node A node, which may be a copy not belonging to the graph
+	 * @param goal Another node
+	 * @return The estimated cost of the shortest path between them
+	 * @see #estimate(int, int)
+	 */
+	public float estimate(Node node, Node goal) {
+		return estimate(indexOf(node), indexOf(goal));
+	}
+
+	/**
+	 * Brings the distances up to date with the graph, searching again from the ends of the edges edited since the
+	 * last update. If the graph has been edited without telling us, such as by {@link Graph#clear()}, or a node
+	 * has been added outside of its bounds, the landmarks are all placed and measured again.
+	 */
+	public void update() {
+		if (graph.getVersion() != syncedVersion || graph.getIndexCapacity() != capacity) {
+			rebuild();
+		} else {
+			for (int l = 0; l < count; l++)
+				if (landmarks[l] < 0 || graph.hasNode(landmarks[l]))
+					repair(l);
+
+			// a removed landmark is replaced, away from the others
+			for (int l = 0; l < count; l++)
+				if (landmarks[l] >= 0 && !graph.hasNode(landmarks[l]))
+					place(l);
+		}
+
+		raised.clear();
+		lowered.clear();
+		dirty = false;
+		syncedVersion = graph.getVersion();
+	}
+
+	/**
+	 * Places every landmark, each as far as possible from those before it, and measures the distances from them
+	 */
+	private void rebuild() {
+		capacity = graph.getIndexCapacity();
+		distances = new float[capacity * count];
+		parents = new int[count][capacity];
+		affected.ensureCapacity(capacity);
+		affectedNodes = new int[capacity];
+
+		Arrays.fill(landmarks, -1);
+		for (int l = 0; l < count; l++)
+			place(l);
+	}
+
+	/**
+	 * Places a landmark at the node farthest from the other landmarks, and measures the distances from it
+	 *
+	 * @param l The landmark to place
+	 */
+	private void place(int l) {
+		landmarks[l] = -1;
+		int farthest = findFarthest();
+
+		// the first landmark starts from the middle of the map, and moves to the node farthest from there
+		if (farthest < 0) {
+			landmarks[l] = findMiddle();
+			measure(l);
+			farthest = findFarthest();
+		}
+
+		landmarks[l] = farthest;
+		measure(l);
+	}
+
+	/**
+	 * @return The node whose distance to the closest placed landmark is the greatest but finite,
+	 * or -1 if no landmarks are placed or there is no node further than 0 from one
+	 */
+	private int findFarthest() {
+		int farthest = -1;
+		float farthestDistance = 0f;
+
+		for (int node = 0; node < capacity; node++) {
+			if (!graph.hasNode(node))
+				continue;
+
+			float closest = Float.POSITIVE_INFINITY;
+			boolean measured = false;
+			for (int l = 0; l < count; l++) {
+				if (landmarks[l] >= 0) {
+					measured = true;
+					closest = Math.min(closest, distances[node * count + l]);
+				}
+			}
+
+			if (measured && closest != Float.POSITIVE_INFINITY && closest > farthestDistance) {
+				farthest = node;
+				farthestDistance = closest;
+			}
+		}
+
+		return farthest;
+	}
+
+	/**
+	 * @return The node closest to the middle of the graph, or -1 if it has no nodes
+	 */
+	private int findMiddle() {
+		int middleX = graph.getWidth() / 2;
+		int middleY = graph.getHeight() / 2;
+		int middle = -1;
+		long middleDistance = Long.MAX_VALUE;
+
+		for (int node = 0; node < capacity; node++) {
+			if (!graph.hasNode(node))
+				continue;
+
+			long x = graph.getX(node) - middleX;
+			long y = graph.getY(node) - middleY;
+			if (x * x + y * y < middleDistance) {
+				middle = node;
+				middleDistance = x * x + y * y;
+			}
+		}
+
+		return middle;
+	}
+
+	/**
+	 * Measures the distance from a landmark to every node with Dijkstra
+	 *
+	 * @param l The landmark to measure from, which if not placed leaves every node unreachable
+	 */
+	private void measure(int l) {
+		int[] parent = parents[l];
+		for (int node = 0; node < capacity; node++) {
+			distances[node * count + l] = Float.POSITIVE_INFINITY;
+			parent[node] = -1;
+		}
+
+		int landmark = landmarks[l];
+		if (landmark < 0)
+			return;
+
+		queue.clear();
+		distances[landmark * count + l] = 0f;
+		queue.add(landmark, 0f);
+		propagate(l);
+	}
+
+	/**
+	 * Repairs the distances from a landmark after edits, in the manner of Ramalingam and Reps.
+	 * The nodes below a tree edge that has been cut or made more expensive lose their distances, and are given
+	 * the cheapest distance through their unaffected neighbours; the nodes at the ends of cheaper edges are improved
+	 * through them. Dijkstra then carries the changes on from those nodes, until they no longer improve anything.
+	 *
+	 * @param l The landmark to repair
+	 */
+	private void repair(int l) {
+		int[] parent = parents[l];
+		affected.clear();
+		queue.clear();
+
+		// the roots of the subtrees that have lost their shortest paths
+		int affectedCount = 0;
+		for (int node = raised.nextSetBit(0); node >= 0; node = raised.nextSetBit(node + 1)) {
+			if (parent[node] >= 0 && !isTreeEdge(l, parent[node], node) && affected.add(node))
+				affectedNodes[affectedCount++] = node;
+		}
+
+		// and everything below them
+		for (int i = 0; i < affectedCount; i++) {
+			int node = affectedNodes[i];
+			if (!graph.hasNode(node))
+				continue;
+
+			for (int n = 0, degree = graph.getNeighbourCount(node); n < degree; n++) {
+				int child = graph.getNeighbour(node, n);
+				if (parent[child] == node && affected.add(child))
+					affectedNodes[affectedCount++] = child;
+			}
+		}
+
+		for (int i = 0; i < affectedCount; i++) {
+			distances[affectedNodes[i] * count + l] = Float.POSITIVE_INFINITY;
+			parent[affectedNodes[i]] = -1;
+		}
+
+		// reconnect them, and improve the nodes by cheaper edges
+		for (int i = 0; i < affectedCount; i++)
+			relaxFromNeighbours(l, affectedNodes[i]);
+		for (int node = lowered.nextSetBit(0); node >= 0; node = lowered.nextSetBit(node + 1))
+			relaxFromNeighbours(l, node);
+
+		propagate(l);
+	}
+
+	/**
+	 * Gives a node the cheapest distance from a landmark through any of its neighbours, if it is cheaper than its own,
+	 * adding it to the queue to pass it on
+	 */
+	private void relaxFromNeighbours(int l, int node) {
+		if (node >= capacity || !graph.hasNode(node))
+			return;
+
+		float best = distances[node * count + l];
+		int bestParent = -1;
+		for (int n = 0, degree = graph.getNeighbourCount(node); n < degree; n++) {
+			int neighbour = graph.getNeighbour(node, n);
+			float distance = distances[neighbour * count + l] + graph.getNeighbourCost(node, n);
+			if (distance < best) {
+				best = distance;
+				bestParent = neighbour;
+			}
+		}
+
+		if (bestParent >= 0) {
+			distances[node * count + l] = best;
+			parents[l][node] = bestParent;
+			queue.add(node, best);
+		}
+	}
+
+	/**
+	 * Runs Dijkstra from the nodes in the queue, improving the distances of the nodes they reach
+	 */
+	private void propagate(int l) {
+		int[] parent = parents[l];
+		while (!queue.isEmpty()) {
+			int node = queue.take();
+			float distance = distances[node * count + l];
+			settled++;
+
+			for (int n = 0, degree = graph.getNeighbourCount(node); n < degree; n++) {
+				int neighbour = graph.getNeighbour(node, n);
+				float through = distance + graph.getNeighbourCost(node, n);
+				if (through < distances[neighbour * count + l]) {
+					distances[neighbour * count + l] = through;
+					parent[neighbour] = node;
+					queue.add(neighbour, through);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return True if the edge from {@code parent} to {@code node} still exists, and is still exactly as expensive as
+	 * the difference between their distances from the landmark
+	 */
+	private boolean isTreeEdge(int l, int parent, int node) {
+		if (!graph.hasNode(node) || !graph.hasNode(parent))
+			return false;
+
+		for (int n = 0, degree = graph.getNeighbourCount(node); n < degree; n++) {
+			if (graph.getNeighbour(node, n) == parent)
+				return distances[parent * count + l] + graph.getNeighbourCost(node, n) == distances[node * count + l];
+		}
+		return false;
+	}
+
+	private int indexOf(Node node) {
+		int index = node.getIndex();
+		return index != Node.NO_INDEX ? index : graph.indexOf(node.getPoint());
+	}
+
+	@Override
+	public void nodeRemoved(Node node) {
+		// its edges have already been marked
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void graphEdited() {
+		// placed and measured again
+		dirty = true;
+		syncedVersion = -1;
+	}
+
+	@Override
+	public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+		// the nodes may already be removed, so cannot be looked up by index
+		BitSet ends = newCost > oldCost ? raised : lowered;
+		ends.set(graph.indexOf(node1.getPoint()));
+		ends.set(graph.indexOf(node2.getPoint()));
+		dirty = true;
+		syncedVersion = graph.getVersion();
+	}
+
+	/**
+	 * Stops listening to the graph, after which the estimates are only safe to use if the graph is not edited
+	 */
+	public void dispose() {
+		graph.removeListener(this);
+	}
+
+	/**
+	 * @param l The landmark
+	 * @return The index of the node it is placed at, which is up to date with the graph, or -1 if it is not placed
+	 */
+	public int getLandmark(int l) {
+		if (dirty || graph.getVersion() != syncedVersion)
+			update();
+		return landmarks[l];
+	}
+
+	/**
+	 * @return The number of landmarks
+	 */
+	public int getLandmarkCount() {
+		return count;
+	}
+
+	/**
+	 * @param l    The landmark
+	 * @param node The index of a node
+	 * @return The cost of the shortest path between them, which is up to date with the graph
+	 */
+	public float getDistance(int l, int node) {
+		if (dirty || graph.getVersion() != syncedVersion)
+			update();
+		return node >= 0 && node < capacity ? distances[node * count + l] : Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return The number of nodes whose distances have been settled so far, while placing, measuring and repairing
+	 */
+	public int getSettledCount() {
+		return settled;
+	}
+
+}
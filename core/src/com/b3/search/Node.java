@@ -1,8 +1,8 @@
 package com.b3.search;
 
-import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
+import com.b3.search.util.EdgeVisitor;
+
+import java.util.*;
 
 /**
  * Describes a node in a graph
@@ -11,17 +11,49 @@ import java.util.TreeMap;
  */
 public class Node implements Comparable<Node> {
 
+	/**
+	 * The index of a node that does not belong to a {@link Graph}
+	 */
+	public static final int NO_INDEX = -1;
+
+	private static final int DEFAULT_DEGREE = 4;
+
 	private final Point point;
-	private final Map<Node, Float> edges;
+	private final int index;
+	private final Graph graph;
+
+	// edges are kept in parallel arrays, sorted by neighbour
+	private Node[] neighbours;
+	private float[] costs;
+	private int degree;
+
+	// created on demand, as most nodes are never asked for them
+	private Map<Node, Float> edgesView;
+	private Set<Node> neighboursView;
 
 	/**
-	 * Creates a Node instance from the point
+	 * Creates a Node instance from the point, that does not belong to a {@link Graph}
 	 *
 	 * @param point The related node's data
 	 */
 	public Node(Point point) {
+		this(point, NO_INDEX, null);
+	}
+
+	/**
+	 * Creates a Node instance from the point, with a dense index given by its {@link Graph}
+	 *
+	 * @param point The related node's data
+	 * @param index The node's index in its graph
+	 * @param graph The graph that owns this node, to be told about edge cost changes
+	 */
+	Node(Point point, int index, Graph graph) {
 		this.point = point;
-		this.edges = new TreeMap<>();
+		this.index = index;
+		this.graph = graph;
+		this.neighbours = new Node[DEFAULT_DEGREE];
+		this.costs = new float[DEFAULT_DEGREE];
+		this.degree = 0;
 	}
 
 	@Override
@@ -53,17 +85,74 @@ public class Node implements Comparable<Node> {
 	}
 
 	/**
-	 * @return A {@link Map} of the connected neighbors to the cost of the edge.
+	 * @return The dense index given to this Node by its {@link Graph}, which can be used
+	 * to key per-node arrays. {@link #NO_INDEX} if this Node was not created by a graph.
+	 * @see Graph#indexOf(Point)
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * This allocates a {@link Map.Entry} per edge when iterated, so {@link #getNeighbour(int)} and
+	 * {@link #getNeighbourCost(int)} should be preferred in hot loops.
+	 *
+	 * @return A read-only {@link Map} of the connected neighbors to the cost of the edge.
 	 */
 	public Map<Node, Float> getEdges() {
-		return edges;
+		if (edgesView == null)
+			edgesView = new EdgesView();
+		return edgesView;
 	}
 
 	/**
-	 * @return A {@link Set} of the connected neighbouring nodes.
+	 * @return A read-only {@link Set} of the connected neighbouring nodes.
 	 */
 	public Set<Node> getNeighbours() {
-		return edges.keySet();
+		if (neighboursView == null)
+			neighboursView = new NeighboursView();
+		return neighboursView;
+	}
+
+	/**
+	 * @return The number of connected neighbours
+	 */
+	public int getNeighbourCount() {
+		return degree;
+	}
+
+	/**
+	 * Gets a neighbour without allocating, to be used with {@link #getNeighbourCount()}:
+	 * <pre>
+	 * for (int i = 0, n = node.getNeighbourCount(); i &lt; n; i++)
+	 *     visit(node.getNeighbour(i), node.getNeighbourCost(i));
+	 * </pre>
+	 * Neighbours are in the same order as {@link #getNeighbours()}.
+	 *
+	 * @param i The index of the neighbour, from 0 to {@link #getNeighbourCount()} - 1
+	 * @return The i-th neighbour
+	 */
+	public Node getNeighbour(int i) {
+		return neighbours[i];
+	}
+
+	/**
+	 * @param i The index of the neighbour, from 0 to {@link #getNeighbourCount()} - 1
+	 * @return The cost of the edge to the i-th neighbour
+	 * @see #getNeighbour(int)
+	 */
+	public float getNeighbourCost(int i) {
+		return costs[i];
+	}
+
+	/**
+	 * Calls the visitor with each neighbour and the cost of the edge to it, without allocating
+	 *
+	 * @param visitor The visitor
+	 */
+	public void forEachNeighbour(EdgeVisitor visitor) {
+		for (int i = 0; i < degree; i++)
+			visitor.visit(neighbours[i], costs[i]);
 	}
 
 	/**
@@ -72,10 +161,10 @@ public class Node implements Comparable<Node> {
 	 * @throws IllegalArgumentException If the Node specified is not a connected neighbour.
 	 */
 	public float getEdgeCost(Node neighbour) {
-		Float cost = edges.get(neighbour);
-		if (cost == null)
+		int i = find(neighbour);
+		if (i < 0)
 			throw new IllegalArgumentException(String.format("Tried to get non-existent edge cost to neighbour %s for node %s", neighbour, this));
-		return cost;
+		return costs[i];
 	}
 
 	/**
@@ -89,11 +178,16 @@ public class Node implements Comparable<Node> {
 	 * <code>false</code> otherwise.
 	 */
 	public boolean setEdgeCost(Node neighbour, float cost) {
-		if (!edges.containsKey(neighbour))
+		int i = find(neighbour);
+		if (i < 0)
 			return false;
 
-		edges.put(neighbour, cost);
-		neighbour.edges.put(this, cost);
+		float oldCost = costs[i];
+		costs[i] = cost;
+		neighbour.addNeighbour(this, cost);
+
+		if (graph != null && oldCost != cost)
+			graph.fireEdgeCostChanged(this, neighbour, oldCost, cost);
 		return true;
 	}
 
@@ -104,7 +198,28 @@ public class Node implements Comparable<Node> {
 	 * @param cost The edge cost.
 	 */
 	public void addNeighbour(Node key, float cost) {
-		edges.put(key, cost);
+		int i = find(key);
+		if (i >= 0) {
+			costs[i] = cost;
+			return;
+		}
+
+		if (degree == neighbours.length) {
+			neighbours = Arrays.copyOf(neighbours, degree * 2);
+			costs = Arrays.copyOf(costs, degree * 2);
+		}
+
+		// insert in order
+		i = degree;
+		while (i > 0 && neighbours[i - 1].compareTo(key) > 0) {
+			neighbours[i] = neighbours[i - 1];
+			costs[i] = costs[i - 1];
+			i--;
+		}
+
+		neighbours[i] = key;
+		costs[i] = cost;
+		degree++;
 	}
 
 	/**
@@ -114,7 +229,18 @@ public class Node implements Comparable<Node> {
 	 * @return <code>true</code> if there is an edge from this Node to another.
 	 */
 	public boolean hasNeighbour(Node node) {
-		return edges.containsKey(node);
+		return find(node) >= 0;
+	}
+
+	/**
+	 * @param node The neighbour to look for
+	 * @return The index of the given neighbour, or -1 if it is not a neighbour
+	 */
+	private int find(Object node) {
+		for (int i = 0; i < degree; i++)
+			if (neighbours[i].equals(node))
+				return i;
+		return -1;
 	}
 
 	@Override
@@ -143,7 +269,15 @@ public class Node implements Comparable<Node> {
 	 * <code>false</code> otherwise.
 	 */
 	public boolean removeNeighbours(Node node) {
-		return edges.remove(node) != null;
+		int i = find(node);
+		if (i < 0)
+			return false;
+
+		degree--;
+		System.arraycopy(neighbours, i + 1, neighbours, i, degree - i);
+		System.arraycopy(costs, i + 1, costs, i, degree - i);
+		neighbours[degree] = null;
+		return true;
 	}
 
 	/**
@@ -151,9 +285,11 @@ public class Node implements Comparable<Node> {
 	 * Will remove them bidirectionally.
 	 */
 	public void clearNeighbours() {
-		for (Node neighbour : getNeighbours())
-			neighbour.removeNeighbours(this);
-		edges.clear();
+		for (int i = 0; i < degree; i++) {
+			neighbours[i].removeNeighbours(this);
+			neighbours[i] = null;
+		}
+		degree = 0;
 	}
 
 	@Override
@@ -161,5 +297,101 @@ public class Node implements Comparable<Node> {
 		return point.compareTo(n.point);
 	}
 
+	/**
+	 * A read-only view of the edges as a {@link Map}
+	 */
+	private class EdgesView extends AbstractMap<Node, Float> {
+
+		private final Set<Entry<Node, Float>> entries = new AbstractSet<Entry<Node, Float>>() {
+			@Override
+			public Iterator<Entry<Node, Float>> iterator() {
+				return new EdgeIterator<Entry<Node, Float>>() {
+					@Override
+					Entry<Node, Float> get(int i) {
+						return new SimpleImmutableEntry<>(neighbours[i], costs[i]);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return degree;
+			}
+		};
+
+		@Override
+		public Set<Entry<Node, Float>> entrySet() {
+			return entries;
+		}
+
+		@Override
+		public Set<Node> keySet() {
+			return getNeighbours();
+		}
+
+		@Override
+		public Float get(Object key) {
+			int i = find(key);
+			return i < 0 ? null : costs[i];
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return find(key) >= 0;
+		}
+
+		@Override
+		public int size() {
+			return degree;
+		}
+	}
+
+	/**
+	 * A read-only view of the neighbours as a {@link Set}
+	 */
+	private class NeighboursView extends AbstractSet<Node> {
+
+		@Override
+		public Iterator<Node> iterator() {
+			return new EdgeIterator<Node>() {
+				@Override
+				Node get(int i) {
+					return neighbours[i];
+				}
+			};
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return find(o) >= 0;
+		}
+
+		@Override
+		public int size() {
+			return degree;
+		}
+	}
+
+	/**
+	 * Iterates over the edges in order
+	 */
+	private abstract class EdgeIterator<T> implements Iterator<T> {
+		private int cursor = 0;
+
+		abstract T get(int i);
+
+		@Override
+		public boolean hasNext() {
+			return cursor < degree;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return get(cursor++);
+		}
+	}
+
 }
 
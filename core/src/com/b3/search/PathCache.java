@@ -0,0 +1,255 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+
+import java.util.*;
+
+/**
+ * A least-recently-used cache of {@link PathResult PathResults}, keyed by start, goal and algorithm,
+ * that stays valid as its {@link Graph} is edited.
+ * <p>
+ * Every entry is valid for the graph version the cache is synced to. The cache listens to the graph,
+ * and on each edit it evicts only the entries that the edit could affect, then syncs to the new version:
+ * <ul>
+ * <li>A removed node, or a removed or more expensive edge, evicts the entries whose path uses it,
+ * as every other path is still valid and no cheaper path can have appeared.</li>
+ * <li>A new or cheaper edge evicts the entries that expanded either end of it, as a search can only
+ * find a cheaper path through an edge it reached before finishing.</li>
+ * </ul>
+ * If the graph is ever found at a version the cache did not see, such as after {@link Graph#clear()},
+ * the whole cache is cleared.
+ * <p>
+ * This is not thread safe, and must be used on the same thread that edits the graph.
+ *
+ * @author dxw405
+ */
+public class PathCache implements GraphListener {
+
+	private final Graph graph;
+	private final PathService service;
+	private final int capacity;
+
+	private final LinkedHashMap<Key, PathResult> entries;
+	private final Map<Integer, List<Key>> keysByTile;
+	private long syncedVersion;
+
+	private int hits;
+	private int misses;
+	private int evictions;
+
+	/**
+	 * Creates an empty cache, which listens to the given graph until {@link #dispose()} is called
+	 *
+	 * @param graph    The graph to search
+	 * @param capacity The maximum number of paths to keep
+	 */
+	public PathCache(Graph graph, int capacity) {
+		this.graph = graph;
+		this.service = new PathService();
+		this.capacity = capacity;
+		this.keysByTile = new HashMap<>();
+		this.entries = new LinkedHashMap<Key, PathResult>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, PathResult> eldest) {
+				if (size() <= PathCache.this.capacity)
+					return false;
+
+				unindex(eldest.getKey(), eldest.getValue());
+				return true;
+			}
+		};
+		this.syncedVersion = graph.getVersion();
+
+		graph.addListener(this);
+	}
+
+	/**
+	 * Gets the path between the given points from the cache, or searches for it if it is not cached
+	 *
+	 * @param start     The start point
+	 * @param goal      The goal point
+	 * @param algorithm The algorithm to use
+	 * @return The path found, which is empty if the points are not connected or there are no nodes at them
+	 */
+	public PathResult findPath(Point start, Point goal, SearchAlgorithm algorithm) {
+		sync();
+
+		Key key = new Key(graph.indexOf(start.x, start.y), graph.indexOf(goal.x, goal.y), algorithm);
+		PathResult result = entries.get(key);
+		if (result != null) {
+			hits++;
+			return result;
+		}
+
+		misses++;
+		result = service.findPath(graph, key.start, key.goal, algorithm);
+
+		// a missing node may be added later without touching any explored tile
+		if (graph.hasNode(key.start) && graph.hasNode(key.goal)) {
+			entries.put(key, result);
+			for (int node : result.getNodeIndices())
+				keysByTile.computeIfAbsent(node, n -> new ArrayList<>(2)).add(key);
+		}
+
+		return result;
+	}
+
+	@Override
+	public void nodeRemoved(Node node) {
+		List<Key> keys = keysByTile.get(node.getIndex());
+		if (keys != null)
+			for (Key key : new ArrayList<>(keys))
+				evict(key);
+
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+		if (newCost > oldCost) {
+			// only paths along this edge are affected
+			List<Key> keys = keysByTile.get(node1.getIndex());
+			if (keys != null)
+				for (Key key : new ArrayList<>(keys))
+					if (usesEdge(entries.get(key), node1.getIndex(), node2.getIndex()))
+						evict(key);
+
+		} else if (newCost < oldCost) {
+			// any search that reached this edge may now find a cheaper path
+			Point p1 = node1.getPoint();
+			Point p2 = node2.getPoint();
+			List<Key> affected = new ArrayList<>();
+			for (Map.Entry<Key, PathResult> entry : entries.entrySet()) {
+				PathResult result = entry.getValue();
+				if (result.isInExploredArea(p1.x, p1.y, 0) || result.isInExploredArea(p2.x, p2.y, 0))
+					affected.add(entry.getKey());
+			}
+			affected.forEach(this::evict);
+		}
+
+		syncedVersion = graph.getVersion();
+	}
+
+	@Override
+	public void graphEdited() {
+		clear();
+		syncedVersion = graph.getVersion();
+	}
+
+	/**
+	 * Clears the cache if the graph has changed without the cache being told
+	 */
+	private void sync() {
+		if (graph.getVersion() != syncedVersion) {
+			clear();
+			syncedVersion = graph.getVersion();
+		}
+	}
+
+	private boolean usesEdge(PathResult result, int node1, int node2) {
+		int[] path = result.getNodeIndices();
+		for (int i = 0; i < path.length - 1; i++)
+			if ((path[i] == node1 && path[i + 1] == node2) || (path[i] == node2 && path[i + 1] == node1))
+				return true;
+		return false;
+	}
+
+	private void evict(Key key) {
+		PathResult result = entries.remove(key);
+		if (result != null) {
+			unindex(key, result);
+			evictions++;
+		}
+	}
+
+	private void unindex(Key key, PathResult result) {
+		for (int node : result.getNodeIndices()) {
+			List<Key> keys = keysByTile.get(node);
+			if (keys != null) {
+				keys.remove(key);
+				if (keys.isEmpty())
+					keysByTile.remove(node);
+			}
+		}
+	}
+
+	/**
+	 * Removes all paths from the cache
+	 */
+	public void clear() {
+		entries.clear();
+		keysByTile.clear();
+	}
+
+	/**
+	 * Stops listening to the graph, after which the cache is only safe to use if the graph is not edited
+	 */
+	public void dispose() {
+		graph.removeListener(this);
+	}
+
+	/**
+	 * @return The number of paths cached
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return The number of lookups that were answered from the cache
+	 */
+	public int getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return The number of lookups that needed a search
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return The number of paths evicted because of graph edits
+	 */
+	public int getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * The start, goal and algorithm of a cached path
+	 */
+	private static class Key {
+		private final int start;
+		private final int goal;
+		private final SearchAlgorithm algorithm;
+
+		Key(int start, int goal, SearchAlgorithm algorithm) {
+			this.start = start;
+			this.goal = goal;
+			this.algorithm = algorithm;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (o == null || getClass() != o.getClass())
+				return false;
+
+			Key key = (Key) o;
+			return start == key.start && goal == key.goal && algorithm == key.algorithm;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = start;
+			result = 31 * result + goal;
+			result = 31 * result + algorithm.hashCode();
+			return result;
+		}
+	}
+
+}
@@ -0,0 +1,586 @@
+package com.b3.search;
+
+import com.b3.search.util.IntBucketQueue;
+import com.b3.search.util.IntPriorityQueue;
+import com.b3.search.util.IntTakeable;
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.SearchParameters;
+import com.b3.search.util.StampSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds complete paths in a {@link SearchGraph} in a single call, with none of the visualisation,
+ * timing or pseudocode of a {@link SearchTicker}.
+ * <p>
+ * The algorithms expand nodes in exactly the same order as a {@link SearchTicker} does, so
+ * they find the same paths, but all state is kept in primitive arrays keyed by node index
+ * that are reused between searches, so a search allocates nothing but its result.
+ * <p>
+ * A PathFinder is not thread safe; see {@link PathService} for a thread safe wrapper.
+ *
+ * @author dxw405
+ */
+public class PathFinder {
+
+	// the search from the start, and the search back from the goal of a bidirectional search
+	private final Side forward;
+	private final Side backward;
+	private final StampSet inFrontier;
+
+	// BFS queue or DFS stack; each node is pushed at most once per search
+	private int[] open;
+	private final JumpPointSearch jumpPoints;
+
+	// the cheapest path found so far that joins the two sides of a bidirectional search
+	private int meeting;
+	private float meetingCost;
+	// improve on the Euclidean heuristic during a search, if not null
+	private Landmarks landmarks;
+	// priorities are g + heuristicWeight * h, or just the weighted h for greedy best first
+	private float heuristicWeight;
+	private boolean greedy;
+
+	// nodes that anytime A* has reached more cheaply after expanding them, to be expanded again in the next pass
+	private boolean anytime;
+	private final StampSet inconsistent;
+	private int[] inconsistentOrder;
+	private int inconsistentCount;
+	private float suboptimality;
+
+	private int expanded;
+	private int maxFrontierSize;
+	private final int[] exploredBounds = new int[4];
+
+	/**
+	 * Creates a PathFinder, which will grow to fit whichever graphs it searches
+	 */
+	public PathFinder() {
+		this(0);
+	}
+
+	/**
+	 * @param capacity The node index capacity of the graphs that will be searched
+	 * @see SearchGraph#getIndexCapacity()
+	 */
+	public PathFinder(int capacity) {
+		this.forward = new Side(capacity);
+		this.backward = new Side(capacity);
+		this.inFrontier = new StampSet(capacity);
+		this.open = new int[Math.max(capacity, 1)];
+		this.inconsistent = new StampSet(capacity);
+		this.inconsistentOrder = new int[Math.max(capacity, 1)];
+		this.jumpPoints = new JumpPointSearch();
+	}
+
+	/**
+	 * Searches for a path between the two given nodes
+	 *
+	 * @param graph     The graph to search
+	 * @param start     The index of the start node
+	 * @param goal      The index of the goal node
+	 * @param algorithm The algorithm to use
+	 * @return The path found, which is empty if the nodes are not connected or do not exist
+	 */
+	public PathResult findPath(SearchGraph graph, int start, int goal, SearchAlgorithm algorithm) {
+		return findPath(graph, start, goal, algorithm, null, SearchParameters.DEFAULT_WEIGHT, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Searches for a path between the two given nodes
+	 *
+	 * @param graph      The graph to search
+	 * @param start      The index of the start node
+	 * @param goal       The index of the goal node
+	 * @param parameters The algorithm to use, the landmarks for its heuristic, which must belong to the same
+	 *                   graph (or the graph a {@link CompactGraph} was taken from), and the weight and time budget
+	 *                   of weighted and anytime A*
+	 * @return The path found, which is empty if the nodes are not connected or do not exist
+	 */
+	public PathResult findPath(SearchGraph graph, int start, int goal, SearchParameters parameters) {
+		return findPath(graph, start, goal, parameters.getAlgorithm(), parameters.getLandmarks(),
+				parameters.getWeight(), parameters.getTimeBudget());
+	}
+
+	private PathResult findPath(SearchGraph graph, int start, int goal, SearchAlgorithm algorithm, Landmarks landmarks,
+	                            float weight, long timeBudget) {
+		long startTime = System.nanoTime();
+		reset(graph.getIndexCapacity(), SearchParameters.isBucketed(algorithm, graph) ? graph.getMaxIntegralCost() : -1);
+		this.landmarks = landmarks;
+		this.heuristicWeight = getHeuristicWeight(algorithm, weight);
+		this.greedy = algorithm == SearchAlgorithm.GREEDY_BEST_FIRST;
+		this.anytime = algorithm == SearchAlgorithm.ANYTIME_A_STAR;
+		this.suboptimality = algorithm == SearchAlgorithm.WEIGHTED_A_STAR ? weight :
+				greedy || algorithm == SearchAlgorithm.DEPTH_FIRST || algorithm == SearchAlgorithm.BREADTH_FIRST ?
+						Float.POSITIVE_INFINITY : 1f;
+
+		boolean found = false;
+		if (graph.hasNode(start) && graph.hasNode(goal)) {
+			switch (algorithm) {
+				case DEPTH_FIRST:
+				case BREADTH_FIRST:
+					found = searchUnweighted(graph, start, goal, algorithm == SearchAlgorithm.DEPTH_FIRST);
+					break;
+				case DIJKSTRA:
+				case A_STAR:
+				case WEIGHTED_A_STAR:
+				case GREEDY_BEST_FIRST:
+					found = searchWeighted(graph, start, goal);
+					break;
+				case ANYTIME_A_STAR:
+					found = searchAnytime(graph, start, goal, startTime, timeBudget);
+					break;
+				case JUMP_POINT:
+					found = searchJumpPoints(graph, start, goal);
+					break;
+				case BIDIRECTIONAL_DIJKSTRA:
+				case BIDIRECTIONAL_A_STAR:
+					found = searchBidirectional(graph, start, goal, algorithm == SearchAlgorithm.BIDIRECTIONAL_A_STAR);
+					break;
+				default:
+					throw new IllegalArgumentException("Invalid search algorithm: " + algorithm);
+			}
+		}
+
+		int[] path = !found ? new int[0] :
+				algorithm == SearchAlgorithm.JUMP_POINT ? traceJumpPath(start, goal) :
+						algorithm.isBidirectional() ? traceMeetingPath(start, goal) : tracePath(start, goal);
+		List<Point> points = new ArrayList<>(path.length);
+		for (int node : path)
+			points.add(new Point(graph.getX(node), graph.getY(node)));
+
+		float cost = !found ? Float.POSITIVE_INFINITY : algorithm.isBidirectional() ? meetingCost : forward.costSoFar[goal];
+		return new PathResult(algorithm, path, points, cost, expanded, maxFrontierSize, System.nanoTime() - startTime,
+				exploredBounds.clone(), suboptimality);
+	}
+
+	/**
+	 * @return The weight on the heuristic in the priority of the algorithm, which is 0 if it has no heuristic
+	 */
+	private static float getHeuristicWeight(SearchAlgorithm algorithm, float weight) {
+		switch (algorithm) {
+			case A_STAR:
+			case JUMP_POINT:
+			case GREEDY_BEST_FIRST:
+				return 1f;
+			case WEIGHTED_A_STAR:
+			case ANYTIME_A_STAR:
+				return weight;
+			default:
+				return 0f;
+		}
+	}
+
+	/**
+	 * Breadth or depth first search, which never revisits or re-parents a node
+	 */
+	private boolean searchUnweighted(SearchGraph graph, int start, int goal, boolean depthFirst) {
+		int head = 0;
+		int tail = 0;
+
+		forward.relax(start, -1, 0f);
+		open[tail++] = start;
+		inFrontier.add(start);
+		maxFrontierSize = 1;
+
+		while (head < tail) {
+			int node = depthFirst ? open[--tail] : open[head++];
+			inFrontier.remove(node);
+			expand(graph, forward, node);
+
+			if (node == goal)
+				return true;
+
+			float g = forward.costSoFar[node];
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+				int child = graph.getNeighbour(node, i);
+				if (!forward.visited.contains(child) && !inFrontier.contains(child)) {
+					forward.relax(child, node, g + graph.getNeighbourCost(node, i));
+					open[tail++] = child;
+					inFrontier.add(child);
+				}
+			}
+
+			maxFrontierSize = Math.max(maxFrontierSize, tail - head);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Dijkstra, or A* with a (weighted) Euclidean heuristic, or greedy best first.
+	 * Like {@link SearchTicker}, a node is re-parented whenever an equally cheap or cheaper route is found
+	 */
+	private boolean searchWeighted(SearchGraph graph, int start, int goal) {
+		int goalX = graph.getX(goal);
+		int goalY = graph.getY(goal);
+		IntTakeable queue = forward.queue;
+
+		forward.relax(start, -1, 0f);
+		queue.add(start, priority(graph, start, 0f, goal, goalX, goalY));
+		maxFrontierSize = 1;
+
+		while (!queue.isEmpty()) {
+			int node = queue.take();
+			expand(graph, forward, node);
+
+			if (node == goal)
+				return true;
+
+			float g = forward.costSoFar[node];
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++)
+				reach(graph, forward, graph.getNeighbour(node, i), node, g + graph.getNeighbourCost(node, i), goal, goalX, goalY);
+
+			maxFrontierSize = Math.max(maxFrontierSize, queue.size());
+		}
+
+		return false;
+	}
+
+	/**
+	 * Anytime repairing A* (ARA*): weighted A* that, once it has a path, lowers the weight and searches again,
+	 * reusing everything it found before. A pass ends once no node in the frontier has a lower priority than the
+	 * cost of the goal, so the goal itself is never expanded.
+	 * Nodes reached more cheaply after they were expanded are only expanded again in the next pass, which is what
+	 * keeps each pass cheap. After the pass with a weight of 1 the path is the shortest, otherwise it costs at most
+	 * {@link #suboptimality} times as much.
+	 */
+	private boolean searchAnytime(SearchGraph graph, int start, int goal, long startTime, long timeBudget) {
+		int goalX = graph.getX(goal);
+		int goalY = graph.getY(goal);
+		IntTakeable queue = forward.queue;
+		inconsistent.clear();
+		inconsistentCount = 0;
+
+		forward.relax(start, -1, 0f);
+		queue.add(start, priority(graph, start, 0f, goal, goalX, goalY));
+		maxFrontierSize = 1;
+
+		while (true) {
+			float goalCost = forward.getCostSoFar(goal);
+			if (!queue.isEmpty() && goalCost > queue.peekPriority()) {
+				int node = queue.take();
+				expand(graph, forward, node);
+
+				float g = forward.costSoFar[node];
+				for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++)
+					reach(graph, forward, graph.getNeighbour(node, i), node, g + graph.getNeighbourCost(node, i), goal, goalX, goalY);
+
+				maxFrontierSize = Math.max(maxFrontierSize, queue.size());
+				continue;
+			}
+
+			if (goalCost == Float.POSITIVE_INFINITY)
+				return false;
+
+			// the pass is over, so everything still to expand is in the frontier or inconsistent
+			int reopened = 0;
+			float lowerBound = Float.POSITIVE_INFINITY;
+			while (!queue.isEmpty())
+				open[reopened++] = queue.take();
+			for (int i = 0; i < inconsistentCount; i++)
+				open[reopened++] = inconsistentOrder[i];
+			for (int i = 0; i < reopened; i++)
+				lowerBound = Math.min(lowerBound, forward.costSoFar[open[i]] + estimate(graph, open[i], goal));
+
+			suboptimality = Math.max(1f, Math.min(heuristicWeight, goalCost / lowerBound));
+			if (heuristicWeight <= 1f || System.nanoTime() - startTime >= timeBudget)
+				return true;
+
+			heuristicWeight = Math.max(1f, heuristicWeight - SearchParameters.ANYTIME_WEIGHT_STEP);
+			forward.visited.clear();
+			inconsistent.clear();
+			inconsistentCount = 0;
+			for (int i = 0; i < reopened; i++)
+				queue.add(open[i], priority(graph, open[i], forward.costSoFar[open[i]], goal, goalX, goalY));
+		}
+	}
+
+	/**
+	 * Dijkstra or A* from both ends at once, expanding a node from each side in turn, starting with the forward side.
+	 * Every time a node is reached more cheaply by one side and has been reached by the other, the two paths to it
+	 * are a candidate for the shortest path. The search stops once the heads of the two frontiers together cost at
+	 * least as much as the cheapest candidate, as no path through the frontiers can then be cheaper.
+	 * <p>
+	 * For A*, the two sides' heuristics are balanced (see {@link SearchParameters#balance}) so that they agree on the
+	 * cost of every edge, and the same stopping rule holds.
+	 */
+	private boolean searchBidirectional(SearchGraph graph, int start, int goal, boolean aStar) {
+		meeting = -1;
+		meetingCost = Float.POSITIVE_INFINITY;
+
+		backward.relax(goal, -1, 0f);
+		backward.queue.add(goal, balancedPriority(graph, goal, 0f, aStar, start, goal));
+		relaxBidirectional(forward, backward, start, -1, 0f);
+		forward.queue.add(start, balancedPriority(graph, start, 0f, aStar, goal, start));
+		maxFrontierSize = 2;
+
+		Side side = forward;
+		Side other = backward;
+		while (!side.queue.isEmpty()) {
+			float bound = side.queue.peekPriority();
+			int node = side.queue.take();
+			expand(graph, side, node);
+
+			bound += other.queue.isEmpty() ? Float.POSITIVE_INFINITY : other.queue.peekPriority();
+			if (meeting != -1 && bound >= meetingCost)
+				return true;
+
+			int target = side == forward ? goal : start;
+			int origin = side == forward ? start : goal;
+			float g = side.costSoFar[node];
+			for (int i = 0, n = graph.getNeighbourCount(node); i < n; i++) {
+				int child = graph.getNeighbour(node, i);
+				float tentative = g + graph.getNeighbourCost(node, i);
+				if (tentative <= side.getCostSoFar(child)) {
+					relaxBidirectional(side, other, child, node, tentative);
+					if (side.queue.contains(child) || !side.visited.contains(child))
+						side.queue.add(child, balancedPriority(graph, child, tentative, aStar, target, origin));
+				}
+			}
+
+			maxFrontierSize = Math.max(maxFrontierSize, forward.queue.size() + backward.queue.size());
+			other = side;
+			side = side == forward ? backward : forward;
+		}
+
+		// one side has run out of nodes, so the cheapest meeting found is the shortest path
+		return meeting != -1;
+	}
+
+	/**
+	 * A* that only adds jump points to the frontier, see {@link JumpPointSearch}
+	 */
+	private boolean searchJumpPoints(SearchGraph graph, int start, int goal) {
+		int goalX = graph.getX(goal);
+		int goalY = graph.getY(goal);
+		jumpPoints.reset(graph, goal);
+
+		IntTakeable queue = forward.queue;
+
+		forward.relax(start, -1, 0f);
+		queue.add(start, priority(graph, start, 0f, goal, goalX, goalY));
+		maxFrontierSize = 1;
+
+		while (!queue.isEmpty()) {
+			int node = queue.take();
+			expand(graph, forward, node);
+
+			if (node == goal)
+				break;
+
+			float g = forward.costSoFar[node];
+			for (int i = 0, n = jumpPoints.findSuccessors(node, forward.cameFrom[node]); i < n; i++)
+				reach(graph, forward, jumpPoints.getSuccessor(i), node, g + jumpPoints.getSuccessorCost(i), goal, goalX, goalY);
+
+			maxFrontierSize = Math.max(maxFrontierSize, queue.size());
+		}
+
+		// tiles that were jumped over were looked at too
+		int[] scanned = jumpPoints.getScannedBounds();
+		exploredBounds[0] = Math.min(exploredBounds[0], scanned[0]);
+		exploredBounds[1] = Math.min(exploredBounds[1], scanned[1]);
+		exploredBounds[2] = Math.max(exploredBounds[2], scanned[2]);
+		exploredBounds[3] = Math.max(exploredBounds[3], scanned[3]);
+
+		return forward.visited.contains(goal);
+	}
+
+	/**
+	 * Re-parents a node if it has been reached as or more cheaply, adding it to the frontier if it has not been visited.
+	 * Anytime A* instead remembers visited nodes that have been reached more cheaply, for its next pass
+	 */
+	private void reach(SearchGraph graph, Side side, int child, int parent, float tentative, int goal, int goalX, int goalY) {
+		float previous = side.getCostSoFar(child);
+		if (tentative <= previous) {
+			side.relax(child, parent, tentative);
+			if (side.queue.contains(child) || !side.visited.contains(child))
+				side.queue.add(child, priority(graph, child, tentative, goal, goalX, goalY));
+			else if (anytime && tentative < previous && inconsistent.add(child))
+				inconsistentOrder[inconsistentCount++] = child;
+		}
+	}
+
+	/**
+	 * Re-parents a node on one side of a bidirectional search, recording whether it joins the two sides more cheaply
+	 */
+	private void relaxBidirectional(Side side, Side other, int node, int parent, float g) {
+		side.relax(node, parent, g);
+		float joined = g + other.getCostSoFar(node);
+		if (joined < meetingCost) {
+			meetingCost = joined;
+			meeting = node;
+		}
+	}
+
+	/**
+	 * Marks a node as visited, recording it in the statistics
+	 */
+	private void expand(SearchGraph graph, Side side, int node) {
+		side.visited.add(node);
+		expanded++;
+
+		int x = graph.getX(node);
+		int y = graph.getY(node);
+		exploredBounds[0] = Math.min(exploredBounds[0], x);
+		exploredBounds[1] = Math.min(exploredBounds[1], y);
+		exploredBounds[2] = Math.max(exploredBounds[2], x);
+		exploredBounds[3] = Math.max(exploredBounds[3], y);
+	}
+
+	/**
+	 * The priority of a node on one side of a bidirectional search, see {@link SearchParameters#balance}
+	 */
+	private float balancedPriority(SearchGraph graph, int node, float g, boolean aStar, int target, int origin) {
+		if (!aStar)
+			return g;
+
+		return g + (estimate(graph, node, target) - estimate(graph, node, origin)) / 2;
+	}
+
+	/**
+	 * The Euclidean distance between two nodes, or the landmarks' estimate if it is higher
+	 */
+	private float estimate(SearchGraph graph, int from, int to) {
+		int x = graph.getX(from) - graph.getX(to);
+		int y = graph.getY(from) - graph.getY(to);
+		float h = (float) Math.sqrt(x * x + y * y);
+		return landmarks == null ? h : Math.max(h, landmarks.estimate(from, to));
+	}
+
+	private float priority(SearchGraph graph, int node, float g, int goal, int goalX, int goalY) {
+		if (heuristicWeight == 0f)
+			return g;
+
+		int x = graph.getX(node) - goalX;
+		int y = graph.getY(node) - goalY;
+		float h = (float) Math.sqrt(x * x + y * y);
+		if (landmarks != null)
+			h = Math.max(h, landmarks.estimate(node, goal));
+		return (greedy ? 0f : g) + heuristicWeight * h;
+	}
+
+	private int[] tracePath(int start, int goal) {
+		int[] cameFrom = forward.cameFrom;
+		int length = 1;
+		for (int node = goal; node != start; node = cameFrom[node])
+			length++;
+
+		int[] path = new int[length];
+		for (int node = goal, i = length - 1; i >= 0; node = cameFrom[node], i--)
+			path[i] = node;
+		return path;
+	}
+
+	/**
+	 * Joins the forward path to the meeting node with the backward path from it to the goal
+	 */
+	private int[] traceMeetingPath(int start, int goal) {
+		int[] toMeeting = tracePath(start, meeting);
+
+		int length = toMeeting.length;
+		for (int node = meeting; node != goal; node = backward.cameFrom[node])
+			length++;
+
+		int[] path = Arrays.copyOf(toMeeting, length);
+		for (int node = meeting, i = toMeeting.length; i < length; i++)
+			path[i] = node = backward.cameFrom[node];
+		return path;
+	}
+
+	/**
+	 * Traces the jump points back from the goal, filling in the straight lines between them
+	 */
+	private int[] traceJumpPath(int start, int goal) {
+		int[] jumps = tracePath(start, goal);
+
+		int length = 1;
+		for (int i = 1; i < jumps.length; i++)
+			for (int node = jumps[i - 1]; node != jumps[i]; node = jumpPoints.stepTowards(node, jumps[i]))
+				length++;
+
+		int[] path = new int[length];
+		path[0] = start;
+		for (int i = 1, p = 1; i < jumps.length; i++)
+			for (int node = jumps[i - 1]; node != jumps[i]; )
+				path[p++] = node = jumpPoints.stepTowards(node, jumps[i]);
+		return path;
+	}
+
+	/**
+	 * Clears all state from the last search, growing it to fit the next graph
+	 *
+	 * @param capacity   The node index capacity of the graph to search
+	 * @param bucketSpan The greatest edge cost, if Dijkstra can use a bucket queue, otherwise -1
+	 */
+	private void reset(int capacity, int bucketSpan) {
+		if (capacity > open.length) {
+			open = Arrays.copyOf(open, capacity);
+			inconsistentOrder = Arrays.copyOf(inconsistentOrder, capacity);
+		}
+
+		forward.reset(capacity, bucketSpan);
+		backward.reset(capacity, bucketSpan);
+		inFrontier.clear();
+		expanded = 0;
+		maxFrontierSize = 0;
+		exploredBounds[0] = exploredBounds[1] = Integer.MAX_VALUE;
+		exploredBounds[2] = exploredBounds[3] = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * The state of one direction of a search, keyed by node index.
+	 * Only bidirectional searches use the backward side
+	 */
+	private static class Side {
+		private final StampSet visited;
+		private final StampSet reached;
+		private int[] cameFrom;
+		private float[] costSoFar;
+		// the heap, or the bucket queue if Dijkstra's edge costs are small integers
+		private IntTakeable queue;
+		private final IntPriorityQueue heap;
+		private IntBucketQueue buckets;
+
+		private Side(int capacity) {
+			this.visited = new StampSet(capacity);
+			this.reached = new StampSet(capacity);
+			this.cameFrom = new int[Math.max(capacity, 1)];
+			this.costSoFar = new float[Math.max(capacity, 1)];
+			this.heap = new IntPriorityQueue(capacity);
+			this.queue = heap;
+		}
+
+		private void relax(int node, int parent, float g) {
+			reached.add(node);
+			cameFrom[node] = parent;
+			costSoFar[node] = g;
+		}
+
+		private float getCostSoFar(int node) {
+			return reached.contains(node) ? costSoFar[node] : Float.POSITIVE_INFINITY;
+		}
+
+		private void reset(int capacity, int bucketSpan) {
+			if (capacity > cameFrom.length) {
+				cameFrom = Arrays.copyOf(cameFrom, capacity);
+				costSoFar = Arrays.copyOf(costSoFar, capacity);
+			}
+
+			if (bucketSpan < 0) {
+				queue = heap;
+			} else {
+				if (buckets == null || buckets.getSpan() < bucketSpan)
+					buckets = new IntBucketQueue(bucketSpan, capacity);
+				queue = buckets;
+			}
+
+			visited.clear();
+			reached.clear();
+			queue.clear();
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+
+/**
+ * A request for a path between two points, to be solved by a {@link BatchPathExecutor}
+ *
+ * @author dxw405
+ */
+public class PathQuery {
+
+	private final Point start;
+	private final Point goal;
+	private final SearchAlgorithm algorithm;
+
+	/**
+	 * @param start     The start point
+	 * @param goal      The goal point
+	 * @param algorithm The algorithm to use
+	 */
+	public PathQuery(Point start, Point goal, SearchAlgorithm algorithm) {
+		this.start = start;
+		this.goal = goal;
+		this.algorithm = algorithm;
+	}
+
+	/**
+	 * @return The start point
+	 */
+	public Point getStart() {
+		return start;
+	}
+
+	/**
+	 * @return The goal point
+	 */
+	public Point getGoal() {
+		return goal;
+	}
+
+	/**
+	 * @return The algorithm to use
+	 */
+	public SearchAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	@Override
+	public String toString() {
+		return "PathQuery{" +
+				"start=" + start +
+				", goal=" + goal +
+				", algorithm=" + algorithm +
+				'}';
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a single path search made by a {@link PathFinder}: the path found, and statistics
+ * about how much work it took to find it.
+ *
+ * @author dxw405
+ */
+public class PathResult {
+
+	private final SearchAlgorithm algorithm;
+	private final int[] nodes;
+	private final List<Point> points;
+	private final float cost;
+	private final int expanded;
+	private final int maxFrontierSize;
+	private final long nanos;
+	private final int[] exploredBounds;
+	private final float suboptimality;
+
+	/**
+	 * @param algorithm       The algorithm used
+	 * @param nodes           The node indices of the path, from start to goal. Empty if no path was found
+	 * @param points          The points of the path, from start to goal
+	 * @param cost            The total edge cost of the path
+	 * @param expanded        The number of nodes expanded
+	 * @param maxFrontierSize The largest the frontier got
+	 * @param nanos           The time taken, in nanoseconds
+	 * @param exploredBounds  The bounding box of the expanded nodes, as {minX, minY, maxX, maxY}
+	 */
+	public PathResult(SearchAlgorithm algorithm, int[] nodes, List<Point> points, float cost,
+	                  int expanded, int maxFrontierSize, long nanos, int[] exploredBounds) {
+		this(algorithm, nodes, points, cost, expanded, maxFrontierSize, nanos, exploredBounds,
+				algorithm.isSuboptimal() || algorithm == SearchAlgorithm.DEPTH_FIRST || algorithm == SearchAlgorithm.BREADTH_FIRST ?
+						Float.POSITIVE_INFINITY : 1f);
+	}
+
+	/**
+	 * @param algorithm       The algorithm used
+	 * @param nodes           The node indices of the path, from start to goal. Empty if no path was found
+	 * @param points          The points of the path, from start to goal
+	 * @param cost            The total edge cost of the path
+	 * @param expanded        The number of nodes expanded
+	 * @param maxFrontierSize The largest the frontier got
+	 * @param nanos           The time taken, in nanoseconds
+	 * @param exploredBounds  The bounding box of the expanded nodes, as {minX, minY, maxX, maxY}
+	 * @param suboptimality   The most times as much as the shortest path that the path may cost
+	 */
+	public PathResult(SearchAlgorithm algorithm, int[] nodes, List<Point> points, float cost,
+	                  int expanded, int maxFrontierSize, long nanos, int[] exploredBounds, float suboptimality) {
+		this.algorithm = algorithm;
+		this.nodes = nodes;
+		this.points = Collections.unmodifiableList(points);
+		this.cost = nodes.length == 0 ? Float.POSITIVE_INFINITY : cost;
+		this.expanded = expanded;
+		this.maxFrontierSize = maxFrontierSize;
+		this.nanos = nanos;
+		this.exploredBounds = exploredBounds;
+		this.suboptimality = suboptimality;
+	}
+
+	/**
+	 * @return The algorithm used
+	 */
+	public SearchAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return True if a path was found
+	 */
+	public boolean isFound() {
+		return nodes.length != 0;
+	}
+
+	/**
+	 * @return The points of the path, from start to goal. Empty if no path was found
+	 */
+	public List<Point> getPath() {
+		return points;
+	}
+
+	/**
+	 * @return The node indices of the path, from start to goal. Empty if no path was found.
+	 * This must not be modified
+	 */
+	public int[] getNodeIndices() {
+		return nodes;
+	}
+
+	/**
+	 * @param graph The graph that was searched
+	 * @return The {@link Node Nodes} of the path in the given graph, from start to goal
+	 */
+	public List<Node> getNodes(Graph graph) {
+		List<Node> path = new ArrayList<>(nodes.length);
+		for (int node : nodes)
+			path.add(graph.getNodeByIndex(node));
+		return path;
+	}
+
+	/**
+	 * @return The total edge cost of the path, or infinity if no path was found
+	 */
+	public float getCost() {
+		return cost;
+	}
+
+	/**
+	 * @return The number of nodes expanded
+	 */
+	public int getExpanded() {
+		return expanded;
+	}
+
+	/**
+	 * @return The largest the frontier got
+	 */
+	public int getMaxFrontierSize() {
+		return maxFrontierSize;
+	}
+
+	/**
+	 * @return The time taken, in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * The bound on how far from the shortest path the path may be, to weigh against {@link #getExpanded()}.
+	 * This is 1 for searches that always find the shortest path, the weight for weighted A*, whatever anytime A*
+	 * had proved by the time it stopped, and infinity where there is no bound
+	 *
+	 * @return The most times as much as the shortest path that the path may cost
+	 */
+	public float getSuboptimalityBound() {
+		return suboptimality;
+	}
+
+	/**
+	 * Checks whether the given tile is within the bounding box of the nodes expanded during the search.
+	 * A change outside this box cannot make a shorter path than the one found
+	 *
+	 * @param x      The x coordinate
+	 * @param y      The y coordinate
+	 * @param margin How far to grow the bounding box by on each side
+	 * @return True if the tile is within the (grown) bounding box
+	 */
+	public boolean isInExploredArea(int x, int y, int margin) {
+		return x >= exploredBounds[0] - margin && x <= exploredBounds[2] + margin &&
+				y >= exploredBounds[1] - margin && y <= exploredBounds[3] + margin;
+	}
+
+	@Override
+	public String toString() {
+		return "PathResult{" +
+				"algorithm=" + algorithm +
+				", length=" + nodes.length +
+				", cost=" + cost +
+				", expanded=" + expanded +
+				", maxFrontierSize=" + maxFrontierSize +
+				", nanos=" + nanos +
+				", suboptimality=" + suboptimality +
+				'}';
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.SearchParameters;
+
+/**
+ * Finds complete paths synchronously, for anything that needs a path but not a visualisation of the search.
+ * Unlike a {@link SearchTicker}, it does not depend on the config, the GUI, sounds or the tick timer.
+ * <p>
+ * This is thread safe, as each thread is given its own {@link PathFinder}, but the graph searched must
+ * not be modified during a search. To search from other threads, search a {@link CompactGraph} snapshot instead.
+ *
+ * @author dxw405
+ */
+public class PathService {
+
+	private final ThreadLocal<PathFinder> finders = ThreadLocal.withInitial(PathFinder::new);
+
+	/**
+	 * Searches for a path between the two given points
+	 *
+	 * @param graph     The graph to search
+	 * @param start     The start point
+	 * @param goal      The goal point
+	 * @param algorithm The algorithm to use
+	 * @return The path found, which is empty if the points are not connected or there are no nodes at them
+	 */
+	public PathResult findPath(SearchGraph graph, Point start, Point goal, SearchAlgorithm algorithm) {
+		return findPath(graph, graph.indexOf(start.x, start.y), graph.indexOf(goal.x, goal.y), algorithm);
+	}
+
+	/**
+	 * Searches for a path between the two given nodes
+	 *
+	 * @param graph     The graph to search
+	 * @param start     The start node
+	 * @param goal      The goal node
+	 * @param algorithm The algorithm to use
+	 * @return The path found, which is empty if the nodes are not connected
+	 */
+	public PathResult findPath(SearchGraph graph, Node start, Node goal, SearchAlgorithm algorithm) {
+		return findPath(graph, start.getPoint(), goal.getPoint(), algorithm);
+	}
+
+	/**
+	 * Searches for a path between the two given node indices
+	 *
+	 * @param graph     The graph to search
+	 * @param start     The index of the start node
+	 * @param goal      The index of the goal node
+	 * @param algorithm The algorithm to use
+	 * @return The path found, which is empty if the nodes are not connected or do not exist
+	 */
+	public PathResult findPath(SearchGraph graph, int start, int goal, SearchAlgorithm algorithm) {
+		return finders.get().findPath(graph, start, goal, algorithm);
+	}
+
+	/**
+	 * Searches for a path between the two given points
+	 *
+	 * @param graph      The graph to search
+	 * @param start      The start point
+	 * @param goal       The goal point
+	 * @param parameters The algorithm to use, and the landmarks for its heuristic
+	 * @return The path found, which is empty if the points are not connected or there are no nodes at them
+	 * @see PathFinder#findPath(SearchGraph, int, int, SearchParameters)
+	 */
+	public PathResult findPath(SearchGraph graph, Point start, Point goal, SearchParameters parameters) {
+		return finders.get().findPath(graph, graph.indexOf(start.x, start.y), graph.indexOf(goal.x, goal.y), parameters);
+	}
+
+}
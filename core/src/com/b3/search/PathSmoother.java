@@ -0,0 +1,139 @@
+package com.b3.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reduces a path of adjacent tiles to its turning points, so that it can be followed in straight lines from one
+ * tile centre to the next instead of zig-zagging through every tile.
+ * <p>
+ * This is string pulling: starting from the first tile, each tile is skipped for as long as the straight line from
+ * the last turning point to the tile after it has line of sight. A line has line of sight if every tile it passes
+ * through is joined to the next by an edge, and walking those tiles costs no more than the part of the path it
+ * replaces, so a line never cuts across a building nor across tiles that the search went around for being expensive.
+ * A line that passes exactly through the corner of four tiles needs both ways around the corner to be open.
+ *
+ * @author dxw405
+ */
+public class PathSmoother {
+
+	// allows for the tiles under a line being summed in a different order to those on the path
+	private static final float COST_TOLERANCE = 1e-3f;
+
+	private PathSmoother() {
+	}
+
+	/**
+	 * @param graph The graph the path was found in
+	 * @param path  The tiles of the path, from start to goal, each adjacent to the last
+	 * @return The turning points of the path, including its start and goal, or a copy of the path if it is no longer
+	 * walkable in the graph
+	 */
+	public static List<Point> smooth(SearchGraph graph, List<Point> path) {
+		int n = path.size();
+		if (n <= 2)
+			return new ArrayList<>(path);
+
+		float[] costSoFar = new float[n];
+		for (int i = 1; i < n; i++) {
+			costSoFar[i] = costSoFar[i - 1] + getLineCost(graph, path.get(i - 1), path.get(i), Float.POSITIVE_INFINITY);
+			if (costSoFar[i] == Float.POSITIVE_INFINITY)
+				return new ArrayList<>(path);
+		}
+
+		List<Point> waypoints = new ArrayList<>();
+		waypoints.add(path.get(0));
+
+		int anchor = 0;
+		for (int i = 2; i < n; i++) {
+			float replaced = costSoFar[i] - costSoFar[anchor] + COST_TOLERANCE;
+			if (getLineCost(graph, path.get(anchor), path.get(i), replaced) > replaced) {
+				anchor = i - 1;
+				waypoints.add(path.get(anchor));
+			}
+		}
+
+		waypoints.add(path.get(n - 1));
+		return waypoints;
+	}
+
+	/**
+	 * @param graph The graph to check in
+	 * @param from  The tile to look from
+	 * @param to    The tile to look at
+	 * @return True if a straight line between the centres of the two tiles only passes through tiles that are joined
+	 * by edges, going both ways around any corner it passes exactly through
+	 */
+	public static boolean hasLineOfSight(SearchGraph graph, Point from, Point to) {
+		return getLineCost(graph, from, to, Float.POSITIVE_INFINITY) != Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Walks the tiles under the straight line between the centres of two tiles, stepping to an adjacent tile each
+	 * time the line crosses a tile's edge, and adds up the costs of the edges between them
+	 *
+	 * @param limit The cost at which to give up, as the line will be rejected anyway
+	 * @return The cost of the walk, which is more than {@code limit} if it was given up, or infinity if it is blocked
+	 */
+	private static float getLineCost(SearchGraph graph, Point from, Point to, float limit) {
+		int x = from.x;
+		int y = from.y;
+		int node = graph.indexOf(x, y);
+		if (node < 0 || !graph.hasNode(node))
+			return Float.POSITIVE_INFINITY;
+
+		int nx = Math.abs(to.x - x);
+		int ny = Math.abs(to.y - y);
+		int sx = Integer.signum(to.x - x);
+		int sy = Integer.signum(to.y - y);
+
+		float cost = 0f;
+		for (int ix = 0, iy = 0; (ix < nx || iy < ny) && cost <= limit && cost != Float.POSITIVE_INFINITY; ) {
+			// which edge the line crosses next: (0.5 + ix) / nx of the way along for a vertical one,
+			// (0.5 + iy) / ny for a horizontal one
+			long decision = (1L + 2 * ix) * ny - (1L + 2 * iy) * nx;
+
+			if (decision == 0) {
+				int across = graph.indexOf(x + sx, y);
+				int up = graph.indexOf(x, y + sy);
+				int corner = graph.indexOf(x + sx, y + sy);
+				float viaAcross = getEdgeCost(graph, node, across) + getEdgeCost(graph, across, corner);
+				float viaUp = getEdgeCost(graph, node, up) + getEdgeCost(graph, up, corner);
+				cost += Math.max(viaAcross, viaUp);
+				node = corner;
+				x += sx;
+				y += sy;
+				ix++;
+				iy++;
+			} else if (decision < 0) {
+				int next = graph.indexOf(x + sx, y);
+				cost += getEdgeCost(graph, node, next);
+				node = next;
+				x += sx;
+				ix++;
+			} else {
+				int next = graph.indexOf(x, y + sy);
+				cost += getEdgeCost(graph, node, next);
+				node = next;
+				y += sy;
+				iy++;
+			}
+		}
+
+		return cost;
+	}
+
+	/**
+	 * @return The cost of the edge between two nodes, or infinity if they are not joined
+	 */
+	private static float getEdgeCost(SearchGraph graph, int from, int to) {
+		if (from < 0 || to < 0 || !graph.hasNode(from))
+			return Float.POSITIVE_INFINITY;
+
+		for (int i = 0, n = graph.getNeighbourCount(from); i < n; i++)
+			if (graph.getNeighbour(from, i) == to)
+				return graph.getNeighbourCost(from, i);
+		return Float.POSITIVE_INFINITY;
+	}
+
+}
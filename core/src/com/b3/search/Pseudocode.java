@@ -4,6 +4,7 @@ import com.b3.search.util.SearchAlgorithm;
 import com.b3.util.Tuple;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Observable;
 import java.util.stream.Collectors;
@@ -80,6 +81,74 @@ public class Pseudocode extends Observable {
 					add(new Tuple<>("frontier.add([YELLOW]m[])", new Tuple<>(false, 4)));
 				}};
 				break;
+
+			case WEIGHTED_A_STAR:
+			case GREEDY_BEST_FIRST:
+				lines = new ArrayList<Tuple<String, Tuple<Boolean, Integer>>>() {{
+					add(new Tuple<>(algorithm == SearchAlgorithm.GREEDY_BEST_FIRST ?
+							"while [GREEN]frontier[] (ordered by h alone) is not empty:" :
+							"while [GREEN]frontier[] (ordered by g + w * h) is not empty:", new Tuple<>(false, 0)));
+					add(new Tuple<>("[PINK]n[] = [GREEN]frontier[].take()\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("[LIGHT_GRAY]visited[].add([PINK]n[])\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("if [PINK]n[] is target:", new Tuple<>(false, 1)));
+					add(new Tuple<>("return constructed path\n", new Tuple<>(false, 2)));
+					add(new Tuple<>("for each node [YELLOW]m[] that is adjacent to [PINK]n[]:", new Tuple<>(false, 1)));
+					add(new Tuple<>("tentative_g <- g([PINK]n[]) + edgeCost([PINK]n[], [YELLOW]m[])", new Tuple<>(false, 2)));
+					add(new Tuple<>("if tentative_g <= g([YELLOW]m[]):", new Tuple<>(false, 2)));
+					add(new Tuple<>("cameFrom.put([YELLOW]m[], [PINK]n[])", new Tuple<>(false, 3)));
+					add(new Tuple<>("if [YELLOW]m[] not in [LIGHT_GRAY]visited[] and not in [GREEN]frontier[]:", new Tuple<>(false, 3)));
+					add(new Tuple<>("frontier.add([YELLOW]m[])", new Tuple<>(false, 4)));
+				}};
+				break;
+
+			case ANYTIME_A_STAR:
+				lines = new ArrayList<Tuple<String, Tuple<Boolean, Integer>>>() {{
+					add(new Tuple<>("while g(target) > [GREEN]frontier[] min (g + w * h), else lower w and go again:", new Tuple<>(false, 0)));
+					add(new Tuple<>("[PINK]n[] = [GREEN]frontier[].take()\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("[LIGHT_GRAY]visited[].add([PINK]n[])\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("if [PINK]n[] is target:", new Tuple<>(false, 1)));
+					add(new Tuple<>("return constructed path\n", new Tuple<>(false, 2)));
+					add(new Tuple<>("for each node [YELLOW]m[] that is adjacent to [PINK]n[]:", new Tuple<>(false, 1)));
+					add(new Tuple<>("tentative_g <- g([PINK]n[]) + edgeCost([PINK]n[], [YELLOW]m[])", new Tuple<>(false, 2)));
+					add(new Tuple<>("if tentative_g <= g([YELLOW]m[]):", new Tuple<>(false, 2)));
+					add(new Tuple<>("cameFrom.put([YELLOW]m[], [PINK]n[]), reopening [YELLOW]m[] next pass if [LIGHT_GRAY]visited[]", new Tuple<>(false, 3)));
+					add(new Tuple<>("if [YELLOW]m[] not in [LIGHT_GRAY]visited[] and not in [GREEN]frontier[]:", new Tuple<>(false, 3)));
+					add(new Tuple<>("frontier.add([YELLOW]m[])", new Tuple<>(false, 4)));
+				}};
+				break;
+
+			case BIDIRECTIONAL_A_STAR:
+			case BIDIRECTIONAL_DIJKSTRA:
+				lines = new ArrayList<Tuple<String, Tuple<Boolean, Integer>>>() {{
+					add(new Tuple<>("while both [GREEN]frontiers[] are not empty:", new Tuple<>(false, 0)));
+					add(new Tuple<>("[PINK]n[] = take from the [GREEN]frontier[] whose turn it is\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("[LIGHT_GRAY]visited[].add([PINK]n[])\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("if no path through the [GREEN]frontiers[] beats the best meeting:", new Tuple<>(false, 1)));
+					add(new Tuple<>("return the two paths joined at the meeting node\n", new Tuple<>(false, 2)));
+					add(new Tuple<>("for each node [YELLOW]m[] that is adjacent to [PINK]n[]:", new Tuple<>(false, 1)));
+					add(new Tuple<>("tentative_g <- g([PINK]n[]) + edgeCost([PINK]n[], [YELLOW]m[])", new Tuple<>(false, 2)));
+					add(new Tuple<>("if tentative_g <= g([YELLOW]m[]):", new Tuple<>(false, 2)));
+					add(new Tuple<>("cameFrom.put([YELLOW]m[], [PINK]n[]), and meet at [YELLOW]m[] if cheaper", new Tuple<>(false, 3)));
+					add(new Tuple<>("if [YELLOW]m[] not in [LIGHT_GRAY]visited[] and not in [GREEN]frontier[]:", new Tuple<>(false, 3)));
+					add(new Tuple<>("frontier.add([YELLOW]m[])", new Tuple<>(false, 4)));
+				}};
+				break;
+
+			case JUMP_POINT:
+				lines = new ArrayList<Tuple<String, Tuple<Boolean, Integer>>>() {{
+					add(new Tuple<>("while [GREEN]frontier[] is not empty:", new Tuple<>(false, 0)));
+					add(new Tuple<>("[PINK]n[] = [GREEN]frontier[].take()\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("[LIGHT_GRAY]visited[].add([PINK]n[])\n", new Tuple<>(false, 1)));
+					add(new Tuple<>("if [PINK]n[] is target:", new Tuple<>(false, 1)));
+					add(new Tuple<>("return constructed path\n", new Tuple<>(false, 2)));
+					add(new Tuple<>("for each jump point [YELLOW]m[] found by jumping from [PINK]n[]:", new Tuple<>(false, 1)));
+					add(new Tuple<>("tentative_g <- g([PINK]n[]) + distance([PINK]n[], [YELLOW]m[])", new Tuple<>(false, 2)));
+					add(new Tuple<>("if tentative_g <= g([YELLOW]m[]):", new Tuple<>(false, 2)));
+					add(new Tuple<>("cameFrom.put([YELLOW]m[], [PINK]n[])", new Tuple<>(false, 3)));
+					add(new Tuple<>("if [YELLOW]m[] not in [LIGHT_GRAY]visited[] and not in [GREEN]frontier[]:", new Tuple<>(false, 3)));
+					add(new Tuple<>("frontier.add([YELLOW]m[])", new Tuple<>(false, 4)));
+				}};
+				break;
 		}
 	}
 
@@ -166,6 +235,11 @@ public class Pseudocode extends Observable {
 			if (arrayList.size() >= i)
 				switch (algorithm) {
 					case A_STAR:
+					case JUMP_POINT:
+					case BIDIRECTIONAL_A_STAR:
+					case WEIGHTED_A_STAR:
+					case GREEDY_BEST_FIRST:
+					case ANYTIME_A_STAR:
 						updateForAStar(i);
 						break;
 					case BREADTH_FIRST:
@@ -237,6 +311,15 @@ public class Pseudocode extends Observable {
 		return tempText;
 	}
 
+	/**
+	 * @return the nodes that the most recently expanded node leads to, which are jump points for Jump Point Search
+	 */
+	private Collection<Node> getExpandedNeighbours() {
+		if (algorithm == SearchAlgorithm.JUMP_POINT)
+			return searchTicker.getCurrentNeighbours();
+		return searchTicker.getMostRecentlyExpanded().getNeighbours();
+	}
+
 	/**
 	 * Updates the variable-constant updating system for A*
 	 *
@@ -271,12 +354,12 @@ public class Pseudocode extends Observable {
 			}
 			break;
 			case 6: {
-				if (searchTicker.getMostRecentlyExpanded().getNeighbours() != null)
-					tempText = searchTicker.getMostRecentlyExpanded().getNeighbours().toString();
+				if (getExpandedNeighbours() != null)
+					tempText = getExpandedNeighbours().toString();
 				else if (searchTicker.getCurrentNeighbour() != null)
 					tempText = searchTicker.getCurrentNeighbour().toString();
 				else if (searchTicker.getCurrentNeighbours() != null)
-					tempText = searchTicker.getMostRecentlyExpanded().getNeighbours().toArray()[0].toString();
+					tempText = getExpandedNeighbours().toArray()[0].toString();
 				arrayList.set(5, tempText);
 			}
 			break;
@@ -284,7 +367,7 @@ public class Pseudocode extends Observable {
 				if (searchTicker.getMostRecentlyExpanded() != null && searchTicker.getCurrentNeighbour() != null) {
 					Node mostRecentExpand = searchTicker.getMostRecentlyExpanded();
 					float gxFunction = searchTicker.getG(mostRecentExpand);
-					float cost = mostRecentExpand.getEdgeCost(searchTicker.getCurrentNeighbour());
+					float cost = searchTicker.getStepCost(mostRecentExpand, searchTicker.getCurrentNeighbour());
 					float total = cost + gxFunction;
 					arrayList.set(6, total + " = " + cost + " + " + gxFunction);
 				}
@@ -294,8 +377,8 @@ public class Pseudocode extends Observable {
 				if (searchTicker.getCurrentNeighbour() != null)
 					tempText = searchTicker.getCurrentNeighbour().toString();
 				else if (searchTicker.getCurrentNeighbours() != null)
-					tempText = searchTicker.getMostRecentlyExpanded().getNeighbours().toArray()[0].toString();
-				arrayList.set(5, tempText + ": " + searchTicker.getMostRecentlyExpanded().getNeighbours().toString());
+					tempText = getExpandedNeighbours().toArray()[0].toString();
+				arrayList.set(5, tempText + ": " + getExpandedNeighbours().toString());
 				arrayList.set(7, tempText);
 			}
 			break;
@@ -303,8 +386,8 @@ public class Pseudocode extends Observable {
 				if (searchTicker.getCurrentNeighbour() != null)
 					tempText = searchTicker.getCurrentNeighbour().toString();
 				else if (searchTicker.getCurrentNeighbours() != null)
-					tempText = searchTicker.getMostRecentlyExpanded().getNeighbours().toArray()[0].toString();
-				arrayList.set(5, tempText + ": " + searchTicker.getMostRecentlyExpanded().getNeighbours().toString());
+					tempText = getExpandedNeighbours().toArray()[0].toString();
+				arrayList.set(5, tempText + ": " + getExpandedNeighbours().toString());
 				arrayList.set(8, tempText);
 			}
 			break;
@@ -343,7 +426,8 @@ public class Pseudocode extends Observable {
 		}
 
 		String replacement = "";
-		if (algorithm == SearchAlgorithm.A_STAR) {
+		if (algorithm == SearchAlgorithm.A_STAR || algorithm == SearchAlgorithm.JUMP_POINT
+				|| algorithm == SearchAlgorithm.BIDIRECTIONAL_A_STAR || algorithm.isSuboptimal()) {
 			if (i <= 4)
 				replacement = "n";
 			else if (i == 5)
@@ -0,0 +1,69 @@
+package com.b3.search;
+
+/**
+ * A read-only view of a graph in terms of dense node indices, as used by {@link PathFinder}.
+ * <p>
+ * Implemented both by the live, editable {@link Graph} and by its immutable {@link CompactGraph} snapshot,
+ * and in both a node's index is the one given by {@link Graph#indexOf(Point)}.
+ *
+ * @author dxw405
+ */
+public interface SearchGraph {
+
+	/**
+	 * @return One more than the highest node index, i.e. the length needed for an array keyed by node index
+	 */
+	int getIndexCapacity();
+
+	/**
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The index of the node at (x, y), or a negative value if there can be no such node
+	 */
+	int indexOf(int x, int y);
+
+	/**
+	 * @param node The node index
+	 * @return True if there is a node with the given index
+	 */
+	boolean hasNode(int node);
+
+	/**
+	 * @param node The node index
+	 * @return The x coordinate of the node
+	 */
+	int getX(int node);
+
+	/**
+	 * @param node The node index
+	 * @return The y coordinate of the node
+	 */
+	int getY(int node);
+
+	/**
+	 * @param node The node index
+	 * @return The number of neighbours of the node
+	 */
+	int getNeighbourCount(int node);
+
+	/**
+	 * @param node The node index
+	 * @param i    The index of the neighbour, from 0 to {@link #getNeighbourCount(int)} - 1
+	 * @return The node index of the i-th neighbour
+	 */
+	int getNeighbour(int node, int i);
+
+	/**
+	 * @param node The node index
+	 * @param i    The index of the neighbour, from 0 to {@link #getNeighbourCount(int)} - 1
+	 * @return The cost of the edge to the i-th neighbour
+	 */
+	float getNeighbourCost(int node, int i);
+
+	/**
+	 * @return The greatest edge cost if every edge cost is a non-negative integer, otherwise -1.
+	 * Dijkstra can then use a bucket queue, see {@link com.b3.search.util.SearchParameters#isBucketed(SearchGraph)}
+	 */
+	int getMaxIntegralCost();
+
+}
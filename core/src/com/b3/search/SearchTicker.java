@@ -6,6 +6,9 @@ import com.b3.mode.ModeType;
 import com.b3.search.util.Function2;
 import com.b3.search.util.SearchAlgorithm;
 import com.b3.search.util.SearchParameters;
+import com.b3.search.util.StampSet;
+import com.b3.search.util.takeable.BucketQueueT;
+import com.b3.search.util.takeable.PriorityTakeable;
 import com.b3.search.util.takeable.StackT;
 import com.b3.search.util.takeable.Takeable;
 import com.b3.util.Config;
@@ -14,7 +17,7 @@ import com.b3.util.Utils;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * An instance of a search in progress
@@ -24,17 +27,27 @@ import java.util.stream.Collectors;
 public class SearchTicker extends Observable {
 
 	private final WorldGraph worldGraph;
-	private Takeable<Node> frontier;
 	private final List<Node> lastFrontier = new ArrayList<>();
 	private Node mostRecentlyExpanded;                        // Current node (expanded)
 	private List<Node> currentNeighbours;                    // Current neighbours to be expanded
+	private final List<Node> neighbourBuffer = new ArrayList<>();
 	private Node currentNeighbour;                            // Current neighbour being analyzed
 	private int neighboursSoFar;                            // Neighbours visited so far
 
-	private final Set<Node> visited = new HashSet<>();
-	private final Map<Node, Node> cameFrom = new HashMap<>();
+	// per-search state; a bidirectional search expands its two sides in turn
+	private final Side forward;                               // searches from the start
+	private final Side backward;                              // searches back from the end, if bidirectional
+	private Side side;                                        // the side expanding this tick
+	private Node meeting;                                     // where the cheapest joined path found so far meets
+	private float meetingCost;
+	private final JumpPointSearch jumpPoints = new JumpPointSearch();
 
-	private List<Node> path = new ArrayList<>();
+	// anytime A*: the current weight, and the nodes reached more cheaply after being visited in this pass
+	private float anytimeWeight;
+	private final StampSet inconsistent = new StampSet(0);
+	private final List<Node> inconsistentOrder = new ArrayList<>();
+
+	private final List<Node> path = new ArrayList<>();
 	private boolean pathComplete;
 	private boolean renderProgress;
 	private Node start, end;
@@ -66,8 +79,12 @@ public class SearchTicker extends Observable {
 
 		this.mode = mode;
 
+		int capacity = worldGraph.getIndexCapacity();
+		this.forward = new Side(capacity);
+		this.backward = new Side(capacity);
+		this.side = forward;
+
 		setAllCompleted(true);
-		this.frontier = new StackT<>(); // placeholder
 
 		this.paused = new EnumMap<>(SearchPauser.class);
 		for (SearchPauser pauser : SearchPauser.values()) {
@@ -88,6 +105,18 @@ public class SearchTicker extends Observable {
 	}
 
 	public void reset(SearchAlgorithm algorithm, Node start, Node end) {
+		reset(new SearchParameters(algorithm), start, end);
+	}
+
+	/**
+	 * Starts a new search between the given nodes
+	 *
+	 * @param parameters the algorithm to step through, the landmarks for its heuristic, and its weight
+	 * @param start      the node to search from
+	 * @param end        the node to search towards
+	 */
+	public void reset(SearchParameters parameters, Node start, Node end) {
+		SearchAlgorithm algorithm = parameters.getAlgorithm();
 
 		tickedOnce = false;
 
@@ -97,33 +126,47 @@ public class SearchTicker extends Observable {
 		pseudocode.addObserver(PseudocodeVisualiser.getInstance());
 		pseudocode.highlight(0);
 
-		SearchParameters parameters = new SearchParameters(algorithm);
-		Function2<Node, Node, Float> heuristic = parameters.getHeuristic();
-		if (algorithm == SearchAlgorithm.A_STAR || algorithm == SearchAlgorithm.DIJKSTRA) {
+		reset(false);
+		ensureCapacity(worldGraph.getIndexCapacity());
+
+		this.start = start;
+		this.end = end;
+
+		if (algorithm == SearchAlgorithm.A_STAR || algorithm == SearchAlgorithm.DIJKSTRA || algorithm.isBidirectional() ||
+				algorithm.isSuboptimal()) {
 
 			edgeCostFunction = Node::getEdgeCost;
-			costSoFarFunction = (node) -> {
-				if (!cameFrom.containsKey(node)) return Float.POSITIVE_INFINITY;
-				float cost = 0;
-				while (node != start) {
-					Node n2 = cameFrom.get(node);
-					cost += n2.getEdgeCost(node);
-					node = n2;
-				}
-				return cost;
-			};
+			costSoFarFunction = this::getStoredG;
+		} else if (algorithm == SearchAlgorithm.JUMP_POINT) {
+			jumpPoints.reset(worldGraph, indexOf(end));
+			edgeCostFunction = this::getJumpCost;
+			costSoFarFunction = this::getStoredG;
 		} else {
 			edgeCostFunction = (n1, n2) -> 0f;
 			costSoFarFunction = (node) -> 0f;
 		}
 
-		frontier = parameters.createFrontier(costSoFarFunction, heuristic, end);
-		frontier.add(start);
+		meeting = null;
+		meetingCost = Float.POSITIVE_INFINITY;
+		anytimeWeight = parameters.getWeight();
+		inconsistent.clear();
+		inconsistentOrder.clear();
+		backward.frontier.clear();
+		backward.inFrontier.clear();
+
+		// the backward side searches towards the start, and is expanded in turn with the forward side
+		if (algorithm.isBidirectional()) {
+			side = backward;
+			side.resetFrontier(parameters, this::getStart, this::getEnd);
+			relax(end, null, 0f);
+			pushFrontier(end);
+		}
 
-		reset(false);
+		side = forward;
+		side.resetFrontier(parameters, this::getEnd, this::getStart);
+		relax(start, null, 0f);
+		pushFrontier(start);
 
-		this.start = start;
-		this.end = end;
 		renderProgress = true;
 	}
 
@@ -139,9 +182,11 @@ public class SearchTicker extends Observable {
 			actorLookup.get(end.getPoint()).setSelected(false);*/
 
 		lastFrontier.clear();
-		visited.clear();
 		path.clear();
-		cameFrom.clear();
+		for (Side s : new Side[]{forward, backward}) {
+			s.clearVisited();
+			s.reached.clear();
+		}
 
 		renderProgress = false;
 	}
@@ -166,9 +211,11 @@ public class SearchTicker extends Observable {
 		// clear states
 		if (completed) {
 			renderProgress = false;
-			visited.clear();
-			if (frontier != null)
-				frontier.clear();
+			for (Side s : new Side[]{forward, backward}) {
+				s.clearVisited();
+				s.frontier.clear();
+				s.inFrontier.clear();
+			}
 		}
 
 	}
@@ -240,8 +287,14 @@ public class SearchTicker extends Observable {
 		if (pathComplete)
 			return;
 
-		if (line == 0 && frontier.isEmpty()) {
-			setAllCompleted(true);
+		if (line == 0 && isPassComplete()) {
+			completePass();
+			setUpdated(true);
+			return;
+		}
+
+		if (line == 0 && side.frontier.isEmpty()) {
+			finish();
 			return;
 		}
 
@@ -255,7 +308,7 @@ public class SearchTicker extends Observable {
 		// Node node;
 
 		if (line == 1) {
-			mostRecentlyExpanded = frontier.take();
+			mostRecentlyExpanded = takeFromFrontier();
 			setUpdated(true);
 			pseudocode.highlight(line + 1);
 			return;
@@ -267,16 +320,14 @@ public class SearchTicker extends Observable {
 		}
 
 		if (line == 3) {
-			visited.add(mostRecentlyExpanded);
+			markVisited(mostRecentlyExpanded);
 			setUpdated(true);
 			pseudocode.highlight(line + 1);
 			return;
 		}
 
 		if (line == 4) {
-			path = constructPath(cameFrom, start, mostRecentlyExpanded);
-
-			if (mostRecentlyExpanded.equals(end)) {
+			if (reachesTarget(mostRecentlyExpanded)) {
 				pseudocode.highlight(5);
 				setAllCompleted(true);
 				return;
@@ -288,7 +339,7 @@ public class SearchTicker extends Observable {
 		if (algorithm == SearchAlgorithm.DEPTH_FIRST || algorithm == SearchAlgorithm.BREADTH_FIRST) {
 			if (line == 4) {
 				pseudocode.highlight(6);
-				currentNeighbours = mostRecentlyExpanded.getNeighbours().stream().collect(Collectors.toList());
+				currentNeighbours = collectNeighbours(mostRecentlyExpanded);
 				return;
 			}
 
@@ -301,11 +352,11 @@ public class SearchTicker extends Observable {
 					return;
 				}
 
-				if (!visited.contains(currentNeighbour) && !frontier.contains(currentNeighbour) && pseudocode.getCurrentLine() == 7) {
+				if (!isVisited(currentNeighbour) && !isInFrontier(currentNeighbour) && pseudocode.getCurrentLine() == 7) {
 					pseudocode.highlight(8);
 
-					cameFrom.put(currentNeighbour, mostRecentlyExpanded);
-					frontier.add(currentNeighbour);
+					relax(currentNeighbour, mostRecentlyExpanded, 0f);
+					pushFrontier(currentNeighbour);
 					lastFrontier.add(currentNeighbour);
 					setUpdated(true);
 					return;
@@ -327,8 +378,9 @@ public class SearchTicker extends Observable {
 		// ---------------
 		else {
 			if (line == 4) {
+				currentNeighbours = algorithm == SearchAlgorithm.JUMP_POINT ?
+						collectJumpPoints(mostRecentlyExpanded) : collectNeighbours(mostRecentlyExpanded);
 				pseudocode.highlight(6);
-				currentNeighbours = mostRecentlyExpanded.getNeighbours().stream().collect(Collectors.toList());
 				return;
 			}
 
@@ -350,8 +402,11 @@ public class SearchTicker extends Observable {
 
 				if (line == 8) {
 					tentative_gString = tentative_g + " = " + costSoFarFunction.apply(mostRecentlyExpanded) + " + " + edgeCostFunction.apply(mostRecentlyExpanded, currentNeighbour);
-					if (tentative_g <= costSoFarFunction.apply(currentNeighbour)) {
-						cameFrom.put(currentNeighbour, mostRecentlyExpanded);
+					float previous_g = costSoFarFunction.apply(currentNeighbour);
+					if (tentative_g <= previous_g) {
+						relax(currentNeighbour, mostRecentlyExpanded, tentative_g);
+						if (tentative_g < previous_g)
+							markInconsistent(currentNeighbour);
 						pseudocode.highlight(line + 1);
 						return;
 					}
@@ -363,9 +418,9 @@ public class SearchTicker extends Observable {
 				}
 
 				if (line == 10) {
-					if (!frontier.contains(currentNeighbour) && !visited.contains(currentNeighbour)) {
+					if (!isInFrontier(currentNeighbour) && !isVisited(currentNeighbour)) {
 						pseudocode.highlight(line + 1);
-						frontier.add(currentNeighbour);
+						pushFrontier(currentNeighbour);
 						lastFrontier.add(currentNeighbour);
 						setUpdated(true);
 
@@ -387,6 +442,7 @@ public class SearchTicker extends Observable {
 			currentNeighbour = null;
 		}
 
+		switchSides();
 		pseudocode.highlight(0);
 		setUpdated(true);
 		completedPseudocodeTick = true;
@@ -408,57 +464,54 @@ public class SearchTicker extends Observable {
 		if (pathComplete)
 			return;
 
-		if (frontier.isEmpty()) {
+		if (isPassComplete()) {
+			completePass();
+			setUpdated(true);
+			return;
+		}
+
+		if (side.frontier.isEmpty()) {
 			// Failed to find a path!
 			// Or node was not added to the frontier on initialisation.
-			setAllCompleted(true);
-			path.clear(); // Clear the path, so no false hopes.
+			finish();
 			return;
 		}
 
 		lastFrontier.clear();
 
-		Node node = frontier.take();
+		Node node = takeFromFrontier();
 
 		// record us expanding this node
 		mostRecentlyExpanded = node;
 
-		visited.add(node);
+		markVisited(node);
 
-		path = constructPath(cameFrom, start, node);
-		if (node.equals(end)) {
+		if (reachesTarget(node)) {
 			setAllCompleted(true);
 			return;
 		}
 
+		// neighbours are iterated by index so that expanding a node does not allocate
 		if (algorithm == SearchAlgorithm.DEPTH_FIRST || algorithm == SearchAlgorithm.BREADTH_FIRST) {
-			node.getNeighbours()
-					.stream()
-					.filter(s -> !visited.contains(s))
-					.forEach(s -> {
-						boolean inPending = frontier.contains(s);
-
-						if (!inPending) {
-							cameFrom.put(s, node);
-							frontier.add(s);
-							lastFrontier.add(s);
-						}
-					});
+			for (int i = 0, n = node.getNeighbourCount(); i < n; i++) {
+				Node s = node.getNeighbour(i);
+				if (!isVisited(s) && !isInFrontier(s)) {
+					relax(s, node, 0f);
+					pushFrontier(s);
+					lastFrontier.add(s);
+				}
+			}
+		} else if (algorithm == SearchAlgorithm.JUMP_POINT) {
+			float g = getStoredG(node);
+			for (int i = 0, n = findJumpPoints(node); i < n; i++)
+				reach(node, worldGraph.getNodeByIndex(jumpPoints.getSuccessor(i)), g + jumpPoints.getSuccessorCost(i));
 		} else {
-			node.getNeighbours()
-					.stream()
-					.forEach(child -> {
-						float tentative_g = costSoFarFunction.apply(node) + edgeCostFunction.apply(node, child);
-						if (tentative_g <= costSoFarFunction.apply(child)) {
-							cameFrom.put(child, node);
-							if (!frontier.contains(child) && !visited.contains(child)) {
-								frontier.add(child);
-								lastFrontier.add(child);
-							}
-						}
-					});
+			float g = getStoredG(node);
+			for (int i = 0, n = node.getNeighbourCount(); i < n; i++)
+				reach(node, node.getNeighbour(i), g + node.getNeighbourCost(i));
 		}
 
+		switchSides();
 		setUpdated(true);
 
 		// TODO this is the sound 'wave' pings that sounds cool. Needs to be refactored out of here though.
@@ -496,42 +549,262 @@ public class SearchTicker extends Observable {
 	}
 
 	/**
-	 * Constructs a path from the {@code start} to the {@code end} using the {@code map} generated throughout the search
+	 * Fills the reusable neighbour buffer with the neighbours of the given node
 	 *
-	 * @param map   the map of nodes to each other nodes
-	 * @param start the start node of the path
-	 * @param end   the end node of the path
-	 * @return a {@link List} of {@link Node}s that is a path from {@code start} to {@code end}
+	 * @param node the node whose neighbours to collect
+	 * @return the buffer, holding the neighbours of {@code node} in order
 	 */
-	private List<Node> constructPath(Map<Node, Node> map, Node start, Node end) {
+	private List<Node> collectNeighbours(Node node) {
+		neighbourBuffer.clear();
+		for (int i = 0, n = node.getNeighbourCount(); i < n; i++)
+			neighbourBuffer.add(node.getNeighbour(i));
+		return neighbourBuffer;
+	}
 
-		// Helper stack for inserting elements
-		Stack<Node> path = new Stack<>();
-		// Array list that will contain the ordered path to return
-		ArrayList<Node> retPath = new ArrayList<>();
+	/**
+	 * Constructs the path to a newly expanded node, and checks whether it completes the search.
+	 * A bidirectional search is complete once no path through either frontier can be cheaper than the
+	 * cheapest path found so far that joins the two sides.
+	 *
+	 * @param node the node that has just been taken from the frontier and expanded
+	 * @return true if the search is complete, in which case the path is the final path
+	 */
+	private boolean reachesTarget(Node node) {
+		if (!algorithm.isBidirectional()) {
+			constructPath(start, node);
+			return node.equals(end);
+		}
 
-		// Add end node to the stack
-		path.add(end);
+		if (meeting != null && getLowerBound(node) >= meetingCost) {
+			constructMeetingPath();
+			return true;
+		}
 
-		// Insert nodes into stack
-		Node n;
-		while (!(n = path.peek()).equals(start)) {
-			path.add(map.get(n));
+		// the path so far of the side that is expanding
+		if (side == forward)
+			constructPath(start, node);
+		else {
+			path.clear();
+			appendParents(backward, end, node);
 		}
+		return false;
+	}
 
-		// Pop elements to get correct order (from start to end)
-		while (!path.isEmpty()) {
-			retPath.add(path.pop());
+	/**
+	 * Any path yet to be found must leave both frontiers, so cannot cost less than their heads together.
+	 * The heuristics of the two sides are balanced, see {@link SearchParameters#balance}, so this holds for A* too.
+	 *
+	 * @param node the node just taken from the expanding side's frontier, which had the lowest priority in it
+	 * @return the lowest cost that any path yet to be found by a bidirectional search could have
+	 */
+	private float getLowerBound(Node node) {
+		Side other = getOtherSide();
+		Node head = other.frontier.peek();
+		return head == null ? Float.POSITIVE_INFINITY : side.getPriority(node) + other.getPriority(head);
+	}
+
+	/**
+	 * Completes the search once the expanding side's frontier is empty, which for a bidirectional search means
+	 * that the cheapest joined path found (if any) is the shortest path
+	 */
+	private void finish() {
+		setAllCompleted(true);
+		if (meeting != null)
+			constructMeetingPath();
+		else
+			path.clear(); // Clear the path, so no false hopes.
+	}
+
+	/**
+	 * A pass of anytime A* is over once it has reached the end, and nothing left in the frontier could reach it
+	 * more cheaply at the current weight. The end itself is therefore never expanded
+	 *
+	 * @return true if the search is anytime A* and its current pass is over
+	 */
+	private boolean isPassComplete() {
+		if (algorithm != SearchAlgorithm.ANYTIME_A_STAR)
+			return false;
+
+		float endCost = getStoredG(end);
+		Node head = side.frontier.peek();
+		return endCost != Float.POSITIVE_INFINITY && (head == null || endCost <= side.getPriority(head));
+	}
+
+	/**
+	 * Shows the path found by the pass of anytime A* that has just ended. The search is complete if the weight was
+	 * already 1, otherwise the weight is lowered and the next pass starts from every node left in the frontier or
+	 * reached more cheaply after being visited, so nothing that was found is searched for again
+	 */
+	private void completePass() {
+		constructPath(start, end);
+		if (anytimeWeight <= 1f) {
+			setAllCompleted(true);
+			return;
 		}
 
-		return retPath;
+		anytimeWeight = Math.max(1f, anytimeWeight - SearchParameters.ANYTIME_WEIGHT_STEP);
+
+		// every priority has changed, so they are all added again in the order they would have been taken
+		List<Node> reopened = new ArrayList<>();
+		for (Node node = takeFromFrontier(); node != null; node = takeFromFrontier())
+			reopened.add(node);
+		reopened.addAll(inconsistentOrder);
+
+		inconsistent.clear();
+		inconsistentOrder.clear();
+		side.clearVisited();
+		for (Node node : reopened)
+			pushFrontier(node);
+	}
+
+	/**
+	 * Remembers that a node visited in this pass of anytime A* has since been reached more cheaply,
+	 * so that it is expanded again in the next pass
+	 *
+	 * @param node the node that has just been reached more cheaply
+	 */
+	private void markInconsistent(Node node) {
+		if (algorithm == SearchAlgorithm.ANYTIME_A_STAR && isVisited(node) && inconsistent.add(indexOf(node)))
+			inconsistentOrder.add(node);
+	}
+
+	/**
+	 * Hands the next expansion to the other side of a bidirectional search
+	 */
+	private void switchSides() {
+		if (algorithm.isBidirectional())
+			side = getOtherSide();
+	}
+
+	/**
+	 * @return the side that is not expanding this tick
+	 */
+	private Side getOtherSide() {
+		return side == forward ? backward : forward;
+	}
+
+	/**
+	 * Re-parents {@code child} if it has been reached as or more cheaply, adding it to the frontier if it is new
+	 *
+	 * @param node        the node being expanded
+	 * @param child       the node reached from it
+	 * @param tentative_g the cost so far of {@code child} through {@code node}
+	 */
+	private void reach(Node node, Node child, float tentative_g) {
+		float previous_g = getStoredG(child);
+		if (tentative_g <= previous_g) {
+			relax(child, node, tentative_g);
+			if (!isInFrontier(child) && !isVisited(child)) {
+				pushFrontier(child);
+				lastFrontier.add(child);
+			} else if (tentative_g < previous_g)
+				markInconsistent(child);
+		}
+	}
+
+	/**
+	 * Finds the jump points that follow the given node, which are then read from {@link #jumpPoints}
+	 *
+	 * @param node the node being expanded
+	 * @return the number of jump points found
+	 */
+	private int findJumpPoints(Node node) {
+		Node parent = getCameFrom(node);
+		return jumpPoints.findSuccessors(indexOf(node), parent == null ? -1 : indexOf(parent));
+	}
+
+	/**
+	 * Fills the reusable neighbour buffer with the jump points that follow the given node
+	 *
+	 * @param node the node whose successors to collect
+	 * @return the buffer, holding the jump points in order
+	 */
+	private List<Node> collectJumpPoints(Node node) {
+		neighbourBuffer.clear();
+		for (int i = 0, n = findJumpPoints(node); i < n; i++)
+			neighbourBuffer.add(worldGraph.getNodeByIndex(jumpPoints.getSuccessor(i)));
+		return neighbourBuffer;
+	}
+
+	/**
+	 * @param node the jump point being expanded
+	 * @param jump a jump point that follows it
+	 * @return the cost of the straight path between them
+	 */
+	private float getJumpCost(Node node, Node jump) {
+		if (node.hasNeighbour(jump))
+			return node.getEdgeCost(jump);
+
+		Point p1 = node.getPoint();
+		Point p2 = jump.getPoint();
+		return (Math.abs(p1.x - p2.x) + Math.abs(p1.y - p2.y)) * JumpPointSearch.UNIT_COST;
+	}
+
+	/**
+	 * Constructs the path from the {@code start} to the {@code end} using the parents recorded throughout the search.
+	 * The path list is refilled rather than reallocated, as this is done on every expansion.
+	 *
+	 * @param start the start node of the path
+	 * @param end   the end node of the path
+	 */
+	private void constructPath(Node start, Node end) {
+		path.clear();
+
+		// walk back from the end, then reverse to get the correct order (from start to end)
+		appendParents(forward, start, end);
+		Collections.reverse(path);
+	}
+
+	/**
+	 * Constructs the path from the {@code start} to the {@code end} of a bidirectional search, by joining the
+	 * forward path to the meeting node with the backward path from it
+	 */
+	private void constructMeetingPath() {
+		constructPath(start, meeting);
+		for (Node n = meeting; !n.equals(end); ) {
+			n = backward.getCameFrom(n);
+			path.add(n);
+		}
+	}
+
+	/**
+	 * Appends {@code from} and then its parents on the given side to the path, until {@code origin} is reached
+	 *
+	 * @param side   the side of the search whose parents to follow
+	 * @param origin the node that side started from
+	 * @param from   the node to walk back from
+	 */
+	private void appendParents(Side side, Node origin, Node from) {
+		Node n = from;
+		path.add(n);
+		while (!n.equals(origin)) {
+			Node parent = side.getCameFrom(n);
+
+			// jump points are joined by straight lines of tiles
+			if (algorithm == SearchAlgorithm.JUMP_POINT) {
+				for (int step = indexOf(n), to = indexOf(parent); step != to; ) {
+					step = jumpPoints.stepTowards(step, to);
+					path.add(worldGraph.getNodeByIndex(step));
+				}
+			} else
+				path.add(parent);
+
+			n = parent;
+		}
 	}
 
 	/**
 	 * @return a {@link Takeable} list of {@link Node}s in the frontier
 	 */
 	public Takeable<Node> getFrontier() {
-		return frontier;
+		return forward.frontier;
+	}
+
+	/**
+	 * @return the frontier of the search back from the end, which is empty unless the search is bidirectional
+	 */
+	public Takeable<Node> getBackwardFrontier() {
+		return backward.frontier;
 	}
 
 	/**
@@ -540,15 +813,54 @@ public class SearchTicker extends Observable {
 	 * @param node the node to be added to the frontier
 	 */
 	public void addToFrontier(Node node) {
-		frontier.add(node);
+		pushFrontier(node);
 		setUpdated(true);
 	}
 
+	/**
+	 * Takes the next node from the frontier.
+	 * This must be used instead of taking from {@link #getFrontier()} directly, so that
+	 * the frontier membership kept by this ticker stays correct.
+	 *
+	 * @return the node taken, or null if the frontier is empty
+	 */
+	public Node takeFromFrontier() {
+		Node node = side.frontier.take();
+		if (node != null)
+			side.inFrontier.remove(indexOf(node));
+		return node;
+	}
+
+	/**
+	 * Adds {@code node} to the frontier, recording that it is there
+	 *
+	 * @param node the node to add
+	 */
+	private void pushFrontier(Node node) {
+		side.frontier.add(node);
+		side.inFrontier.add(indexOf(node));
+	}
+
+	/**
+	 * @param node the node to check
+	 * @return true if the node is in the frontier, in O(1)
+	 */
+	private boolean isInFrontier(Node node) {
+		return side.inFrontier.contains(indexOf(node));
+	}
+
 	/**
 	 * @return a {@link Set} of type {@link Node} containing all the nodes in the visited
 	 */
 	public Set<Node> getVisited() {
-		return visited;
+		return forward.visitedView;
+	}
+
+	/**
+	 * @return the nodes visited by the search back from the end, which is empty unless the search is bidirectional
+	 */
+	public Set<Node> getBackwardVisited() {
+		return backward.visitedView;
 	}
 
 	/**
@@ -557,12 +869,96 @@ public class SearchTicker extends Observable {
 	 * @param node the node to add to the visited set
 	 */
 	public void addToVisited(Node node) {
-		visited.add(node);
+		markVisited(node);
 		setUpdated(true);
 	}
 
+	/**
+	 * @param node the node to check
+	 * @return true if the node has been visited, in O(1)
+	 */
+	private boolean isVisited(Node node) {
+		return side.visited.contains(indexOf(node));
+	}
+
+	/**
+	 * Records that {@code node} has been visited
+	 *
+	 * @param node the node that has been visited
+	 */
+	private void markVisited(Node node) {
+		if (side.visited.add(indexOf(node)))
+			side.visitedOrder.add(node);
+	}
+
 	public void addToCameFrom(Node node1, Node node2) {
-		cameFrom.put(node1, node2);
+		relax(node1, node2, getG(node2, node1));
+	}
+
+	/**
+	 * Records a new best route to {@code node} through {@code parent}, storing its new cost so far
+	 * and telling a prioritised frontier that its priority may have changed.
+	 * In a bidirectional search, this also records whether it joins the two sides more cheaply than before.
+	 *
+	 * @param node   the node that has been reached more cheaply
+	 * @param parent the node it is now reached from
+	 * @param g      the new cost so far of {@code node}
+	 */
+	@SuppressWarnings("unchecked")
+	private void relax(Node node, Node parent, float g) {
+		int index = indexOf(node);
+		if (index >= side.cameFrom.length)
+			ensureCapacity(index + 1);
+
+		side.reached.add(index);
+		side.cameFrom[index] = parent == null ? -1 : indexOf(parent);
+		side.costSoFar[index] = g;
+
+		if (side.frontier instanceof PriorityTakeable)
+			((PriorityTakeable<Node>) side.frontier).update(node);
+
+		if (algorithm != null && algorithm.isBidirectional()) {
+			float joined = g + getOtherSide().getStoredG(node);
+			if (joined < meetingCost) {
+				meetingCost = joined;
+				meeting = node;
+			}
+		}
+	}
+
+	/**
+	 * @param node the node to look up
+	 * @return the node that {@code node} was reached from, or null if it has not been reached
+	 */
+	private Node getCameFrom(Node node) {
+		return side.getCameFrom(node);
+	}
+
+	/**
+	 * @param node the node to look up
+	 * @return the stored cost so far of {@code node}, or infinity if it has not been reached
+	 */
+	private float getStoredG(Node node) {
+		return side.getStoredG(node);
+	}
+
+	/**
+	 * @param node a node, which may be a copy not belonging to the graph
+	 * @return the dense index of {@code node} in the graph being searched
+	 */
+	private int indexOf(Node node) {
+		int index = node.getIndex();
+		return index != Node.NO_INDEX ? index : worldGraph.indexOf(node.getPoint());
+	}
+
+	/**
+	 * Grows the per-node state arrays, keeping their contents
+	 *
+	 * @param capacity the number of node indices that must fit
+	 */
+	private void ensureCapacity(int capacity) {
+		forward.ensureCapacity(capacity);
+		backward.ensureCapacity(capacity);
 	}
 
 	public List<Node> getPath() {
@@ -570,7 +966,7 @@ public class SearchTicker extends Observable {
 	}
 
 	public void generatePath(Node end) {
-		path = constructPath(cameFrom, start, end);
+		constructPath(start, end);
 	}
 
 	public boolean isPathComplete() {
@@ -725,8 +1121,21 @@ public class SearchTicker extends Observable {
 		return costSoFarFunction.apply(node) + edgeCostFunction.apply(node, child);
 	}
 
+	/**
+	 * Gets the cost of moving from a {@link Node} to one of its successors, which for
+	 * {@link SearchAlgorithm#JUMP_POINT} is the cost of the straight path between two jump points.
+	 *
+	 * @param node  The node being expanded.
+	 * @param child One of its successors.
+	 * @return The cost of moving from {@code node} to {@code child}.
+	 */
+	public float getStepCost(Node node, Node child) {
+		return edgeCostFunction.apply(node, child);
+	}
+
 	/**
 	 * Gets the cost so far that is needed to reach a {@link Node}.
+	 * This is a lookup of the stored score, so it is cheap to call.
 	 * Value may decrease after successive calls of {@link #tick()}.
 	 *
 	 * @param node The {@link Node} to get the current cost it takes to reach.
@@ -752,4 +1161,113 @@ public class SearchTicker extends Observable {
 		return mode;
 	}
 
+	/**
+	 * One direction of the search: its frontier, its visited set, and the parents and costs so far of the nodes
+	 * it has reached, all keyed by node index and reused between searches.
+	 */
+	private class Side {
+		private Takeable<Node> frontier = new StackT<>(); // placeholder
+		private final EnumMap<SearchAlgorithm, Takeable<Node>> frontiers = new EnumMap<>(SearchAlgorithm.class);
+		private final StampSet visited;                           // visited nodes
+		private final List<Node> visitedOrder = new ArrayList<>(); // visited nodes, in order of expansion
+		private final Set<Node> visitedView;
+		private final StampSet inFrontier;                        // nodes currently in the frontier
+		private final StampSet reached;                           // nodes whose parent and cost so far are set
+		private int[] cameFrom;
+		private float[] costSoFar;
+		private Supplier<Node> target;                            // the node this side is searching towards
+		private Function2<Node, Node, Float> heuristic;
+
+		private Side(int capacity) {
+			this.visited = new StampSet(capacity);
+			this.inFrontier = new StampSet(capacity);
+			this.reached = new StampSet(capacity);
+			this.cameFrom = new int[capacity];
+			this.costSoFar = new float[capacity];
+			this.visitedView = new AbstractSet<Node>() {
+				@Override
+				public boolean contains(Object o) {
+					return o instanceof Node && visited.contains(indexOf((Node) o));
+				}
+
+				@Override
+				public Iterator<Node> iterator() {
+					return Collections.unmodifiableList(visitedOrder).iterator();
+				}
+
+				@Override
+				public int size() {
+					return visitedOrder.size();
+				}
+			};
+		}
+
+		/**
+		 * Switches to an empty frontier for the given algorithm.
+		 * Frontiers are kept per algorithm, so their storage is reused between searches
+		 *
+		 * @param parameters the parameters of the algorithm
+		 * @param target     supplies the node this side is searching towards
+		 * @param origin     supplies the node this side is searching from
+		 */
+		private void resetFrontier(SearchParameters parameters, Supplier<Node> target, Supplier<Node> origin) {
+			this.target = target;
+			Function2<Node, Node, Float> estimate = parameters.getHeuristic();
+			if (parameters.getAlgorithm().isBidirectional())
+				this.heuristic = SearchParameters.balance(estimate, origin);
+			else if (parameters.getAlgorithm() == SearchAlgorithm.ANYTIME_A_STAR)
+				this.heuristic = (n, t) -> anytimeWeight * estimate.apply(n, t);
+			else
+				this.heuristic = estimate;
+
+			// replaced if the edge costs no longer suit it
+			frontier = frontiers.get(parameters.getAlgorithm());
+			boolean bucketed = parameters.isBucketed(worldGraph);
+			if (frontier == null || frontier instanceof BucketQueueT != bucketed ||
+					bucketed && ((BucketQueueT<Node>) frontier).getSpan() < worldGraph.getMaxIntegralCost()) {
+				// the frontier outlives these parameters, so must read the current heuristic
+				frontier = parameters.createFrontier(this::getStoredG, (n, t) -> heuristic.apply(n, t), target,
+						SearchTicker.this::indexOf, worldGraph);
+				frontiers.put(parameters.getAlgorithm(), frontier);
+			}
+			frontier.clear();
+			inFrontier.clear();
+		}
+
+		/**
+		 * @param node a node reached by this side
+		 * @return its priority in this side's frontier
+		 */
+		private float getPriority(Node node) {
+			return getStoredG(node) + heuristic.apply(node, target.get());
+		}
+
+		private Node getCameFrom(Node node) {
+			int index = indexOf(node);
+			return reached.contains(index) ? worldGraph.getNodeByIndex(cameFrom[index]) : null;
+		}
+
+		private float getStoredG(Node node) {
+			int index = indexOf(node);
+			return reached.contains(index) ? costSoFar[index] : Float.POSITIVE_INFINITY;
+		}
+
+		private void clearVisited() {
+			visited.clear();
+			visitedOrder.clear();
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity <= cameFrom.length)
+				return;
+
+			capacity = Math.max(capacity, cameFrom.length * 2);
+			cameFrom = Arrays.copyOf(cameFrom, capacity);
+			costSoFar = Arrays.copyOf(costSoFar, capacity);
+			visited.ensureCapacity(capacity);
+			inFrontier.ensureCapacity(capacity);
+			reached.ensureCapacity(capacity);
+		}
+	}
+
 }
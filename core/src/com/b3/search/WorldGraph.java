@@ -20,11 +20,21 @@ import java.util.Set;
  */
 public class WorldGraph extends Graph {
 
+	private static final int PATH_CACHE_CAPACITY = 256;
+	public static final int HIERARCHY_CLUSTER_SIZE = 10;
+	private static final int LANDMARK_COUNT = 8;
+	private static final int FLOW_FIELD_CACHE_CAPACITY = 16;
+
 	private final WorldGraphRenderer renderer;
 
 	private SearchTicker latestSearchTicker;
 	private Agent latestSearchAgent;
 	private final Map<Agent, SearchTicker> searchTickers;
+	private PathCache pathCache;
+	private HierarchicalGraph hierarchy;
+	private final Landmarks landmarks;
+	private final FlowFieldCache flowFields;
+	private final ConnectedComponents components;
 
 	private Vector2 wantedNextDestination;
 
@@ -42,6 +52,9 @@ public class WorldGraph extends Graph {
 		super(width, height);
 		this.renderer = new WorldGraphRenderer(this);
 		this.searchTickers = new LinkedHashMap<>();
+		this.landmarks = new Landmarks(this, LANDMARK_COUNT);
+		this.flowFields = new FlowFieldCache(this, FLOW_FIELD_CACHE_CAPACITY);
+		this.components = new ConnectedComponents(this);
 		this.wantedNextDestination = null;
 	}
 
@@ -62,6 +75,59 @@ public class WorldGraph extends Graph {
 		return renderer;
 	}
 
+	/**
+	 * @return The cache of complete paths through this graph, which stays valid as buildings are added and removed,
+	 * and is only created (and starts listening to edits) on the first call
+	 */
+	public PathCache getPathCache() {
+		if (pathCache == null)
+			pathCache = new PathCache(this, PATH_CACHE_CAPACITY);
+		return pathCache;
+	}
+
+	/**
+	 * @return The clustered view of this graph, for long paths across the map, which is only created (and
+	 * starts listening to edits) on the first call
+	 */
+	public HierarchicalGraph getHierarchy() {
+		if (hierarchy == null)
+			hierarchy = new HierarchicalGraph(this, HIERARCHY_CLUSTER_SIZE);
+		return hierarchy;
+	}
+
+	/**
+	 * @return The landmark distances through this graph, to sharpen the A* heuristic with {@link
+	 * com.b3.search.util.SearchParameters#setLandmarks(Landmarks)}
+	 */
+	public Landmarks getLandmarks() {
+		return landmarks;
+	}
+
+	/**
+	 * @return The flow fields through this graph, shared by every agent heading to the same goal
+	 */
+	public FlowFieldCache getFlowFields() {
+		return flowFields;
+	}
+
+	/**
+	 * @return The connected components of this graph, to tell in O(1) whether a path exists
+	 */
+	public ConnectedComponents getComponents() {
+		return components;
+	}
+
+	/**
+	 * @param from The node to reach the other from, or null for any node
+	 * @return A random node that can be reached from the given node, or null if it is cut off from every other node
+	 */
+	public Node getRandomReachableNode(Node from) {
+		if (from == null)
+			return getRandomNode();
+
+		return components.getRandomNode(from);
+	}
+
 	/**
 	 * Snips the edges to accommodate for the given building
 	 */
@@ -200,10 +266,12 @@ public class WorldGraph extends Graph {
 	 * Removed a building from the WorldGraph,
 	 * the {@link Node Nodes} and edges that were covered will be restored.
 	 *
-	 * @param deletionTile The bottom left hand corner of the building to delete.
+	 * @param building The building to delete
 	 */
-	public void removeBuilding(Vector2 deletionTile) {
-		addNodesInSquare((int) deletionTile.x, (int) deletionTile.y, 4);
+	public void removeBuilding(Building building) {
+		Vector2 tPos = building.getTilePosition();
+		Vector3 dPos = building.getDimensions();
+		addNodesInRectangle(Math.round(tPos.x), Math.round(tPos.y), Math.round(dPos.x), Math.round(dPos.y));
 	}
 
 }
@@ -9,7 +9,6 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -145,6 +144,10 @@ public class WorldGraphRenderer {
 				// frontier
 				renderSearchNodes(Config.getColor(ConfigKey.FRONTIER_COLOUR), frontier, zoomScalarInside);
 
+				// the search back from the goal, which is empty unless bidirectional
+				renderSearchNodes(Config.getColor(ConfigKey.BACKWARD_VISITED_COLOUR), searchTicker.getBackwardVisited(), zoomScalarInside);
+				renderSearchNodes(Config.getColor(ConfigKey.BACKWARD_FRONTIER_COLOUR), searchTicker.getBackwardFrontier(), zoomScalarInside);
+
 				// last frontier
 				renderSearchNodes(Config.getColor(ConfigKey.LAST_FRONTIER_COLOUR), lastFront, zoomScalarInside);
 
@@ -239,12 +242,12 @@ public class WorldGraphRenderer {
 
 		Collection<Node> nodes = worldGraph.getNodes().values();
 		for (Node node1 : nodes) {
-			Map<Node, Float> neighbours = node1.getEdges();
-			for (Map.Entry<Node, Float> neighbour : neighbours.entrySet()) {
-				if (neighbour.getKey().hashCode() < node1.hashCode())
+			for (int i = 0, n = node1.getNeighbourCount(); i < n; i++) {
+				Node neighbour = node1.getNeighbour(i);
+				if (neighbour.hashCode() < node1.hashCode())
 					continue;
 
-				Float colouringRedValue = neighbour.getValue() - 1;
+				float colouringRedValue = node1.getNeighbourCost(i) - 1;
 
 				if (colouringRedValue == 0) {
 					float tempColRGBVal = (float) ((zoomScalar - 8) * 7.5);
@@ -253,14 +256,13 @@ public class WorldGraphRenderer {
 					if (zoomScalar > 8)
 						shapeRenderer.line(
 								node1.getPoint().x, node1.getPoint().y,
-								neighbour.getKey().getPoint().x, neighbour.getKey().getPoint().y
+								neighbour.getPoint().x, neighbour.getPoint().y
 						);
 				} else {
-					Color col = new Color(((colouringRedValue + 1) * 25) / 100, 0, 0, 0);
-					shapeRenderer.setColor(col);
+					shapeRenderer.setColor(((colouringRedValue + 1) * 25) / 100, 0, 0, 0);
 					shapeRenderer.line(
 							node1.getPoint().x, node1.getPoint().y,
-							neighbour.getKey().getPoint().x, neighbour.getKey().getPoint().y
+							neighbour.getPoint().x, neighbour.getPoint().y
 					);
 				}
 			}
@@ -387,23 +389,24 @@ public class WorldGraphRenderer {
 		shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
 		Collection<Node> nodes = worldGraph.getNodes().values();
 
+		Color edgeColour = Config.getColor(ConfigKey.EDGE_COLOUR);
+
 		for (Node node : nodes) {
-			Map<Node, Float> neighbours = node.getEdges();
-			for (Map.Entry<Node, Float> neighbour : neighbours.entrySet()) {
-				if (neighbour.getKey().hashCode() < node.hashCode())
+			for (int i = 0, n = node.getNeighbourCount(); i < n; i++) {
+				Node neighbour = node.getNeighbour(i);
+				if (neighbour.hashCode() < node.hashCode())
 					continue;
 
-				Float colouringRedValue = neighbour.getValue() - 1;
+				float colouringRedValue = node.getNeighbourCost(i) - 1;
 
 				if (colouringRedValue <= 1) {
-					shapeRenderer.setColor(Config.getColor(ConfigKey.EDGE_COLOUR));
+					shapeRenderer.setColor(edgeColour);
 				} else {
-					Color col = new Color(((colouringRedValue + 1) * 25) / 100, 0, 0, 0);
-					shapeRenderer.setColor(col);
+					shapeRenderer.setColor(((colouringRedValue + 1) * 25) / 100, 0, 0, 0);
 				}
 				shapeRenderer.line(
 						node.getPoint().x, node.getPoint().y,
-						neighbour.getKey().getPoint().x, neighbour.getKey().getPoint().y
+						neighbour.getPoint().x, neighbour.getPoint().y
 				);
 			}
 		}
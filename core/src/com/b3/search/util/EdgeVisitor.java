@@ -0,0 +1,20 @@
+package com.b3.search.util;
+
+import com.b3.search.Node;
+
+/**
+ * Visits an edge of a {@link Node}, without boxing its cost.
+ *
+ * @see Node#forEachNeighbour(EdgeVisitor)
+ */
+public interface EdgeVisitor {
+
+	/**
+	 * Visits an edge.
+	 *
+	 * @param neighbour The node at the other end of the edge.
+	 * @param cost      The cost of the edge.
+	 */
+	void visit(Node neighbour, float cost);
+
+}
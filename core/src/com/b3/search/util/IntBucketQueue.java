@@ -0,0 +1,223 @@
+package com.b3.search.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue of non-negative integers with small non-negative integer priorities.
+ * <p>
+ * Dijkstra over edges whose costs are integers no greater than some small C only ever holds priorities from the
+ * lowest held to C more than it, so this keeps one bucket per priority in a ring of at least C + 1 buckets, and
+ * adding, taking and changing a priority are all O(1) with no comparisons; taking only walks past empty buckets.
+ * Each bucket is a doubly linked list threaded through arrays keyed by integer, so the integers that share a
+ * priority are taken first-in-first-out, exactly like {@link IntPriorityQueue}.
+ * <p>
+ * Priorities that are not integers, or that do not all fit in the ring at once, are rejected.
+ *
+ * @author dxw405
+ */
+public class IntBucketQueue implements IntTakeable {
+
+	private final int mask;
+	private final int[] heads;
+	private final int[] tails;
+
+	private int[] next;
+	private int[] previous;
+	private int[] keys;
+	private final StampSet held;
+	private int size;
+
+	// every held priority is between these, and the lowest is no less than the cursor
+	private int cursor;
+	private int highest;
+
+	/**
+	 * Creates an empty queue
+	 *
+	 * @param span     The greatest difference between two priorities held at once, such as the greatest edge cost
+	 * @param capacity The initial number of integers (0 to capacity-1) that can be held without growing
+	 */
+	public IntBucketQueue(int span, int capacity) {
+		if (span < 0)
+			throw new IllegalArgumentException("Span cannot be negative: " + span);
+
+		int buckets = Integer.highestOneBit(Math.max(span, 1)) << 1;
+		this.mask = buckets - 1;
+		this.heads = new int[buckets];
+		this.tails = new int[buckets];
+		Arrays.fill(heads, -1);
+
+		capacity = Math.max(capacity, 1);
+		this.next = new int[capacity];
+		this.previous = new int[capacity];
+		this.keys = new int[capacity];
+		this.held = new StampSet(capacity);
+	}
+
+	/**
+	 * @return The greatest difference between two priorities that can be held at once
+	 */
+	public int getSpan() {
+		return mask;
+	}
+
+	/**
+	 * Adds the given integer, or changes its priority if it is already held
+	 *
+	 * @param e        The integer to add
+	 * @param priority Its priority, lower is taken first
+	 * @throws IllegalArgumentException If the priority is not a non-negative integer, or is further than the span
+	 *                                  from another priority held
+	 */
+	@Override
+	public void add(int e, float priority) {
+		int key = (int) priority;
+		if (key != priority || key < 0)
+			throw new IllegalArgumentException("Priority is not a non-negative integer: " + priority);
+
+		boolean present = held.contains(e);
+		if (present && keys[e] == key)
+			return;
+
+		if (size == (present ? 1 : 0)) {
+			cursor = highest = key;
+		} else {
+			int lowest = Math.min(cursor, key);
+			int greatest = Math.max(highest, key);
+			if (greatest - lowest > mask)
+				throw new IllegalArgumentException(String.format("Priority %d is too far from the others held (%d to %d)",
+						key, cursor, highest));
+			cursor = lowest;
+			highest = greatest;
+		}
+
+		if (present) {
+			unlink(e);
+		} else {
+			if (e >= next.length)
+				grow(e + 1);
+			held.add(e);
+			size++;
+		}
+
+		keys[e] = key;
+		link(e, key & mask);
+	}
+
+	@Override
+	public int take() {
+		int top = peek();
+		remove(top);
+		return top;
+	}
+
+	@Override
+	public int peek() {
+		if (size == 0)
+			throw new NoSuchElementException();
+
+		while (heads[cursor & mask] < 0)
+			cursor++;
+		return heads[cursor & mask];
+	}
+
+	@Override
+	public float peekPriority() {
+		return size == 0 ? Float.POSITIVE_INFINITY : keys[peek()];
+	}
+
+	@Override
+	public boolean contains(int e) {
+		return held.contains(e);
+	}
+
+	/**
+	 * Empties the queue in O(number of buckets)
+	 */
+	@Override
+	public void clear() {
+		if (size > 0)
+			Arrays.fill(heads, -1);
+		held.clear();
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param e The integer to remove
+	 * @return True if it was held
+	 */
+	public boolean remove(int e) {
+		if (!held.contains(e))
+			return false;
+
+		unlink(e);
+		held.remove(e);
+		size--;
+		return true;
+	}
+
+	/**
+	 * @return A new array of the integers held, in the order they would be taken
+	 */
+	public int[] sortedOrder() {
+		int[] sorted = new int[size];
+		int count = 0;
+		for (int key = cursor; count < size; key++)
+			for (int e = heads[key & mask]; e >= 0; e = next[e])
+				sorted[count++] = e;
+		return sorted;
+	}
+
+	/**
+	 * Appends an integer to the end of a bucket
+	 */
+	private void link(int e, int bucket) {
+		int tail = heads[bucket] < 0 ? -1 : tails[bucket];
+		previous[e] = tail;
+		next[e] = -1;
+
+		if (tail < 0)
+			heads[bucket] = e;
+		else
+			next[tail] = e;
+		tails[bucket] = e;
+	}
+
+	/**
+	 * Removes an integer from its bucket, leaving it held
+	 */
+	private void unlink(int e) {
+		int bucket = keys[e] & mask;
+		int before = previous[e];
+		int after = next[e];
+
+		if (before < 0)
+			heads[bucket] = after;
+		else
+			next[before] = after;
+
+		if (after < 0)
+			tails[bucket] = before;
+		else
+			previous[after] = before;
+	}
+
+	private void grow(int capacity) {
+		capacity = Math.max(capacity, next.length * 2);
+		next = Arrays.copyOf(next, capacity);
+		previous = Arrays.copyOf(previous, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+	}
+
+}
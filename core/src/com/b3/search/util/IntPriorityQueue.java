@@ -0,0 +1,206 @@
+package com.b3.search.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of non-negative integers with float priorities, that does not box either.
+ * Each integer's position in the heap is indexed, so {@link #contains(int)} is O(1) and
+ * adding an integer that is already held changes its priority in O(log n).
+ * Integers with equal priorities are taken in the order they were added, or last given a different priority, like
+ * {@link com.b3.search.util.takeable.IndexedPriorityQueueT}.
+ *
+ * @author dxw405
+ */
+public class IntPriorityQueue implements IntTakeable {
+
+	private int[] heap;
+	private float[] priorities;
+	private long[] insertionOrder;
+	private int[] positions;
+	private int size;
+	private long nextInsertion;
+
+	/**
+	 * Creates an empty queue
+	 *
+	 * @param capacity The initial number of integers (0 to capacity-1) that can be held without growing
+	 */
+	public IntPriorityQueue(int capacity) {
+		capacity = Math.max(capacity, 1);
+		this.heap = new int[capacity];
+		this.priorities = new float[capacity];
+		this.insertionOrder = new long[capacity];
+		this.positions = new int[capacity];
+	}
+
+	/**
+	 * Adds the given integer, or changes its priority if it is already held
+	 *
+	 * @param e        The integer to add
+	 * @param priority Its priority, lower is taken first
+	 */
+	@Override
+	public void add(int e, float priority) {
+		int position = positionOf(e);
+		if (position >= 0) {
+			float old = priorities[position];
+			if (priority == old)
+				return;
+
+			priorities[position] = priority;
+			insertionOrder[position] = nextInsertion++;
+			if (priority < old)
+				siftUp(position);
+			else
+				siftDown(position);
+			return;
+		}
+
+		if (e >= positions.length)
+			positions = Arrays.copyOf(positions, Math.max(e + 1, positions.length * 2));
+		if (size == heap.length) {
+			int capacity = heap.length * 2;
+			heap = Arrays.copyOf(heap, capacity);
+			priorities = Arrays.copyOf(priorities, capacity);
+			insertionOrder = Arrays.copyOf(insertionOrder, capacity);
+		}
+
+		heap[size] = e;
+		priorities[size] = priority;
+		insertionOrder[size] = nextInsertion++;
+		positions[e] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * @return The integer with the lowest priority, which is removed
+	 * @throws NoSuchElementException If the queue is empty
+	 */
+	@Override
+	public int take() {
+		if (size == 0)
+			throw new NoSuchElementException();
+
+		int top = heap[0];
+		int last = --size;
+		if (last > 0) {
+			move(last, 0);
+			siftDown(0);
+		}
+		return top;
+	}
+
+	/**
+	 * @return The integer with the lowest priority, without removing it
+	 * @throws NoSuchElementException If the queue is empty
+	 */
+	@Override
+	public int peek() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return heap[0];
+	}
+
+	/**
+	 * @return The lowest priority in the queue, or infinity if it is empty
+	 */
+	@Override
+	public float peekPriority() {
+		return size == 0 ? Float.POSITIVE_INFINITY : priorities[0];
+	}
+
+	/**
+	 * @param e The integer to check
+	 * @return True if the integer is held
+	 */
+	@Override
+	public boolean contains(int e) {
+		return positionOf(e) >= 0;
+	}
+
+	/**
+	 * Empties the queue in O(1)
+	 */
+	@Override
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @return The number of integers held
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return True if the queue is empty
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	private int positionOf(int e) {
+		if (e < 0 || e >= positions.length)
+			return -1;
+
+		// positions are never cleared, so check it really is this integer
+		int position = positions[e];
+		return position < size && heap[position] == e ? position : -1;
+	}
+
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (compare(position, parent) >= 0)
+				break;
+			swap(position, parent);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while (true) {
+			int left = 2 * position + 1;
+			if (left >= size)
+				break;
+
+			int right = left + 1;
+			int smallest = right < size && compare(right, left) < 0 ? right : left;
+			if (compare(smallest, position) >= 0)
+				break;
+
+			swap(position, smallest);
+			position = smallest;
+		}
+	}
+
+	private int compare(int a, int b) {
+		int c = Float.compare(priorities[a], priorities[b]);
+		return c != 0 ? c : Long.compare(insertionOrder[a], insertionOrder[b]);
+	}
+
+	private void swap(int a, int b) {
+		int e = heap[a];
+		float p = priorities[a];
+		long o = insertionOrder[a];
+
+		move(b, a);
+
+		heap[b] = e;
+		priorities[b] = p;
+		insertionOrder[b] = o;
+		positions[e] = b;
+	}
+
+	private void move(int from, int to) {
+		heap[to] = heap[from];
+		priorities[to] = priorities[from];
+		insertionOrder[to] = insertionOrder[from];
+		positions[heap[to]] = to;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.b3.search.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A queue of non-negative integers with float priorities, that does not box either.
+ * Integers with equal priorities are taken in the order they were added, or last given a different priority.
+ *
+ * @author dxw405
+ * @see IntPriorityQueue
+ * @see IntBucketQueue
+ */
+public interface IntTakeable {
+
+	/**
+	 * Adds the given integer, or changes its priority if it is already held
+	 *
+	 * @param e        The integer to add
+	 * @param priority Its priority, lower is taken first
+	 */
+	void add(int e, float priority);
+
+	/**
+	 * @return The integer with the lowest priority, which is removed
+	 * @throws NoSuchElementException If the queue is empty
+	 */
+	int take();
+
+	/**
+	 * @return The integer with the lowest priority, without removing it
+	 * @throws NoSuchElementException If the queue is empty
+	 */
+	int peek();
+
+	/**
+	 * @return The lowest priority in the queue, or infinity if it is empty
+	 */
+	float peekPriority();
+
+	/**
+	 * @param e The integer to check
+	 * @return True if the integer is held
+	 */
+	boolean contains(int e);
+
+	/**
+	 * Empties the queue
+	 */
+	void clear();
+
+	/**
+	 * @return The number of integers held
+	 */
+	int size();
+
+	/**
+	 * @return True if the queue is empty
+	 */
+	boolean isEmpty();
+
+}
@@ -16,7 +16,19 @@ public enum SearchAlgorithm {
 
 	DIJKSTRA("Dijkstra's Algorithm", "DIJS", "Dijkstra's: Priority Queue"),
 
-	A_STAR("A* Search", "ASTR", "A*: Priority Queue");
+	A_STAR("A* Search", "ASTR", "A*: Priority Queue"),
+
+	JUMP_POINT("Jump Point Search", "JPS", "JPS: Priority Queue"),
+
+	BIDIRECTIONAL_DIJKSTRA("Bidirectional Dijkstra", "BDIJ", "Bidirectional Dijkstra's: Two Priority Queues"),
+
+	BIDIRECTIONAL_A_STAR("Bidirectional A* Search", "BAST", "Bidirectional A*: Two Priority Queues"),
+
+	WEIGHTED_A_STAR("Weighted A* Search", "WAST", "Weighted A*: Priority Queue"),
+
+	GREEDY_BEST_FIRST("Greedy Best First Search", "GBFS", "Greedy: Priority Queue"),
+
+	ANYTIME_A_STAR("Anytime Repairing A*", "ARA", "ARA*: Priority Queue");
 
 	private static final HashMap<String, SearchAlgorithm> NAMES = new HashMap<>();
 	private static final HashMap<String, SearchAlgorithm> SHORTS = new HashMap<>();
@@ -89,4 +101,19 @@ public enum SearchAlgorithm {
 		return frontierDescription;
 	}
 
+	/**
+	 * @return true if the algorithm searches from both the start and the goal at once, until the two searches meet
+	 */
+	public boolean isBidirectional() {
+		return this == BIDIRECTIONAL_DIJKSTRA || this == BIDIRECTIONAL_A_STAR;
+	}
+
+	/**
+	 * @return true if the algorithm inflates or relies only on its heuristic, so may find a more expensive path
+	 * than the shortest in return for expanding fewer nodes
+	 */
+	public boolean isSuboptimal() {
+		return this == WEIGHTED_A_STAR || this == GREEDY_BEST_FIRST || this == ANYTIME_A_STAR;
+	}
+
 }
@@ -1,13 +1,18 @@
 package com.b3.search.util;
 
+import com.b3.search.Landmarks;
 import com.b3.search.Node;
 import com.b3.search.Point;
+import com.b3.search.SearchGraph;
+import com.b3.search.util.takeable.BucketQueueT;
+import com.b3.search.util.takeable.IndexedPriorityQueueT;
 import com.b3.search.util.takeable.LinkedListT;
-import com.b3.search.util.takeable.PriorityQueueT;
 import com.b3.search.util.takeable.StackT;
 import com.b3.search.util.takeable.Takeable;
 
-import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Essentially a utils for {@link SearchAlgorithm}.
@@ -17,6 +22,21 @@ import java.util.function.Function;
  */
 public class SearchParameters {
 
+	/**
+	 * The greatest edge cost that Dijkstra will use a bucket queue for, as it needs a bucket for every cost
+	 */
+	public static final int MAX_BUCKET_COST = 64;
+
+	/**
+	 * The default weight on the heuristic of weighted and anytime A*
+	 */
+	public static final float DEFAULT_WEIGHT = 2f;
+
+	/**
+	 * How much anytime A* lowers its weight by after each path it finds, until the weight is 1
+	 */
+	public static final float ANYTIME_WEIGHT_STEP = 0.5f;
+
 	private static final Function2<Node, Node, Float> NOTHING;
 	private static final Function2<Node, Node, Float> EUCLIDEAN;
 
@@ -44,6 +64,9 @@ public class SearchParameters {
 
 	private SearchAlgorithm algorithm;
 	private Function2<Node, Node, Float> h;
+	private Landmarks landmarks;
+	private float weight = DEFAULT_WEIGHT;
+	private long timeBudget = Long.MAX_VALUE;
 
 	public SearchParameters(SearchAlgorithm alg) {
 		setAlgorithm(alg);
@@ -61,9 +84,22 @@ public class SearchParameters {
 	 */
 	public void setAlgorithm(SearchAlgorithm alg) {
 		this.algorithm = alg;
+		Landmarks l = landmarks;
+		Function2<Node, Node, Float> estimate = l == null ? EUCLIDEAN :
+				(a, b) -> Math.max(calculateEuclidean(a, b), l.estimate(a, b));
+
 		switch (alg) {
 			case A_STAR:
-				h = EUCLIDEAN;
+			case JUMP_POINT:
+			case BIDIRECTIONAL_A_STAR:
+			case GREEDY_BEST_FIRST:
+			case ANYTIME_A_STAR:
+				// anytime A* weights its heuristic itself, as it lowers the weight as it goes
+				h = estimate;
+				break;
+			case WEIGHTED_A_STAR:
+				float w = weight;
+				h = (a, b) -> w * estimate.apply(a, b);
 				break;
 			default:
 				h = NOTHING;
@@ -71,22 +107,143 @@ public class SearchParameters {
 		}
 	}
 
-	public Takeable<Node> createFrontier(Function<Node, Float> getGScore, Function2<Node, Node, Float> heuristic, Node end) {
+	/**
+	 * @return The landmarks used by the heuristic, or null if it is only the Euclidean distance
+	 */
+	public Landmarks getLandmarks() {
+		return landmarks;
+	}
+
+	/**
+	 * Sets the landmarks to estimate with, for algorithms with a heuristic. The heuristic is then the ALT estimate
+	 * from the landmarks or the Euclidean distance, whichever is higher, which still never overestimates.
+	 *
+	 * @param landmarks The landmarks of the graph to be searched, or null to use only the Euclidean distance
+	 */
+	public void setLandmarks(Landmarks landmarks) {
+		this.landmarks = landmarks;
+		setAlgorithm(algorithm);
+	}
+
+	/**
+	 * @return The weight on the heuristic of weighted A*, and the starting weight of anytime A*
+	 */
+	public float getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Sets the weight on the heuristic of weighted A*, and the starting weight of anytime A*.
+	 * The path found then costs at most this many times as much as the shortest path, but the higher the weight,
+	 * the more directly the search heads for the goal and the fewer nodes it expands.
+	 *
+	 * @param weight The weight, which must be at least 1
+	 */
+	public void setWeight(float weight) {
+		if (!(weight >= 1f))
+			throw new IllegalArgumentException("Heuristic weight must be at least 1: " + weight);
+
+		this.weight = weight;
+		setAlgorithm(algorithm);
+	}
+
+	/**
+	 * @return The time that anytime A* may spend improving its path, in nanoseconds
+	 */
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * Sets the time that anytime A* may spend improving its path. The first path is always found however long it
+	 * takes, and a pass that has started is always finished, so the budget may be overrun by one pass.
+	 * Only a {@link com.b3.search.PathFinder} keeps to the budget; a {@link com.b3.search.SearchTicker} always
+	 * carries on until the path is the shortest.
+	 *
+	 * @param nanos The budget in nanoseconds, or {@link Long#MAX_VALUE} to always carry on until the path is the
+	 *              shortest
+	 */
+	public void setTimeBudget(long nanos) {
+		this.timeBudget = nanos;
+	}
+
+	/**
+	 * Dijkstra only ever orders nodes by their cost so far, so if every edge cost is a small integer,
+	 * it can use a bucket queue in place of a heap
+	 *
+	 * @param graph The graph to be searched
+	 * @return True if the frontier for the graph is a bucket queue
+	 */
+	public boolean isBucketed(SearchGraph graph) {
+		return isBucketed(algorithm, graph);
+	}
+
+	/**
+	 * @param algorithm The search algorithm
+	 * @param graph     The graph to be searched
+	 * @return True if the frontier of the algorithm for the graph is a bucket queue
+	 * @see #isBucketed(SearchGraph)
+	 */
+	public static boolean isBucketed(SearchAlgorithm algorithm, SearchGraph graph) {
+		if (algorithm != SearchAlgorithm.DIJKSTRA && algorithm != SearchAlgorithm.BIDIRECTIONAL_DIJKSTRA)
+			return false;
+
+		int maxCost = graph.getMaxIntegralCost();
+		return maxCost >= 0 && maxCost <= MAX_BUCKET_COST;
+	}
+
+	/**
+	 * Creates an empty frontier for this search algorithm
+	 *
+	 * @param getGScore The cost so far of a node
+	 * @param heuristic The heuristic to use
+	 * @param end       Supplies the current goal, so that the frontier can be reused between searches.
+	 *                  The backward half of a bidirectional search is given the start instead
+	 * @param indexer   Gives each node its dense index, to be used by prioritised frontiers
+	 * @param graph     The graph to be searched, whose edge costs decide whether Dijkstra uses a bucket queue
+	 * @return The new frontier
+	 * @see #isBucketed(SearchGraph)
+	 */
+	public Takeable<Node> createFrontier(ToDoubleFunction<Node> getGScore, Function2<Node, Node, Float> heuristic,
+	                                     Supplier<Node> end, ToIntFunction<Node> indexer, SearchGraph graph) {
 		switch (algorithm) {
 			case DEPTH_FIRST:
 				return new StackT<>();
 			case BREADTH_FIRST:
 				return new LinkedListT<>();
 			case DIJKSTRA:
-				return new PriorityQueueT<>(getGScore);
+			case BIDIRECTIONAL_DIJKSTRA:
+				if (isBucketed(graph))
+					return new BucketQueueT<>(getGScore, indexer, graph.getMaxIntegralCost());
+				return new IndexedPriorityQueueT<>(getGScore, indexer);
 			case A_STAR:
-				return new PriorityQueueT<>((n) -> getGScore.apply(n) + heuristic.apply(n, end));
+			case JUMP_POINT:
+			case BIDIRECTIONAL_A_STAR:
+			case WEIGHTED_A_STAR:
+			case ANYTIME_A_STAR:
+				return new IndexedPriorityQueueT<>((n) -> (float) getGScore.applyAsDouble(n) + heuristic.apply(n, end.get()), indexer);
+			case GREEDY_BEST_FIRST:
+				return new IndexedPriorityQueueT<>((n) -> heuristic.apply(n, end.get()), indexer);
 			default:
 				throw new IllegalArgumentException("Invalid search algorithm: " + algorithm);
 		}
 	}
 
 
+	/**
+	 * Balances a heuristic for one side of a bidirectional search, by averaging the estimated distance to the
+	 * side's target with minus the estimated distance from its origin. Both sides then agree on the cost of every
+	 * edge, so the search may stop as soon as the heads of its two frontiers together cost as much as the cheapest
+	 * path found so far; two plain A* searches would have to carry on until one of them had done all the work.
+	 *
+	 * @param heuristic A consistent heuristic
+	 * @param origin    Supplies the node that the side is searching from
+	 * @return The balanced heuristic, which may be negative
+	 */
+	public static Function2<Node, Node, Float> balance(Function2<Node, Node, Float> heuristic, Supplier<Node> origin) {
+		return (n, target) -> (heuristic.apply(n, target) - heuristic.apply(n, origin.get())) / 2;
+	}
+
 	/**
 	 * @return The heuristic function
 	 */
@@ -0,0 +1,101 @@
+package com.b3.search.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of non-negative integers, backed by an array of generation stamps.
+ * An integer is in the set if its stamp matches the current generation, so
+ * {@link #clear()} is O(1) and the backing array is reused rather than reallocated.
+ * The set grows to fit any integer added to it.
+ *
+ * @author dxw405
+ */
+public class StampSet {
+
+	private int[] stamps;
+	private int generation;
+	private int size;
+
+	/**
+	 * Creates an empty set
+	 *
+	 * @param capacity The initial number of integers (0 to capacity-1) that can be held without growing
+	 */
+	public StampSet(int capacity) {
+		this.stamps = new int[Math.max(capacity, 1)];
+		this.generation = 1;
+		this.size = 0;
+	}
+
+	/**
+	 * @param i The integer to add
+	 * @return True if the integer was not already in the set
+	 */
+	public boolean add(int i) {
+		ensureCapacity(i + 1);
+		if (stamps[i] == generation)
+			return false;
+
+		stamps[i] = generation;
+		size++;
+		return true;
+	}
+
+	/**
+	 * @param i The integer to check
+	 * @return True if the integer is in the set
+	 */
+	public boolean contains(int i) {
+		return i >= 0 && i < stamps.length && stamps[i] == generation;
+	}
+
+	/**
+	 * @param i The integer to remove
+	 * @return True if the integer was in the set
+	 */
+	public boolean remove(int i) {
+		if (!contains(i))
+			return false;
+
+		stamps[i] = 0;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Empties the set, by moving on to the next generation
+	 */
+	public void clear() {
+		size = 0;
+		if (++generation == Integer.MAX_VALUE) {
+			// wrapped around, so old stamps could be mistaken for new ones
+			Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * @return The number of integers in the set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return True if the set is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Grows the backing array so that it can hold every integer below the given capacity
+	 *
+	 * @param capacity The required capacity
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > stamps.length)
+			stamps = Arrays.copyOf(stamps, Math.max(capacity, stamps.length * 2));
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.b3.search.util.takeable;
+
+import com.b3.search.util.IntBucketQueue;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link IntBucketQueue bucket queue} with a {@link #peek()} and {@link #take()} method, for elements with dense
+ * integer indices and small non-negative integer priorities, such as the costs so far of Dijkstra over tiles.
+ * Insertion, taking and {@link #update(Object) decrease-key} are O(1).
+ * <p>
+ * As with {@link IndexedPriorityQueueT}, the priority of an element is calculated once when it is added, and again
+ * only when {@link #update(Object)} is called, and elements with equal priorities are taken in the order they were
+ * added or last given a different priority, so the two take elements in exactly the same order.
+ *
+ * @param <E> The type of elements held in this {@link java.util.Collection}.
+ * @author dxw405
+ */
+public class BucketQueueT<E> extends AbstractCollection<E> implements PriorityTakeable<E> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final ToDoubleFunction<E> priorityFunction;
+	private final ToIntFunction<E> indexer;
+	private final IntBucketQueue queue;
+	private Object[] elements;
+
+	/**
+	 * Construct a new, empty, bucket queue
+	 *
+	 * @param priorityFunction The function to base take order on, which must give non-negative integers.
+	 * @param indexer          Gives each element a unique non-negative index.
+	 * @param span             The greatest difference between two priorities held at once.
+	 */
+	public BucketQueueT(ToDoubleFunction<E> priorityFunction, ToIntFunction<E> indexer, int span) {
+		this.priorityFunction = priorityFunction;
+		this.indexer = indexer;
+		this.queue = new IntBucketQueue(span, DEFAULT_CAPACITY);
+		this.elements = new Object[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * @return The greatest difference between two priorities that can be held at once
+	 */
+	public int getSpan() {
+		return queue.getSpan();
+	}
+
+	/**
+	 * Adds the given element, or updates its priority if it is already held.
+	 *
+	 * @param e The element to add.
+	 * @return <code>true</code> if the element was not already held.
+	 * @throws IllegalArgumentException If the element's priority does not fit in the queue.
+	 */
+	@Override
+	public boolean add(E e) {
+		int index = indexer.applyAsInt(e);
+		if (index < 0)
+			throw new IllegalArgumentException("Element has no index: " + e);
+		if (index >= elements.length)
+			elements = Arrays.copyOf(elements, Math.max(index + 1, elements.length * 2));
+
+		boolean added = !queue.contains(index);
+		queue.add(index, (float) priorityFunction.applyAsDouble(e));
+		elements[index] = e;
+		return added;
+	}
+
+	@Override
+	public E peek() {
+		return queue.isEmpty() ? null : elementAt(queue.peek());
+	}
+
+	@Override
+	public E take() {
+		return queue.isEmpty() ? null : elementAt(queue.take());
+	}
+
+	@Override
+	public void update(E element) {
+		if (contains(element))
+			queue.add(indexer.applyAsInt(element), (float) priorityFunction.applyAsDouble(element));
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) >= 0;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int index = indexOf(o);
+		return index >= 0 && queue.remove(index);
+	}
+
+	/**
+	 * Empties the queue, leaving stale elements in place to be recognised as stale when looked up.
+	 */
+	@Override
+	public void clear() {
+		queue.clear();
+	}
+
+	@Override
+	public int size() {
+		return queue.size();
+	}
+
+	/**
+	 * Iterates in take order, over a copy of the elements.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableList(sortedOrder()).iterator();
+	}
+
+	/**
+	 * @return A new {@link ArrayList} with all the elements, in order.
+	 */
+	@Override
+	public ArrayList<E> sortedOrder() {
+		int[] order = queue.sortedOrder();
+		ArrayList<E> sorted = new ArrayList<>(order.length);
+		for (int index : order)
+			sorted.add(elementAt(index));
+		return sorted;
+	}
+
+	/**
+	 * @param o The element to find
+	 * @return The element's index, or -1 if it is not held
+	 */
+	@SuppressWarnings("unchecked")
+	private int indexOf(Object o) {
+		int index;
+		try {
+			index = indexer.applyAsInt((E) o);
+		} catch (ClassCastException e) {
+			return -1;
+		}
+
+		return index >= 0 && queue.contains(index) && elements[index].equals(o) ? index : -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int index) {
+		return (E) elements[index];
+	}
+
+}
@@ -0,0 +1,326 @@
+package com.b3.search.util.takeable;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A binary min-heap with a {@link #peek()} and {@link #take()} method.
+ * Each element's position in the heap is indexed, so {@link #contains(Object)} is O(1),
+ * and insertion, taking and {@link #update(Object) decrease-key} are O(log n).
+ * <p>
+ * The priority of an element is calculated once when it is added, and again only when
+ * {@link #update(Object)} is called, so the owner must call it whenever an element's priority changes.
+ * Elements with equal priorities are taken in the order they were added, or last given a different priority.
+ * <p>
+ * If the elements have dense integer indices, an indexer can be given so that positions are
+ * kept in an array rather than a {@link HashMap}; the array is then reused after {@link #clear()}.
+ *
+ * @param <E> The type of elements held in this {@link java.util.Collection}.
+ * @author bxd428
+ */
+public class IndexedPriorityQueueT<E> extends AbstractCollection<E> implements PriorityTakeable<E> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final ToDoubleFunction<E> priorityFunction;
+	private final ToIntFunction<E> indexer;
+	private final Map<E, Integer> positions;
+	private int[] indexedPositions;
+
+	private Object[] heap;
+	private float[] priorities;
+	private long[] insertionOrder;
+	private int size;
+	private long nextInsertion;
+
+	/**
+	 * Construct a new, empty, priority queue
+	 * Utilising a given priority function
+	 *
+	 * @param priorityFunction The function to base take order on.
+	 */
+	public IndexedPriorityQueueT(ToDoubleFunction<E> priorityFunction) {
+		this(priorityFunction, null);
+	}
+
+	/**
+	 * Construct a new, empty, priority queue
+	 * Utilising a given priority function, and keeping track of elements by their dense indices
+	 *
+	 * @param priorityFunction The function to base take order on.
+	 * @param indexer          Gives each element a unique non-negative index, or a negative value if it has none.
+	 *                         May be <code>null</code>, in which case positions are kept in a {@link HashMap}.
+	 */
+	public IndexedPriorityQueueT(ToDoubleFunction<E> priorityFunction, ToIntFunction<E> indexer) {
+		this.priorityFunction = priorityFunction;
+		this.indexer = indexer;
+		this.positions = indexer == null ? new HashMap<>() : null;
+		this.indexedPositions = indexer == null ? null : new int[DEFAULT_CAPACITY];
+		this.heap = new Object[DEFAULT_CAPACITY];
+		this.priorities = new float[DEFAULT_CAPACITY];
+		this.insertionOrder = new long[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Adds the given element, or updates its priority if it is already held.
+	 *
+	 * @param e The element to add.
+	 * @return <code>true</code> if the element was not already held.
+	 */
+	@Override
+	public boolean add(E e) {
+		int position = positionOf(e);
+		if (position >= 0) {
+			reprioritise(position);
+			return false;
+		}
+
+		if (size == heap.length)
+			grow();
+
+		heap[size] = e;
+		priorities[size] = (float) priorityFunction.applyAsDouble(e);
+		insertionOrder[size] = nextInsertion++;
+		setPosition(e, size);
+		siftUp(size++);
+		return true;
+	}
+
+	@Override
+	public E peek() {
+		return size == 0 ? null : elementAt(0);
+	}
+
+	@Override
+	public E take() {
+		if (size == 0)
+			return null;
+
+		E top = elementAt(0);
+		removeAt(0);
+		return top;
+	}
+
+	@Override
+	public void update(E element) {
+		int position = positionOf(element);
+		if (position >= 0)
+			reprioritise(position);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return positionOf(o) >= 0;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		int position = positionOf(o);
+		if (position < 0)
+			return false;
+
+		removeAt(position);
+		return true;
+	}
+
+	/**
+	 * Empties the queue. If an indexer is used, stale positions are left in place
+	 * and are recognised as stale when looked up, so this is O(size) rather than O(capacity).
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(heap, 0, size, null);
+		if (positions != null)
+			positions.clear();
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Iterates in heap order, which is <b>not</b> the take order.
+	 * Use {@link #sortedOrder()} to get the elements in take order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int cursor = 0;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return elementAt(cursor++);
+			}
+		};
+	}
+
+	/**
+	 * @return A new {@link ArrayList} with all the elements, but in order.
+	 */
+	@Override
+	public ArrayList<E> sortedOrder() {
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+		Arrays.sort(order, (a, b) -> compare(a, b));
+
+		ArrayList<E> sorted = new ArrayList<>(size);
+		for (Integer i : order)
+			sorted.add(elementAt(i));
+		return sorted;
+	}
+
+	/**
+	 * Recalculates the priority of the element at the given heap position, and moves it accordingly.
+	 *
+	 * @param position The heap position.
+	 */
+	private void reprioritise(int position) {
+		float old = priorities[position];
+		priorities[position] = (float) priorityFunction.applyAsDouble(elementAt(position));
+		if (priorities[position] == old)
+			return;
+
+		insertionOrder[position] = nextInsertion++;
+		if (priorities[position] < old)
+			siftUp(position);
+		else
+			siftDown(position);
+	}
+
+	/**
+	 * Removes the element at the given heap position, filling the gap with the last element.
+	 *
+	 * @param position The heap position.
+	 */
+	private void removeAt(int position) {
+		if (positions != null)
+			positions.remove(heap[position]);
+		int last = --size;
+
+		if (position != last) {
+			move(last, position);
+			heap[last] = null;
+			siftDown(position);
+			siftUp(position);
+		} else
+			heap[last] = null;
+	}
+
+	private void siftUp(int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (compare(position, parent) >= 0)
+				break;
+			swap(position, parent);
+			position = parent;
+		}
+	}
+
+	private void siftDown(int position) {
+		while (true) {
+			int left = 2 * position + 1;
+			if (left >= size)
+				break;
+
+			int right = left + 1;
+			int smallest = right < size && compare(right, left) < 0 ? right : left;
+			if (compare(smallest, position) >= 0)
+				break;
+
+			swap(position, smallest);
+			position = smallest;
+		}
+	}
+
+	/**
+	 * Orders by priority, then by insertion order so that ties are taken first-in-first-out.
+	 */
+	private int compare(int a, int b) {
+		int c = Float.compare(priorities[a], priorities[b]);
+		return c != 0 ? c : Long.compare(insertionOrder[a], insertionOrder[b]);
+	}
+
+	private void swap(int a, int b) {
+		Object e = heap[a];
+		float p = priorities[a];
+		long o = insertionOrder[a];
+
+		move(b, a);
+
+		heap[b] = e;
+		priorities[b] = p;
+		insertionOrder[b] = o;
+		setPosition(elementAt(b), b);
+	}
+
+	private void move(int from, int to) {
+		heap[to] = heap[from];
+		priorities[to] = priorities[from];
+		insertionOrder[to] = insertionOrder[from];
+		setPosition(elementAt(to), to);
+	}
+
+	/**
+	 * @param o The element to find
+	 * @return The element's position in the heap, or -1 if it is not held
+	 */
+	@SuppressWarnings("unchecked")
+	private int positionOf(Object o) {
+		if (positions != null) {
+			Integer position = positions.get(o);
+			return position == null ? -1 : position;
+		}
+
+		int index;
+		try {
+			index = indexer.applyAsInt((E) o);
+		} catch (ClassCastException e) {
+			return -1;
+		}
+
+		if (index < 0 || index >= indexedPositions.length)
+			return -1;
+
+		// positions are never cleared, so check it really is this element
+		int position = indexedPositions[index];
+		return position < size && heap[position].equals(o) ? position : -1;
+	}
+
+	private void setPosition(E e, int position) {
+		if (positions != null) {
+			positions.put(e, position);
+			return;
+		}
+
+		int index = indexer.applyAsInt(e);
+		if (index < 0)
+			throw new IllegalArgumentException("Element has no index: " + e);
+		if (index >= indexedPositions.length)
+			indexedPositions = Arrays.copyOf(indexedPositions, Math.max(index + 1, indexedPositions.length * 2));
+		indexedPositions[index] = position;
+	}
+
+	private void grow() {
+		int capacity = heap.length * 2;
+		heap = Arrays.copyOf(heap, capacity);
+		priorities = Arrays.copyOf(priorities, capacity);
+		insertionOrder = Arrays.copyOf(insertionOrder, capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int position) {
+		return (E) heap[position];
+	}
+
+}
@@ -11,7 +11,7 @@ import java.util.function.Function;
  * @param <E> The type of elements held in this {@link java.util.Collection}.
  * @author bxd428
  */
-public class PriorityQueueT<E> extends ArrayList<E> implements Takeable<E> {
+public class PriorityQueueT<E> extends ArrayList<E> implements PriorityTakeable<E> {
 
 	private final Function<E, Float> priorityFunction;
 
@@ -49,9 +49,17 @@ public class PriorityQueueT<E> extends ArrayList<E> implements Takeable<E> {
 		return remove(peekIndex());
 	}
 
+	/**
+	 * Does nothing, as priorities are recalculated on every {@link #peek()} and {@link #take()}.
+	 */
+	@Override
+	public void update(E element) {
+	}
+
 	/**
 	 * @return A new {@link ArrayList} with all the elements, but in order.
 	 */
+	@Override
 	public ArrayList<E> sortedOrder() {
 		Collections.sort(this, (e1, e2) -> Float.compare(priorityFunction.apply(e1), priorityFunction.apply(e2)));
 		return new ArrayList<>(this);
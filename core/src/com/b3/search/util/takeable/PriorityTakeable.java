@@ -0,0 +1,27 @@
+package com.b3.search.util.takeable;
+
+import java.util.List;
+
+/**
+ * A {@link Takeable} whose take order is decided by a priority rather than by insertion order.
+ *
+ * @param <E> The type of elements held in this {@link java.util.Collection}.
+ * @author bxd428
+ */
+public interface PriorityTakeable<E> extends Takeable<E> {
+
+	/**
+	 * Tells the collection that the priority of an element it holds may have changed,
+	 * so that it can be moved to its new position in the take order.
+	 * Does nothing if the element is not held.
+	 *
+	 * @param element The element whose priority has changed.
+	 */
+	void update(E element);
+
+	/**
+	 * @return A new {@link List} with all the elements, in the order they would be taken.
+	 */
+	List<E> sortedOrder();
+
+}
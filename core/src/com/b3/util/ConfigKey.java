@@ -144,6 +144,16 @@ public enum ConfigKey {
 	 * The colour used for the visited {@link com.b3.search.Node Nodes}.
 	 */
 	VISITED_COLOUR("visited-colour"),
+	/**
+	 * The colour used for the {@link com.b3.search.Node Nodes} in the frontier of the search back from the goal,
+	 * in a bidirectional search.
+	 */
+	BACKWARD_FRONTIER_COLOUR("backward-frontier-colour"),
+	/**
+	 * The colour used for the {@link com.b3.search.Node Nodes} visited by the search back from the goal,
+	 * in a bidirectional search.
+	 */
+	BACKWARD_VISITED_COLOUR("backward-visited-colour"),
 	/**
 	 * The colour of the edges that have no cost.
 	 */
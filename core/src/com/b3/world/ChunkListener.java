@@ -0,0 +1,30 @@
+package com.b3.world;
+
+/**
+ * Listens for the chunks of a {@link WorldChunks} being activated and evicted
+ *
+ * @author dxw405
+ */
+public interface ChunkListener {
+
+	/**
+	 * Called when a chunk is activated, as it has come near the camera or an agent
+	 *
+	 * @param x      The x coordinate of the chunk's bottom left tile
+	 * @param y      The y coordinate of the chunk's bottom left tile
+	 * @param width  The width of the chunk in tiles, which is smaller at the edges of the world
+	 * @param height The height of the chunk in tiles, which is smaller at the edges of the world
+	 */
+	void chunkActivated(int x, int y, int width, int height);
+
+	/**
+	 * Called when a chunk is evicted, as it is no longer near the camera or any agent
+	 *
+	 * @param x      The x coordinate of the chunk's bottom left tile
+	 * @param y      The y coordinate of the chunk's bottom left tile
+	 * @param width  The width of the chunk in tiles, which is smaller at the edges of the world
+	 * @param height The height of the chunk in tiles, which is smaller at the edges of the world
+	 */
+	void chunkEvicted(int x, int y, int width, int height);
+
+}
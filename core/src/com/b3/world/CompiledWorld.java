@@ -0,0 +1,616 @@
+package com.b3.world;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * A world map compiled into a binary file the first time it is loaded, so that it can be loaded again without parsing
+ * any XML or processing any tiles. See {@link #getCompiledFile(FileHandle)} for where the file is kept.
+ * <p>
+ * The file holds the tilesets' layouts, the cells of every tile layer, the {@link TileCostRaster} of the map, and
+ * every object layer (such as the buildings and models) with the properties of its objects. It also holds a checksum
+ * of the TMX file and the {@link TileType TileTypes} it was compiled with, so that it can be compiled again when
+ * either changes. The file is memory mapped when read.
+ *
+ * @author dxw405
+ */
+public class CompiledWorld {
+
+	/**
+	 * Appended to the name of the TMX file to get the name of its compiled file
+	 */
+	public static final String EXTENSION = ".bin";
+
+	private static final int MAGIC = 0x42335744;
+	// increment when the format changes, so that older files are compiled again
+	private static final int VERSION = 1;
+
+	// a cell is stored as its tile ID, with its flips and rotation in the top bits, or 0 if there is no cell
+	private static final int FLIP_HORIZONTALLY = 1 << 31;
+	private static final int FLIP_VERTICALLY = 1 << 30;
+	private static final int ROTATION_SHIFT = 28;
+	private static final int TILE_ID_MASK = (1 << ROTATION_SHIFT) - 1;
+
+	// the types of object property values that are kept
+	private static final byte PROPERTY_STRING = 0;
+	private static final byte PROPERTY_FLOAT = 1;
+	private static final byte PROPERTY_INTEGER = 2;
+	private static final byte PROPERTY_BOOLEAN = 3;
+
+	private final long checksum;
+	private final int width;
+	private final int height;
+	private final int tileWidth;
+	private final int tileHeight;
+	private final List<Tileset> tilesets;
+	private final List<Layer> layers;
+	private final TileCostRaster tileCosts;
+
+	// one cell per encoded value, shared by every tile that uses it, so that streaming does not allocate
+	private final IntMap<TiledMapTileLayer.Cell> cellCache = new IntMap<>();
+	private TiledMap cellCacheMap;
+
+	private CompiledWorld(long checksum, int width, int height, int tileWidth, int tileHeight,
+						  List<Tileset> tilesets, List<Layer> layers, TileCostRaster tileCosts) {
+		this.checksum = checksum;
+		this.width = width;
+		this.height = height;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		this.tilesets = tilesets;
+		this.layers = layers;
+		this.tileCosts = tileCosts;
+	}
+
+	/**
+	 * Compiles a map that has been loaded from its TMX file
+	 *
+	 * @param map      The loaded map
+	 * @param checksum The checksum of the TMX file
+	 * @return The compiled map
+	 * @see #checksum(byte[])
+	 */
+	public static CompiledWorld compile(TiledMap map, long checksum) {
+		MapProperties props = map.getProperties();
+
+		List<Tileset> tilesets = new ArrayList<>();
+		for (TiledMapTileSet tileset : map.getTileSets()) {
+			MapProperties tilesetProps = tileset.getProperties();
+			tilesets.add(new Tileset(
+					tileset.getName() == null ? "" : tileset.getName(),
+					tilesetProps.get("imagesource", "", String.class),
+					tilesetProps.get("firstgid", 1, Integer.class),
+					tilesetProps.get("tilewidth", 0, Integer.class),
+					tilesetProps.get("tileheight", 0, Integer.class),
+					tilesetProps.get("margin", 0, Integer.class),
+					tilesetProps.get("spacing", 0, Integer.class)
+			));
+		}
+
+		List<Layer> layers = new ArrayList<>();
+		for (MapLayer mapLayer : map.getLayers()) {
+			Layer layer = new Layer(mapLayer.getName() == null ? "" : mapLayer.getName(),
+					mapLayer.isVisible(), mapLayer.getOpacity());
+
+			if (mapLayer instanceof TiledMapTileLayer) {
+				TiledMapTileLayer tileLayer = (TiledMapTileLayer) mapLayer;
+				layer.width = tileLayer.getWidth();
+				layer.height = tileLayer.getHeight();
+				int[] cells = new int[layer.width * layer.height];
+				for (int y = 0; y < layer.height; y++)
+					for (int x = 0; x < layer.width; x++)
+						cells[y * layer.width + x] = encodeCell(tileLayer.getCell(x, y));
+				layer.cells = IntBuffer.wrap(cells);
+			} else {
+				layer.objects = new ArrayList<>();
+				for (MapObject object : mapLayer.getObjects())
+					layer.objects.add(getProperties(object.getProperties()));
+			}
+
+			layers.add(layer);
+		}
+
+		return new CompiledWorld(checksum,
+				props.get("width", Integer.class), props.get("height", Integer.class),
+				props.get("tilewidth", Integer.class), props.get("tileheight", Integer.class),
+				tilesets, layers, TileCostRaster.compile(map));
+	}
+
+	/**
+	 * @param tmx The contents of the TMX file
+	 * @return The checksum of the TMX file and the {@link TileType TileTypes}, which a compiled file must match to be
+	 * used in place of the TMX file
+	 */
+	public static long checksum(byte[] tmx) {
+		CRC32 crc = new CRC32();
+		crc.update(tmx);
+
+		// the tile costs depend on the tile types too
+		ByteBuffer types = ByteBuffer.allocate(TileType.getIDCount() * 2 * Integer.BYTES);
+		for (int id = 0, n = TileType.getIDCount(); id < n; id++) {
+			TileType type = TileType.getByID(id);
+			types.putInt(type.ordinal()).putInt(type.getCost());
+		}
+		crc.update(types.array());
+
+		return crc.getValue();
+	}
+
+	/**
+	 * Internal TMX files may be packed into the game's jar, so they are compiled to the same path in the local
+	 * directory instead, which is next to them when running from the assets directory. Other files are compiled
+	 * next to themselves
+	 *
+	 * @param tmxFile The TMX file
+	 * @return The file that the TMX file is compiled to
+	 */
+	public static File getCompiledFile(FileHandle tmxFile) {
+		if (tmxFile.type() == Files.FileType.Internal)
+			return Gdx.files.local(tmxFile.path() + EXTENSION).file();
+		return new File(tmxFile.file().getPath() + EXTENSION);
+	}
+
+	/**
+	 * Reads a compiled file, by memory mapping it
+	 *
+	 * @param file The compiled file
+	 * @return The compiled map
+	 * @throws IOException If the file cannot be read, or is not a compiled map of this version
+	 */
+	public static CompiledWorld read(File file) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try {
+			if (buffer.getInt() != MAGIC)
+				throw new IOException("Not a compiled world: " + file);
+			int version = buffer.getInt();
+			if (version != VERSION)
+				throw new IOException("Compiled world " + file + " is version " + version + ", not " + VERSION);
+
+			long checksum = buffer.getLong();
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			int tileWidth = buffer.getInt();
+			int tileHeight = buffer.getInt();
+
+			List<Tileset> tilesets = new ArrayList<>();
+			for (int i = 0, n = buffer.getInt(); i < n; i++) {
+				tilesets.add(new Tileset(readString(buffer), readString(buffer), buffer.getInt(),
+						buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt()));
+			}
+
+			List<Layer> layers = new ArrayList<>();
+			for (int i = 0, n = buffer.getInt(); i < n; i++) {
+				Layer layer = new Layer(readString(buffer), buffer.get() != 0, buffer.getFloat());
+
+				if (buffer.get() != 0) {
+					layer.width = buffer.getInt();
+					layer.height = buffer.getInt();
+					// left in the mapped file, to be paged in as chunks of the world are loaded
+					layer.cells = buffer.asIntBuffer();
+					layer.cells.limit(layer.width * layer.height);
+					buffer.position(buffer.position() + layer.cells.limit() * Integer.BYTES);
+				} else {
+					layer.objects = new ArrayList<>();
+					for (int j = 0, objects = buffer.getInt(); j < objects; j++)
+						layer.objects.add(readProperties(buffer));
+				}
+
+				layers.add(layer);
+			}
+
+			TileCostRaster tileCosts = TileCostRaster.read(buffer);
+			return new CompiledWorld(checksum, width, height, tileWidth, tileHeight, tilesets, layers, tileCosts);
+
+		} catch (RuntimeException e) {
+			// truncated or otherwise corrupt
+			throw new IOException("Invalid compiled world: " + file, e);
+		}
+	}
+
+	/**
+	 * Writes this compiled map to the given file, replacing it if it already exists
+	 *
+	 * @param file The file to write to
+	 * @throws IOException If the file cannot be written
+	 */
+	public void write(File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+			throw new IOException("Failed to create directory " + parent);
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(checksum);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeInt(tileWidth);
+			out.writeInt(tileHeight);
+
+			out.writeInt(tilesets.size());
+			for (Tileset tileset : tilesets) {
+				writeString(out, tileset.name);
+				writeString(out, tileset.imageSource);
+				out.writeInt(tileset.firstID);
+				out.writeInt(tileset.tileWidth);
+				out.writeInt(tileset.tileHeight);
+				out.writeInt(tileset.margin);
+				out.writeInt(tileset.spacing);
+			}
+
+			out.writeInt(layers.size());
+			for (Layer layer : layers) {
+				writeString(out, layer.name);
+				out.writeBoolean(layer.visible);
+				out.writeFloat(layer.opacity);
+
+				out.writeBoolean(layer.cells != null);
+				if (layer.cells != null) {
+					out.writeInt(layer.width);
+					out.writeInt(layer.height);
+					for (int i = 0; i < layer.cells.limit(); i++)
+						out.writeInt(layer.cells.get(i));
+				} else {
+					out.writeInt(layer.objects.size());
+					for (Map<String, Object> properties : layer.objects)
+						writeProperties(out, properties);
+				}
+			}
+
+			tileCosts.write(out);
+		}
+	}
+
+	/**
+	 * Creates the map again, loading the textures of its tilesets.
+	 * This must be called on the rendering thread
+	 *
+	 * @param tmxFile The TMX file that was compiled, which tileset images are relative to
+	 * @return The map, which owns its textures
+	 */
+	public TiledMap createMap(FileHandle tmxFile) {
+		TiledMap map = new TiledMap();
+		MapProperties props = map.getProperties();
+		props.put("width", width);
+		props.put("height", height);
+		props.put("tilewidth", tileWidth);
+		props.put("tileheight", tileHeight);
+
+		// as TmxMapLoader slices them
+		Array<Texture> textures = new Array<>();
+		for (Tileset tileset : tilesets) {
+			TiledMapTileSet tileSet = new TiledMapTileSet();
+			tileSet.setName(tileset.name);
+			MapProperties tileSetProps = tileSet.getProperties();
+			tileSetProps.put("firstgid", tileset.firstID);
+			tileSetProps.put("imagesource", tileset.imageSource);
+			tileSetProps.put("tilewidth", tileset.tileWidth);
+			tileSetProps.put("tileheight", tileset.tileHeight);
+			tileSetProps.put("margin", tileset.margin);
+			tileSetProps.put("spacing", tileset.spacing);
+
+			Texture texture = new Texture(tmxFile.parent().child(tileset.imageSource));
+			textures.add(texture);
+
+			int id = tileset.firstID;
+			for (int y = tileset.margin; y <= texture.getHeight() - tileset.tileHeight; y += tileset.tileHeight + tileset.spacing) {
+				for (int x = tileset.margin; x <= texture.getWidth() - tileset.tileWidth; x += tileset.tileWidth + tileset.spacing) {
+					TiledMapTile tile = new StaticTiledMapTile(new TextureRegion(texture, x, y, tileset.tileWidth, tileset.tileHeight));
+					tile.setId(id);
+					tileSet.putTile(id++, tile);
+				}
+			}
+
+			map.getTileSets().addTileSet(tileSet);
+		}
+		map.setOwnedResources(textures);
+
+		for (Layer layer : layers) {
+			MapLayer mapLayer;
+			if (layer.cells != null) {
+				TiledMapTileLayer tileLayer = new TiledMapTileLayer(layer.width, layer.height, tileWidth, tileHeight);
+				tileLayer.setName(layer.name);
+
+				// streamed layers are left empty, and filled in by loadCells as chunks are activated
+				if (!isStreamed(tileLayer))
+					for (int y = 0; y < layer.height; y++)
+						for (int x = 0; x < layer.width; x++)
+							tileLayer.setCell(x, y, decodeCell(layer.cells.get(y * layer.width + x), map));
+				mapLayer = tileLayer;
+			} else {
+				mapLayer = new MapLayer();
+				for (Map<String, Object> properties : layer.objects) {
+					RectangleMapObject object = new RectangleMapObject(
+							(Float) properties.getOrDefault("x", 0f), (Float) properties.getOrDefault("y", 0f),
+							(Float) properties.getOrDefault("width", 0f), (Float) properties.getOrDefault("height", 0f)
+					);
+					properties.forEach(object.getProperties()::put);
+					mapLayer.getObjects().add(object);
+				}
+			}
+
+			mapLayer.setName(layer.name);
+			mapLayer.setVisible(layer.visible);
+			mapLayer.setOpacity(layer.opacity);
+			map.getLayers().add(mapLayer);
+		}
+
+		return map;
+	}
+
+	/**
+	 * Sets the cells of the given rectangle back to those that were compiled, in every layer that is streamed
+	 *
+	 * @param map    The map created by {@link #createMap(FileHandle)}, or compiled
+	 * @param x      The x coordinate of the bottom left tile
+	 * @param y      The y coordinate of the bottom left tile
+	 * @param width  The width of the rectangle
+	 * @param height The height of the rectangle
+	 * @see #isStreamed(MapLayer)
+	 */
+	public void loadCells(TiledMap map, int x, int y, int width, int height) {
+		for (int i = 0; i < layers.size(); i++) {
+			Layer layer = layers.get(i);
+			MapLayer mapLayer = map.getLayers().get(i);
+			if (layer.cells == null || !isStreamed(mapLayer))
+				continue;
+
+			TiledMapTileLayer tileLayer = (TiledMapTileLayer) mapLayer;
+			for (int cy = Math.max(0, y); cy < Math.min(layer.height, y + height); cy++)
+				for (int cx = Math.max(0, x); cx < Math.min(layer.width, x + width); cx++)
+					tileLayer.setCell(cx, cy, decodeCell(layer.cells.get(cy * layer.width + cx), map));
+		}
+	}
+
+	/**
+	 * Removes the cells of the given rectangle in every layer that is streamed, so that they can be collected until
+	 * they are loaded again
+	 *
+	 * @param map    The map created by {@link #createMap(FileHandle)}, or compiled
+	 * @param x      The x coordinate of the bottom left tile
+	 * @param y      The y coordinate of the bottom left tile
+	 * @param width  The width of the rectangle
+	 * @param height The height of the rectangle
+	 * @see #loadCells(TiledMap, int, int, int, int)
+	 */
+	public void unloadCells(TiledMap map, int x, int y, int width, int height) {
+		for (MapLayer mapLayer : map.getLayers()) {
+			if (!isStreamed(mapLayer))
+				continue;
+
+			TiledMapTileLayer tileLayer = (TiledMapTileLayer) mapLayer;
+			for (int cy = Math.max(0, y); cy < Math.min(tileLayer.getHeight(), y + height); cy++)
+				for (int cx = Math.max(0, x); cx < Math.min(tileLayer.getWidth(), x + width); cx++)
+					tileLayer.setCell(cx, cy, null);
+		}
+	}
+
+	/**
+	 * @return True if the cells of the layer are loaded and unloaded with the chunks of the world. This is every tile
+	 * layer except for the "objects" layer, whose cells are shown and hidden by the {@link ModelManager}
+	 */
+	static boolean isStreamed(MapLayer layer) {
+		return layer instanceof TiledMapTileLayer && !"objects".equals(layer.getName());
+	}
+
+	/**
+	 * @return The checksum of the TMX file this was compiled from
+	 * @see #checksum(byte[])
+	 */
+	public long getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * @return The compiled tile costs of the map
+	 */
+	public TileCostRaster getTileCosts() {
+		return tileCosts;
+	}
+
+	/**
+	 * @return The number of layers, of both tiles and objects
+	 */
+	int getLayerCount() {
+		return layers.size();
+	}
+
+	/**
+	 * @return The encoded cell at the given tile in the given layer, or 0 if there is no cell
+	 */
+	int getCell(int layer, int x, int y) {
+		Layer l = layers.get(layer);
+		return l.cells.get(y * l.width + x);
+	}
+
+	/**
+	 * @return The properties of the objects in the given layer
+	 */
+	List<Map<String, Object>> getObjects(int layer) {
+		return layers.get(layer).objects;
+	}
+
+	static int encodeCell(TiledMapTileLayer.Cell cell) {
+		if (cell == null || cell.getTile() == null)
+			return 0;
+
+		int encoded = cell.getTile().getId() & TILE_ID_MASK;
+		encoded |= (cell.getRotation() & 3) << ROTATION_SHIFT;
+		if (cell.getFlipHorizontally())
+			encoded |= FLIP_HORIZONTALLY;
+		if (cell.getFlipVertically())
+			encoded |= FLIP_VERTICALLY;
+		return encoded;
+	}
+
+	private TiledMapTileLayer.Cell decodeCell(int encoded, TiledMap map) {
+		if (encoded == 0)
+			return null;
+
+		if (map != cellCacheMap) {
+			cellCache.clear();
+			cellCacheMap = map;
+		}
+
+		TiledMapTileLayer.Cell cell = cellCache.get(encoded);
+		if (cell != null)
+			return cell;
+
+		TiledMapTile tile = map.getTileSets().getTile(encoded & TILE_ID_MASK);
+		if (tile == null)
+			return null;
+
+		cell = new TiledMapTileLayer.Cell();
+		cell.setTile(tile);
+		cell.setRotation((encoded >>> ROTATION_SHIFT) & 3);
+		cell.setFlipHorizontally((encoded & FLIP_HORIZONTALLY) != 0);
+		cell.setFlipVertically((encoded & FLIP_VERTICALLY) != 0);
+		cellCache.put(encoded, cell);
+		return cell;
+	}
+
+	/**
+	 * @return The properties of an object that can be stored, in the order they were found
+	 */
+	private static Map<String, Object> getProperties(MapProperties props) {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		for (Iterator<String> keys = props.getKeys(); keys.hasNext(); ) {
+			String key = keys.next();
+			Object value = props.get(key);
+			if (value instanceof String || value instanceof Float || value instanceof Integer || value instanceof Boolean)
+				properties.put(key, value);
+		}
+		return properties;
+	}
+
+	private static void writeProperties(DataOutputStream out, Map<String, Object> properties) throws IOException {
+		out.writeInt(properties.size());
+		for (Map.Entry<String, Object> property : properties.entrySet()) {
+			writeString(out, property.getKey());
+			Object value = property.getValue();
+			if (value instanceof String) {
+				out.writeByte(PROPERTY_STRING);
+				writeString(out, (String) value);
+			} else if (value instanceof Float) {
+				out.writeByte(PROPERTY_FLOAT);
+				out.writeFloat((Float) value);
+			} else if (value instanceof Integer) {
+				out.writeByte(PROPERTY_INTEGER);
+				out.writeInt((Integer) value);
+			} else {
+				out.writeByte(PROPERTY_BOOLEAN);
+				out.writeBoolean((Boolean) value);
+			}
+		}
+	}
+
+	private static Map<String, Object> readProperties(ByteBuffer buffer) throws IOException {
+		Map<String, Object> properties = new LinkedHashMap<>();
+		for (int i = 0, n = buffer.getInt(); i < n; i++) {
+			String key = readString(buffer);
+			byte type = buffer.get();
+			switch (type) {
+				case PROPERTY_STRING:
+					properties.put(key, readString(buffer));
+					break;
+				case PROPERTY_FLOAT:
+					properties.put(key, buffer.getFloat());
+					break;
+				case PROPERTY_INTEGER:
+					properties.put(key, buffer.getInt());
+					break;
+				case PROPERTY_BOOLEAN:
+					properties.put(key, buffer.get() != 0);
+					break;
+				default:
+					throw new IOException("Unknown property type " + type);
+			}
+		}
+		return properties;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The layout of the tiles in a tileset image
+	 */
+	private static class Tileset {
+		final String name;
+		final String imageSource;
+		final int firstID;
+		final int tileWidth;
+		final int tileHeight;
+		final int margin;
+		final int spacing;
+
+		Tileset(String name, String imageSource, int firstID, int tileWidth, int tileHeight, int margin, int spacing) {
+			this.name = name;
+			this.imageSource = imageSource;
+			this.firstID = firstID;
+			this.tileWidth = tileWidth;
+			this.tileHeight = tileHeight;
+			this.margin = margin;
+			this.spacing = spacing;
+		}
+	}
+
+	/**
+	 * A layer of either tiles, which has cells, or objects, which has the properties of each object
+	 */
+	private static class Layer {
+		final String name;
+		final boolean visible;
+		final float opacity;
+
+		int width;
+		int height;
+		IntBuffer cells;
+
+		List<Map<String, Object>> objects;
+
+		Layer(String name, boolean visible, float opacity) {
+			this.name = name;
+			this.visible = visible;
+			this.opacity = opacity;
+		}
+	}
+
+}
@@ -84,6 +84,13 @@ public class ModelController {
 		return this;
 	}
 
+	/**
+	 * @return The render position of the model, which must not be changed.
+	 */
+	public Vector3 getPosition() {
+		return position;
+	}
+
 	/**
 	 * Sets the render rotation of the model.
 	 *
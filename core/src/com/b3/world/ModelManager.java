@@ -15,6 +15,7 @@ import com.badlogic.gdx.maps.MapProperties;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -130,15 +131,20 @@ public class ModelManager {
 	}
 
 	/**
-	 * Renders all the {@link ModelInstance ModelInstances}.
+	 * Renders all the {@link ModelInstance ModelInstances} in active chunks.
 	 *
 	 * @param worldCamera The {@link WorldCamera} to render them for.
+	 * @param chunks      The chunks of the world, to skip models in evicted chunks.
 	 */
-	public void render(WorldCamera worldCamera) {
+	public void render(WorldCamera worldCamera, WorldChunks chunks) {
 		tryLoadAssets();
 		modelBatch.begin(worldCamera);
 		models.stream()
 				.filter(instance -> instance.getFirst().isVisible())
+				.filter(instance -> {
+					Vector3 position = instance.getFirst().getPosition();
+					return position == null || chunks.isActive(position.x, position.y);
+				})
 				.forEach(instance -> modelBatch.render(instance.getSecond(), environment));
 		modelBatch.end();
 	}
@@ -0,0 +1,279 @@
+package com.b3.world;
+
+import com.b3.search.Graph;
+import com.b3.search.Node;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The effect of every tile layer of a map on its graph, compiled into flat arrays: which tiles have no node, and
+ * the cost of the edges to the east and north of each tile. It is compiled once per map, then applied to a graph in
+ * a single bulk edit.
+ * <p>
+ * Layers are applied in order, as they are drawn. A tile on any layer whose type has no cost (or any tile on the
+ * "cut" layer, or an unknown tile on the "objects" layer) removes its node. Otherwise a tile sets the cost of an edge
+ * to a neighbour to its own cost, if the neighbour's tile on the same layer is of the same type or is no more
+ * expensive, so an edge between two tile types costs as much as the more expensive one. A later layer's cost
+ * replaces an earlier one's.
+ *
+ * @author dxw405
+ */
+public class TileCostRaster {
+
+	private final int width;
+	private final int height;
+	private final BitSet removed;
+	// NaN where no layer sets the cost
+	private final float[] eastCosts;
+	private final float[] northCosts;
+
+	private TileCostRaster(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.removed = new BitSet(width * height);
+		this.eastCosts = new float[width * height];
+		this.northCosts = new float[width * height];
+		Arrays.fill(eastCosts, Float.NaN);
+		Arrays.fill(northCosts, Float.NaN);
+	}
+
+	/**
+	 * Compiles the visible tile layers of the given map
+	 *
+	 * @param map The map
+	 * @return The compiled raster, the size of the map
+	 */
+	public static TileCostRaster compile(TiledMap map) {
+		TileCostRaster raster = new TileCostRaster(
+				(int) map.getProperties().get("width"),
+				(int) map.getProperties().get("height")
+		);
+
+		TileType[] types = new TileType[0];
+		for (MapLayer layer : map.getLayers()) {
+			if (!layer.isVisible() || !(layer instanceof TiledMapTileLayer))
+				continue;
+
+			TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+			int layerWidth = tileLayer.getWidth();
+			int layerHeight = tileLayer.getHeight();
+			if (types.length < layerWidth * layerHeight)
+				types = new TileType[layerWidth * layerHeight];
+
+			// null where there is no cell
+			for (int y = 0; y < layerHeight; y++) {
+				for (int x = 0; x < layerWidth; x++) {
+					TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
+					types[y * layerWidth + x] = cell == null ? null : TileType.getFromCell(cell);
+				}
+			}
+
+			raster.addLayer(types, layerWidth, layerHeight, layer.getName());
+		}
+
+		return raster;
+	}
+
+	/**
+	 * Reads a raster written by {@link #write(DataOutputStream)}
+	 *
+	 * @param buffer The buffer to read from, which is left after the raster
+	 * @return The raster
+	 */
+	static TileCostRaster read(ByteBuffer buffer) {
+		TileCostRaster raster = new TileCostRaster(buffer.getInt(), buffer.getInt());
+
+		long[] removed = new long[buffer.getInt()];
+		buffer.asLongBuffer().get(removed);
+		buffer.position(buffer.position() + removed.length * Long.BYTES);
+		raster.removed.or(BitSet.valueOf(removed));
+
+		buffer.asFloatBuffer().get(raster.eastCosts);
+		buffer.position(buffer.position() + raster.eastCosts.length * Float.BYTES);
+		buffer.asFloatBuffer().get(raster.northCosts);
+		buffer.position(buffer.position() + raster.northCosts.length * Float.BYTES);
+		return raster;
+	}
+
+	/**
+	 * Writes the raster, so that it can be read again without the map
+	 *
+	 * @param out The stream to write to
+	 * @throws IOException If the stream cannot be written to
+	 * @see CompiledWorld
+	 */
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(width);
+		out.writeInt(height);
+
+		long[] removed = this.removed.toLongArray();
+		out.writeInt(removed.length);
+		for (long bits : removed)
+			out.writeLong(bits);
+
+		for (float cost : eastCosts)
+			out.writeFloat(cost);
+		for (float cost : northCosts)
+			out.writeFloat(cost);
+	}
+
+	/**
+	 * @param types  The types of the layer's tiles, row by row, or null where there is no cell
+	 * @param name   The name of the layer
+	 */
+	private void addLayer(TileType[] types, int layerWidth, int layerHeight, String name) {
+		// remove node even if unknown tile type is found
+		boolean objectLayer = name.equals("objects");
+		// remove all nodes from cut layer
+		boolean cutLayer = name.equals("cut");
+
+		for (int y = 0; y < Math.min(layerHeight, height); y++) {
+			for (int x = 0; x < Math.min(layerWidth, width); x++) {
+				TileType type = types[y * layerWidth + x];
+				if (type == null || !cutLayer && !objectLayer && type == TileType.UNKNOWN)
+					continue;
+
+				int tile = y * width + x;
+				if (!type.shouldHaveNode() || cutLayer) {
+					removed.set(tile);
+					continue;
+				}
+
+				// each edge is stored on the tile to its west or south
+				if (x + 1 < width && costsOver(type, types, layerWidth, layerHeight, x + 1, y))
+					eastCosts[tile] = type.getCost();
+				if (x > 0 && costsOver(type, types, layerWidth, layerHeight, x - 1, y))
+					eastCosts[tile - 1] = type.getCost();
+				if (y + 1 < height && costsOver(type, types, layerWidth, layerHeight, x, y + 1))
+					northCosts[tile] = type.getCost();
+				if (y > 0 && costsOver(type, types, layerWidth, layerHeight, x, y - 1))
+					northCosts[tile - width] = type.getCost();
+			}
+		}
+	}
+
+	/**
+	 * @return True if a tile of the given type sets the cost of its edge to the given neighbouring tile
+	 */
+	private static boolean costsOver(TileType type, TileType[] types, int layerWidth, int layerHeight, int x, int y) {
+		TileType neighbour = x < layerWidth && y < layerHeight ? types[y * layerWidth + x] : null;
+		if (neighbour == null)
+			neighbour = TileType.UNKNOWN;
+		return type.getCost() >= neighbour.getCost() || neighbour == type;
+	}
+
+	/**
+	 * Removes the nodes and sets the edge costs of the graph, in a single bulk edit.
+	 * Only edges that are in the graph are changed, none are added
+	 *
+	 * @param graph The graph of the map, which must be at least as large as this raster
+	 * @see Graph#beginBulkEdit()
+	 */
+	public void apply(Graph graph) {
+		graph.beginBulkEdit();
+		try {
+			applyRectangle(graph, 0, 0, width, height);
+		} finally {
+			graph.endBulkEdit();
+		}
+	}
+
+	/**
+	 * Removes the nodes and sets the edge costs of the graph in the given rectangle and a one tile border around it,
+	 * such as after the nodes under a building have been restored.
+	 * Listeners are told about every edit, as there are only as many as the rectangle has tiles
+	 *
+	 * @param graph  The graph of the map
+	 * @param x      The x coordinate of the bottom left corner
+	 * @param y      The y coordinate of the bottom left corner
+	 * @param width  The width of the rectangle
+	 * @param height The height of the rectangle
+	 */
+	public void apply(Graph graph, int x, int y, int width, int height) {
+		applyRectangle(graph,
+				Math.max(0, x - 1), Math.max(0, y - 1),
+				Math.min(this.width, x + width + 1), Math.min(this.height, y + height + 1)
+		);
+	}
+
+	private void applyRectangle(Graph graph, int minX, int minY, int maxX, int maxY) {
+		for (int y = minY; y < maxY; y++) {
+			for (int x = minX; x < maxX; x++) {
+				Node node = removed.get(y * width + x) ? graph.getNode(x, y) : null;
+				if (node != null)
+					graph.removeNode(node);
+			}
+		}
+
+		for (int y = minY; y < maxY; y++) {
+			for (int x = minX; x < maxX; x++) {
+				int tile = y * width + x;
+				if (Float.isNaN(eastCosts[tile]) && Float.isNaN(northCosts[tile]))
+					continue;
+
+				Node node = graph.getNode(x, y);
+				if (node == null)
+					continue;
+
+				if (!Float.isNaN(eastCosts[tile]))
+					setEdgeCost(node, graph.getNode(x + 1, y), eastCosts[tile]);
+				if (!Float.isNaN(northCosts[tile]))
+					setEdgeCost(node, graph.getNode(x, y + 1), northCosts[tile]);
+			}
+		}
+	}
+
+	private static void setEdgeCost(Node node, Node neighbour, float cost) {
+		if (neighbour != null)
+			node.setEdgeCost(neighbour, cost);
+	}
+
+	/**
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return True if the tile has no node
+	 */
+	public boolean isRemoved(int x, int y) {
+		return removed.get(y * width + x);
+	}
+
+	/**
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The cost of the edge between the tile and the one to its east, or NaN if no layer sets it
+	 */
+	public float getEastCost(int x, int y) {
+		return eastCosts[y * width + x];
+	}
+
+	/**
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @return The cost of the edge between the tile and the one to its north, or NaN if no layer sets it
+	 */
+	public float getNorthCost(int x, int y) {
+		return northCosts[y * width + x];
+	}
+
+	/**
+	 * @return The width of the map, in tiles
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return The height of the map, in tiles
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+}
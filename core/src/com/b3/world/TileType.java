@@ -2,9 +2,6 @@ package com.b3.world;
 
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * A mapping of tile types to their IDs in the tileset
  *
@@ -40,15 +37,21 @@ public enum TileType {
 
 	UNKNOWN(0);
 
-	private static final Map<Integer, TileType> TILES;
+	// indexed by tile ID, as the IDs are small and dense
+	private static final TileType[] TILES;
 
 	static {
-		TILES = new HashMap<>();
+		int maxID = 0;
 		for (TileType tileType : values())
-			for (int id : tileType.ids) {
-				TILES.put(id, tileType);
-				tileType.ids = null;
-			}
+			for (int id : tileType.ids)
+				maxID = Math.max(maxID, id);
+
+		TILES = new TileType[maxID + 1];
+		for (TileType tileType : values()) {
+			for (int id : tileType.ids)
+				TILES[id] = tileType;
+			tileType.ids = null;
+		}
 	}
 
 	private final int cost;
@@ -65,7 +68,15 @@ public enum TileType {
 	 * or {@link #UNKNOWN} if not found.
 	 */
 	public static TileType getByID(int id) {
-		return TILES.getOrDefault(id, UNKNOWN);
+		TileType tileType = id >= 0 && id < TILES.length ? TILES[id] : null;
+		return tileType == null ? UNKNOWN : tileType;
+	}
+
+	/**
+	 * @return One more than the largest tile ID with a type
+	 */
+	static int getIDCount() {
+		return TILES.length;
 	}
 
 	/**
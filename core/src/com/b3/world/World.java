@@ -2,6 +2,7 @@ package com.b3.world;
 
 import com.b3.DebugRenderer;
 import com.b3.entity.Agent;
+import com.b3.entity.component.AIComponent;
 import com.b3.entity.component.PhysicsComponent;
 import com.b3.entity.system.AISystem;
 import com.b3.entity.system.PhysicsSystem;
@@ -17,7 +18,10 @@ import com.b3.world.building.Building;
 import com.b3.world.building.BuildingModelCache;
 import com.badlogic.ashley.core.Engine;
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
@@ -28,15 +32,19 @@ import com.badlogic.gdx.maps.MapProperties;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.*;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -60,12 +68,19 @@ public class World implements Disposable {
 	private BuildingModelCache buildingCache;
 
 	private TiledMap map;
+	private CompiledWorld compiled;
+	private WorldChunks chunks;
+	private final Rectangle visibleTiles = new Rectangle();
+	private final List<Vector2> agentPositions = new ArrayList<>();
 	private Engine engine;
+	private ImmutableArray<Entity> physicsEntities;
 
 	private com.badlogic.gdx.physics.box2d.World physicsWorld;
 	private Body buildingBody; // all buildings will be fixtures on a single body
+	private Map<Building, Fixture> buildingFixtures;
 
 	private WorldGraph worldGraph;
+	private TileCostRaster tileCosts;
 
 	private Set<Entity> deadEntities;
 	private List<PendingTeleport> pendingTeleports;
@@ -85,16 +100,28 @@ public class World implements Disposable {
 	 * @param fileName the name of the world to be loaded from file
 	 */
 	public World(String fileName) {
-		map = new TmxMapLoader().load(fileName);
+		this(new WorldLoader(fileName).loadNow());
+	}
+
+	/**
+	 * Creates the world from what the given loader has loaded, on the rendering thread
+	 *
+	 * @param loader the loader that has loaded the world
+	 * @see WorldLoader#createWorld()
+	 */
+	World(WorldLoader loader) {
+		loadMap(loader);
 		tileSize = new Vector2(
 				(int) map.getProperties().get("width"),
 				(int) map.getProperties().get("height")
 		);
+		initChunks();
 
 		// buildings and lighting
 		buildingBatch = new ModelBatch();
 		buildings = new ArrayList<>();
 		buildingCache = new BuildingModelCache();
+		buildingFixtures = new HashMap<>();
 
 		environment = new Environment();
 		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1f));
@@ -102,6 +129,7 @@ public class World implements Disposable {
 
 		// entities
 		engine = new Engine();
+		physicsEntities = engine.getEntitiesFor(Family.all(PhysicsComponent.class).get());
 		deadEntities = new HashSet<>();
 		pendingTeleports = new ArrayList<>();
 		physicsWorld = new com.badlogic.gdx.physics.box2d.World(Vector2.Zero, true);
@@ -112,7 +140,9 @@ public class World implements Disposable {
 
 		debugRenderer = new DebugRenderer(physicsWorld);
 
-		worldGraph = new WorldGraph(this);
+		// the loader has already applied the tile costs to its graph, if the map was compiled
+		WorldGraph loadedGraph = loader.getWorldGraph();
+		worldGraph = loadedGraph != null ? loadedGraph : new WorldGraph(this);
 		worldGraph.initRenderer();
 
 		worldGUI = new WorldGUI(this);
@@ -120,12 +150,64 @@ public class World implements Disposable {
 		// load map tiles
 		loadBuildings(map);
 		// processMapTileTypes must be before ModelManager.
-		processMapTileTypes(map);
+		if (loadedGraph != null)
+			addObjectBoxes(map);
+		else
+			processMapTileTypes(map);
 
 		// ModelManager must be after processMapTileTypes.
 		modelManager = new ModelManager(environment, map);
 	}
 
+	/**
+	 * Creates the map from its compiled file if the loader read an up to date one, otherwise loads it from its TMX
+	 * file and compiles it for next time
+	 *
+	 * @param loader the loader of this world
+	 * @see CompiledWorld
+	 */
+	private void loadMap(WorldLoader loader) {
+		FileHandle tmxFile = loader.getTmxFile();
+		compiled = loader.getCompiledWorld();
+
+		if (compiled != null) {
+			map = compiled.createMap(tmxFile);
+		} else {
+			map = new TmxMapLoader().load(tmxFile.path());
+			compiled = CompiledWorld.compile(map, loader.getChecksum());
+			try {
+				compiled.write(CompiledWorld.getCompiledFile(tmxFile));
+			} catch (IOException e) {
+				Gdx.app.error("World", "Failed to write compiled world", e);
+			}
+
+			// as a compiled map is created, with every chunk evicted
+			compiled.unloadCells(map, 0, 0, map.getProperties().get("width", Integer.class),
+					map.getProperties().get("height", Integer.class));
+		}
+
+		tileCosts = compiled.getTileCosts();
+	}
+
+	/**
+	 * Splits the map into {@link WorldChunks}, whose tiles are loaded from the compiled map when they are activated
+	 * and unloaded again when they are evicted
+	 */
+	private void initChunks() {
+		chunks = new WorldChunks((int) tileSize.x, (int) tileSize.y);
+		chunks.addListener(new ChunkListener() {
+			@Override
+			public void chunkActivated(int x, int y, int width, int height) {
+				compiled.loadCells(map, x, y, width, height);
+			}
+
+			@Override
+			public void chunkEvicted(int x, int y, int width, int height) {
+				compiled.unloadCells(map, x, y, width, height);
+			}
+		});
+	}
+
 	/**
 	 * Takes a tile map and removes nodes and changes edge costs accordingly.
 	 *
@@ -142,68 +224,42 @@ public class World implements Disposable {
 	 * @param renderBoxes if true then render the physics collidable boxes; false for testing
 	 */
 	private void processMapTileTypes(TiledMap map, boolean renderBoxes) {
-		FixtureDef objectDef = null;
-		if (renderBoxes) { // renderBoxes is needed so as to be compatible with the tests.
-			objectDef = new FixtureDef();
-			objectDef.shape = new PolygonShape();
-		}
+		if (renderBoxes) // renderBoxes is needed so as to be compatible with the tests.
+			addObjectBoxes(map);
 
-		for (MapLayer layer : map.getLayers()) {
-			if (!layer.isVisible() || !(layer instanceof TiledMapTileLayer))
-				continue;
-
-			TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
-
-			// remove node even if unknown tile type is found
-			boolean objectLayer = layer.getName().equals("objects");
-			// remove all nodes from cut layer
-			boolean cutLayer = layer.getName().equals("cut");
-
-			// remove nodes on invalid tiles
-			for (int y = 0; y < tileLayer.getHeight(); y++) {
-				for (int x = 0; x < tileLayer.getWidth(); x++) {
-					TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
-					if (cell == null)
-						continue;
-
-					TileType type = TileType.getFromCell(cell);
-					if (!cutLayer && !objectLayer && type == TileType.UNKNOWN)
-						continue;
-
-
-					// add collision box for objects
-					if (objectLayer && renderBoxes) {
-						((PolygonShape) objectDef.shape).setAsBox(
-								0.5f, 0.5f, new Vector2(x + 0.5f, y + 0.5f), 0f
-						);
-						buildingBody.createFixture(objectDef);
-					}
-
-
-					Node node = worldGraph.getNode(new Point(x, y));
-					if (node == null)
-						continue;
-
-					// cost of 0
-					if (!type.shouldHaveNode() || cutLayer) {
-						worldGraph.removeNode(node);
-					}
-					// apply cost to edges if the tile types are the same, or this node's cost is more than its neighbour's
-					else
-						node.getEdges().keySet()
-								.parallelStream()
-								.filter(n -> {
-									TileType t = TileType.getFromCell(tileLayer.getCell(n.getPoint().x, n.getPoint().y));
-									return type.getCost() >= t.getCost() || t == type;
-								})
-								.forEach(n -> node.setEdgeCost(n, type.getCost()));
-				}
+		// the raster is only compiled once, as the map's tiles never change
+		if (tileCosts == null)
+			tileCosts = TileCostRaster.compile(map);
+		tileCosts.apply(worldGraph);
+	}
+
+	/**
+	 * Adds a collision box for every tile on the "objects" layer of the given map
+	 *
+	 * @param map The tile map
+	 */
+	private void addObjectBoxes(TiledMap map) {
+		MapLayer objectLayer = map.getLayers().get("objects");
+		if (!(objectLayer instanceof TiledMapTileLayer) || !objectLayer.isVisible())
+			return;
+
+		FixtureDef objectDef = new FixtureDef();
+		objectDef.shape = new PolygonShape();
+
+		TiledMapTileLayer tileLayer = (TiledMapTileLayer) objectLayer;
+		for (int y = 0; y < tileLayer.getHeight(); y++) {
+			for (int x = 0; x < tileLayer.getWidth(); x++) {
+				if (tileLayer.getCell(x, y) == null)
+					continue;
+
+				((PolygonShape) objectDef.shape).setAsBox(
+						0.5f, 0.5f, new Vector2(x + 0.5f, y + 0.5f), 0f
+				);
+				buildingBody.createFixture(objectDef);
 			}
 		}
 
-		if (renderBoxes) {
-			objectDef.shape.dispose();
-		}
+		objectDef.shape.dispose();
 	}
 
 	/**
@@ -218,15 +274,25 @@ public class World implements Disposable {
 			return;
 		}
 
-		for (MapObject object : buildingsLayer.getObjects()) {
-			MapProperties props = object.getProperties();
-			Float width = (Float) props.get("width") / Utils.TILESET_RESOLUTION;
-			Float length = (Float) props.get("height") / Utils.TILESET_RESOLUTION;
-			Float height = Float.parseFloat((String) props.get("building-height")) * 2;
-			Float x = (Float) props.get("x") / Utils.TILESET_RESOLUTION;
-			Float y = (Float) props.get("y") / Utils.TILESET_RESOLUTION;
-
-			addBuilding(new Vector2(x, y), new Vector3(width, length, height));
+		// the graph's listeners are only told once that every building's nodes have been removed
+		worldGraph.beginBulkEdit();
+		try {
+			for (MapObject object : buildingsLayer.getObjects()) {
+				MapProperties props = object.getProperties();
+				Float width = (Float) props.get("width") / Utils.TILESET_RESOLUTION;
+				Float length = (Float) props.get("height") / Utils.TILESET_RESOLUTION;
+				Float height = Float.parseFloat((String) props.get("building-height")) * 2;
+				Float x = (Float) props.get("x") / Utils.TILESET_RESOLUTION;
+				Float y = (Float) props.get("y") / Utils.TILESET_RESOLUTION;
+
+				if (x < 0 || y < 0 || x + width > tileSize.x || y + length > tileSize.y)
+					continue;
+
+				// the map's own buildings may be on tiles whose nodes have already been removed by their tile costs
+				placeBuilding(new Vector2(x, y), new Vector3(width, length, height));
+			}
+		} finally {
+			worldGraph.endBulkEdit();
 		}
 	}
 
@@ -318,13 +384,35 @@ public class World implements Disposable {
 //		if (Config.getBoolean(ConfigKey.CAMERA_RESTRICT))
 //			worldCamera.addBoundaries(this);
 
+		// the landscape extends the tiles on the edges of the world, so they are loaded while it is generated
+		int width = (int) tileSize.x, height = (int) tileSize.y;
+		loadEdges(width, height, true);
 		landscapeCamera = new WorldLandscapeCamera(fov, map, x, y, zoom, worldCamera);
+		loadEdges(width, height, false);
 
 		engine.addSystem(new PhysicsSystem(physicsWorld));
 		engine.addSystem(new RenderSystem(worldCamera));
 		engine.addSystem(new AISystem(worldGraph));
 	}
 
+	/**
+	 * Loads or unloads the tiles on the edges of the map, regardless of their chunks, as no chunk has been activated
+	 * yet
+	 *
+	 * @param width  the width of the map
+	 * @param height the height of the map
+	 * @param load   true to load them, false to unload them
+	 */
+	private void loadEdges(int width, int height, boolean load) {
+		int[][] edges = {{0, 0, width, 1}, {0, height - 1, width, 1}, {0, 0, 1, height}, {width - 1, 0, 1, height}};
+		for (int[] edge : edges) {
+			if (load)
+				compiled.loadCells(map, edge[0], edge[1], edge[2], edge[3]);
+			else
+				compiled.unloadCells(map, edge[0], edge[1], edge[2], edge[3]);
+		}
+	}
+
 	/**
 	 * @return the {@link ModelManager} that the buildings in this world are managed by
 	 */
@@ -382,6 +470,17 @@ public class World implements Disposable {
 			}
 		}
 
+		return placeBuilding(pos, dimensions);
+	}
+
+	/**
+	 * Adds a building to the world at the given coordinates, even if it covers tiles without nodes
+	 *
+	 * @param pos        Tile position
+	 * @param dimensions Building dimensions, in tiles. z is height
+	 * @return The newly created building
+	 */
+	private Building placeBuilding(Vector2 pos, Vector3 dimensions) {
 		Gdx.app.debug("World", String.format("Added a building at (%2f, %2f) of dimensions (%2f, %2f, %2f)", pos.x, pos.y, dimensions.x, dimensions.y,
 				dimensions.z));
 
@@ -399,10 +498,7 @@ public class World implements Disposable {
 			);
 
 			buildingDef.shape = shape;
-			buildingDef.density = pos.x;
-			buildingDef.friction = pos.y;
-
-			buildingBody.createFixture(buildingDef);
+			buildingFixtures.put(building, buildingBody.createFixture(buildingDef));
 
 			shape.dispose();
 		}
@@ -415,6 +511,7 @@ public class World implements Disposable {
 	/**
 	 * Updates and renders the world, by:
 	 * Clearing up all entities marked as dead (which can't be done while ticking the world)
+	 * Activating and evicting chunks around the camera and agents
 	 * Rendering the world
 	 * Ticking entity behaviours and physics
 	 * Rendering entities
@@ -426,6 +523,7 @@ public class World implements Disposable {
 		// deal with entities from last tick
 		cleanseDeadEntities();
 		processPendingTeleports();
+		updateChunks();
 
 		if (Config.getBoolean(ConfigKey.LANDSCAPE_RENDERING))
 			landscapeCamera.renderWorld();
@@ -435,14 +533,17 @@ public class World implements Disposable {
 		worldGUI.render();
 
 		// models
-		modelManager.render(worldCamera);
+		modelManager.render(worldCamera, chunks);
 
 		// tick entities and physics
 		engine.update(Utils.DELTA_TIME);
 
 		buildingBatch.begin(worldCamera);
 		buildings.stream()
-				.filter(building -> building.isVisible(worldCamera))
+				.filter(building -> {
+					Vector2 position = building.getTilePosition();
+					return chunks.isActive(position.x, position.y) && building.isVisible(worldCamera);
+				})
 				.forEach(building -> buildingBatch.render(building.getModelInstance(), environment));
 		buildingBatch.end();
 
@@ -453,6 +554,21 @@ public class World implements Disposable {
 			debugRenderer.render(worldCamera);
 	}
 
+	/**
+	 * Activates the chunks that the camera can see or that hold an agent, and evicts the rest
+	 */
+	private void updateChunks() {
+		// looking at the horizon, so keep everything
+		if (!worldCamera.getGroundBounds(visibleTiles))
+			visibleTiles.set(0, 0, tileSize.x, tileSize.y);
+
+		agentPositions.clear();
+		for (Entity entity : physicsEntities)
+			agentPositions.add(entity.getComponent(PhysicsComponent.class).body.getPosition());
+
+		chunks.update(visibleTiles, agentPositions);
+	}
+
 	/**
 	 * Removes entities marked as dead since the last tick
 	 */
@@ -463,6 +579,11 @@ public class World implements Disposable {
 			if (phys != null)
 				physicsWorld.destroyBody(phys.body);
 
+			// stops it listening to the graph
+			AIComponent ai = e.getComponent(AIComponent.class);
+			if (ai != null)
+				ai.behaviour.dispose();
+
 			e.removeAll();
 
 			engine.removeEntity(e);
@@ -558,6 +679,13 @@ public class World implements Disposable {
 				&& tilePos.y >= 0 && tilePos.y < tileSize.y;
 	}
 
+	/**
+	 * @return the {@link WorldChunks} that this world is split into
+	 */
+	public WorldChunks getChunks() {
+		return chunks;
+	}
+
 	/**
 	 * @return the physics world that has been used as a {@link com.badlogic.gdx.physics.box2d.World}
 	 */
@@ -581,28 +709,18 @@ public class World implements Disposable {
 	public void removeBuilding(Vector2 positionDeletion) {
 		for (int i = 0; i < buildings.size(); i++) {
 			if (buildings.get(i).getTilePosition().equals(positionDeletion)) {
-				buildings.remove(i);
-				// has to be bottom left (assuming 4x4xZ dimensions)
+				Building building = buildings.remove(i);
 
-				if (Config.getBoolean(ConfigKey.BUILDING_COLLISIONS)) {
-
-					Array<Fixture> listBuildingsPhysics = buildingBody.getFixtureList();
-
-					Fixture toBeDestroyed = null;
-					for (int j = 0; j < listBuildingsPhysics.size; j++) {
-						Fixture current = listBuildingsPhysics.get(j);
-
-						if (current.getDensity() == positionDeletion.x && current.getFriction() == positionDeletion.y) {
-							toBeDestroyed = current;
-						}
-					}
-					if (toBeDestroyed != null)
-						buildingBody.destroyFixture(toBeDestroyed);
-				}
+				Fixture fixture = buildingFixtures.remove(building);
+				if (fixture != null)
+					buildingBody.destroyFixture(fixture);
 
-				worldGraph.removeBuilding(positionDeletion);
+				worldGraph.removeBuilding(building);
 
-				processMapTileTypes(map);
+				// only the building's tiles and the edges around them need their costs restored
+				Vector3 dimensions = building.getDimensions();
+				tileCosts.apply(worldGraph, Math.round(positionDeletion.x), Math.round(positionDeletion.y),
+						Math.round(dimensions.x), Math.round(dimensions.y));
 				return;
 			}
 		}
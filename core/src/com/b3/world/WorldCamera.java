@@ -9,7 +9,11 @@ import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
 
 /**
  * The control class for the main {@link com.badlogic.gdx.graphics.Camera}.
@@ -18,7 +22,10 @@ import com.badlogic.gdx.math.Vector2;
  */
 public class WorldCamera extends PerspectiveCamera {
 
+	private static final Plane GROUND = new Plane(Vector3.Z, 0f);
+
 	private final Vector2 inputDelta;
+	private final Vector3 groundCorner = new Vector3();
 	private float zoomAmount;
 
 	private TiledMapRenderer renderer;
@@ -62,6 +69,32 @@ public class WorldCamera extends PerspectiveCamera {
 		renderer.render();
 	}
 
+	/**
+	 * Finds the tiles on the ground that can be seen, by casting a ray through each corner of the screen
+	 *
+	 * @param out The rectangle to set to the bounds of the visible tiles
+	 * @return False if a corner of the screen does not look at the ground, in which case {@code out} is not valid
+	 */
+	public boolean getGroundBounds(Rectangle out) {
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+
+		for (int corner = 0; corner < 4; corner++) {
+			float screenX = (corner & 1) == 0 ? 0 : Gdx.graphics.getWidth();
+			float screenY = (corner & 2) == 0 ? 0 : Gdx.graphics.getHeight();
+			if (!Intersector.intersectRayPlane(getPickRay(screenX, screenY), GROUND, groundCorner))
+				return false;
+
+			minX = Math.min(minX, groundCorner.x);
+			minY = Math.min(minY, groundCorner.y);
+			maxX = Math.max(maxX, groundCorner.x);
+			maxY = Math.max(maxY, groundCorner.y);
+		}
+
+		out.set(minX, minY, maxX - minX, maxY - minY);
+		return true;
+	}
+
 	/**
 	 * Polls the given keyboard controller, and moves/zooms appropriately
 	 */
@@ -0,0 +1,145 @@
+package com.b3.world;
+
+import com.b3.search.HierarchicalGraph;
+import com.b3.search.WorldGraph;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Splits a world into square chunks of tiles, and keeps only those near the camera or an agent active, so that the
+ * rest of a very large world can be evicted from memory and skipped when rendering.
+ * <p>
+ * Chunks are aligned to the clusters of the {@link WorldGraph}'s {@link HierarchicalGraph}, so the entrances the
+ * hierarchy keeps between clusters also index the borders between chunks. The graph itself is never evicted, as it
+ * is held in flat arrays, so paths can still be found between any two tiles of the world.
+ * <p>
+ * Every chunk starts evicted, so that none of a world's tiles need to be loaded at once, and those that are wanted
+ * are activated by the first {@link #update(Rectangle, Iterable)}.
+ *
+ * @author dxw405
+ */
+public class WorldChunks {
+
+	/**
+	 * The width and height of a chunk in tiles, which is a whole number of the hierarchy's clusters
+	 */
+	public static final int CHUNK_SIZE = 2 * WorldGraph.HIERARCHY_CLUSTER_SIZE;
+
+	/**
+	 * How many chunks around the camera's view and each agent are also kept active, so that they are loaded before
+	 * they come into view
+	 */
+	private static final int BORDER = 1;
+
+	private final int width;
+	private final int height;
+	private final int chunksX;
+	private final int chunksY;
+
+	private final BitSet active;
+	private final BitSet wanted;
+	private final List<ChunkListener> listeners;
+
+	/**
+	 * @param width  The width of the world in tiles
+	 * @param height The height of the world in tiles
+	 */
+	public WorldChunks(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+		this.active = new BitSet(chunksX * chunksY);
+		this.wanted = new BitSet(chunksX * chunksY);
+		this.listeners = new ArrayList<>();
+	}
+
+	/**
+	 * @param listener The listener to tell about chunks being activated and evicted
+	 */
+	public void addListener(ChunkListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Activates the chunks under the given view and agents, with a border around them, and evicts every other chunk.
+	 * Chunks that are already in the right state are left alone
+	 *
+	 * @param view           The tiles that the camera can see
+	 * @param agentPositions The tile positions of the agents in the world
+	 */
+	public void update(Rectangle view, Iterable<Vector2> agentPositions) {
+		wanted.clear();
+		want(view.x, view.y, view.x + view.width, view.y + view.height);
+		for (Vector2 position : agentPositions)
+			want(position.x, position.y, position.x, position.y);
+
+		for (int i = 0; i < chunksX * chunksY; i++) {
+			boolean isWanted = wanted.get(i);
+			if (isWanted == active.get(i))
+				continue;
+
+			active.set(i, isWanted);
+
+			int x = (i % chunksX) * CHUNK_SIZE;
+			int y = (i / chunksX) * CHUNK_SIZE;
+			int w = Math.min(CHUNK_SIZE, width - x);
+			int h = Math.min(CHUNK_SIZE, height - y);
+			for (ChunkListener listener : listeners) {
+				if (isWanted)
+					listener.chunkActivated(x, y, w, h);
+				else
+					listener.chunkEvicted(x, y, w, h);
+			}
+		}
+	}
+
+	/**
+	 * Marks the chunks that the given tile rectangle covers, and those in the border around them, as wanted
+	 */
+	private void want(float minX, float minY, float maxX, float maxY) {
+		int fromX = Math.max(0, chunkOf(minX) - BORDER);
+		int fromY = Math.max(0, chunkOf(minY) - BORDER);
+		int toX = Math.min(chunksX - 1, chunkOf(maxX) + BORDER);
+		int toY = Math.min(chunksY - 1, chunkOf(maxY) + BORDER);
+
+		for (int y = fromY; y <= toY; y++)
+			if (fromX <= toX)
+				wanted.set(y * chunksX + fromX, y * chunksX + toX + 1);
+	}
+
+	private static int chunkOf(float tile) {
+		return (int) Math.floor(tile / CHUNK_SIZE);
+	}
+
+	/**
+	 * @param x The x tile coordinate
+	 * @param y The y tile coordinate
+	 * @return True if the chunk holding the given tile is active, or if the tile is outside of the world
+	 */
+	public boolean isActive(float x, float y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return true;
+		return active.get(chunkOf(y) * chunksX + chunkOf(x));
+	}
+
+	/**
+	 * @return The number of chunks that are active
+	 */
+	public int getActiveCount() {
+		return active.cardinality();
+	}
+
+	/**
+	 * @return The number of chunks in the world
+	 */
+	public int getChunkCount() {
+		return chunksX * chunksY;
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.b3.world;
+
+import com.b3.search.WorldGraph;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Loads the parts of a {@link World} that do not need the rendering thread, so that they can be loaded in the
+ * background while a loading screen is shown: the compiled map, and the graph with its tile costs applied.
+ * Everything else, such as textures, models and physics, is created by {@link #createWorld()} on the rendering thread.
+ * <p>
+ * If the map has not been compiled yet, it is parsed from its TMX file on the rendering thread instead, as that loads
+ * the tileset textures as it goes.
+ *
+ * @author dxw405
+ */
+public class WorldLoader {
+
+	private final FileHandle tmxFile;
+
+	private volatile float progress;
+	private volatile boolean loaded;
+	private volatile Throwable error;
+
+	// only read once loaded
+	private long checksum;
+	private CompiledWorld compiled;
+	private WorldGraph worldGraph;
+
+	/**
+	 * @param fileName The internal path of the world's TMX file
+	 */
+	public WorldLoader(String fileName) {
+		this(Gdx.files.internal(fileName));
+	}
+
+	/**
+	 * @param tmxFile The world's TMX file
+	 */
+	public WorldLoader(FileHandle tmxFile) {
+		this.tmxFile = tmxFile;
+	}
+
+	/**
+	 * Starts loading on a background thread
+	 *
+	 * @return This loader
+	 */
+	public WorldLoader start() {
+		Thread thread = new Thread(() -> {
+			try {
+				load();
+			} catch (Throwable t) {
+				error = t;
+			}
+		}, "World loader");
+		thread.setDaemon(true);
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * Loads on this thread
+	 *
+	 * @return This loader
+	 */
+	public WorldLoader loadNow() {
+		load();
+		return this;
+	}
+
+	private void load() {
+		checksum = CompiledWorld.checksum(tmxFile.readBytes());
+		progress = 0.2f;
+
+		File compiledFile = CompiledWorld.getCompiledFile(tmxFile);
+		if (compiledFile.isFile()) {
+			try {
+				compiled = CompiledWorld.read(compiledFile);
+				if (compiled.getChecksum() != checksum)
+					compiled = null;
+			} catch (IOException e) {
+				Gdx.app.error("WorldLoader", "Failed to read compiled world", e);
+			}
+		}
+		progress = 0.5f;
+
+		if (compiled != null) {
+			TileCostRaster tileCosts = compiled.getTileCosts();
+			worldGraph = new WorldGraph(tileCosts.getWidth(), tileCosts.getHeight());
+			progress = 0.8f;
+			tileCosts.apply(worldGraph);
+		}
+
+		progress = 1f;
+		loaded = true;
+	}
+
+	/**
+	 * @return How much of the background loading is done, from 0 to 1
+	 */
+	public float getProgress() {
+		return progress;
+	}
+
+	/**
+	 * @return True if the background loading is done, and the world can be created
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * @return The error that stopped the background loading, or null if there has not been one
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Creates the world from what has been loaded.
+	 * This must be called on the rendering thread
+	 *
+	 * @return The new world
+	 * @throws IllegalStateException If loading is not done yet
+	 */
+	public World createWorld() {
+		if (!loaded)
+			throw new IllegalStateException("World " + tmxFile + " has not been loaded yet");
+		return new World(this);
+	}
+
+	FileHandle getTmxFile() {
+		return tmxFile;
+	}
+
+	long getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * @return The compiled map, or null if the TMX file has to be parsed and compiled
+	 */
+	CompiledWorld getCompiledWorld() {
+		return compiled;
+	}
+
+	/**
+	 * @return The graph with its tile costs applied, or null if the map has not been compiled yet
+	 */
+	WorldGraph getWorldGraph() {
+		return worldGraph;
+	}
+
+}
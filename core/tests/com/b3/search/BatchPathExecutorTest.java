@@ -0,0 +1,57 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.util.Config;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link BatchPathExecutor} class.
+ *
+ * @author dxw405
+ */
+public class BatchPathExecutorTest {
+
+	@Before
+	public void setUp() {
+		Config.loadConfig(TestConstants.REFERENCE_CONFIG);
+	}
+
+	/**
+	 * Tests that a batch solved in parallel gives the same results, in the same order,
+	 * as solving each query one at a time.
+	 */
+	@Test
+	public void testSolve() throws Exception {
+		WorldGraph graph = WorldGraphBasic.getRealWorld("aStar1");
+		SearchAlgorithm[] algorithms = SearchAlgorithm.values();
+
+		List<PathQuery> queries = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+			queries.add(new PathQuery(graph.getRandomNode().getPoint(), graph.getRandomNode().getPoint(), algorithms[i % algorithms.length]));
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PathResult[] results = new BatchPathExecutor(pool).solve(graph, queries);
+			assertEquals(queries.size(), results.length);
+
+			PathService service = new PathService();
+			for (int i = 0; i < queries.size(); i++) {
+				PathQuery query = queries.get(i);
+				PathResult expected = service.findPath(graph, query.getStart(), query.getGoal(), query.getAlgorithm());
+				assertEquals(query.toString(), expected.getPath(), results[i].getPath());
+				assertEquals(query.getAlgorithm(), results[i].getAlgorithm());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
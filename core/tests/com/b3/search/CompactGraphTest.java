@@ -0,0 +1,81 @@
+package com.b3.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link CompactGraph} class.
+ *
+ * @author dxw405
+ */
+public class CompactGraphTest {
+
+	private Graph graph;
+
+	@Before
+	public void setUp() {
+		try {
+			graph = GraphBasic.getBasicGraph();
+		} catch (FileNotFoundException e) {
+			fail("Graph file not found");
+		}
+		assertNotNull("Graph is null", graph);
+	}
+
+	/**
+	 * Tests that a snapshot has exactly the same nodes, edges and costs as its {@link Graph},
+	 * in the same order.
+	 */
+	@Test
+	public void testMatchesGraph() {
+		graph.getNode(new Point(0, 0)).setEdgeCost(graph.getNode(new Point(0, 1)), 5f);
+		graph.addNode(new Point(20, 1000));
+		graph.addEdge(new Point(20, 1000), new Point(0, 0), 2f);
+
+		CompactGraph compact = graph.compact();
+		int edges = 0;
+
+		for (Node node : graph.getNodes().values()) {
+			int index = node.getIndex();
+			assertTrue(compact.hasNode(index));
+			assertEquals(index, compact.indexOf(node.getPoint().getX(), node.getPoint().getY()));
+			assertEquals(node.getPoint(), compact.getPoint(index));
+			assertEquals(node.getNeighbours().size(), compact.getNeighbourCount(index));
+
+			int e = compact.getEdgeStart(index);
+			for (Node neighbour : node.getNeighbours()) {
+				assertEquals(neighbour.getIndex(), compact.getTarget(e));
+				assertEquals(node.getEdgeCost(neighbour), compact.getCost(e), 0f);
+				e++;
+			}
+			assertEquals(compact.getEdgeEnd(index), e);
+			edges += node.getNeighbours().size();
+		}
+
+		assertEquals(edges, compact.getEdgeCount());
+		assertEquals(5f, compact.getEdgeCost(compact.indexOf(0, 0), compact.indexOf(0, 1)), 0f);
+		assertEquals(-1, compact.findEdge(compact.indexOf(0, 0), compact.indexOf(0, 3)));
+	}
+
+	/**
+	 * Tests that later changes to the {@link Graph} do not affect a snapshot.
+	 */
+	@Test
+	public void testImmutable() {
+		CompactGraph compact = graph.compact();
+		int index = graph.getNode(new Point(0, 1)).getIndex();
+		int degree = compact.getNeighbourCount(index);
+
+		graph.removeNode(new Point(0, 1));
+
+		assertTrue(compact.hasNode(index));
+		assertEquals(degree, compact.getNeighbourCount(index));
+		assertFalse(graph.compact().hasNode(index));
+		assertEquals(-1, graph.compact().indexOf(0, 1));
+	}
+
+}
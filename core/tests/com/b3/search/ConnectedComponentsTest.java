@@ -0,0 +1,116 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link ConnectedComponents} class.
+ *
+ * @author dxw405
+ */
+public class ConnectedComponentsTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that nodes are connected exactly when a search finds a path between them, as nodes and edges are removed
+	 * and added
+	 */
+	@Test
+	public void testMatchesSearch() {
+		Random random = new Random(4105);
+		Graph graph = new Graph(20, 15);
+		ConnectedComponents components = new ConnectedComponents(graph);
+
+		for (int edit = 0; edit < 300; edit++) {
+			Point point = new Point(random.nextInt(20), random.nextInt(15));
+			if (random.nextInt(3) > 0)
+				graph.removeNode(point);
+			else if (random.nextBoolean())
+				graph.addEdge(point, new Point(point.x, (point.y + 1) % 15), 1f);
+			else
+				graph.addNode(point);
+
+			if (edit % 10 != 0)
+				continue;
+
+			List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+			for (int query = 0; query < 20; query++) {
+				Node a = nodes.get(random.nextInt(nodes.size()));
+				Node b = nodes.get(random.nextInt(nodes.size()));
+				boolean found = service.findPath(graph, a, b, SearchAlgorithm.BREADTH_FIRST).isFound();
+				assertEquals(found, components.isConnected(a, b));
+				assertEquals(found, components.getComponent(a.getIndex()) == components.getComponent(b.getIndex()));
+			}
+
+			int reached = 0;
+			for (Node node : nodes)
+				if (service.findPath(graph, nodes.get(0), node, SearchAlgorithm.BREADTH_FIRST).isFound())
+					reached++;
+			assertEquals(reached, components.getComponentSize(nodes.get(0).getIndex()));
+		}
+
+		assertFalse(components.isConnected(new Point(0, 0), new Point(100, 100)));
+	}
+
+	/**
+	 * Tests that removing tiles in the open only searches around them, and that a wall splits the graph in two
+	 */
+	@Test
+	public void testIncremental() {
+		Graph graph = new Graph(100, 100);
+		ConnectedComponents components = new ConnectedComponents(graph);
+		assertEquals(1, components.getComponentCount());
+		assertEquals(10000, components.getVisitedCount());
+
+		Random random = new Random(4105);
+		for (int i = 0; i < 50; i++) {
+			int visited = components.getVisitedCount();
+			graph.removeNode(new Point(10 + random.nextInt(80), 10 + random.nextInt(80)));
+			assertTrue(components.isConnected(graph.indexOf(0, 0), graph.indexOf(99, 99)));
+			assertTrue(components.getVisitedCount() - visited < 200);
+		}
+
+		// a wall down the middle, leaving a strip of 20 on the left
+		for (int y = 0; y < 100; y++)
+			graph.removeNode(new Point(20, y));
+		int left = 0;
+		for (Node node : graph.getNodes().values())
+			if (node.getPoint().x < 20)
+				left++;
+		assertFalse(components.isConnected(new Point(0, 0), new Point(99, 99)));
+		assertEquals(left, components.getComponentSize(graph.indexOf(0, 50)));
+		assertEquals(2, components.getComponentCount());
+
+		// and a gap in it
+		int visited = components.getVisitedCount();
+		graph.addEdge(new Point(20, 50), new Point(19, 50), 1f);
+		graph.addEdge(new Point(20, 50), new Point(21, 50), 1f);
+		assertTrue(components.isConnected(new Point(0, 0), new Point(99, 99)));
+		assertEquals(1, components.getComponentCount());
+		assertTrue(components.getVisitedCount() - visited <= 2001);
+
+		// reachable goals only
+		graph.removeNode(new Point(20, 50));
+		Node from = graph.getNode(5, 5);
+		for (int i = 0; i < 20; i++) {
+			Node node = components.getRandomNode(from);
+			assertNotEquals(from, node);
+			assertTrue(node.getPoint().x < 20);
+		}
+
+		// edits it was not told about
+		components.dispose();
+		graph.clear();
+		graph.addNode(new Point(1, 1));
+		assertEquals(1, components.getComponentCount());
+		assertNull(components.getRandomNode(graph.getNode(1, 1)));
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.b3.search.SearchTestUtils.assertValidPath;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link DStarLite} class.
+ *
+ * @author dxw405
+ */
+public class DStarLiteTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that repaired paths are as cheap as new searches, as nodes and edges are removed, added and
+	 * changed, and the start is moved along the path
+	 */
+	@Test
+	public void testMatchesDijkstra() {
+		Random random = new Random(4105);
+		for (int map = 0; map < 10; map++) {
+			Graph graph = new Graph(20, 16);
+			List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+			Point start = nodes.get(random.nextInt(nodes.size())).getPoint();
+			Point goal = nodes.get(random.nextInt(nodes.size())).getPoint();
+			DStarLite planner = new DStarLite(graph, start, goal, SearchAlgorithm.A_STAR);
+
+			for (int edit = 0; edit < 40; edit++) {
+				PathResult optimal = service.findPath(graph, start, goal, SearchAlgorithm.DIJKSTRA);
+				PathResult planned = planner.plan();
+				assertFalse(planner.isStale());
+
+				assertEquals(optimal.isFound(), planned.isFound());
+				if (optimal.isFound()) {
+					assertEquals(optimal.getCost(), planned.getCost(), TestConstants.EQ_THRESHOLD);
+					assertValidPath(graph, planned, start, goal);
+
+					// walk a step
+					if (planned.getPath().size() > 2 && random.nextBoolean()) {
+						start = planned.getPath().get(1);
+						planner.moveStart(start);
+					}
+				}
+
+				long version = graph.getVersion();
+				edit(graph, random, start, goal);
+				assertEquals(graph.getVersion() != version, planner.isStale());
+			}
+
+			planner.dispose();
+		}
+	}
+
+	/**
+	 * Tests that an agent walking its path, with tiles ahead of it being blocked, repairs its path in far
+	 * fewer expansions than starting again each time
+	 */
+	@Test
+	public void testIncremental() {
+		Random random = new Random(4105);
+		Graph graph = new Graph(80, 80);
+		for (int i = 0; i < graph.getWidth() * graph.getHeight() / 4; i++)
+			graph.removeNode(new Point(4 + random.nextInt(72), random.nextInt(80)));
+
+		Point start = new Point(1, 40);
+		Point goal = new Point(78, 40);
+		DStarLite planner = new DStarLite(graph, start, goal, SearchAlgorithm.A_STAR);
+		List<Point> path = planner.plan().getPath();
+
+		int repairedTotal = 0;
+		int restartedTotal = 0;
+		for (int step = 0; step < 10 && path.size() > 10; step++) {
+			start = path.get(5);
+			planner.moveStart(start);
+			graph.removeNode(path.get(8));
+
+			PathResult repaired = planner.plan();
+			DStarLite fresh = new DStarLite(graph, start, goal, SearchAlgorithm.A_STAR);
+			PathResult restarted = fresh.plan();
+			fresh.dispose();
+
+			assertEquals(restarted.getCost(), repaired.getCost(), TestConstants.EQ_THRESHOLD);
+			repairedTotal += repaired.getExpanded();
+			restartedTotal += restarted.getExpanded();
+			path = repaired.getPath();
+		}
+
+		assertTrue(restartedTotal > 0);
+		assertTrue("Repaired in " + repairedTotal + ", restarted in " + restartedTotal,
+				repairedTotal * 4 <= restartedTotal);
+	}
+
+	/**
+	 * Tests that nothing is searched when nothing has changed, and that no path is found once the goal is cut off
+	 */
+	@Test
+	public void testUnreachable() {
+		Graph graph = new Graph(20, 20);
+		Point start = new Point(2, 10);
+		Point goal = new Point(17, 10);
+		DStarLite planner = new DStarLite(graph, start, goal, SearchAlgorithm.A_STAR);
+		assertEquals(15f, planner.plan().getCost(), 0f);
+
+		assertFalse(planner.isStale());
+		assertEquals(0, planner.plan().getExpanded());
+
+		// walled in
+		graph.snipEdges(15, 5, 8, 1);
+		graph.snipEdges(15, 5, 12, 1);
+		graph.snipEdges(15, 1, 8, 5);
+		assertTrue(planner.isStale());
+		assertFalse(planner.plan().isFound());
+
+		// and back again
+		graph.addEdge(new Point(15, 10), new Point(14, 10), 1f);
+		graph.addEdge(new Point(15, 10), new Point(16, 10), 1f);
+		assertEquals(15f, planner.plan().getCost(), 0f);
+
+		graph.removeNode(goal);
+		assertFalse(planner.plan().isFound());
+	}
+
+	private static void edit(Graph graph, Random random, Point start, Point goal) {
+		int x = random.nextInt(graph.getWidth());
+		int y = random.nextInt(graph.getHeight());
+		Point point = new Point(x, y);
+		Node node = graph.getNode(point);
+
+		switch (random.nextInt(3)) {
+			case 0:
+				if (node != null && !point.equals(start) && !point.equals(goal))
+					graph.removeNode(node);
+				else
+					graph.addEdge(new Point(x, y), new Point(x, (y + 1) % graph.getHeight()), 1f);
+				break;
+			case 1:
+				// restore a removed tile
+				graph.addEdge(point, new Point((x + 1) % graph.getWidth(), y), 1 + random.nextInt(3));
+				break;
+			default:
+				if (node != null && node.getNeighbourCount() > 0)
+					node.setEdgeCost(node.getNeighbour(0), random.nextBoolean() ? 10f : 1f);
+				else
+					graph.addEdge(point, new Point(x, (y + 1) % graph.getHeight()), 2f);
+				break;
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link FlowField} and {@link FlowFieldCache} classes.
+ *
+ * @author dxw405
+ */
+public class FlowFieldTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that following the field from any tile costs the same as the shortest path from it
+	 */
+	@Test
+	public void testMatchesDijkstra() {
+		Random random = new Random(4105);
+		Graph graph = new Graph(25, 20);
+		for (int i = 0; i < 100; i++)
+			graph.removeNode(new Point(random.nextInt(25), random.nextInt(20)));
+		for (int i = 0; i < 30; i++) {
+			Node node = graph.getNode(random.nextInt(25), random.nextInt(20));
+			if (node != null && node.getNeighbourCount() > 0)
+				node.setEdgeCost(node.getNeighbour(0), random.nextBoolean() ? 10f : 2.5f);
+		}
+
+		Node goal = graph.getRandomNode();
+		FlowField field = new FlowField(graph, goal.getIndex());
+
+		for (Node node : graph.getNodes().values()) {
+			PathResult optimal = service.findPath(graph, node, goal, SearchAlgorithm.DIJKSTRA);
+			assertEquals(optimal.isFound(), field.canReach(node.getPoint()));
+			if (!optimal.isFound())
+				continue;
+
+			assertEquals(optimal.getCost(), field.getDistance(node.getIndex()), TestConstants.EQ_THRESHOLD);
+
+			// walk it
+			float cost = 0;
+			Point tile = node.getPoint();
+			for (Point next = field.getNext(tile); next != null; tile = next, next = field.getNext(tile))
+				cost += graph.getNode(tile).getEdgeCost(graph.getNode(next));
+			assertEquals(goal.getPoint(), tile);
+			assertEquals(optimal.getCost(), cost, TestConstants.EQ_THRESHOLD);
+		}
+	}
+
+	/**
+	 * Tests that a goal is only searched once however many agents ask for it, until the graph is edited
+	 */
+	@Test
+	public void testCache() {
+		Graph graph = new Graph(20, 20);
+		FlowFieldCache cache = new FlowFieldCache(graph, 2);
+		Point goal = new Point(15, 15);
+
+		FlowField field = cache.getField(goal);
+		for (int agent = 0; agent < 50; agent++)
+			assertSame(field, cache.getField(goal));
+		assertEquals(1, cache.getMisses());
+		assertEquals(50, cache.getHits());
+		assertEquals(400, field.getReachedCount());
+
+		// walled in
+		graph.snipEdges(14, 3, 14, 3);
+		graph.addNode(goal);
+		FlowField walled = cache.getField(goal);
+		assertNotSame(field, walled);
+		assertFalse(walled.canReach(new Point(0, 0)));
+		assertEquals(1, walled.getReachedCount());
+
+		// least recently used
+		cache.getField(new Point(1, 1));
+		cache.getField(new Point(2, 2));
+		assertEquals(2, cache.size());
+		int misses = cache.getMisses();
+		cache.getField(goal);
+		assertEquals(misses + 1, cache.getMisses());
+
+		// no node
+		assertFalse(cache.getField(new Point(100, 100)).canReach(new Point(0, 0)));
+	}
+
+}
@@ -49,7 +49,7 @@ public class GraphBasic {
 		// Open file
 		BufferedReader br = new BufferedReader(new FileReader(filename));
 		
-		g.getNodes().clear();
+		g.clear();
 
 		// Loop through file lines
 		br.lines().forEach((line) -> {
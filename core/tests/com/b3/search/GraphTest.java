@@ -231,4 +231,181 @@ public class GraphTest {
 		}
 	}
 
+	/**
+	 * Tests the {@link Graph#generateEmptyGraph(int, int)} method,
+	 * which should connect every tile to its 4 neighbours.
+	 */
+	@Test
+	public void testGenerateEmptyGraph() {
+		Graph grid = new Graph(7, 5);
+		assertEquals(7 * 5, grid.getNodes().size());
+
+		for (Node node : grid.getNodes().values()) {
+			int x = node.getPoint().getX();
+			int y = node.getPoint().getY();
+			int expected = (x > 0 ? 1 : 0) + (x < 6 ? 1 : 0) + (y > 0 ? 1 : 0) + (y < 4 ? 1 : 0);
+			assertEquals("Wrong neighbours for " + node, expected, node.getNeighbours().size());
+		}
+
+		testHasEdgeIn(grid, 3, 2, 4, 2, true);
+		testHasEdgeIn(grid, 3, 2, 3, 1, true);
+		testHasEdgeIn(grid, 3, 2, 4, 3, false);
+	}
+
+	/**
+	 * Tests that {@link Graph#addNodesInSquare(int, int, int)} restores the nodes
+	 * and edges removed by {@link Graph#snipEdges(int, int, int, int)}.
+	 */
+	@Test
+	public void testSnipAndRestore() {
+		Graph grid = new Graph(10, 10);
+		int edges = countEdges(grid);
+
+		grid.snipEdges(2, 4, 3, 4);
+		assertFalse(grid.hasNode(new Point(2, 3)));
+		assertFalse(grid.hasNode(new Point(5, 6)));
+		assertTrue(grid.hasNode(new Point(6, 6)));
+		testHasEdgeIn(grid, 1, 3, 2, 3, false);
+
+		grid.addNodesInSquare(2, 3, 4);
+		assertEquals(10 * 10, grid.getNodes().size());
+		assertEquals(edges, countEdges(grid));
+		testHasEdgeIn(grid, 1, 3, 2, 3, true);
+		testHasEdgeIn(grid, 5, 6, 6, 6, true);
+	}
+
+	/**
+	 * Tests that {@link Graph#snipEdgesInBulk(int, int, int, int)} snips the same edges as
+	 * {@link Graph#snipEdges(int, int, int, int)}, and that listeners are only told once the outermost bulk edit ends
+	 */
+	@Test
+	public void testSnipEdgesInBulk() {
+		Graph expected = new Graph(10, 10);
+		expected.snipEdges(2, 4, 3, 4);
+		expected.snipEdges(7, 2, 0, 3);
+
+		Graph grid = new Graph(10, 10);
+		int[] calls = new int[2];
+		grid.addListener(new GraphListener() {
+			@Override
+			public void nodeRemoved(Node node) {
+				calls[0]++;
+			}
+
+			@Override
+			public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+				calls[0]++;
+			}
+
+			@Override
+			public void graphEdited() {
+				calls[1]++;
+			}
+		});
+
+		grid.beginBulkEdit();
+		grid.snipEdgesInBulk(2, 4, 3, 4);
+		grid.snipEdgesInBulk(7, 2, 0, 3);
+		assertEquals(0, calls[1]);
+		grid.endBulkEdit();
+		assertEquals(0, calls[0]);
+		assertEquals(1, calls[1]);
+
+		assertEquals(10 * 10 - 16 - 6, grid.getNodes().size());
+		assertEquals(expected.getNodes().keySet(), grid.getNodes().keySet());
+		for (Node node : expected.getNodes().values())
+			assertEquals(node.getEdges(), grid.getNode(node.getPoint()).getEdges());
+		assertFalse(grid.getNodes().containsKey(new Point(5, 6)));
+		assertEquals(countEdges(expected), countEdges(grid));
+	}
+
+	/**
+	 * Tests that {@link Graph#getNodes()} includes nodes added outside the graph's bounds, and stops including
+	 * removed ones
+	 */
+	@Test
+	public void testNodesView() {
+		Graph grid = new Graph(3, 3);
+		Node outside = grid.addNode(new Point(-1, 4));
+		assertEquals(10, grid.getNodes().size());
+		assertSame(outside, grid.getNodes().get(new Point(-1, 4)));
+
+		grid.removeNode(new Point(1, 1));
+		grid.removeNode(outside);
+		assertEquals(8, grid.getNodes().size());
+		assertEquals(8, grid.getNodes().values().size());
+		assertNull(grid.getNodes().get(new Point(-1, 4)));
+		for (Node node : grid.getNodes().values())
+			assertSame(node, grid.getNode(node.getPoint()));
+
+		grid.clear();
+		assertTrue(grid.getNodes().isEmpty());
+	}
+
+	/**
+	 * Tests that {@link Node#getNeighbour(int)} and {@link Node#getNeighbourCost(int)}
+	 * agree with {@link Node#getNeighbours()} and {@link Node#getEdgeCost(Node)}, in order.
+	 */
+	@Test
+	public void testNeighbourCursor() {
+		Node node = graph.getNode(new Point(0, 1));
+		node.setEdgeCost(graph.getNode(new Point(1, 1)), 3f);
+
+		int i = 0;
+		for (Node neighbour : node.getNeighbours()) {
+			assertEquals(neighbour, node.getNeighbour(i));
+			assertEquals(node.getEdgeCost(neighbour), node.getNeighbourCost(i), 0f);
+			if (i > 0)
+				assertTrue("Neighbours out of order", node.getNeighbour(i - 1).compareTo(neighbour) < 0);
+			i++;
+		}
+		assertEquals(node.getNeighbourCount(), i);
+		assertEquals(3f, graph.getNode(new Point(1, 1)).getEdgeCost(node), 0f);
+
+		graph.removeNode(new Point(0, 0));
+		assertEquals(i - 1, node.getNeighbourCount());
+		assertFalse(node.getNeighbours().contains(new Node(new Point(0, 0))));
+	}
+
+	/**
+	 * Tests that {@link Graph#getMaxIntegralCost()} follows edits, and that snapshots agree
+	 */
+	@Test
+	public void testMaxIntegralCost() {
+		Graph graph = new Graph(5, 5);
+		assertEquals(1, graph.getMaxIntegralCost());
+
+		Node node = graph.getNode(2, 2);
+		node.setEdgeCost(node.getNeighbour(0), 10f);
+		assertEquals(10, graph.getMaxIntegralCost());
+		assertEquals(10, graph.compact().getMaxIntegralCost());
+
+		node.setEdgeCost(node.getNeighbour(1), 1.5f);
+		assertEquals(-1, graph.getMaxIntegralCost());
+		assertEquals(-1, graph.compact().getMaxIntegralCost());
+
+		graph.removeNode(node);
+		assertEquals(1, graph.getMaxIntegralCost());
+
+		// raised and lowered again, with another edge left at the maximum
+		Node other = graph.getNode(0, 0);
+		other.setEdgeCost(other.getNeighbour(0), 7f);
+		other.setEdgeCost(other.getNeighbour(1), 7f);
+		assertEquals(7, graph.getMaxIntegralCost());
+		other.setEdgeCost(other.getNeighbour(0), 2f);
+		assertEquals(7, graph.getMaxIntegralCost());
+		other.setEdgeCost(other.getNeighbour(1), 3f);
+		assertEquals(3, graph.getMaxIntegralCost());
+		assertEquals(graph.compact().getMaxIntegralCost(), graph.getMaxIntegralCost());
+	}
+
+	private void testHasEdgeIn(Graph graph, int x1, int y1, int x2, int y2, boolean found) {
+		assertEquals(found, graph.hasEdge(new Point(x1, y1), new Point(x2, y2)));
+		assertEquals(found, graph.hasEdge(new Point(x2, y2), new Point(x1, y1)));
+	}
+
+	private int countEdges(Graph graph) {
+		return graph.getNodes().values().stream().mapToInt(n -> n.getNeighbours().size()).sum();
+	}
+
 }
@@ -0,0 +1,126 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.b3.search.SearchTestUtils.assertValidPath;
+import static com.b3.search.SearchTestUtils.randomGraph;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link HierarchicalGraph} class.
+ *
+ * @author dxw405
+ */
+public class HierarchicalGraphTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that paths are found whenever one exists, and are close to the cost of the optimal path
+	 */
+	@Test
+	public void testNearOptimal() {
+		Random random = new Random(4105);
+		float optimalTotal = 0;
+		float hierarchicalTotal = 0;
+
+		for (int map = 0; map < 10; map++) {
+			Graph graph = randomGraph(random, 40, 30, 0.2, 0, 6, 5);
+			HierarchicalGraph hierarchy = new HierarchicalGraph(graph, 8);
+			List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+
+			for (int query = 0; query < 30; query++) {
+				Point start = nodes.get(random.nextInt(nodes.size())).getPoint();
+				Point goal = nodes.get(random.nextInt(nodes.size())).getPoint();
+
+				PathResult optimal = service.findPath(graph, start, goal, SearchAlgorithm.DIJKSTRA);
+				PathResult result = hierarchy.findPath(start, goal);
+
+				assertEquals(optimal.isFound(), result.isFound());
+				if (optimal.isFound()) {
+					assertValidPath(graph, result, start, goal);
+					assertTrue(result.getCost() >= optimal.getCost() - TestConstants.EQ_THRESHOLD);
+					optimalTotal += optimal.getCost();
+					hierarchicalTotal += result.getCost();
+				}
+			}
+		}
+
+		assertTrue("Paths are " + hierarchicalTotal / optimalTotal + " times longer",
+				hierarchicalTotal <= optimalTotal * 1.1f);
+	}
+
+	/**
+	 * Tests that long paths on an open map expand far fewer nodes than A*
+	 */
+	@Test
+	public void testOpenMap() {
+		Graph graph = new Graph(100, 100);
+		HierarchicalGraph hierarchy = new HierarchicalGraph(graph, 10);
+		Point start = new Point(2, 3);
+		Point goal = new Point(97, 91);
+
+		PathResult aStar = service.findPath(graph, start, goal, SearchAlgorithm.A_STAR);
+		PathResult result = hierarchy.findPath(start, goal);
+
+		assertEquals(aStar.getCost(), result.getCost(), TestConstants.EQ_THRESHOLD);
+		assertTrue("Expanded " + result.getExpanded() + ", A* " + aStar.getExpanded(),
+				result.getExpanded() * 5 <= aStar.getExpanded());
+	}
+
+	/**
+	 * Tests that only the clusters around an edit are rebuilt, and that the edit is seen by the next query
+	 */
+	@Test
+	public void testEdits() {
+		Graph graph = new Graph(50, 50);
+		HierarchicalGraph hierarchy = new HierarchicalGraph(graph, 10);
+		// along the edge of the clusters, where the transitions are
+		Point start = new Point(0, 20);
+		Point goal = new Point(49, 20);
+
+		assertEquals(49f, hierarchy.findPath(start, goal).getCost(), 0f);
+		assertEquals(25, hierarchy.getClusterRebuilds());
+
+		// a wall across the middle cluster
+		int rebuilds = hierarchy.getClusterRebuilds();
+		for (int y = 20; y < 29; y++)
+			graph.removeNode(new Point(25, y));
+
+		// the cluster, and the one below across the border that the wall touches
+		PathResult detour = hierarchy.findPath(start, goal);
+		assertEquals(2, hierarchy.getClusterRebuilds() - rebuilds);
+		assertValidPath(graph, detour, start, goal);
+		assertTrue(detour.getCost() > 49f);
+
+		// unedited graph
+		rebuilds = hierarchy.getClusterRebuilds();
+		hierarchy.findPath(goal, start);
+		assertEquals(rebuilds, hierarchy.getClusterRebuilds());
+
+		// on the path
+		Point onPath = detour.getPath().get(detour.getPath().size() / 2);
+		graph.removeNode(onPath);
+		PathResult removed = hierarchy.findPath(start, goal);
+		assertValidPath(graph, removed, start, goal);
+		assertFalse(removed.getPath().contains(onPath));
+
+		// more expensive
+		graph.getNode(0, 20).setEdgeCost(graph.getNode(1, 20), 10f);
+		PathResult expensive = hierarchy.findPath(start, goal);
+		assertValidPath(graph, expensive, start, goal);
+		assertNotEquals(new Point(1, 20), expensive.getPath().get(1));
+
+		// edits it was not told about
+		hierarchy.dispose();
+		graph.clear();
+		assertFalse(hierarchy.findPath(start, goal).isFound());
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.b3.search.SearchTestUtils.assertValidPath;
+import static com.b3.search.SearchTestUtils.randomGraph;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link JumpPointSearch} class.
+ *
+ * @author dxw405
+ */
+public class JumpPointSearchTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that far fewer nodes are expanded than with A* on an open map
+	 */
+	@Test
+	public void testOpenMap() {
+		Graph graph = new Graph(40, 40);
+		Point start = new Point(2, 3);
+		Point goal = new Point(37, 31);
+
+		PathResult aStar = service.findPath(graph, start, goal, SearchAlgorithm.A_STAR);
+		PathResult jps = service.findPath(graph, start, goal, SearchAlgorithm.JUMP_POINT);
+
+		assertEquals(aStar.getCost(), jps.getCost(), TestConstants.EQ_THRESHOLD);
+		assertValidPath(graph, jps, start, goal);
+		assertTrue("JPS expanded " + jps.getExpanded() + ", A* " + aStar.getExpanded(),
+				jps.getExpanded() * 10 <= aStar.getExpanded());
+	}
+
+	/**
+	 * Tests that paths are as cheap as Dijkstra's on random maps with walls, missing edges and expensive tiles
+	 */
+	@Test
+	public void testOptimal() {
+		Random random = new Random(4105);
+		for (int map = 0; map < 30; map++) {
+			Graph graph = randomGraph(random, 16, 12, 1 / 6.0, 0.1, 3, 4);
+			List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+
+			for (int query = 0; query < 30; query++) {
+				Node start = nodes.get(random.nextInt(nodes.size()));
+				Node goal = nodes.get(random.nextInt(nodes.size()));
+
+				PathResult dijkstra = service.findPath(graph, start, goal, SearchAlgorithm.DIJKSTRA);
+				PathResult jps = service.findPath(graph, start, goal, SearchAlgorithm.JUMP_POINT);
+
+				assertEquals(dijkstra.isFound(), jps.isFound());
+				if (dijkstra.isFound()) {
+					assertEquals(dijkstra.getCost(), jps.getCost(), TestConstants.EQ_THRESHOLD);
+					assertValidPath(graph, jps, start.getPoint(), goal.getPoint());
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.SearchParameters;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.b3.search.SearchTestUtils.randomGraph;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link Landmarks} class.
+ *
+ * @author dxw405
+ */
+public class LandmarksTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that estimates never exceed the cost of the shortest path, so A* still finds it
+	 */
+	@Test
+	public void testAdmissible() {
+		Random random = new Random(4105);
+		for (int map = 0; map < 5; map++) {
+			Graph graph = randomGraph(random, 30, 25, 0.25, 0, 6, 1);
+			Landmarks landmarks = new Landmarks(graph, 6);
+			SearchParameters parameters = new SearchParameters(SearchAlgorithm.A_STAR);
+			parameters.setLandmarks(landmarks);
+			List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+
+			for (int query = 0; query < 40; query++) {
+				Node start = nodes.get(random.nextInt(nodes.size()));
+				Node goal = nodes.get(random.nextInt(nodes.size()));
+
+				PathResult optimal = service.findPath(graph, start, goal, SearchAlgorithm.DIJKSTRA);
+				PathResult result = service.findPath(graph, start.getPoint(), goal.getPoint(), parameters);
+
+				assertEquals(optimal.isFound(), result.isFound());
+				if (optimal.isFound()) {
+					assertTrue(landmarks.estimate(start, goal) <= optimal.getCost() + TestConstants.EQ_THRESHOLD);
+					assertEquals(optimal.getCost(), result.getCost(), TestConstants.EQ_THRESHOLD);
+				}
+			}
+
+			landmarks.dispose();
+		}
+	}
+
+	/**
+	 * Tests that a query that must go around a long wall expands far fewer nodes than with the Euclidean distance
+	 */
+	@Test
+	public void testDetour() {
+		Graph graph = new Graph(60, 60);
+		for (int y = 0; y < 55; y++)
+			graph.removeNode(new Point(30, y));
+
+		Point start = new Point(25, 5);
+		Point goal = new Point(35, 5);
+		SearchParameters parameters = new SearchParameters(SearchAlgorithm.A_STAR);
+		parameters.setLandmarks(new Landmarks(graph, 8));
+
+		PathResult euclidean = service.findPath(graph, start, goal, SearchAlgorithm.A_STAR);
+		PathResult result = service.findPath(graph, start, goal, parameters);
+
+		assertEquals(euclidean.getCost(), result.getCost(), TestConstants.EQ_THRESHOLD);
+		assertTrue("Expanded " + result.getExpanded() + ", Euclidean " + euclidean.getExpanded(),
+				result.getExpanded() * 3 <= euclidean.getExpanded());
+	}
+
+	/**
+	 * Tests that distances stay correct as the graph is edited, without measuring everything again
+	 */
+	@Test
+	public void testEdits() {
+		Random random = new Random(4105);
+		Graph graph = randomGraph(random, 40, 40, 0.25, 0, 6, 1);
+		Landmarks landmarks = new Landmarks(graph, 4);
+		landmarks.update();
+		int rebuild = landmarks.getSettledCount();
+
+		for (int edit = 0; edit < 30; edit++) {
+			Point point = new Point(random.nextInt(40), random.nextInt(40));
+			Node node = graph.getNode(point);
+			if (node == null)
+				graph.addEdge(point, new Point(point.x, (point.y + 1) % 40), 1f);
+			else if (random.nextBoolean())
+				graph.removeNode(node);
+			else if (node.getNeighbourCount() > 0)
+				node.setEdgeCost(node.getNeighbour(0), random.nextBoolean() ? 10f : 1f);
+
+			int settled = landmarks.getSettledCount();
+			assertDistances(graph, landmarks);
+			assertTrue(landmarks.getSettledCount() - settled < rebuild);
+		}
+
+		// a landmark itself
+		Point landmark = new Point(graph.getX(landmarks.getLandmark(0)), graph.getY(landmarks.getLandmark(0)));
+		graph.removeNode(landmark);
+		assertTrue(graph.hasNode(landmarks.getLandmark(0)));
+		assertNotEquals(graph.indexOf(landmark), landmarks.getLandmark(0));
+		assertDistances(graph, landmarks);
+	}
+
+	private void assertDistances(Graph graph, Landmarks landmarks) {
+		for (int l = 0; l < landmarks.getLandmarkCount(); l++) {
+			int landmark = landmarks.getLandmark(l);
+			for (int node = 0; node < graph.getIndexCapacity(); node++) {
+				if (!graph.hasNode(node))
+					continue;
+
+				PathResult path = service.findPath(graph, landmark, node, SearchAlgorithm.DIJKSTRA);
+				float expected = path.isFound() ? path.getCost() : Float.POSITIVE_INFINITY;
+				assertEquals(expected, landmarks.getDistance(l, node), TestConstants.EQ_THRESHOLD);
+			}
+		}
+	}
+
+}
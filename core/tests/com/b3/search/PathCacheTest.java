@@ -0,0 +1,97 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link PathCache} class.
+ *
+ * @author dxw405
+ */
+public class PathCacheTest {
+
+	private Graph graph;
+	private PathCache cache;
+
+	@Before
+	public void setUp() {
+		graph = new Graph(20, 20);
+		graph.generateEmptyGraph(20, 20);
+		cache = new PathCache(graph, 8);
+	}
+
+	/**
+	 * Tests that repeated queries are answered from the cache
+	 */
+	@Test
+	public void testHit() {
+		PathResult first = cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		PathResult second = cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		assertSame(first, second);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		// a different algorithm is a different entry
+		cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.DIJKSTRA);
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.size());
+	}
+
+	/**
+	 * Tests that only the paths that an edit could affect are evicted
+	 */
+	@Test
+	public void testEviction() {
+		PathResult result = cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		assertEquals(3f, result.getCost(), 0f);
+
+		// far from the path and the explored area
+		graph.removeNode(new Point(15, 15));
+		graph.getNode(10, 10).setEdgeCost(graph.getNode(10, 11), 0.5f);
+		assertSame(result, cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR));
+		assertEquals(0, cache.getEvictions());
+
+		// more expensive, but not on the path
+		graph.getNode(0, 0).setEdgeCost(graph.getNode(0, 1), 5f);
+		assertSame(result, cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR));
+
+		// more expensive and on the path
+		graph.getNode(1, 0).setEdgeCost(graph.getNode(2, 0), 5f);
+		PathResult detour = cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		assertNotSame(result, detour);
+		assertEquals(1, cache.getEvictions());
+		assertEquals(5f, detour.getCost(), 0f);
+
+		// cheaper within the explored area
+		graph.getNode(1, 0).setEdgeCost(graph.getNode(2, 0), 1f);
+		PathResult restored = cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		assertEquals(2, cache.getEvictions());
+		assertEquals(3f, restored.getCost(), 0f);
+
+		// on the path
+		graph.removeNode(new Point(2, 0));
+		PathResult removed = cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		assertEquals(3, cache.getEvictions());
+		assertFalse(removed.getPath().contains(new Point(2, 0)));
+	}
+
+	/**
+	 * Tests that the cache is cleared after edits it was not told about, and is bounded in size
+	 */
+	@Test
+	public void testClearAndCapacity() {
+		cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR);
+		graph.clear();
+		assertFalse(cache.findPath(new Point(0, 0), new Point(3, 0), SearchAlgorithm.A_STAR).isFound());
+		assertEquals(0, cache.size());
+
+		graph.generateEmptyGraph(20, 20);
+		for (int x = 0; x < 20; x++)
+			cache.findPath(new Point(0, 0), new Point(x, 1), SearchAlgorithm.BREADTH_FIRST);
+		assertEquals(8, cache.size());
+	}
+
+}
@@ -0,0 +1,195 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+import com.b3.search.util.SearchAlgorithm;
+import com.b3.search.util.SearchParameters;
+import com.b3.util.Config;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link PathService} and {@link PathFinder} classes.
+ *
+ * @author dxw405
+ */
+public class PathServiceTest {
+
+	private PathService service;
+
+	@Before
+	public void setUp() {
+		Config.loadConfig(TestConstants.REFERENCE_CONFIG);
+		service = new PathService();
+	}
+
+	/**
+	 * Tests that the same paths are found as in {@link SearchTickerTest#testTick()},
+	 * in both the live graph and a {@link CompactGraph} snapshot of it.
+	 */
+	@Test
+	public void testFindPath() throws Exception {
+		WorldGraph graph = WorldGraphBasic.getRealWorld("aStar1");
+		List<Point> expected = Arrays.asList(new Point(0, 11), new Point(0, 10), new Point(0, 9), new Point(0, 8),
+				new Point(0, 7), new Point(0, 6), new Point(0, 5), new Point(0, 4), new Point(0, 3), new Point(0, 2),
+				new Point(1, 2), new Point(2, 2), new Point(3, 2), new Point(4, 2), new Point(5, 2), new Point(6, 2),
+				new Point(7, 2), new Point(8, 2), new Point(8, 1), new Point(8, 0), new Point(7, 0), new Point(6, 0),
+				new Point(5, 0), new Point(4, 0), new Point(3, 0), new Point(2, 0), new Point(1, 0), new Point(0, 0));
+
+		for (SearchGraph searchGraph : new SearchGraph[]{graph, graph.compact()}) {
+			for (SearchAlgorithm algorithm : new SearchAlgorithm[]{SearchAlgorithm.DIJKSTRA, SearchAlgorithm.A_STAR}) {
+				PathResult result = service.findPath(searchGraph, new Point(0, 11), new Point(0, 0), algorithm);
+				assertTrue(result.isFound());
+				assertEquals(expected, result.getPath());
+
+				float cost = 0;
+				List<Node> nodes = result.getNodes(graph);
+				for (int i = 0; i < nodes.size() - 1; i++)
+					cost += nodes.get(i).getEdgeCost(nodes.get(i + 1));
+				assertEquals(cost, result.getCost(), TestConstants.EQ_THRESHOLD);
+			}
+
+			PathResult bfs = service.findPath(searchGraph, new Point(0, 11), new Point(0, 0), SearchAlgorithm.BREADTH_FIRST);
+			assertEquals(12, bfs.getPath().size());
+		}
+	}
+
+	/**
+	 * Tests that no path is found between unconnected or missing nodes, and that the start alone is
+	 * the path to itself.
+	 */
+	@Test
+	public void testNoPath() throws Exception {
+		Graph graph = GraphBasic.getBasicGraph();
+
+		for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+			PathResult result = service.findPath(graph, new Point(0, 0), new Point(5, 0), algorithm);
+			assertFalse(result.isFound());
+			assertTrue(result.getPath().isEmpty());
+			assertEquals(Float.POSITIVE_INFINITY, result.getCost(), 0f);
+
+			assertFalse(service.findPath(graph, new Point(0, 0), new Point(-4, 1000), algorithm).isFound());
+
+			result = service.findPath(graph, new Point(0, 0), new Point(0, 0), algorithm);
+			assertEquals(Arrays.asList(new Point(0, 0)), result.getPath());
+			assertEquals(0f, result.getCost(), 0f);
+		}
+	}
+
+	/**
+	 * Tests that bidirectional searches find paths as cheap as Dijkstra's, with fewer expansions than
+	 * their one directional versions on a cluttered map
+	 */
+	@Test
+	public void testBidirectional() {
+		Random random = new Random(4105);
+		Graph graph = new Graph(60, 60);
+		for (int i = 0; i < graph.getWidth() * graph.getHeight() / 4; i++)
+			graph.removeNode(new Point(random.nextInt(60), random.nextInt(60)));
+
+		// roads and grass
+		for (int i = 0; i < 40; i++) {
+			Node node = graph.getNode(random.nextInt(60), random.nextInt(60));
+			if (node != null && node.getNeighbourCount() > 0)
+				node.setEdgeCost(node.getNeighbour(0), random.nextBoolean() ? 10f : 2f);
+		}
+
+		List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+		int[] expanded = new int[SearchAlgorithm.values().length];
+		for (int query = 0; query < 100; query++) {
+			Point start = nodes.get(random.nextInt(nodes.size())).getPoint();
+			Point goal = nodes.get(random.nextInt(nodes.size())).getPoint();
+			PathResult optimal = service.findPath(graph, start, goal, SearchAlgorithm.DIJKSTRA);
+
+			for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+				PathResult result = service.findPath(graph, start, goal, algorithm);
+				expanded[algorithm.ordinal()] += result.getExpanded();
+				if (!algorithm.isBidirectional())
+					continue;
+
+				assertEquals(optimal.isFound(), result.isFound());
+				if (!optimal.isFound())
+					continue;
+
+				List<Node> path = result.getNodes(graph);
+				assertEquals(start, path.get(0).getPoint());
+				assertEquals(goal, path.get(path.size() - 1).getPoint());
+
+				float cost = 0;
+				for (int i = 0; i < path.size() - 1; i++)
+					cost += path.get(i).getEdgeCost(path.get(i + 1));
+				assertEquals(cost, result.getCost(), TestConstants.EQ_THRESHOLD);
+				assertEquals(optimal.getCost(), result.getCost(), TestConstants.EQ_THRESHOLD);
+			}
+		}
+
+		assertTrue(expanded[SearchAlgorithm.BIDIRECTIONAL_DIJKSTRA.ordinal()] < expanded[SearchAlgorithm.DIJKSTRA.ordinal()]);
+		assertTrue(expanded[SearchAlgorithm.BIDIRECTIONAL_A_STAR.ordinal()] < expanded[SearchAlgorithm.A_STAR.ordinal()]);
+	}
+
+	/**
+	 * Tests that weighted, greedy and anytime searches expand fewer nodes than A*, and that the paths they find cost
+	 * no more than their reported bounds allow
+	 */
+	@Test
+	public void testSuboptimal() {
+		Random random = new Random(4105);
+		Graph graph = new Graph(60, 60);
+		for (int i = 0; i < graph.getWidth() * graph.getHeight() / 4; i++)
+			graph.removeNode(new Point(random.nextInt(60), random.nextInt(60)));
+
+		SearchParameters weighted = new SearchParameters(SearchAlgorithm.WEIGHTED_A_STAR);
+		SearchParameters anytime = new SearchParameters(SearchAlgorithm.ANYTIME_A_STAR);
+		SearchParameters firstPass = new SearchParameters(SearchAlgorithm.ANYTIME_A_STAR);
+		weighted.setWeight(3f);
+		anytime.setWeight(3f);
+		firstPass.setWeight(3f);
+		firstPass.setTimeBudget(0);
+
+		List<Node> nodes = new ArrayList<>(graph.getNodes().values());
+		int[] expanded = new int[SearchAlgorithm.values().length];
+		int firstPassExpanded = 0;
+		for (int query = 0; query < 100; query++) {
+			Point start = nodes.get(random.nextInt(nodes.size())).getPoint();
+			Point goal = nodes.get(random.nextInt(nodes.size())).getPoint();
+			PathResult optimal = service.findPath(graph, start, goal, SearchAlgorithm.A_STAR);
+			expanded[SearchAlgorithm.A_STAR.ordinal()] += optimal.getExpanded();
+
+			PathResult[] results = {
+					service.findPath(graph, start, goal, weighted),
+					service.findPath(graph, start, goal, SearchAlgorithm.GREEDY_BEST_FIRST),
+					service.findPath(graph, start, goal, anytime),
+					service.findPath(graph, start, goal, firstPass)
+			};
+			for (PathResult result : results) {
+				assertEquals(optimal.isFound(), result.isFound());
+				if (optimal.isFound())
+					assertTrue(result.getCost() <= optimal.getCost() * result.getSuboptimalityBound() + TestConstants.EQ_THRESHOLD);
+			}
+
+			expanded[SearchAlgorithm.WEIGHTED_A_STAR.ordinal()] += results[0].getExpanded();
+			expanded[SearchAlgorithm.GREEDY_BEST_FIRST.ordinal()] += results[1].getExpanded();
+			firstPassExpanded += results[3].getExpanded();
+
+			assertEquals(3f, results[0].getSuboptimalityBound(), 0f);
+			assertEquals(Float.POSITIVE_INFINITY, results[1].getSuboptimalityBound(), 0f);
+			assertEquals(1f, optimal.getSuboptimalityBound(), 0f);
+			if (optimal.isFound()) {
+				assertEquals(optimal.getCost(), results[2].getCost(), TestConstants.EQ_THRESHOLD);
+				assertEquals(1f, results[2].getSuboptimalityBound(), 0f);
+				assertTrue(results[3].getSuboptimalityBound() <= 3f);
+			}
+		}
+
+		assertTrue(expanded[SearchAlgorithm.WEIGHTED_A_STAR.ordinal()] < expanded[SearchAlgorithm.A_STAR.ordinal()]);
+		assertTrue(expanded[SearchAlgorithm.GREEDY_BEST_FIRST.ordinal()] < expanded[SearchAlgorithm.WEIGHTED_A_STAR.ordinal()]);
+		assertTrue(firstPassExpanded < expanded[SearchAlgorithm.A_STAR.ordinal()]);
+	}
+
+}
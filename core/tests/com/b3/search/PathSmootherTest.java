@@ -0,0 +1,111 @@
+package com.b3.search;
+
+import com.b3.search.util.SearchAlgorithm;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link PathSmoother} class.
+ *
+ * @author dxw405
+ */
+public class PathSmootherTest {
+
+	private final PathService service = new PathService();
+
+	/**
+	 * Tests that a path across open ground becomes a single straight line
+	 */
+	@Test
+	public void testOpen() {
+		Graph graph = new Graph(20, 20);
+		List<Point> path = service.findPath(graph, new Point(0, 0), new Point(15, 7), SearchAlgorithm.A_STAR).getPath();
+		assertEquals(23, path.size());
+		assertEquals(Arrays.asList(new Point(0, 0), new Point(15, 7)), PathSmoother.smooth(graph, path));
+
+		// nothing to smooth
+		assertEquals(Arrays.asList(new Point(3, 3)), PathSmoother.smooth(graph, Arrays.asList(new Point(3, 3))));
+	}
+
+	/**
+	 * Tests that a path around a wall turns at its end, and that every line on it has line of sight
+	 */
+	@Test
+	public void testWall() {
+		Graph graph = new Graph(20, 20);
+		for (int y = 0; y < 15; y++)
+			graph.removeNode(new Point(10, y));
+
+		List<Point> path = service.findPath(graph, new Point(0, 0), new Point(19, 0), SearchAlgorithm.A_STAR).getPath();
+		List<Point> waypoints = PathSmoother.smooth(graph, path);
+		assertEquals(new Point(0, 0), waypoints.get(0));
+		assertEquals(new Point(19, 0), waypoints.get(waypoints.size() - 1));
+		assertTrue(waypoints.size() <= 4);
+		assertTrue(waypoints.size() < path.size() / 8);
+		assertTrue(waypoints.stream().anyMatch(p -> p.y == 15));
+
+		for (int i = 1; i < waypoints.size(); i++)
+			assertTrue(PathSmoother.hasLineOfSight(graph, waypoints.get(i - 1), waypoints.get(i)));
+		assertFalse(PathSmoother.hasLineOfSight(graph, new Point(0, 0), new Point(19, 0)));
+
+		// cutting the corner of the wall diagonally
+		assertFalse(PathSmoother.hasLineOfSight(graph, new Point(9, 13), new Point(11, 15)));
+		assertTrue(PathSmoother.hasLineOfSight(graph, new Point(9, 15), new Point(11, 17)));
+	}
+
+	/**
+	 * Tests that a line is not taken across tiles that the path went around for being expensive
+	 */
+	@Test
+	public void testExpensive() {
+		Graph graph = new Graph(20, 20);
+		for (int x = 5; x < 15; x++) {
+			for (int y = 0; y < 15; y++) {
+				Node node = graph.getNode(x, y);
+				for (int i = 0; i < node.getNeighbourCount(); i++)
+					node.setEdgeCost(node.getNeighbour(i), 10f);
+			}
+		}
+
+		Point start = new Point(0, 0);
+		Point goal = new Point(19, 0);
+		List<Point> path = service.findPath(graph, start, goal, SearchAlgorithm.DIJKSTRA).getPath();
+		List<Point> waypoints = PathSmoother.smooth(graph, path);
+
+		assertTrue(PathSmoother.hasLineOfSight(graph, start, goal));
+		assertTrue(waypoints.size() > 2);
+		assertTrue(waypoints.stream().anyMatch(p -> p.y == 15));
+	}
+
+	/**
+	 * Tests that paths on a real map are reduced to a fraction of their tiles
+	 */
+	@Test
+	public void testRealWorld() throws Exception {
+		WorldGraph graph = WorldGraphBasic.getRealWorld("aStar1");
+
+		int tiles = 0;
+		int waypoints = 0;
+		for (int i = 0; i < 50; i++) {
+			List<Point> path = service.findPath(graph, graph.getRandomNode().getPoint(), graph.getRandomNode().getPoint(),
+					SearchAlgorithm.A_STAR).getPath();
+			List<Point> smoothed = PathSmoother.smooth(graph, path);
+			tiles += path.size();
+			waypoints += smoothed.size();
+
+			for (int j = 1; j < smoothed.size(); j++)
+				assertTrue(PathSmoother.hasLineOfSight(graph, smoothed.get(j - 1), smoothed.get(j)));
+			if (!path.isEmpty()) {
+				assertEquals(path.get(0), smoothed.get(0));
+				assertEquals(path.get(path.size() - 1), smoothed.get(smoothed.size() - 1));
+			}
+		}
+
+		assertTrue(tiles + " tiles, " + waypoints + " waypoints", waypoints * 3 < tiles);
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.b3.search;
+
+import com.b3.TestConstants;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Helpers shared by the tests of the search algorithms, to create random {@link Graph Graphs} and check the paths
+ * found through them.
+ *
+ * @author dxw405
+ */
+public class SearchTestUtils {
+
+	private SearchTestUtils() {
+	}
+
+	/**
+	 * Creates a graph with random tiles and edges removed, and random horizontal patches of road and grass
+	 *
+	 * @param random       The random number generator to use
+	 * @param width        The width of the graph
+	 * @param height       The height of the graph
+	 * @param removedNodes The share of the tiles to pick a random tile to remove for
+	 * @param removedEdges The share of the tiles to pick a random horizontal edge to remove for
+	 * @param patches      The number of patches
+	 * @param patchLength  The length of each patch, in tiles
+	 * @return The new graph
+	 */
+	public static Graph randomGraph(Random random, int width, int height, double removedNodes, double removedEdges,
+									int patches, int patchLength) {
+		Graph graph = new Graph(width, height);
+
+		for (int i = 0; i < (int) (width * height * removedNodes); i++)
+			graph.removeNode(new Point(random.nextInt(width), random.nextInt(height)));
+
+		for (int i = 0; i < (int) (width * height * removedEdges); i++) {
+			Point p = new Point(random.nextInt(width - 1), random.nextInt(height));
+			graph.removeEdge(p, new Point(p.x + 1, p.y));
+		}
+
+		for (int i = 0; i < patches; i++) {
+			int x = random.nextInt(width);
+			int y = random.nextInt(height);
+			float cost = random.nextBoolean() ? 10 : 2;
+			for (int dx = 0; dx < patchLength; dx++) {
+				Node node = graph.getNode(x + dx, y);
+				if (node == null)
+					continue;
+				for (int n = 0; n < node.getNeighbourCount(); n++)
+					node.setEdgeCost(node.getNeighbour(n), cost);
+			}
+		}
+
+		return graph;
+	}
+
+	/**
+	 * Asserts that a path found goes from the start to the goal along edges of the graph, and costs what it says
+	 *
+	 * @param graph  The graph searched
+	 * @param result The path found
+	 * @param start  The start of the search
+	 * @param goal   The goal of the search
+	 */
+	public static void assertValidPath(Graph graph, PathResult result, Point start, Point goal) {
+		List<Node> nodes = result.getNodes(graph);
+		assertEquals(start, nodes.get(0).getPoint());
+		assertEquals(goal, nodes.get(nodes.size() - 1).getPoint());
+
+		float cost = 0;
+		for (int i = 0; i < nodes.size() - 1; i++) {
+			assertTrue("Path is not connected", nodes.get(i).hasNeighbour(nodes.get(i + 1)));
+			cost += nodes.get(i).getEdgeCost(nodes.get(i + 1));
+		}
+		assertEquals(cost, result.getCost(), TestConstants.EQ_THRESHOLD);
+	}
+
+}
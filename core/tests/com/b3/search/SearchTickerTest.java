@@ -12,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -147,6 +148,140 @@ public class SearchTickerTest {
 		}
 	}
 
+	/**
+	 * Tests that the stored cost so far of the goal,
+	 * {@link SearchTicker#getG(Node)}, matches the cost of the path found.
+	 */
+	@Test
+	public void testCostSoFar() throws Exception {
+		setGraph(WorldGraphBasic.getRealWorld("aStar1"));
+		Node start = graph.getNode(new Point(0, 11));
+		Node end = graph.getNode(new Point(0, 0));
+
+		for (SearchAlgorithm algorithm : new SearchAlgorithm[]{DIJ, AS}) {
+			searchTicker.reset(algorithm, start, end);
+			assertEquals(0f, searchTicker.getG(start), TestConstants.EQ_THRESHOLD);
+
+			while (!searchTicker.isPathComplete())
+				searchTicker.tick();
+
+			List<Node> path = searchTicker.getPath();
+			float cost = 0;
+			for (int i = 0; i < path.size() - 1; i++)
+				cost += path.get(i).getEdgeCost(path.get(i + 1));
+
+			assertEquals("Wrong cost so far for " + algorithm, cost, searchTicker.getG(end), TestConstants.EQ_THRESHOLD);
+		}
+	}
+
+	/**
+	 * Tests that the visited set and frontier recognise copies of nodes,
+	 * and are emptied when the {@link SearchTicker} is reused for another search.
+	 */
+	@Test
+	public void testReuse() throws Exception {
+		setGraph(WorldGraphBasic.getRealWorld("aStar1"));
+		Node start = graph.getNode(new Point(0, 11));
+		Node end = graph.getNode(new Point(0, 0));
+
+		searchTicker.reset(DIJ, start, end);
+		while (!searchTicker.isPathComplete())
+			searchTicker.tick();
+		List<Node> first = new ArrayList<>(searchTicker.getPath());
+
+		searchTicker.reset(BFS, end, start);
+		assertTrue(searchTicker.getVisited().isEmpty());
+		assertTrue(searchTicker.getFrontier().contains(new Node(new Point(0, 0))));
+		assertFalse(searchTicker.getFrontier().contains(new Node(new Point(0, 11))));
+
+		while (searchTicker.getVisited().isEmpty())
+			searchTicker.tick();
+		assertTrue(searchTicker.getVisited().contains(new Node(new Point(0, 0))));
+
+		searchTicker.reset(DIJ, start, end);
+		while (!searchTicker.isPathComplete())
+			searchTicker.tick();
+		assertEquals(first, searchTicker.getPath());
+	}
+
+	/**
+	 * Tests that a bidirectional search expands from each end in turn, and joins the two sides into a path
+	 * from the start to the end that is as cheap as Dijkstra's.
+	 */
+	@Test
+	public void testBidirectional() throws Exception {
+		setGraph(WorldGraphBasic.getRealWorld("aStar1"));
+		Node start = graph.getNode(new Point(0, 11));
+		Node end = graph.getNode(new Point(0, 0));
+
+		searchTicker.reset(DIJ, start, end);
+		while (!searchTicker.isPathComplete())
+			searchTicker.tick();
+		float optimal = pathCost(searchTicker.getPath());
+
+		for (SearchAlgorithm algorithm : new SearchAlgorithm[]{SearchAlgorithm.BIDIRECTIONAL_DIJKSTRA, SearchAlgorithm.BIDIRECTIONAL_A_STAR}) {
+			searchTicker.reset(algorithm, start, end);
+			assertTrue(searchTicker.getFrontier().contains(start));
+			assertTrue(searchTicker.getBackwardFrontier().contains(end));
+
+			searchTicker.tick();
+			assertTrue(searchTicker.getVisited().contains(start));
+			assertTrue(searchTicker.getBackwardVisited().isEmpty());
+			searchTicker.tick();
+			assertTrue(searchTicker.getBackwardVisited().contains(end));
+
+			while (!searchTicker.isPathComplete())
+				searchTicker.tick();
+			List<Node> path = searchTicker.getPath();
+			assertEquals(start, path.get(0));
+			assertEquals(end, path.get(path.size() - 1));
+			assertEquals(optimal, pathCost(path), TestConstants.EQ_THRESHOLD);
+		}
+
+		// nothing is left behind for a search in one direction
+		searchTicker.reset(AS, start, end);
+		searchTicker.tick();
+		assertTrue(searchTicker.getBackwardFrontier().isEmpty());
+		assertTrue(searchTicker.getBackwardVisited().isEmpty());
+	}
+
+	private static float pathCost(List<Node> path) {
+		float cost = 0;
+		for (int i = 0; i < path.size() - 1; i++)
+			cost += path.get(i).getEdgeCost(path.get(i + 1));
+		return cost;
+	}
+
+	/**
+	 * Tests that {@link PathService} finds exactly the same paths as a {@link SearchTicker},
+	 * for every algorithm between many pairs of nodes.
+	 */
+	@Test
+	public void testMatchesPathService() throws Exception {
+		setGraph(WorldGraphBasic.getRealWorld("aStar1"));
+		PathService service = new PathService();
+		CompactGraph compact = graph.compact();
+
+		for (int i = 0; i < 25; i++) {
+			Node start = graph.getRandomNode();
+			Node end = graph.getRandomNode();
+
+			for (SearchAlgorithm algorithm : SearchAlgorithm.values()) {
+				searchTicker.reset(algorithm, start, end);
+				while (!searchTicker.isPathComplete())
+					searchTicker.tick();
+
+				List<Point> expected = new ArrayList<>();
+				for (Node node : searchTicker.getPath())
+					expected.add(node.getPoint());
+
+				assertEquals(algorithm + " from " + start + " to " + end,
+						expected, service.findPath(graph, start, end, algorithm).getPath());
+				assertEquals(expected, service.findPath(compact, start, end, algorithm).getPath());
+			}
+		}
+	}
+
 	/**
 	 * Prints a path to {@link System#err}.
 	 *
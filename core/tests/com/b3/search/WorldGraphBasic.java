@@ -42,13 +42,33 @@ public class WorldGraphBasic {
 	 * @throws Exception If the map is unloadable or reflection fails or dolphins fly.
 	 */
 	public static WorldGraph getRealWorld(String mapName) throws Exception {
+		return getRealWorldFromFile("tests/resources/test-worlds/" + mapName + ".tmx");
+	}
+
+	/**
+	 * Load any {@code .tmx} file into a {@link WorldGraph}.
+	 * @param path The path of the {@code .tmx} file, relative to the working directory.
+	 * @return A newly generated {@link WorldGraph} with the map loaded in.
+	 * @throws Exception If the map is unloadable or reflection fails.
+	 */
+	public static WorldGraph getRealWorldFromFile(String path) throws Exception {
+		return getRealWorld(new TmxMapLoaderBasic().load(path));
+	}
+
+	/**
+	 * Process an already loaded map into a new {@link WorldGraph},
+	 * in the same way as {@link World} does.
+	 * @param map The loaded map.
+	 * @return A newly generated {@link WorldGraph} with the map processed into it.
+	 * @throws Exception If reflection fails.
+	 */
+	public static WorldGraph getRealWorld(TiledMap map) throws Exception {
 		// Create a World object without calling the constructor.
 		ReflectionFactory rf = ReflectionFactory.getReflectionFactory();
 		Constructor objDef = Object.class.getDeclaredConstructor();
 		Constructor intConstr = rf.newConstructorForSerialization(World.class, objDef);
 		World world = World.class.cast(intConstr.newInstance());
 		
-		TiledMap map = new TmxMapLoaderBasic().load("tests/resources/test-worlds/" + mapName + ".tmx");
 		WorldGraph graph = new WorldGraph(
 				(int) map.getProperties().get("width"),
 				(int) map.getProperties().get("height")
@@ -0,0 +1,110 @@
+package com.b3.search.util;
+
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link IntBucketQueue} class.
+ *
+ * @author dxw405
+ */
+public class IntBucketQueueTest {
+
+	/**
+	 * Tests that integers are taken in exactly the same order as from a heap, as a Dijkstra-like search adds them
+	 * and lowers their priorities
+	 */
+	@Test
+	public void testMatchesHeap() {
+		Random random = new Random(4105);
+		IntBucketQueue buckets = new IntBucketQueue(10, 0);
+		IntPriorityQueue heap = new IntPriorityQueue(0);
+		float[] priorities = new float[500];
+
+		for (int run = 0; run < 20; run++) {
+			buckets.clear();
+			heap.clear();
+			buckets.add(0, 0f);
+			heap.add(0, 0f);
+
+			for (int added = 0; !heap.isEmpty(); ) {
+				assertEquals(heap.size(), buckets.size());
+				assertEquals(heap.peekPriority(), buckets.peekPriority(), 0f);
+				int taken = heap.take();
+				assertEquals(taken, buckets.take());
+				assertFalse(buckets.contains(taken));
+				float base = priorities[taken];
+
+				// priorities within the span of the one taken, some lower than already held
+				for (int i = 0; i < 3 && added < 2000 && random.nextInt(4) > 0; i++, added++) {
+					int e = random.nextInt(priorities.length);
+					float priority = base + 1 + random.nextInt(10);
+					if (heap.contains(e) && priority > priorities[e])
+						continue;
+
+					priorities[e] = priority;
+					heap.add(e, priority);
+					buckets.add(e, priority);
+					assertTrue(buckets.contains(e));
+				}
+			}
+
+			assertTrue(buckets.isEmpty());
+			assertEquals(Float.POSITIVE_INFINITY, buckets.peekPriority(), 0f);
+		}
+	}
+
+	/**
+	 * Tests that ties are taken first-in-first-out, and that the order of what is held can be read
+	 */
+	@Test
+	public void testOrder() {
+		IntBucketQueue queue = new IntBucketQueue(5, 4);
+		queue.add(7, 3f);
+		queue.add(2, 1f);
+		queue.add(9, 3f);
+		queue.add(4, 2f);
+		queue.add(7, 2f);
+		queue.add(2, 1f);
+
+		assertArrayEquals(new int[]{2, 4, 7, 9}, queue.sortedOrder());
+		assertTrue(queue.remove(4));
+		assertFalse(queue.remove(4));
+		assertArrayEquals(new int[]{2, 7, 9}, queue.sortedOrder());
+		assertEquals(2, queue.take());
+		assertEquals(7, queue.take());
+		assertEquals(9, queue.take());
+
+		try {
+			queue.take();
+			fail();
+		} catch (NoSuchElementException ignored) {
+		}
+	}
+
+	/**
+	 * Tests that priorities that cannot be held in the ring are rejected, without changing the queue
+	 */
+	@Test
+	public void testRejected() {
+		IntBucketQueue queue = new IntBucketQueue(10, 0);
+		queue.add(1, 100f);
+
+		for (float priority : new float[]{1.5f, -1f, 116f, 84f}) {
+			try {
+				queue.add(2, priority);
+				fail("Accepted " + priority);
+			} catch (IllegalArgumentException ignored) {
+			}
+		}
+
+		assertFalse(queue.contains(2));
+		assertEquals(1, queue.size());
+		assertEquals(1, queue.take());
+	}
+
+}
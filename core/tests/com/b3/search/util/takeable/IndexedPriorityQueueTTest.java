@@ -0,0 +1,98 @@
+package com.b3.search.util.takeable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link IndexedPriorityQueueT} class.
+ *
+ * @author bxd428
+ */
+public class IndexedPriorityQueueTTest {
+
+	private Map<String, Float> priorities;
+	private IndexedPriorityQueueT<String> queue;
+
+	@Before
+	public void setUp() {
+		priorities = new HashMap<>();
+		queue = new IndexedPriorityQueueT<>(priorities::get);
+	}
+
+	private void add(String element, float priority) {
+		priorities.put(element, priority);
+		queue.add(element);
+	}
+
+	/**
+	 * Tests that elements are taken in priority order,
+	 * with ties taken in insertion order.
+	 */
+	@Test
+	public void testTakeOrder() {
+		add("c", 3);
+		add("a", 1);
+		add("b1", 2);
+		add("d", 4);
+		add("b2", 2);
+
+		assertEquals("a", queue.peek());
+		assertEquals(Arrays.asList("a", "b1", "b2", "c", "d"), queue.sortedOrder());
+
+		List<String> taken = new ArrayList<>();
+		while (!queue.isEmpty())
+			taken.add(queue.take());
+
+		assertEquals(Arrays.asList("a", "b1", "b2", "c", "d"), taken);
+		assertNull(queue.take());
+	}
+
+	/**
+	 * Tests the {@link IndexedPriorityQueueT#update(Object)} method,
+	 * in both directions.
+	 */
+	@Test
+	public void testUpdate() {
+		add("a", 1);
+		add("b", 5);
+		add("c", 10);
+
+		priorities.put("c", 0f);
+		queue.update("c");
+		assertEquals("c", queue.peek());
+
+		priorities.put("c", 7f);
+		queue.update("c");
+		assertEquals("a", queue.take());
+		assertEquals("b", queue.take());
+		assertEquals("c", queue.take());
+	}
+
+	/**
+	 * Tests {@link IndexedPriorityQueueT#contains(Object)} and
+	 * {@link IndexedPriorityQueueT#remove(Object)}.
+	 */
+	@Test
+	public void testContainsAndRemove() {
+		for (int i = 0; i < 100; i++)
+			add("n" + i, (i * 37) % 101);
+
+		assertTrue(queue.contains("n50"));
+		assertTrue(queue.remove("n50"));
+		assertFalse(queue.contains("n50"));
+		assertFalse(queue.remove("n50"));
+		assertEquals(99, queue.size());
+
+		float last = Float.NEGATIVE_INFINITY;
+		while (!queue.isEmpty()) {
+			float priority = priorities.get(queue.take());
+			assertTrue("Taken out of order", priority >= last);
+			last = priority;
+		}
+	}
+
+}
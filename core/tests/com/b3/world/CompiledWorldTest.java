@@ -0,0 +1,173 @@
+package com.b3.world;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoaderBasic;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link CompiledWorld} class.
+ *
+ * @author dxw405
+ */
+public class CompiledWorldTest {
+
+	private static final String MAP = "assets/world/world_smaller_test.tmx";
+
+	/**
+	 * Tests that a compiled map that has been written and read again holds the same tiles, objects and costs as the map
+	 */
+	@Test
+	public void testReadWrite() throws Exception {
+		TiledMap map = new TmxMapLoaderBasic().load(MAP);
+		long checksum = CompiledWorld.checksum(Files.readAllBytes(new File(MAP).toPath()));
+
+		File file = File.createTempFile("world", CompiledWorld.EXTENSION);
+		file.deleteOnExit();
+		CompiledWorld.compile(map, checksum).write(file);
+		CompiledWorld compiled = CompiledWorld.read(file);
+
+		assertEquals(checksum, compiled.getChecksum());
+		assertEquals(map.getLayers().getCount(), compiled.getLayerCount());
+
+		int buildings = 0;
+		for (int i = 0; i < compiled.getLayerCount(); i++) {
+			MapLayer layer = map.getLayers().get(i);
+			if (layer instanceof TiledMapTileLayer) {
+				TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+				for (int y = 0; y < tileLayer.getHeight(); y++)
+					for (int x = 0; x < tileLayer.getWidth(); x++)
+						assertEquals(CompiledWorld.encodeCell(tileLayer.getCell(x, y)), compiled.getCell(i, x, y));
+				continue;
+			}
+
+			List<Map<String, Object>> objects = compiled.getObjects(i);
+			assertEquals(layer.getObjects().getCount(), objects.size());
+			for (int j = 0; j < objects.size(); j++) {
+				MapObject object = layer.getObjects().get(j);
+				for (Iterator<String> keys = object.getProperties().getKeys(); keys.hasNext(); ) {
+					String key = keys.next();
+					assertEquals(object.getProperties().get(key), objects.get(j).get(key));
+				}
+			}
+			if (layer.getName().equals("buildings"))
+				buildings += objects.size();
+		}
+		assertEquals(1, buildings);
+
+		TileCostRaster expected = TileCostRaster.compile(map);
+		TileCostRaster actual = compiled.getTileCosts();
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(expected.isRemoved(x, y), actual.isRemoved(x, y));
+				assertEquals(expected.getEastCost(x, y), actual.getEastCost(x, y), 0f);
+				assertEquals(expected.getNorthCost(x, y), actual.getNorthCost(x, y), 0f);
+			}
+		}
+	}
+
+	/**
+	 * Tests that the cells of a chunk are removed from every streamed layer when unloaded, and restored from the
+	 * compiled file when loaded again
+	 */
+	@Test
+	public void testLoadCells() throws Exception {
+		TiledMap map = new TmxMapLoaderBasic().load(MAP);
+		TiledMap original = new TmxMapLoaderBasic().load(MAP);
+
+		File file = File.createTempFile("world", CompiledWorld.EXTENSION);
+		file.deleteOnExit();
+		CompiledWorld.compile(map, 0).write(file);
+		CompiledWorld compiled = CompiledWorld.read(file);
+
+		compiled.unloadCells(map, 5, 5, 20, 20);
+		for (MapLayer layer : map.getLayers()) {
+			if (!(layer instanceof TiledMapTileLayer))
+				continue;
+
+			TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+			TiledMapTileLayer originalLayer = (TiledMapTileLayer) original.getLayers().get(layer.getName());
+			for (int y = 0; y < tileLayer.getHeight(); y++) {
+				for (int x = 0; x < tileLayer.getWidth(); x++) {
+					boolean inChunk = x >= 5 && x < 25 && y >= 5 && y < 25;
+					if (inChunk && CompiledWorld.isStreamed(layer))
+						assertNull(tileLayer.getCell(x, y));
+					else
+						assertEquals(originalLayer.getCell(x, y) == null, tileLayer.getCell(x, y) == null);
+				}
+			}
+		}
+
+		compiled.loadCells(map, 5, 5, 20, 20);
+		for (int i = 0; i < compiled.getLayerCount(); i++) {
+			if (!(map.getLayers().get(i) instanceof TiledMapTileLayer))
+				continue;
+
+			TiledMapTileLayer tileLayer = (TiledMapTileLayer) map.getLayers().get(i);
+			TiledMapTileLayer originalLayer = (TiledMapTileLayer) original.getLayers().get(i);
+			for (int y = 0; y < tileLayer.getHeight(); y++)
+				for (int x = 0; x < tileLayer.getWidth(); x++)
+					assertEquals(CompiledWorld.encodeCell(originalLayer.getCell(x, y)),
+							CompiledWorld.encodeCell(tileLayer.getCell(x, y)));
+		}
+
+		// cells are shared rather than allocated again
+		TiledMapTileLayer ground = (TiledMapTileLayer) map.getLayers().get(0);
+		TiledMapTileLayer.Cell cell = ground.getCell(10, 10);
+		assertNotNull(cell);
+		compiled.unloadCells(map, 0, 0, 20, 20);
+		compiled.loadCells(map, 0, 0, 20, 20);
+		assertSame(cell, ground.getCell(10, 10));
+	}
+
+	/**
+	 * Tests that a changed TMX file changes the checksum, and that invalid files are rejected
+	 */
+	@Test
+	public void testInvalid() throws Exception {
+		byte[] tmx = Files.readAllBytes(new File(MAP).toPath());
+		long checksum = CompiledWorld.checksum(tmx);
+		assertEquals(checksum, CompiledWorld.checksum(tmx.clone()));
+		tmx[tmx.length / 2]++;
+		assertNotEquals(checksum, CompiledWorld.checksum(tmx));
+
+		assertEquals(new File(MAP + CompiledWorld.EXTENSION), CompiledWorld.getCompiledFile(new FileHandle(new File(MAP))));
+
+		// not compiled at all
+		File file = File.createTempFile("world", CompiledWorld.EXTENSION);
+		file.deleteOnExit();
+		Files.write(file.toPath(), tmx);
+		assertUnreadable(file);
+
+		// cut short
+		CompiledWorld.compile(new TmxMapLoaderBasic().load(MAP), checksum).write(file);
+		try (RandomAccessFile truncate = new RandomAccessFile(file, "rw")) {
+			truncate.setLength(truncate.length() / 2);
+		}
+		assertUnreadable(file);
+	}
+
+	private static void assertUnreadable(File file) {
+		try {
+			CompiledWorld.read(file);
+			fail("Read invalid compiled world");
+		} catch (IOException ignored) {
+		}
+	}
+
+}
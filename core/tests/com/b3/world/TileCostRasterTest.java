@@ -0,0 +1,155 @@
+package com.b3.world;
+
+import com.b3.search.Graph;
+import com.b3.search.GraphListener;
+import com.b3.search.Node;
+import com.b3.search.Point;
+import com.b3.search.WorldGraph;
+import com.b3.search.WorldGraphBasic;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoaderBasic;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link TileCostRaster} class.
+ *
+ * @author dxw405
+ */
+public class TileCostRasterTest {
+
+	/**
+	 * Tests that applying the raster of a real map gives the same graph as processing its tiles one by one
+	 */
+	@Test
+	public void testMatchesTileProcessing() throws Exception {
+		TiledMap map = new TmxMapLoaderBasic().load("tests/resources/test-worlds/aStar1.tmx");
+		WorldGraph actual = WorldGraphBasic.getRealWorld(map);
+
+		int width = (int) map.getProperties().get("width");
+		int height = (int) map.getProperties().get("height");
+		Graph expected = new Graph(width, height);
+		processTiles(map, expected);
+
+		assertEquals(expected.getNodes().keySet(), actual.getNodes().keySet());
+		for (Node node : expected.getNodes().values())
+			assertEquals(node.getEdges(), actual.getNode(node.getPoint()).getEdges());
+
+		TileCostRaster raster = TileCostRaster.compile(map);
+		assertEquals(width, raster.getWidth());
+		assertEquals(height, raster.getHeight());
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				assertEquals(raster.isRemoved(x, y), !actual.hasNode(new Point(x, y)));
+	}
+
+	/**
+	 * Tests that restoring the nodes under a building and applying the raster around them gives the same graph as
+	 * processing the whole map
+	 */
+	@Test
+	public void testRestoreRectangle() throws Exception {
+		TiledMap map = new TmxMapLoaderBasic().load("tests/resources/test-worlds/aStar1.tmx");
+		WorldGraph expected = WorldGraphBasic.getRealWorld(map);
+		WorldGraph actual = WorldGraphBasic.getRealWorld(map);
+		TileCostRaster raster = TileCostRaster.compile(map);
+
+		Random random = new Random(4105);
+		for (int i = 0; i < 50; i++) {
+			int x = random.nextInt(raster.getWidth() - 3);
+			int y = random.nextInt(raster.getHeight() - 3);
+			actual.snipEdges(x, 4, y, 4);
+			actual.addNodesInSquare(x, y, 4);
+			raster.apply(actual, x, y, 4, 4);
+		}
+
+		assertEquals(expected.getNodes().keySet(), actual.getNodes().keySet());
+		for (Node node : expected.getNodes().values())
+			assertEquals(node.getEdges(), actual.getNode(node.getPoint()).getEdges());
+	}
+
+	/**
+	 * Tests that listeners are told once about a bulk edit, and not about each edit in it
+	 */
+	@Test
+	public void testBulkEdit() throws Exception {
+		TiledMap map = new TmxMapLoaderBasic().load("tests/resources/test-worlds/aStar1.tmx");
+		Graph graph = new Graph((int) map.getProperties().get("width"), (int) map.getProperties().get("height"));
+		long version = graph.getVersion();
+
+		int[] calls = new int[2];
+		graph.addListener(new GraphListener() {
+			@Override
+			public void nodeRemoved(Node node) {
+				calls[0]++;
+			}
+
+			@Override
+			public void edgeCostChanged(Node node1, Node node2, float oldCost, float newCost) {
+				calls[0]++;
+			}
+
+			@Override
+			public void graphEdited() {
+				calls[1]++;
+			}
+		});
+
+		TileCostRaster.compile(map).apply(graph);
+		assertEquals(0, calls[0]);
+		assertEquals(1, calls[1]);
+		assertNotEquals(version, graph.getVersion());
+
+		// and individually afterwards
+		Node node = graph.getRandomNode();
+		graph.removeNode(node);
+		assertTrue(calls[0] > 0);
+		assertEquals(1, calls[1]);
+	}
+
+	/**
+	 * Processes the tiles of a map one at a time, editing the graph as it goes, as maps were once processed
+	 */
+	private static void processTiles(TiledMap map, Graph graph) {
+		for (MapLayer layer : map.getLayers()) {
+			if (!layer.isVisible() || !(layer instanceof TiledMapTileLayer))
+				continue;
+
+			TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+			boolean objectLayer = layer.getName().equals("objects");
+			boolean cutLayer = layer.getName().equals("cut");
+
+			for (int y = 0; y < tileLayer.getHeight(); y++) {
+				for (int x = 0; x < tileLayer.getWidth(); x++) {
+					TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
+					if (cell == null)
+						continue;
+
+					TileType type = TileType.getFromCell(cell);
+					if (!cutLayer && !objectLayer && type == TileType.UNKNOWN)
+						continue;
+
+					Node node = graph.getNode(new Point(x, y));
+					if (node == null)
+						continue;
+
+					if (!type.shouldHaveNode() || cutLayer)
+						graph.removeNode(node);
+					else
+						for (int i = 0, n = node.getNeighbourCount(); i < n; i++) {
+							Node neighbour = node.getNeighbour(i);
+							TileType t = TileType.getFromCell(tileLayer.getCell(neighbour.getPoint().x, neighbour.getPoint().y));
+							if (type.getCost() >= t.getCost() || t == type)
+								node.setEdgeCost(neighbour, type.getCost());
+						}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.b3.world;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link WorldChunks} class.
+ *
+ * @author dxw405
+ */
+public class WorldChunksTest {
+
+	private static final int SIZE = WorldChunks.CHUNK_SIZE;
+
+	/**
+	 * Tests that only the chunks around the view and agents stay active, and that listeners are told about each
+	 * change once
+	 */
+	@Test
+	public void testUpdate() throws Exception {
+		// 10x5 chunks, the last column and row cut short
+		WorldChunks chunks = new WorldChunks(SIZE * 10 - 3, SIZE * 5 - 3);
+		assertEquals(50, chunks.getChunkCount());
+		assertEquals(0, chunks.getActiveCount());
+
+		List<int[]> activated = new ArrayList<>();
+		List<int[]> evicted = new ArrayList<>();
+		chunks.addListener(new ChunkListener() {
+			@Override
+			public void chunkActivated(int x, int y, int width, int height) {
+				activated.add(new int[]{x, y, width, height});
+			}
+
+			@Override
+			public void chunkEvicted(int x, int y, int width, int height) {
+				evicted.add(new int[]{x, y, width, height});
+			}
+		});
+
+		// a view inside a single chunk, with a border of one chunk
+		Rectangle view = new Rectangle(SIZE * 2 + 1, SIZE * 2 + 1, 2, 2);
+		chunks.update(view, Collections.emptyList());
+		assertEquals(9, chunks.getActiveCount());
+		assertEquals(9, activated.size());
+		assertEquals(0, evicted.size());
+		assertTrue(chunks.isActive(SIZE, SIZE));
+		assertTrue(chunks.isActive(SIZE * 4 - 1, SIZE * 4 - 1));
+		assertFalse(chunks.isActive(SIZE * 4, SIZE * 2));
+		assertFalse(chunks.isActive(0, 0));
+
+		// outside of the world is always active
+		assertTrue(chunks.isActive(-1, 0));
+		assertTrue(chunks.isActive(SIZE * 10, 0));
+
+		// the same again changes nothing
+		activated.clear();
+		chunks.update(view, Collections.emptyList());
+		assertEquals(0, activated.size());
+		assertEquals(0, evicted.size());
+
+		// an agent in the top right corner, whose chunks are cut short by the edge of the world
+		chunks.update(view, Collections.singletonList(new Vector2(SIZE * 10 - 4, SIZE * 5 - 4)));
+		assertEquals(13, chunks.getActiveCount());
+		assertEquals(4, activated.size());
+		assertTrue(chunks.isActive(SIZE * 9, SIZE * 4));
+		for (int[] chunk : activated) {
+			assertEquals(0, chunk[0] % SIZE);
+			assertEquals(0, chunk[1] % SIZE);
+			assertEquals(chunk[0] == SIZE * 9 ? SIZE - 3 : SIZE, chunk[2]);
+			assertEquals(chunk[1] == SIZE * 4 ? SIZE - 3 : SIZE, chunk[3]);
+		}
+
+		// the agent leaving
+		activated.clear();
+		chunks.update(view, Collections.emptyList());
+		assertEquals(9, chunks.getActiveCount());
+		assertEquals(0, activated.size());
+		assertEquals(4, evicted.size());
+		assertFalse(chunks.isActive(SIZE * 9, SIZE * 4));
+
+		// the view covering the whole world
+		evicted.clear();
+		chunks.update(new Rectangle(-5, -5, SIZE * 20, SIZE * 20), Collections.emptyList());
+		assertEquals(50, chunks.getActiveCount());
+		assertEquals(41, activated.size());
+		assertEquals(0, evicted.size());
+	}
+
+}
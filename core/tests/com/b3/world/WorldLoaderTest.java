@@ -0,0 +1,68 @@
+package com.b3.world;
+
+import com.b3.search.Node;
+import com.b3.search.WorldGraph;
+import com.b3.search.WorldGraphBasic;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoaderBasic;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the {@link WorldLoader} class.
+ *
+ * @author dxw405
+ */
+public class WorldLoaderTest {
+
+	/**
+	 * Tests that the graph is only loaded in the background once the map has been compiled, and that it is then the
+	 * same as the graph processed from the map
+	 */
+	@Test
+	public void testLoad() throws Exception {
+		File tmx = File.createTempFile("world", ".tmx");
+		File compiledFile = CompiledWorld.getCompiledFile(new FileHandle(tmx));
+		tmx.deleteOnExit();
+		compiledFile.deleteOnExit();
+		Files.copy(new File("assets/world/world_smaller_test.tmx").toPath(), tmx.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		// not compiled yet
+		WorldLoader loader = new WorldLoader(new FileHandle(tmx)).loadNow();
+		assertTrue(loader.isLoaded());
+		assertEquals(1f, loader.getProgress(), 0f);
+		assertNull(loader.getCompiledWorld());
+		assertNull(loader.getWorldGraph());
+
+		TiledMap map = new TmxMapLoaderBasic().load(tmx.getPath());
+		CompiledWorld.compile(map, loader.getChecksum()).write(compiledFile);
+
+		// in the background
+		loader = new WorldLoader(new FileHandle(tmx)).start();
+		long timeout = System.currentTimeMillis() + 10000;
+		while (!loader.isLoaded() && loader.getError() == null && System.currentTimeMillis() < timeout)
+			Thread.sleep(10);
+		assertNull(loader.getError());
+		assertTrue(loader.isLoaded());
+		assertNotNull(loader.getCompiledWorld());
+
+		WorldGraph expected = WorldGraphBasic.getRealWorld(map);
+		WorldGraph actual = loader.getWorldGraph();
+		assertEquals(expected.getNodes().keySet(), actual.getNodes().keySet());
+		for (Node node : expected.getNodes().values())
+			assertEquals(node.getEdges(), actual.getNode(node.getPoint()).getEdges());
+
+		// out of date
+		Files.write(tmx.toPath(), "\n".getBytes(), StandardOpenOption.APPEND);
+		loader = new WorldLoader(new FileHandle(tmx)).loadNow();
+		assertNull(loader.getCompiledWorld());
+	}
+
+}